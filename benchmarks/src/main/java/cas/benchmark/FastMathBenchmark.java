@@ -0,0 +1,87 @@
+package cas.benchmark;
+
+import cas.FastMath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Compares the elementary functions of java.lang.Math with the approximations of FastMath over an array of inputs
+ *
+ * @author Kennan LeJeune
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class FastMathBenchmark {
+    /**
+     * The functions which FastMath approximates, each with its exact and approximate form
+     */
+    public enum Kernel {
+        SIN(Math::sin, FastMath::sin),
+        COS(Math::cos, FastMath::cos),
+        EXP(Math::exp, FastMath::exp),
+        LOG(Math::log, FastMath::log),
+        CUBE(x -> Math.pow(x, 3), x -> FastMath.pow(x, 3)),
+        POWER_2_5(x -> Math.pow(x, 2.5), x -> FastMath.pow(x, 2.5)),
+        INVERSE_SQUARE(x -> Math.pow(x, -2), x -> FastMath.pow(x, -2));
+
+        //the method of java.lang.Math, and the approximation of FastMath
+        private final DoubleUnaryOperator exact;
+        private final DoubleUnaryOperator fast;
+
+        /**
+         * @param exact The method of java.lang.Math
+         * @param fast  The approximation of FastMath
+         */
+        Kernel(DoubleUnaryOperator exact, DoubleUnaryOperator fast) {
+            this.exact = exact;
+            this.fast = fast;
+        }
+    }
+
+    //the function to be computed
+    @Param({"SIN", "COS", "EXP", "LOG", "CUBE", "POWER_2_5", "INVERSE_SQUARE"})
+    public Kernel kernel;
+
+    //the inputs, and the result at each input
+    private final double[] inputs = Workloads.inputs(1024);
+    private final double[] outputs = new double[inputs.length];
+
+    /**
+     * @return The function at each input, computed by java.lang.Math
+     */
+    @Benchmark
+    public double[] exact() {
+        DoubleUnaryOperator function = kernel.exact;
+        for (int i = 0; i < inputs.length; i++) {
+            outputs[i] = function.applyAsDouble(inputs[i]);
+        }
+        return outputs;
+    }
+
+    /**
+     * @return The function at each input, computed by FastMath
+     */
+    @Benchmark
+    public double[] fast() {
+        DoubleUnaryOperator function = kernel.fast;
+        for (int i = 0; i < inputs.length; i++) {
+            outputs[i] = function.applyAsDouble(inputs[i]);
+        }
+        return outputs;
+    }
+}
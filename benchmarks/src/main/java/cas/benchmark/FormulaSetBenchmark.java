@@ -0,0 +1,114 @@
+package cas.benchmark;
+
+import cas.CompactExpression;
+import cas.FormulaSet;
+import cas.Function;
+import cas.FunctionParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures evaluating many formulas parsed from text, which share a few subterms, one by one and together as a
+ * FormulaSet
+ *
+ * @author Kennan LeJeune
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class FormulaSetBenchmark {
+    //the subterms from which the formulas are made
+    private static final String[] SUBTERMS = {"Sin[x]", "Cos[x]", "x^2.0", "Log[x + 1.0]", "Exp[x / 2.0]",
+            "Sin[x^2.0]"};
+
+    //the number of formulas
+    @Param({"10000"})
+    public int count;
+
+    //the formulas, their compact forms, and the set of all of them
+    private Function[] formulas;
+    private CompactExpression[] expressions;
+    private FormulaSet set;
+
+    //the value of each formula
+    private double[] outputs;
+
+    /**
+     * Parses the formulas, each the product of two random subterms plus a third divided by a constant
+     */
+    @Setup(Level.Trial)
+    public void parse() {
+        Random random = new Random(42);
+        List<Function> parsed = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String a = SUBTERMS[random.nextInt(SUBTERMS.length)];
+            String b = SUBTERMS[random.nextInt(SUBTERMS.length)];
+            String c = SUBTERMS[random.nextInt(SUBTERMS.length)];
+            parsed.add(FunctionParser.parse("(" + a + " * " + b + ") + (" + c + " / " + (i % 100 + 1.0) + ")"));
+        }
+        formulas = parsed.toArray(new Function[0]);
+        expressions = new CompactExpression[count];
+        for (int i = 0; i < count; i++) {
+            expressions[i] = CompactExpression.of(formulas[i]);
+        }
+        set = new FormulaSet(parsed);
+        outputs = new double[count];
+    }
+
+    /**
+     * @return The value of every formula, evaluated through its tree
+     */
+    @Benchmark
+    public double[] oneByOne() {
+        for (int i = 0; i < outputs.length; i++) {
+            outputs[i] = formulas[i].value(0.75);
+        }
+        return outputs;
+    }
+
+    /**
+     * @return The value of every formula, evaluated through its own compact form
+     */
+    @Benchmark
+    public double[] compactOneByOne() {
+        for (int i = 0; i < outputs.length; i++) {
+            outputs[i] = expressions[i].value(0.75);
+        }
+        return outputs;
+    }
+
+    /**
+     * @return The value of every formula, evaluated together with each shared subterm computed once
+     */
+    @Benchmark
+    public double[] formulaSet() {
+        set.evaluate(0.75, outputs);
+        return outputs;
+    }
+
+    /**
+     * @return The set of the formulas, built from their trees
+     */
+    @Benchmark
+    public FormulaSet build() {
+        return new FormulaSet(formulas);
+    }
+}
@@ -0,0 +1,155 @@
+package cas.benchmark;
+
+import cas.Function;
+import cas.Number;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the hot paths of the Function hierarchy on seeded random trees of varying depth, width and operator mix
+ * Every tree is generated from the seed parameter, so a run with the same parameters measures the same trees on every
+ * release.  Run the benchmarks jar with -rf json -rff results.json to write the results in a machine-readable form,
+ * and with -p to select a subset of the parameters
+ *
+ * @author Kennan LeJeune
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class FunctionBenchmark {
+    //the seed from which the trees are generated
+    @Param({"132"})
+    public long seed;
+
+    //the depth of each term of the trees
+    @Param({"4", "8", "12"})
+    public int depth;
+
+    //the number of terms added together in the trees
+    @Param({"1", "8"})
+    public int width;
+
+    //the mix of operators of the trees
+    @Param({"ARITHMETIC", "MIXED", "TRANSCENDENTAL"})
+    public RandomTree.Mix mix;
+
+    //the recipe of the trees
+    private RandomTree recipe;
+
+    //a tree of the variable
+    private Function function;
+
+    //a tree equal to the first, built from separate nodes
+    private Function copy;
+
+    //the same tree with a constant in place of the variable, which can be evaluated without an input
+    private Function constant;
+
+    //the input at which the tree is evaluated
+    private double input;
+
+    /**
+     * Generates the trees of the parameters
+     */
+    @Setup(Level.Trial)
+    public void generate() {
+        recipe = RandomTree.generate(seed, depth, width, mix);
+        function = recipe.build();
+        copy = recipe.build();
+        constant = recipe.build(new Number(0.75));
+        input = 0.75;
+    }
+
+    /**
+     * Holds a tree which is built again before every invocation, so that its derivative has not been cached
+     */
+    @State(Scope.Thread)
+    public static class FreshTree {
+        //the tree, whose derivative has never been computed
+        private Function function;
+
+        /**
+         * Builds the tree of the parameters of the benchmark
+         *
+         * @param benchmark The state of the benchmark, which holds the recipe of the tree
+         */
+        @Setup(Level.Invocation)
+        public void build(FunctionBenchmark benchmark) {
+            function = benchmark.recipe.build();
+        }
+    }
+
+    /**
+     * @return The value of the tree at an input
+     */
+    @Benchmark
+    public double valueAtInput() {
+        return function.value(input);
+    }
+
+    /**
+     * @return The value of the tree with a constant in place of the variable
+     */
+    @Benchmark
+    public double valueWithoutInput() {
+        return constant.value();
+    }
+
+    /**
+     * @param fresh A tree whose derivative has never been computed
+     * @return The derivative of the tree
+     */
+    @Benchmark
+    public Function derivative(FreshTree fresh) {
+        return fresh.function.derivative();
+    }
+
+    /**
+     * @return The derivative of the tree once it has been cached
+     */
+    @Benchmark
+    public Function cachedDerivative() {
+        return function.derivative();
+    }
+
+    /**
+     * @return Whether the tree equals a copy of itself made of separate nodes
+     */
+    @Benchmark
+    public boolean equalsCopy() {
+        return function.equals(copy);
+    }
+
+    /**
+     * @return The String representation of the tree
+     */
+    @Benchmark
+    public String toStringTree() {
+        return function.toString();
+    }
+
+    /**
+     * Builds the tree from its recipe, which constructs and simplifies every BinaryOp
+     *
+     * @return The root of the tree
+     */
+    @Benchmark
+    public Function construction() {
+        return recipe.build();
+    }
+}
@@ -0,0 +1,116 @@
+package cas.benchmark;
+
+import cas.BinaryOp;
+import cas.CompactExpression;
+import cas.Exp;
+import cas.Function;
+import cas.Number;
+import cas.Polynomial;
+import cas.Sin;
+import cas.Sum;
+import cas.Variable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the reverse mode gradient of functions of more and more variables against evaluating them once, and
+ * against the n + 1 evaluations of a forward difference gradient
+ *
+ * @author Kennan LeJeune
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class GradientBenchmark {
+    //the number of variables
+    @Param({"10", "100", "1000"})
+    public int variables;
+
+    //the sum of Sin[v_k * v_(k + 1)] + Exp[v_k] / (v_k^2.0 + 1.0) over the variables
+    private Function function;
+
+    //the compact form of the function
+    private CompactExpression expression;
+
+    //the value of each variable, a copy which forward differences shift, and the gradient
+    private double[] environment;
+    private double[] shifted;
+    private double[] gradient;
+
+    /**
+     * Builds the function of the parameters
+     */
+    @Setup(Level.Trial)
+    public void build() {
+        Variable[] v = new Variable[variables];
+        environment = new double[variables];
+        for (int k = 0; k < variables; k++) {
+            v[k] = new Variable("v" + k, k);
+            environment[k] = 0.5 + (double) k / variables;
+        }
+        Function[] terms = new Function[variables];
+        for (int k = 0; k < variables; k++) {
+            terms[k] = new BinaryOp(new Sin(new BinaryOp(v[k], v[(k + 1) % variables], BinaryOp.Op.MULT)),
+                    new BinaryOp(new Exp(v[k]), new BinaryOp(new Polynomial(v[k], 2), new Number(1),
+                            BinaryOp.Op.PLUS), BinaryOp.Op.DIV), BinaryOp.Op.PLUS);
+        }
+        function = new Sum(terms);
+        expression = CompactExpression.of(function);
+        shifted = environment.clone();
+        gradient = new double[variables];
+    }
+
+    /**
+     * @return The value of the function, evaluated through its tree
+     */
+    @Benchmark
+    public double evaluateTree() {
+        return function.evaluate(environment);
+    }
+
+    /**
+     * @return The value of the function, evaluated through its compact form
+     */
+    @Benchmark
+    public double evaluateCompact() {
+        return expression.evaluate(environment);
+    }
+
+    /**
+     * @return The gradient of the function by reverse mode differentiation
+     */
+    @Benchmark
+    public double[] gradient() {
+        expression.gradient(environment, gradient);
+        return gradient;
+    }
+
+    /**
+     * @return The gradient of the function by forward differences, shifting each variable in turn
+     */
+    @Benchmark
+    public double[] forwardDifferences() {
+        double value = expression.evaluate(shifted);
+        for (int k = 0; k < shifted.length; k++) {
+            shifted[k] += 1e-7;
+            gradient[k] = (expression.evaluate(shifted) - value) / 1e-7;
+            shifted[k] = environment[k];
+        }
+        return gradient;
+    }
+}
@@ -0,0 +1,135 @@
+package cas.benchmark;
+
+import cas.BinaryOp;
+import cas.Function;
+import cas.Number;
+import cas.Product;
+import cas.Sum;
+import cas.Variable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a long sum or product held as a chain of BinaryOps with the same operation held as one Sum or Product,
+ * for evaluation, comparison, printing and differentiation
+ *
+ * @author Kennan LeJeune
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class NaryBenchmark {
+    //the operator which combines the operands, PLUS or MULT
+    @Param({"PLUS", "MULT"})
+    public BinaryOp.Op operator;
+
+    //the number of operands
+    @Param({"2000"})
+    public int terms;
+
+    //whether the operation is a Sum or Product rather than a chain of BinaryOps
+    @Param({"false", "true"})
+    public boolean nary;
+
+    //the operands, each x times a different constant
+    private Function[] operands;
+
+    //the operation, and an equal operation built from separate nodes
+    private Function function;
+    private Function copy;
+
+    /**
+     * Builds the operation of the parameters and a copy of it
+     */
+    @Setup(Level.Trial)
+    public void build() {
+        Variable x = new Variable();
+        operands = new Function[terms];
+        for (int k = 0; k < terms; k++) {
+            operands[k] = new BinaryOp(x, new Number(1 + k / (double) terms), BinaryOp.Op.MULT);
+        }
+        function = operation();
+        copy = operation();
+    }
+
+    /**
+     * @return The operation of the parameters over the operands
+     */
+    private Function operation() {
+        if (nary) {
+            return operator == BinaryOp.Op.PLUS ? new Sum(operands) : new Product(operands);
+        }
+        Function chain = operands[0];
+        for (int k = 1; k < operands.length; k++) {
+            chain = new BinaryOp(chain, operands[k], operator);
+        }
+        return chain;
+    }
+
+    /**
+     * Holds an operation which is built again before every invocation, so that its derivative has not been cached
+     */
+    @State(Scope.Thread)
+    public static class FreshOperation {
+        //the operation, whose derivative has never been computed
+        private Function function;
+
+        /**
+         * Builds the operation of the parameters of the benchmark
+         *
+         * @param benchmark The state of the benchmark, which holds the operands
+         */
+        @Setup(Level.Invocation)
+        public void build(NaryBenchmark benchmark) {
+            function = benchmark.operation();
+        }
+    }
+
+    /**
+     * @return The value of the operation at an input
+     */
+    @Benchmark
+    public double valueAtInput() {
+        return function.value(0.5);
+    }
+
+    /**
+     * @return Whether the operation equals a copy of itself made of separate nodes
+     */
+    @Benchmark
+    public boolean equalsCopy() {
+        return function.equals(copy);
+    }
+
+    /**
+     * @return The String representation of the operation
+     */
+    @Benchmark
+    public String toStringOperation() {
+        return function.toString();
+    }
+
+    /**
+     * @param fresh An operation whose derivative has never been computed
+     * @return The derivative of the operation
+     */
+    @Benchmark
+    public Function derivative(FreshOperation fresh) {
+        return fresh.function.derivative();
+    }
+}
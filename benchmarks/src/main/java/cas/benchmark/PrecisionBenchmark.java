@@ -0,0 +1,82 @@
+package cas.benchmark;
+
+import cas.CompactExpression;
+import cas.Function;
+import cas.FunctionCompiler;
+import cas.Precision;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Compares CompactExpressions and compiled functions built with each Precision over an array of inputs
+ *
+ * @author Kennan LeJeune
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PrecisionBenchmark {
+    //the order of the derivative of the composite function to be evaluated, 0 for the function itself
+    @Param({"0", "2"})
+    public int order;
+
+    //how the elementary functions are computed
+    @Param({"EXACT", "FAST"})
+    public Precision precision;
+
+    //the compact and compiled forms of the function
+    private CompactExpression expression;
+    private DoubleUnaryOperator compiled;
+
+    //the inputs, and the value at each input
+    private final double[] inputs = Workloads.inputs(1024);
+    private final double[] outputs = new double[inputs.length];
+
+    /**
+     * Builds the compact and compiled forms of the function with the precision
+     */
+    @Setup(Level.Trial)
+    public void compile() {
+        Function function = Workloads.composite().derivative(order);
+        expression = CompactExpression.of(function, precision);
+        compiled = FunctionCompiler.compile(function, precision);
+    }
+
+    /**
+     * @return The value at each input of the compact form
+     */
+    @Benchmark
+    public double[] compact() {
+        for (int i = 0; i < inputs.length; i++) {
+            outputs[i] = expression.value(inputs[i]);
+        }
+        return outputs;
+    }
+
+    /**
+     * @return The value at each input of the compiled form
+     */
+    @Benchmark
+    public double[] compiled() {
+        for (int i = 0; i < inputs.length; i++) {
+            outputs[i] = compiled.applyAsDouble(inputs[i]);
+        }
+        return outputs;
+    }
+}
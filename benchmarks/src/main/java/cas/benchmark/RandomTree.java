@@ -0,0 +1,234 @@
+package cas.benchmark;
+
+import cas.BinaryOp;
+import cas.Cos;
+import cas.Exp;
+import cas.Function;
+import cas.Log;
+import cas.Number;
+import cas.Polynomial;
+import cas.Sin;
+import cas.Variable;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Represents the recipe of a randomly generated Function, recorded as a postfix list of nodes so that the same tree
+ * can be built again and again without drawing any more random numbers
+ * A tree is the sum of width random terms of the given depth.  Each node of a term below its depth is a UnaryOp over
+ * one smaller term or a BinaryOp over two, with a probability set by the operator mix.  A BinaryOp has one operand of
+ * depth one less and the other of a random smaller depth, so the terms are unbalanced like most real expressions.
+ * A few of the constants are zero or one, so that building the tree exercises the simplifications of BinaryOp
+ *
+ * @author Kennan LeJeune
+ */
+public class RandomTree {
+    //the kinds of nodes of a recipe
+    private static final byte VARIABLE = 0;
+    private static final byte NUMBER = 1;
+    private static final byte PLUS = 2;
+    private static final byte SUB = 3;
+    private static final byte MULT = 4;
+    private static final byte DIV = 5;
+    private static final byte SIN = 6;
+    private static final byte COS = 7;
+    private static final byte EXP = 8;
+    private static final byte LOG = 9;
+    private static final byte POLYNOMIAL = 10;
+
+    //the probability that a leaf is a constant rather than the variable
+    private static final double CONSTANT_LEAVES = 0.4;
+
+    /**
+     * The mix of operators of a tree, by the probability that a node is a UnaryOp rather than a BinaryOp
+     */
+    public enum Mix {
+        ARITHMETIC(0), //only additions, subtractions, multiplications and divisions
+        MIXED(0.4), //a mix of arithmetic and transcendental functions
+        TRANSCENDENTAL(0.8); //mostly sines, cosines, exponentials, logarithms and powers
+
+        //the probability that a node is a UnaryOp
+        private final double unary;
+
+        /**
+         * Initializes a mix from the probability that a node is a UnaryOp
+         *
+         * @param unary The probability that a node is a UnaryOp
+         */
+        Mix(double unary) {
+            this.unary = unary;
+        }
+    }
+
+    //the kind of each node, in postfix order
+    private byte[] kinds = new byte[64];
+
+    //the value of each constant, or the power of each Polynomial, in postfix order
+    private double[] payloads = new double[64];
+
+    //the number of nodes of the recipe
+    private int size;
+
+    /**
+     * Prevents instantiation outside of generate
+     */
+    private RandomTree() {
+    }
+
+    /**
+     * Generates the recipe of a random tree
+     *
+     * @param seed  The seed of the random numbers, so that the same arguments always generate the same tree
+     * @param depth The depth of each term
+     * @param width The number of terms which are added together
+     * @param mix   The mix of operators
+     * @return The recipe of the tree
+     */
+    public static RandomTree generate(long seed, int depth, int width, Mix mix) {
+        if (depth < 0 || width < 1) {
+            throw new IllegalArgumentException("Cannot generate a tree of depth " + depth + " and width " + width);
+        }
+        Random random = new Random(seed);
+        RandomTree tree = new RandomTree();
+        tree.term(random, depth, mix);
+        for (int i = 1; i < width; i++) {
+            tree.term(random, depth, mix);
+            tree.add(PLUS, 0);
+        }
+        return tree;
+    }
+
+    /**
+     * Appends a random term in postfix order
+     *
+     * @param random The source of random numbers
+     * @param depth  The depth of the term
+     * @param mix    The mix of operators
+     */
+    private void term(Random random, int depth, Mix mix) {
+        if (depth == 0) {
+            if (random.nextDouble() < CONSTANT_LEAVES) {
+                add(NUMBER, constant(random));
+            } else {
+                add(VARIABLE, 0);
+            }
+        } else if (random.nextDouble() < mix.unary) {
+            term(random, depth - 1, mix);
+            byte kind = (byte) (SIN + random.nextInt(POLYNOMIAL - SIN + 1));
+            add(kind, kind == POLYNOMIAL ? 2 + random.nextInt(2) : 0);
+        } else {
+            term(random, depth - 1, mix);
+            term(random, random.nextInt(depth), mix);
+            add((byte) (PLUS + random.nextInt(DIV - PLUS + 1)), 0);
+        }
+    }
+
+    /**
+     * @param random The source of random numbers
+     * @return A constant, which is zero or one an eighth of the time each, and otherwise between 0.5 and 10
+     */
+    private static double constant(Random random) {
+        switch (random.nextInt(8)) {
+            case 0:
+                return 0;
+            case 1:
+                return 1;
+            default:
+                return 0.5 + Math.round(random.nextDouble() * 950) / 100.0;
+        }
+    }
+
+    /**
+     * Appends a node to the recipe
+     *
+     * @param kind    The kind of the node
+     * @param payload The value of a constant, or the power of a Polynomial
+     */
+    private void add(byte kind, double payload) {
+        if (size == kinds.length) {
+            kinds = Arrays.copyOf(kinds, 2 * size);
+            payloads = Arrays.copyOf(payloads, 2 * size);
+        }
+        kinds[size] = kind;
+        payloads[size++] = payload;
+    }
+
+    /**
+     * Builds the tree of the recipe, constructing every node anew
+     *
+     * @param variable The function which takes the place of every variable of the tree
+     * @return The root of the tree
+     */
+    public Function build(Function variable) {
+        Function[] stack = new Function[size];
+        int top = 0;
+        for (int i = 0; i < size; i++) {
+            switch (kinds[i]) {
+                case VARIABLE:
+                    stack[top++] = variable;
+                    break;
+                case NUMBER:
+                    stack[top++] = new Number(payloads[i]);
+                    break;
+                case PLUS:
+                case SUB:
+                case MULT:
+                case DIV:
+                    Function right = stack[--top];
+                    Function left = stack[--top];
+                    stack[top++] = new BinaryOp(left, right, operator(kinds[i]));
+                    break;
+                case SIN:
+                    stack[top - 1] = new Sin(stack[top - 1]);
+                    break;
+                case COS:
+                    stack[top - 1] = new Cos(stack[top - 1]);
+                    break;
+                case EXP:
+                    stack[top - 1] = new Exp(stack[top - 1]);
+                    break;
+                case LOG:
+                    stack[top - 1] = new Log(stack[top - 1]);
+                    break;
+                default:
+                    stack[top - 1] = new Polynomial(stack[top - 1], payloads[i]);
+                    break;
+            }
+        }
+        return stack[0];
+    }
+
+    /**
+     * Builds the tree of the recipe in terms of a new Variable
+     *
+     * @return The root of the tree
+     */
+    public Function build() {
+        return build(new Variable());
+    }
+
+    /**
+     * @param kind The kind of a node of a BinaryOp
+     * @return The operator of the BinaryOp
+     */
+    private static BinaryOp.Op operator(byte kind) {
+        switch (kind) {
+            case PLUS:
+                return BinaryOp.Op.PLUS;
+            case SUB:
+                return BinaryOp.Op.SUB;
+            case MULT:
+                return BinaryOp.Op.MULT;
+            default:
+                return BinaryOp.Op.DIV;
+        }
+    }
+
+    /**
+     * @return The number of nodes of the recipe, before any simplification
+     */
+    public int size() {
+        return this.size;
+    }
+}
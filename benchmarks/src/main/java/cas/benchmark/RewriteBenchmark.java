@@ -0,0 +1,99 @@
+package cas.benchmark;
+
+import cas.Function;
+import cas.Optimizer;
+import cas.Simplifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of rewriting the derivatives of the composite function with the Simplifier and the Optimizer,
+ * and how much faster the rewritten forms evaluate than the original
+ * The simplify and optimize sections of cas.Benchmark, in the test sources of core, report the nodes and cost of
+ * each form
+ *
+ * @author Kennan LeJeune
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class RewriteBenchmark {
+    /**
+     * The rewrites applied to a derivative
+     */
+    public enum Form {
+        ORIGINAL, //the derivative as differentiation built it
+        SIMPLIFIED, //the derivative after the Simplifier
+        OPTIMIZED, //the derivative after the Optimizer
+        SIMPLIFIED_AND_OPTIMIZED; //the derivative after the Simplifier and then the Optimizer
+
+        /**
+         * @param function The function to be rewritten
+         * @return The function in this form
+         */
+        private Function apply(Function function) {
+            switch (this) {
+                case SIMPLIFIED:
+                    return Simplifier.simplify(function);
+                case OPTIMIZED:
+                    return Optimizer.optimize(function);
+                case SIMPLIFIED_AND_OPTIMIZED:
+                    return Optimizer.optimize(Simplifier.simplify(function));
+                default:
+                    return function;
+            }
+        }
+    }
+
+    //the order of the derivative
+    @Param({"1", "2", "3", "4"})
+    public int order;
+
+    //the rewrites applied to the derivative
+    @Param({"ORIGINAL", "SIMPLIFIED", "OPTIMIZED", "SIMPLIFIED_AND_OPTIMIZED"})
+    public Form form;
+
+    //the derivative, and its rewritten form
+    private Function derivative;
+    private Function rewritten;
+
+    /**
+     * Differentiates the composite function and rewrites its derivative
+     */
+    @Setup(Level.Trial)
+    public void rewrite() {
+        derivative = Workloads.composite().derivative(order);
+        rewritten = form.apply(derivative);
+    }
+
+    /**
+     * @return The derivative rewritten into the form
+     */
+    @Benchmark
+    public Function rewriting() {
+        return form.apply(derivative);
+    }
+
+    /**
+     * @return The value of the rewritten derivative at an input
+     */
+    @Benchmark
+    public double valueAtInput() {
+        return rewritten.value(1.5);
+    }
+}
@@ -0,0 +1,44 @@
+package cas.benchmark;
+
+import cas.BinaryOp;
+import cas.Cos;
+import cas.Exp;
+import cas.Function;
+import cas.Log;
+import cas.Number;
+import cas.Polynomial;
+import cas.Sin;
+import cas.Variable;
+
+/**
+ * Builds the functions and inputs shared by several benchmarks
+ *
+ * @author Kennan LeJeune
+ */
+final class Workloads {
+    /**
+     * Prevents instantiation of a class of static methods
+     */
+    private Workloads() {
+    }
+
+    /**
+     * @return The composite Exp[Sin[Cos[Log[(x + 1.0)^2.0]]]] used throughout the tests of the cas package
+     */
+    static Function composite() {
+        return new Exp(new Sin(new Cos(new Log(new Polynomial(new BinaryOp(new Variable(), new Number(1),
+                BinaryOp.Op.PLUS), 2)))));
+    }
+
+    /**
+     * @param size The number of inputs
+     * @return Inputs spread evenly over [0.5, 4.5), where every function of the benchmarks is defined
+     */
+    static double[] inputs(int size) {
+        double[] inputs = new double[size];
+        for (int i = 0; i < size; i++) {
+            inputs[i] = 0.5 + 4.0 * i / size;
+        }
+        return inputs;
+    }
+}
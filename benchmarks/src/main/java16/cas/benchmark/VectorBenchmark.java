@@ -0,0 +1,119 @@
+package cas.benchmark;
+
+import cas.BinaryOp;
+import cas.Exp;
+import cas.Function;
+import cas.Log;
+import cas.Polynomial;
+import cas.Sin;
+import cas.Variable;
+import cas.VectorEvaluator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares evaluating functions one input at a time, through the batch methods of the tree, and with the
+ * VectorEvaluator
+ * Compiled with the jdk.incubator.vector module added, as is the VectorEvaluator itself
+ *
+ * @author Kennan LeJeune
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class VectorBenchmark {
+    /**
+     * The functions to be evaluated
+     */
+    public enum Shape {
+        SIN, //Sin[x]
+        EXP_SIN_LOG, //Exp[Sin[x]] * Log[x]
+        POWER, //x^2.5
+        COMPOSITE, //the composite Exp[Sin[Cos[Log[(x + 1.0)^2.0]]]]
+        SECOND_DERIVATIVE; //the second derivative of the composite
+
+        /**
+         * @return The function of this shape
+         */
+        private Function build() {
+            Variable x = new Variable();
+            switch (this) {
+                case SIN:
+                    return new Sin(x);
+                case EXP_SIN_LOG:
+                    return new BinaryOp(new Exp(new Sin(x)), new Log(x), BinaryOp.Op.MULT);
+                case POWER:
+                    return new Polynomial(x, 2.5);
+                case COMPOSITE:
+                    return Workloads.composite();
+                default:
+                    return Workloads.composite().derivative(2);
+            }
+        }
+    }
+
+    //the function to be evaluated
+    @Param({"SIN", "EXP_SIN_LOG", "POWER", "COMPOSITE", "SECOND_DERIVATIVE"})
+    public Shape shape;
+
+    //the function, and its vectorized form
+    private Function function;
+    private VectorEvaluator evaluator;
+
+    //the inputs, and the value at each input
+    private final double[] inputs = Workloads.inputs(1 << 16);
+    private final double[] outputs = new double[inputs.length];
+
+    /**
+     * Builds the function and compiles it for the VectorEvaluator
+     */
+    @Setup(Level.Trial)
+    public void compile() {
+        function = shape.build();
+        evaluator = VectorEvaluator.compile(function);
+    }
+
+    /**
+     * @return The value at each input, evaluated one input at a time
+     */
+    @Benchmark
+    public double[] scalar() {
+        for (int i = 0; i < inputs.length; i++) {
+            outputs[i] = function.value(inputs[i]);
+        }
+        return outputs;
+    }
+
+    /**
+     * @return The value at each input, evaluated through the batch methods of the tree
+     */
+    @Benchmark
+    public double[] batch() {
+        function.value(inputs, outputs);
+        return outputs;
+    }
+
+    /**
+     * @return The value at each input, evaluated by the VectorEvaluator
+     */
+    @Benchmark
+    public double[] vector() {
+        evaluator.value(inputs, outputs);
+        return outputs;
+    }
+}
@@ -0,0 +1,62 @@
+package cas;
+
+import java.util.Arrays;
+
+/**
+ * Lends the scratch arrays used by the batch value(double[], double[]) methods, one for each level of nesting
+ * A BinaryOp or NaryOp evaluates an operand into a scratch array while its own outputs hold the partial result, and
+ * that operand may need a scratch array of its own, so the arrays are kept as a stack: each batch evaluation borrows
+ * the array above the ones its callers hold, and returns it when done.  Each thread keeps its own arrays, grown to
+ * the longest batch it has evaluated, so repeated batch evaluations do not allocate
+ *
+ * @author Kennan LeJeune
+ */
+final class BatchWorkspace {
+    //the workspace of each thread evaluating batches
+    private static final ThreadLocal<BatchWorkspace> WORKSPACES = ThreadLocal.withInitial(BatchWorkspace::new);
+
+    //the scratch array of each level of nesting, created when first needed
+    private double[][] arrays = new double[4][];
+
+    //the number of arrays currently lent out
+    private int depth;
+
+    /**
+     * Prevents instantiation outside of current()
+     */
+    private BatchWorkspace() {
+    }
+
+    /**
+     * @return The workspace of the current thread
+     */
+    static BatchWorkspace current() {
+        return WORKSPACES.get();
+    }
+
+    /**
+     * Lends the scratch array of the next level, which must be returned by release() once it is no longer needed
+     *
+     * @param length The number of elements needed
+     * @return An array of at least the given length, whose contents are left over from earlier batches
+     */
+    double[] borrow(int length) {
+        if (depth == arrays.length) {
+            arrays = Arrays.copyOf(arrays, 2 * depth);
+        }
+        double[] array = arrays[depth];
+        if (array == null || array.length < length) {
+            array = new double[length];
+            arrays[depth] = array;
+        }
+        depth++;
+        return array;
+    }
+
+    /**
+     * Returns the array most recently lent by borrow()
+     */
+    void release() {
+        depth--;
+    }
+}
@@ -0,0 +1,691 @@
+package cas;
+
+import java.io.IOException;
+
+/**
+ * Represents a Function which takes two inputs and produces a single output
+ * Functions may be added, subtracted, multiplied, and divided
+ *
+ * @author Kennan LeJeune
+ */
+public class BinaryOp extends Function {
+    //stores the operator to be performed by the BinaryOp (PLUS, SUB, DIV, MULT)
+    private final Op operator;
+
+    //stores the function which is the left operand of a binary function
+    private Function leftOperand;
+
+    //stores the function which is the right operand of a binary function
+    private Function rightOperand;
+
+    //caches the structural hash code of the BinaryOp, 0 until it is first computed
+    private int hash;
+
+    //whether both operands are built only from Numbers
+    private final boolean constant;
+
+    //constants compared against and substituted by simplifyOperation(), shared since Numbers never change
+    private static final Number ZERO = new Number(0);
+    private static final Number ONE = new Number(1);
+    private static final Number NEGATIVE_ONE = new Number(-1);
+
+    /**
+     * the Op enum defines the four operators (addition, subtraction, multiplication, division) which may be used
+     * in a BinaryOp instance
+     */
+    public enum Op {
+
+        PLUS("+"), //represents the addition operator
+        SUB("-"), //represents the subtraction operator
+        MULT("*"), //represents the multiplication operator
+        DIV("/"); //represents the division operator
+
+        //contains the String representation of the operator
+        private final String operator;
+
+        /**
+         * initialize the enum types and their string representations
+         *
+         * @param operator the string representation of a given operator
+         */
+        Op(String operator) {
+            this.operator = operator;
+        }
+
+        /**
+         * @return the String representation of the Op instance
+         */
+        @Override
+        public String toString() {
+            return operator;
+        }
+    }
+
+    /**
+     * Initializes the operands and operator of a Binary Operation
+     *
+     * @param leftOperand  The left operand of the BinaryOp
+     * @param rightOperand The right operand of the BinaryOp
+     * @param operator     The operation to be performed by the the BinaryOp
+     */
+    public BinaryOp(Function leftOperand, Function rightOperand, Op operator) {
+        //stores the left operand of the BinaryOp instance
+        this.leftOperand = leftOperand;
+
+        //stores the right operand of the BinaryOp instance
+        this.rightOperand = rightOperand;
+        this.operator = operator;
+        simplifyOperation();
+        this.constant = this.leftOperand.isConstant() && this.rightOperand.isConstant();
+    }
+
+    /**
+     * @return Whether both operands, and so the BinaryOp, have the same value at every input
+     */
+    @Override
+    public boolean isConstant() {
+        return constant;
+    }
+
+    /**
+     * Helper method to simplify nested binary operations without compromising the mathematical integrity of the
+     * function.  Avoids unnecessary complication of BinaryOp String representations
+     * Eliminates unnecessary addition/multiplication of zeros and multiplication/division of ones in functions
+     * For example,
+     * (1.0 + 0.0) * x becomes 1.0 * x
+     * (1.0 * x) + x becomes x + x
+     */
+    private void simplifyOperation() {
+        setLeftOperand(simplifyOperand(this.getLeftOperand()));
+        setRightOperand(simplifyOperand(this.getRightOperand()));
+    }
+
+    /**
+     * Simplifies an operand of a BinaryOp, Sum or Product which is itself an operation on a zero or a one, so that
+     * every operation simplifies its operands in the same way
+     * A Sum or Product is simplified as the chain of BinaryOps it stands for
+     *
+     * @param operand The operand to be simplified
+     * @return The simpler function which replaces the operand, or the operand itself
+     */
+    static Function simplifyOperand(Function operand) {
+        if (operand instanceof BinaryOp) {
+            BinaryOp binaryOp = (BinaryOp) operand;
+            Function simplified = simplify(binaryOp.getOperator(), binaryOp.getLeftOperand(),
+                    binaryOp.getRightOperand());
+            return simplified == null ? operand : simplified;
+        }
+        if (operand instanceof NaryOp) {
+            return ((NaryOp) operand).simplified();
+        }
+        return operand;
+    }
+
+    /**
+     * Simplifies an operation on a zero or a one
+     *
+     * @param operator     The operator of the operation
+     * @param leftOperand  The left operand of the operation
+     * @param rightOperand The right operand of the operation
+     * @return The simpler function equal to the operation, or null if there is none
+     */
+    static Function simplify(Op operator, Function leftOperand, Function rightOperand) {
+        switch (operator) {
+            case MULT:
+                //if either the left or right operands are zero, simplify the entire expression to zero.
+                if (leftOperand.equals(ZERO) || rightOperand.equals(ZERO)) {
+                    if (Instrumentation.ENABLED) {
+                        Instrumentation.simplified(Instrumentation.Rule.ZERO_PRODUCT);
+                    }
+                    return ZERO;
+                }
+                //if the left operand or right operand are 1, simplify the entire expression to the other operand
+                if (leftOperand.equals(ONE)) {
+                    if (Instrumentation.ENABLED) {
+                        Instrumentation.simplified(Instrumentation.Rule.UNIT_PRODUCT);
+                    }
+                    return rightOperand;
+                }
+                if (rightOperand.equals(ONE)) {
+                    if (Instrumentation.ENABLED) {
+                        Instrumentation.simplified(Instrumentation.Rule.UNIT_PRODUCT);
+                    }
+                    return leftOperand;
+                }
+                return null;
+            case DIV:
+                //if zero is divided by anything, simplify the expression to zero
+                if (leftOperand.equals(ZERO)) {
+                    if (Instrumentation.ENABLED) {
+                        Instrumentation.simplified(Instrumentation.Rule.ZERO_QUOTIENT);
+                    }
+                    return ZERO;
+                }
+                //if anything is divided by one, simplify the entire expression to the left operand
+                if (rightOperand.equals(ONE)) {
+                    if (Instrumentation.ENABLED) {
+                        Instrumentation.simplified(Instrumentation.Rule.UNIT_QUOTIENT);
+                    }
+                    return leftOperand;
+                }
+                return null;
+            case SUB:
+                //if zero is subtracted from anything, simplify to the left operand
+                if (rightOperand.equals(ZERO)) {
+                    if (Instrumentation.ENABLED) {
+                        Instrumentation.simplified(Instrumentation.Rule.ZERO_DIFFERENCE);
+                    }
+                    return leftOperand;
+                }
+                //if anything is subtracted from zero, simplify to the negative of the right operand
+                if (leftOperand.equals(ZERO)) {
+                    if (Instrumentation.ENABLED) {
+                        Instrumentation.simplified(Instrumentation.Rule.NEGATION);
+                    }
+                    return new BinaryOp(NEGATIVE_ONE, rightOperand, Op.MULT);
+                }
+                return null;
+            case PLUS:
+                //if zero is added to either operand, simplify to the other operand
+                if (leftOperand.equals(ZERO)) {
+                    if (Instrumentation.ENABLED) {
+                        Instrumentation.simplified(Instrumentation.Rule.ZERO_SUM);
+                    }
+                    return rightOperand;
+                }
+                if (rightOperand.equals(ZERO)) {
+                    if (Instrumentation.ENABLED) {
+                        Instrumentation.simplified(Instrumentation.Rule.ZERO_SUM);
+                    }
+                    return leftOperand;
+                }
+                return null;
+        }
+        return null;
+    }
+
+    /**
+     * Retrieves the left operand of a BinaryOp
+     *
+     * @return The left operand of a BinaryOp instance
+     */
+    public Function getLeftOperand() {
+        return this.leftOperand;
+    }
+
+    /**
+     * Sets the left operand of the BinaryOp instance equal to the input parameter
+     *
+     * @param leftOperand the updated left operand for a BinaryOp
+     */
+    private void setLeftOperand(Function leftOperand) {
+        this.leftOperand = leftOperand;
+    }
+
+    /**
+     * Retrieves the right operand of a BinaryOp
+     *
+     * @return The right operand of a BinaryOp instance
+     */
+    public Function getRightOperand() {
+        return this.rightOperand;
+    }
+
+    /**
+     * Sets the right operand of the BinaryOp instance equal to the input parameter
+     *
+     * @param rightOperand the updated right operand for a BinaryOp
+     */
+    private void setRightOperand(Function rightOperand) {
+        this.rightOperand = rightOperand;
+    }
+
+    /**
+     * Retrieves the operator of a BinaryOp
+     *
+     * @return The operator of a BinaryOp instance
+     */
+    public Op getOperator() {
+        return this.operator;
+    }
+
+    /**
+     * Evaluates a BinaryOp composed of variables at a given input value
+     *
+     * @param input The value at which to evaluate the BinaryOp
+     * @return The value of the BinaryOp at the specified input value
+     */
+    @Override
+    public double value(double input) {
+        if (Instrumentation.ENABLED && Instrumentation.enter(this)) {
+            return Instrumentation.value(this, input);
+        }
+        switch (this.getOperator()) {
+            case PLUS:
+                return getLeftOperand().value(input) + getRightOperand().value(input);
+            case SUB:
+                return getLeftOperand().value(input) - getRightOperand().value(input);
+            case DIV:
+                return getLeftOperand().value(input) / getRightOperand().value(input);
+            case MULT:
+                return getLeftOperand().value(input) * getRightOperand().value(input);
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Evaluates a BinaryOp at every value of an input array
+     * The left operand is evaluated into the output array and the right operand into a scratch array borrowed from
+     * the BatchWorkspace of the thread, then the two are combined in a single loop
+     *
+     * @param inputs  The values at which to evaluate the BinaryOp
+     * @param outputs The array which receives the value of the BinaryOp at each input
+     */
+    @Override
+    public void value(double[] inputs, double[] outputs) {
+        int length = inputs.length;
+        getLeftOperand().value(inputs, outputs);
+
+        //a constant right operand does not need a scratch array
+        if (getRightOperand() instanceof Number) {
+            double right = getRightOperand().value();
+            switch (this.getOperator()) {
+                case PLUS:
+                    for (int i = 0; i < length; i++) {
+                        outputs[i] += right;
+                    }
+                    break;
+                case SUB:
+                    for (int i = 0; i < length; i++) {
+                        outputs[i] -= right;
+                    }
+                    break;
+                case DIV:
+                    for (int i = 0; i < length; i++) {
+                        outputs[i] /= right;
+                    }
+                    break;
+                case MULT:
+                    for (int i = 0; i < length; i++) {
+                        outputs[i] *= right;
+                    }
+                    break;
+            }
+            return;
+        }
+
+        BatchWorkspace workspace = BatchWorkspace.current();
+        double[] right = workspace.borrow(length);
+        try {
+            getRightOperand().value(inputs, right);
+            switch (this.getOperator()) {
+                case PLUS:
+                    for (int i = 0; i < length; i++) {
+                        outputs[i] += right[i];
+                    }
+                    break;
+                case SUB:
+                    for (int i = 0; i < length; i++) {
+                        outputs[i] -= right[i];
+                    }
+                    break;
+                case DIV:
+                    for (int i = 0; i < length; i++) {
+                        outputs[i] /= right[i];
+                    }
+                    break;
+                case MULT:
+                    for (int i = 0; i < length; i++) {
+                        outputs[i] *= right[i];
+                    }
+                    break;
+            }
+        } finally {
+            workspace.release();
+        }
+    }
+
+    /**
+     * Computes bounds on the value of a BinaryOp at every input of an interval from the bounds of its operands
+     * The result may be undefined wherever an operand may be undefined or a divisor may be zero
+     *
+     * @param input The interval of inputs
+     * @return An interval containing the value of the BinaryOp at every input
+     */
+    @Override
+    public Interval valueInterval(Interval input) {
+        Interval left = getLeftOperand().valueInterval(input);
+        Interval right = getRightOperand().valueInterval(input);
+        switch (this.getOperator()) {
+            case PLUS:
+                return left.plus(right);
+            case SUB:
+                return left.minus(right);
+            case MULT:
+                return left.times(right);
+            default:
+                return left.divide(right);
+        }
+    }
+
+    /**
+     * Computes the value and derivative of a BinaryOp at a given input value
+     * Applies the same addition, subtraction, product, and quotient rules as derivative()
+     *
+     * @param input      The value at which to evaluate the BinaryOp
+     * @param derivative The array whose first element receives the derivative of the BinaryOp at the input value
+     * @return The value of the BinaryOp at the specified input value
+     */
+    @Override
+    public double valueAndDerivative(double input, double[] derivative) {
+        if (isConstant()) {
+            derivative[0] = 0;
+            return value(input);
+        }
+        double left = getLeftOperand().valueAndDerivative(input, derivative);
+        double leftDerivative = derivative[0];
+        double right = getRightOperand().valueAndDerivative(input, derivative);
+        double rightDerivative = derivative[0];
+        switch (this.getOperator()) {
+            case PLUS:
+                derivative[0] = leftDerivative + rightDerivative;
+                return left + right;
+            case SUB:
+                derivative[0] = leftDerivative - rightDerivative;
+                return left - right;
+            case DIV:
+                //the terms of a constant operand are left out, as derivative() simplifies away their zero factor
+                if (getRightOperand().isConstant()) {
+                    derivative[0] = leftDerivative / right;
+                } else if (getLeftOperand().isConstant()) {
+                    derivative[0] = -left * rightDerivative / Math.pow(right, 2);
+                } else {
+                    derivative[0] = (leftDerivative * right - left * rightDerivative) / Math.pow(right, 2);
+                }
+                return left / right;
+            case MULT:
+                if (getRightOperand().isConstant()) {
+                    derivative[0] = leftDerivative * right;
+                } else if (getLeftOperand().isConstant()) {
+                    derivative[0] = rightDerivative * left;
+                } else {
+                    derivative[0] = leftDerivative * right + rightDerivative * left;
+                }
+                return left * right;
+            default:
+                derivative[0] = 0;
+                return 0;
+        }
+    }
+
+    /**
+     * Computes the Taylor series of a BinaryOp by adding, subtracting, multiplying, or dividing the series of its
+     * operands
+     *
+     * @param input The value around which to expand the BinaryOp
+     * @param order The highest power of the series
+     * @return The coefficients of the Taylor series of the BinaryOp
+     */
+    @Override
+    protected double[] taylor(double input, int order) {
+        if (isConstant()) {
+            return constantSeries(input, order);
+        }
+        double[] left = getLeftOperand().taylor(input, order);
+        double[] right = getRightOperand().taylor(input, order);
+        double[] result = new double[order + 1];
+        switch (this.getOperator()) {
+            case PLUS:
+                for (int k = 0; k <= order; k++) {
+                    result[k] = left[k] + right[k];
+                }
+                break;
+            case SUB:
+                for (int k = 0; k <= order; k++) {
+                    result[k] = left[k] - right[k];
+                }
+                break;
+            case MULT:
+                //a constant operand scales the series of the other, whose coefficients are never multiplied by zero
+                if (getLeftOperand().isConstant() || getRightOperand().isConstant()) {
+                    double scale = getLeftOperand().isConstant() ? left[0] : right[0];
+                    double[] series = getLeftOperand().isConstant() ? right : left;
+                    for (int k = 0; k <= order; k++) {
+                        result[k] = series[k] * scale;
+                    }
+                    break;
+                }
+                for (int k = 0; k <= order; k++) {
+                    for (int j = 0; j <= k; j++) {
+                        result[k] += left[j] * right[k - j];
+                    }
+                }
+                break;
+            case DIV:
+                if (getRightOperand().isConstant()) {
+                    for (int k = 0; k <= order; k++) {
+                        result[k] = left[k] / right[0];
+                    }
+                    break;
+                }
+                //left = result * right, solved for each coefficient of the result in turn
+                for (int k = 0; k <= order; k++) {
+                    double sum = left[k];
+                    for (int j = 1; j <= k; j++) {
+                        sum -= right[j] * result[k - j];
+                    }
+                    result[k] = sum / right[0];
+                }
+                break;
+        }
+        return result;
+    }
+
+    /**
+     * Computes the value of a Binary Operation of several variables in an environment
+     *
+     * @param environment The value of each variable, by index
+     * @return The value of the function in the environment
+     */
+    @Override
+    public double evaluate(double[] environment) {
+        switch (this.getOperator()) {
+            case PLUS:
+                return getLeftOperand().evaluate(environment) + getRightOperand().evaluate(environment);
+            case SUB:
+                return getLeftOperand().evaluate(environment) - getRightOperand().evaluate(environment);
+            case DIV:
+                return getLeftOperand().evaluate(environment) / getRightOperand().evaluate(environment);
+            case MULT:
+                return getLeftOperand().evaluate(environment) * getRightOperand().evaluate(environment);
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Computes the value of a strictly numerical Binary Operation (contains no variables)
+     *
+     * @return The value of the function
+     */
+    @Override
+    public double value() {
+        if (Instrumentation.ENABLED && Instrumentation.enter(this)) {
+            return Instrumentation.value(this);
+        }
+        switch (this.getOperator()) {
+            case PLUS:
+                return getLeftOperand().value() + getRightOperand().value();
+            case SUB:
+                return getLeftOperand().value() - getRightOperand().value();
+            case DIV:
+                return getLeftOperand().value() / getRightOperand().value();
+            case MULT:
+                return getLeftOperand().value() * getRightOperand().value();
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Determines if a BinaryOp instance is equivalent to an input parameter
+     * Operands are only compared when their hash codes match, so that addition and multiplication, whose operands
+     * may be swapped, pair up their operands in a canonical order instead of trying both orders at every level.
+     * Since hash codes are cached, this keeps comparison roughly linear in the size of the function
+     *
+     * @param input The function to be compared
+     * @return Whether or not the functions are equal
+     */
+    @Override
+    public boolean equals(Object input) {
+        if (this == input) {
+            return true;
+        }
+        if (!(input instanceof BinaryOp) || this.getOperator() != ((BinaryOp) input).getOperator()
+                || this.hashCode() != input.hashCode()) {
+            return false;
+        }
+        Function left = this.getLeftOperand();
+        Function right = this.getRightOperand();
+        Function inputLeft = ((BinaryOp) input).getLeftOperand();
+        Function inputRight = ((BinaryOp) input).getRightOperand();
+
+        switch (this.getOperator()) {
+            //for subtraction and division, left and right operands must match exactly
+            case SUB:
+            case DIV:
+                return left.equals(inputLeft) && right.equals(inputRight);
+            //for addition and multiplication, left and right operands may be swapped and still be equivalent
+            case PLUS:
+            case MULT:
+                if (left.hashCode() == inputLeft.hashCode() && right.hashCode() == inputRight.hashCode()
+                        && left.equals(inputLeft) && right.equals(inputRight)) {
+                    return true;
+                }
+                return left.hashCode() == inputRight.hashCode() && right.hashCode() == inputLeft.hashCode()
+                        && left.equals(inputRight) && right.equals(inputLeft);
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Computes the hash code of a BinaryOp from its operator and operands
+     * Addition and multiplication combine the operand hash codes symmetrically, since their operands may be swapped
+     * without changing equality.  The hash code is cached, since the operands never change after construction
+     *
+     * @return The hash code of the BinaryOp
+     */
+    @Override
+    public int hashCode() {
+        int hash = this.hash;
+        if (hash == 0) {
+            int left = getLeftOperand().hashCode();
+            int right = getRightOperand().hashCode();
+            switch (this.getOperator()) {
+                case PLUS:
+                case MULT:
+                    hash = mix(left) + mix(right);
+                    break;
+                default:
+                    hash = 31 * mix(left) + right;
+                    break;
+            }
+            hash = 31 * hash + this.getOperator().ordinal();
+            this.hash = hash;
+        }
+        return hash;
+    }
+
+    /**
+     * Scrambles the bits of an operand hash code so that combining operands by addition does not collide as easily
+     *
+     * @param hash The hash code of an operand
+     * @return The scrambled hash code
+     */
+    static int mix(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Finds the operator of a function which is printed as an operation, with parentheses around it when it is an
+     * operand of another operation
+     *
+     * @param function A function
+     * @return The operator of the function if it is a BinaryOp or an NaryOp, or null
+     */
+    static Op operatorOf(Function function) {
+        if (function instanceof BinaryOp) {
+            return ((BinaryOp) function).getOperator();
+        } else if (function instanceof NaryOp) {
+            return ((NaryOp) function).getOperator();
+        }
+        return null;
+    }
+
+    /**
+     * Computes the derivative of a BinaryOp instance
+     * May include any composition of two functions, incorporating the chain, product, and quotient rules
+     *
+     * @return The function which is the derivative of the current BinaryOp instance
+     */
+    @Override
+    protected Function computeDerivative() {
+        Function left = getLeftOperand();
+        Function right = getRightOperand();
+        switch (operator) {
+            case PLUS:
+                return new BinaryOp(left.derivative(), right.derivative(), Op.PLUS);
+            case SUB:
+                return new BinaryOp(left.derivative(), right.derivative(), Op.SUB);
+            case MULT:
+                return new BinaryOp(new BinaryOp(left.derivative(), right, Op.MULT), new BinaryOp(right.derivative(),
+                        left, Op.MULT), Op.PLUS);
+            case DIV:
+                return new BinaryOp(new BinaryOp(new BinaryOp(left.derivative(), right, Op.MULT), new BinaryOp(left,
+                        right.derivative(), Op.MULT), Op.SUB), new Polynomial(right, 2), Op.DIV);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Writes the String representation of a BinaryOp instance
+     *
+     * @param out The Appendable which receives the representation
+     * @throws IOException If the Appendable cannot be written to
+     */
+    @Override
+    public void appendTo(Appendable out) throws IOException {
+        //parentheses around leftOperand if it is a BinaryOp or an NaryOp
+        Op leftOperator = operatorOf(this.getLeftOperand());
+        Op rightOperator = operatorOf(this.getRightOperand());
+        if (leftOperator != null) {
+            out.append('(');
+            this.getLeftOperand().appendTo(out);
+            out.append(')');
+        } else {
+            this.getLeftOperand().appendTo(out);
+        }
+
+        out.append(' ');
+        out.append(this.getOperator().toString());
+        out.append(' ');
+
+        if (rightOperator != null) {
+            //if rightOperand and leftOperand are both operations and the right has this operator, no parentheses
+            //around the rightOperand
+            if (leftOperator != null && this.getOperator() == rightOperator) {
+                this.getRightOperand().appendTo(out);
+            } else {
+                out.append('(');
+                this.getRightOperand().appendTo(out);
+                out.append(')');
+            }
+        } else {
+            this.getRightOperand().appendTo(out);
+        }
+    }
+}
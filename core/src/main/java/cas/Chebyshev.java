@@ -0,0 +1,369 @@
+package cas;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Represents a polynomial approximation of a Function on an interval [a, b] as a series of Chebyshev polynomials,
+ * evaluated by the Clenshaw recurrence
+ * An approximation is built by sampling the function at the Chebyshev points of the interval, doubling the number of
+ * points until the series converges to the requested tolerance, and dropping the coefficients of the tail which are
+ * too small to matter.  It can be used anywhere a Function can, and is usually much cheaper to evaluate than an
+ * expression with several transcendental functions.  Outside [a, b] the series is extrapolated and quickly loses
+ * accuracy
+ *
+ * @author Kennan LeJeune
+ */
+public class Chebyshev extends Function {
+    //the number of coefficients of the first series tried
+    private static final int INITIAL_DEGREE = 16;
+
+    //the largest degree tried before giving up on the tolerance
+    static final int MAX_DEGREE = 1 << 12;
+
+    //the number of points between consecutive Chebyshev points at which the error is measured
+    private static final int CHECKS_PER_POINT = 4;
+
+    //the bounds of the interval
+    private final double a;
+    private final double b;
+
+    //the coefficient of each Chebyshev polynomial, from degree 0
+    private final double[] coefficients;
+
+    //the largest error measured against the approximated function, NaN if it was not measured
+    private final double maxError;
+
+    /**
+     * Initializes a series from its coefficients
+     *
+     * @param a            The lower bound of the interval
+     * @param b            The upper bound of the interval
+     * @param coefficients The coefficient of each Chebyshev polynomial, from degree 0
+     * @param maxError     The largest error measured against the approximated function, NaN if it was not measured
+     */
+    private Chebyshev(double a, double b, double[] coefficients, double maxError) {
+        this.a = a;
+        this.b = b;
+        this.coefficients = coefficients;
+        this.maxError = maxError;
+    }
+
+    /**
+     * Approximates a function on an interval to a given tolerance
+     * The error is measured on a grid several times denser than the Chebyshev points.  If the tolerance cannot be met,
+     * because it is below rounding error or would need a degree above MAX_DEGREE, the most accurate series found is
+     * returned, and its error is larger than the tolerance
+     *
+     * @param function  The function to be approximated
+     * @param a         The lower bound of the interval
+     * @param b         The upper bound of the interval
+     * @param tolerance The largest acceptable absolute error
+     * @return The approximation of the function on the interval
+     * @throws IllegalArgumentException If the interval is empty, or the function is not finite on it
+     */
+    public static Chebyshev approximate(Function function, double a, double b, double tolerance) {
+        if (!(a < b) || Double.isInfinite(a) || Double.isInfinite(b)) {
+            throw new IllegalArgumentException("Cannot approximate a function on [" + a + ", " + b + "]");
+        }
+        if (!(tolerance > 0)) {
+            throw new IllegalArgumentException("The tolerance must be positive: " + tolerance);
+        }
+
+        int n = INITIAL_DEGREE;
+        double[] samples = sample(function, a, b, n, null);
+        Chebyshev best = null;
+        while (true) {
+            double[] coefficients = chop(transform(samples), tolerance);
+            Chebyshev approximation = new Chebyshev(a, b, coefficients, 0);
+            approximation = new Chebyshev(a, b, coefficients, approximation.error(function));
+
+            //once doubling the degree no longer reduces the error, it is limited by rounding
+            if (best != null && !(approximation.maxError < best.maxError)) {
+                return best;
+            }
+            best = approximation;
+            if (best.maxError <= tolerance || n == MAX_DEGREE) {
+                return best;
+            }
+            n *= 2;
+            samples = sample(function, a, b, n, samples);
+        }
+    }
+
+    /**
+     * Samples a function at the n + 1 Chebyshev points cos(pi j / n) of an interval
+     * The points of a series of degree n / 2 are every other point, so their samples are reused
+     *
+     * @param function The function to be sampled
+     * @param a        The lower bound of the interval
+     * @param b        The upper bound of the interval
+     * @param n        The degree of the series
+     * @param previous The samples for degree n / 2, or null
+     * @return The value of the function at each point
+     * @throws IllegalArgumentException If the function is not finite at a point
+     */
+    private static double[] sample(Function function, double a, double b, int n, double[] previous) {
+        int step = previous == null ? 1 : 2;
+        double[] inputs = new double[previous == null ? n + 1 : n / 2];
+        for (int i = 0, j = previous == null ? 0 : 1; j <= n; i++, j += step) {
+            inputs[i] = point(a, b, n, j);
+        }
+        double[] outputs = new double[inputs.length];
+        function.value(inputs, outputs);
+
+        double[] samples = new double[n + 1];
+        for (int i = 0, j = previous == null ? 0 : 1; j <= n; i++, j += step) {
+            if (!Double.isFinite(outputs[i])) {
+                throw new IllegalArgumentException("Cannot approximate " + function + ", which is " + outputs[i]
+                        + " at " + inputs[i]);
+            }
+            samples[j] = outputs[i];
+        }
+        if (previous != null) {
+            for (int j = 0; j < previous.length; j++) {
+                samples[2 * j] = previous[j];
+            }
+        }
+        return samples;
+    }
+
+    /**
+     * @param a The lower bound of the interval
+     * @param b The upper bound of the interval
+     * @param n The degree of the series
+     * @param j The index of the point
+     * @return The jth Chebyshev point of the interval, from b at j = 0 to a at j = n
+     */
+    private static double point(double a, double b, int n, int j) {
+        if (j == 0) {
+            return b;
+        } else if (j == n) {
+            return a;
+        }
+        return 0.5 * (a + b) + 0.5 * (b - a) * Math.cos(Math.PI * j / n);
+    }
+
+    /**
+     * Computes the coefficients of the polynomial which interpolates samples at the Chebyshev points
+     *
+     * @param samples The value of a function at the n + 1 Chebyshev points
+     * @return The n + 1 coefficients of the interpolating series
+     */
+    private static double[] transform(double[] samples) {
+        int n = samples.length - 1;
+
+        //cos(pi m / n) for every m below 2n, since cos(pi j k / n) only depends on j k modulo 2n
+        double[] cosines = new double[2 * n];
+        for (int m = 0; m < 2 * n; m++) {
+            cosines[m] = Math.cos(Math.PI * m / n);
+        }
+
+        double[] coefficients = new double[n + 1];
+        for (int k = 0; k <= n; k++) {
+            double sum = 0.5 * (samples[0] + (k % 2 == 0 ? samples[n] : -samples[n]));
+            int m = 0;
+            for (int j = 1; j < n; j++) {
+                m += k;
+                if (m >= 2 * n) {
+                    m -= 2 * n;
+                }
+                sum += samples[j] * cosines[m];
+            }
+            coefficients[k] = 2 * sum / n;
+        }
+        coefficients[0] *= 0.5;
+        coefficients[n] *= 0.5;
+        return coefficients;
+    }
+
+    /**
+     * Drops the coefficients at the end of a series whose absolute values add up to less than half the tolerance
+     *
+     * @param coefficients The coefficients of a series
+     * @param tolerance    The largest acceptable absolute error
+     * @return The coefficients which remain
+     */
+    private static double[] chop(double[] coefficients, double tolerance) {
+        int length = coefficients.length;
+        double tail = 0;
+        while (length > 1 && tail + Math.abs(coefficients[length - 1]) <= 0.5 * tolerance) {
+            tail += Math.abs(coefficients[--length]);
+        }
+        return Arrays.copyOf(coefficients, length);
+    }
+
+    /**
+     * Measures the largest difference between the series and a function at the Chebyshev points of a series of
+     * higher degree and on an even grid between them
+     *
+     * @param function The approximated function
+     * @return The largest absolute difference
+     */
+    private double error(Function function) {
+        int n = CHECKS_PER_POINT * Math.max(INITIAL_DEGREE, coefficients.length);
+        double[] inputs = new double[2 * (n + 1)];
+        for (int j = 0; j <= n; j++) {
+            inputs[j] = point(a, b, n, j);
+            inputs[n + 1 + j] = FunctionSampler.point(a, b, n + 1, j);
+        }
+        double[] expected = new double[inputs.length];
+        double[] actual = new double[inputs.length];
+        function.value(inputs, expected);
+        this.value(inputs, actual);
+        double error = 0;
+        for (int i = 0; i < inputs.length; i++) {
+            double difference = Math.abs(expected[i] - actual[i]);
+            if (!(difference <= error)) {
+                error = difference;
+            }
+        }
+        return error;
+    }
+
+    /**
+     * Evaluates the series by the Clenshaw recurrence
+     *
+     * @param input The value at which to evaluate the series
+     * @return The value of the series at the input
+     */
+    @Override
+    public double value(double input) {
+        if (Instrumentation.ENABLED && Instrumentation.enter(this)) {
+            return Instrumentation.value(this, input);
+        }
+        double[] coefficients = this.coefficients;
+        double t = (2 * input - a - b) / (b - a);
+        double twoT = 2 * t;
+        double b1 = 0;
+        double b2 = 0;
+        for (int k = coefficients.length - 1; k > 0; k--) {
+            double b0 = twoT * b1 - b2 + coefficients[k];
+            b2 = b1;
+            b1 = b0;
+        }
+        return t * b1 - b2 + coefficients[0];
+    }
+
+    /**
+     * Evaluates the series at every value of an input array
+     *
+     * @param inputs  The values at which to evaluate the series
+     * @param outputs The array which receives the value of the series at each input
+     */
+    @Override
+    public void value(double[] inputs, double[] outputs) {
+        for (int i = 0; i < inputs.length; i++) {
+            outputs[i] = value(inputs[i]);
+        }
+    }
+
+    /**
+     * Attempts to compute the value of a series with no input parameter
+     *
+     * @return The value of the series
+     * @throws UnsupportedOperationException Always, since the series depends on its input
+     */
+    @Override
+    public double value() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Computes the derivative of the series, which is another series on the same interval
+     * The error of the derivative against the derivative of the approximated function is not measured
+     *
+     * @return The series which is the derivative of the series
+     */
+    @Override
+    protected Function computeDerivative() {
+        int n = coefficients.length - 1;
+        if (n == 0) {
+            return new Chebyshev(a, b, new double[]{0}, Double.NaN);
+        }
+        double[] derivative = new double[n];
+        double scale = 2 / (b - a);
+        for (int k = n; k >= 1; k--) {
+            derivative[k - 1] = (k + 1 < n ? derivative[k + 1] : 0) + 2 * k * coefficients[k];
+        }
+        derivative[0] *= 0.5;
+        for (int k = 0; k < n; k++) {
+            derivative[k] *= scale;
+        }
+        return new Chebyshev(a, b, derivative, Double.NaN);
+    }
+
+    /**
+     * @return The largest error measured against the approximated function, or NaN for the derivative of a series
+     */
+    public double getMaxError() {
+        return this.maxError;
+    }
+
+    /**
+     * @return The degree of the series
+     */
+    public int getDegree() {
+        return this.coefficients.length - 1;
+    }
+
+    /**
+     * @return A copy of the coefficient of each Chebyshev polynomial, from degree 0
+     */
+    public double[] getCoefficients() {
+        return this.coefficients.clone();
+    }
+
+    /**
+     * @return The lower bound of the interval of the approximation
+     */
+    public double getLowerBound() {
+        return this.a;
+    }
+
+    /**
+     * @return The upper bound of the interval of the approximation
+     */
+    public double getUpperBound() {
+        return this.b;
+    }
+
+    /**
+     * Writes the String representation of a series, which names its interval and degree but not its coefficients
+     *
+     * @param out The Appendable which receives the representation
+     * @throws IOException If the Appendable cannot be written to
+     */
+    @Override
+    public void appendTo(Appendable out) throws IOException {
+        out.append("Chebyshev[x, ");
+        Number.append(out, a);
+        out.append(", ");
+        Number.append(out, b);
+        out.append(", ").append(String.valueOf(getDegree())).append(']');
+    }
+
+    /**
+     * Compares a series to an input function
+     *
+     * @param input The function to be compared
+     * @return Whether the input is a series on the same interval with the same coefficients
+     */
+    @Override
+    public boolean equals(Object input) {
+        if (!(input instanceof Chebyshev)) {
+            return false;
+        }
+        Chebyshev other = (Chebyshev) input;
+        return Double.compare(a, other.a) == 0 && Double.compare(b, other.b) == 0
+                && Arrays.equals(coefficients, other.coefficients);
+    }
+
+    /**
+     * @return The hash code of the interval and coefficients of the series
+     */
+    @Override
+    public int hashCode() {
+        return (31 * Double.hashCode(a) + Double.hashCode(b)) * 31 + Arrays.hashCode(coefficients);
+    }
+}
@@ -0,0 +1,668 @@
+package cas;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Represents a Function as parallel arrays of primitives instead of a tree of objects, one element of each array per
+ * node: its type, the indexes of its operands, and its value or power
+ * Operands always come before the nodes that use them, so the expression can be evaluated by a single loop over the
+ * nodes, and a node shared by several parents is only stored once.  Uses the instructions of PostfixProgram as the
+ * node types
+ * An expression of several variables is evaluated in an environment array, and its gradient is computed by reverse
+ * mode differentiation: one sweep forward over the nodes computes their values, and one sweep backward accumulates
+ * the derivative of the result with respect to each node, so every partial derivative is found for about the cost
+ * of a few evaluations however many variables there are
+ * An expression computes its sines, cosines, exponentials, logarithms and powers with the Precision it was converted
+ * with, or with one given to a single evaluation; FAST evaluations use the approximations of FastMath
+ *
+ * @author Kennan LeJeune
+ */
+public class CompactExpression {
+    //the type of each node
+    private final byte[] types;
+
+    //the index of the left (or only) operand of each node, or of the function called by a CALL node or the Variable
+    //of a VARIABLE node
+    private final int[] leftOperands;
+
+    //the index of the right operand of each BinaryOp node
+    private final int[] rightOperands;
+
+    //the value of each Number node, the power of each Polynomial node and the index of each Variable node
+    private final double[] constants;
+
+    //functions of a type that cannot be represented by the arrays, and the Variables of VARIABLE nodes
+    private final Function[] calls;
+
+    //the largest index of a Variable in the expression plus one
+    private final int variableCount;
+
+    //whether each node has the same value at every input, being built only from Numbers
+    private final boolean[] constantNodes;
+
+    //how the elementary functions of the nodes are computed unless an evaluation asks otherwise
+    private final Precision precision;
+
+    //the value of every node at the input of the current evaluation, for each thread evaluating the expression
+    private final ThreadLocal<double[]> values;
+
+    //the derivative of the result with respect to every node during a gradient, for each thread computing one
+    private final ThreadLocal<double[]> adjoints;
+
+    //the number of arrays of values and adjoints allocated by the threads which have used the expression
+    private final AtomicInteger threadArrays = new AtomicInteger();
+
+    /**
+     * Initializes an expression from its arrays
+     *
+     * @param types         The type of each node
+     * @param leftOperands  The index of the left operand of each node
+     * @param rightOperands The index of the right operand of each node
+     * @param constants     The value or power of each node
+     * @param calls         The functions called by CALL nodes
+     * @param precision     How the elementary functions of the nodes are computed
+     */
+    private CompactExpression(byte[] types, int[] leftOperands, int[] rightOperands, double[] constants,
+                              Function[] calls, Precision precision) {
+        this.types = types;
+        this.leftOperands = leftOperands;
+        this.rightOperands = rightOperands;
+        this.constants = constants;
+        this.calls = calls;
+        this.precision = precision;
+        int variableCount = 0;
+        for (int i = 0; i < types.length; i++) {
+            if (types[i] == PostfixProgram.VARIABLE) {
+                variableCount = Math.max(variableCount, (int) constants[i] + 1);
+            }
+        }
+        this.variableCount = variableCount;
+        this.constantNodes = new boolean[types.length];
+        for (int i = 0; i < types.length; i++) {
+            switch (types[i]) {
+                case PostfixProgram.NUMBER:
+                    constantNodes[i] = true;
+                    break;
+                case PostfixProgram.VARIABLE:
+                    break;
+                case PostfixProgram.PLUS:
+                case PostfixProgram.SUB:
+                case PostfixProgram.MULT:
+                case PostfixProgram.DIV:
+                    constantNodes[i] = constantNodes[leftOperands[i]] && constantNodes[rightOperands[i]];
+                    break;
+                case PostfixProgram.POLYNOMIAL:
+                    constantNodes[i] = constants[i] == 0 || constantNodes[leftOperands[i]];
+                    break;
+                case PostfixProgram.CALL:
+                    constantNodes[i] = calls[leftOperands[i]].isConstant();
+                    break;
+                default:
+                    constantNodes[i] = constantNodes[leftOperands[i]];
+                    break;
+            }
+        }
+        this.values = ThreadLocal.withInitial(this::threadArray);
+        this.adjoints = ThreadLocal.withInitial(this::threadArray);
+    }
+
+    /**
+     * Allocates the values or adjoints of a thread, counting the array for bytes()
+     *
+     * @return An array with an element for every node
+     */
+    private double[] threadArray() {
+        threadArrays.incrementAndGet();
+        return new double[types.length];
+    }
+
+    /**
+     * Converts a Function into its compact representation
+     * The function is walked with an explicit stack, so functions of any depth can be converted
+     *
+     * @param function The function to be converted
+     * @return The compact representation of the function
+     */
+    public static CompactExpression of(Function function) {
+        return of(new Function[]{function}, new int[1], Precision.EXACT);
+    }
+
+    /**
+     * Converts a Function into its compact representation, which evaluates its elementary functions with a given
+     * precision
+     *
+     * @param function  The function to be converted
+     * @param precision How the expression computes sines, cosines, exponentials, logarithms and powers
+     * @return The compact representation of the function
+     */
+    public static CompactExpression of(Function function, Precision precision) {
+        return of(new Function[]{function}, new int[1], precision);
+    }
+
+    /**
+     * Converts several Functions into a single compact representation, in which a node reached from several of the
+     * functions is stored once
+     * Nodes are shared by reference, so functions whose equal subtrees are the same objects, such as those of one
+     * FunctionFactory, share all of them.  The expression as a whole stands for its last node, which need not be the
+     * root of any of the functions, so each function is read from the node at its root
+     *
+     * @param functions The functions to be converted
+     * @param roots     The array which receives the index of the root node of each function
+     * @param precision How the expression computes sines, cosines, exponentials, logarithms and powers
+     * @return The compact representation of the functions
+     */
+    static CompactExpression of(Function[] functions, int[] roots, Precision precision) {
+        int capacity = 16;
+        byte[] types = new byte[capacity];
+        int[] leftOperands = new int[capacity];
+        int[] rightOperands = new int[capacity];
+        double[] constants = new double[capacity];
+        List<Function> calls = new ArrayList<>();
+        Map<Function, Integer> indexes = new IdentityHashMap<>();
+        int size = 0;
+
+        Deque<Function> pending = new ArrayDeque<>();
+        for (int r = 0; r < functions.length; r++) {
+            pending.push(functions[r]);
+            while (!pending.isEmpty()) {
+                Function node = pending.peek();
+                if (indexes.containsKey(node)) {
+                    pending.pop();
+                    continue;
+                }
+
+                //add the operands first, then come back to the node
+                Function[] operands = operands(node);
+                boolean ready = true;
+                for (int i = operands.length - 1; i >= 0; i--) {
+                    if (!indexes.containsKey(operands[i])) {
+                        pending.push(operands[i]);
+                        ready = false;
+                    }
+                }
+                if (!ready) {
+                    continue;
+                }
+                pending.pop();
+
+                //a Sum or Product becomes a chain of nodes, each combining the one before with the next operand
+                int needed = node instanceof NaryOp ? operands.length - 1 : 1;
+                while (size + needed > capacity) {
+                    capacity *= 2;
+                    types = Arrays.copyOf(types, capacity);
+                    leftOperands = Arrays.copyOf(leftOperands, capacity);
+                    rightOperands = Arrays.copyOf(rightOperands, capacity);
+                    constants = Arrays.copyOf(constants, capacity);
+                }
+                Class<?> type = node.getClass();
+                if (type == Sum.class || type == Product.class) {
+                    byte opcode = (byte) PostfixProgram.opcode(((NaryOp) node).getOperator());
+                    int previous = indexes.get(operands[0]);
+                    for (int k = 1; k < operands.length; k++) {
+                        types[size] = opcode;
+                        leftOperands[size] = previous;
+                        rightOperands[size] = indexes.get(operands[k]);
+                        previous = size++;
+                    }
+                    indexes.put(node, previous);
+                    continue;
+                }
+                leftOperands[size] = operands.length > 0 ? indexes.get(operands[0]) : -1;
+                rightOperands[size] = operands.length > 1 ? indexes.get(operands[1]) : -1;
+                if (type == Number.class) {
+                    types[size] = PostfixProgram.NUMBER;
+                    constants[size] = node.value();
+                } else if (type == Variable.class) {
+                    types[size] = PostfixProgram.VARIABLE;
+                    constants[size] = ((Variable) node).getIndex();
+                    leftOperands[size] = calls.size();
+                    calls.add(node);
+                } else if (type == BinaryOp.class) {
+                    types[size] = (byte) PostfixProgram.opcode(((BinaryOp) node).getOperator());
+                } else if (type == Sin.class) {
+                    types[size] = PostfixProgram.SIN;
+                } else if (type == Cos.class) {
+                    types[size] = PostfixProgram.COS;
+                } else if (type == Exp.class) {
+                    types[size] = PostfixProgram.EXP;
+                } else if (type == Log.class) {
+                    types[size] = PostfixProgram.LOG;
+                } else if (type == Polynomial.class) {
+                    types[size] = PostfixProgram.POLYNOMIAL;
+                    constants[size] = ((Polynomial) node).getPower();
+                } else {
+                    types[size] = PostfixProgram.CALL;
+                    leftOperands[size] = calls.size();
+                    calls.add(node);
+                }
+                indexes.put(node, size++);
+            }
+            roots[r] = indexes.get(functions[r]);
+        }
+
+        return new CompactExpression(Arrays.copyOf(types, size), Arrays.copyOf(leftOperands, size),
+                Arrays.copyOf(rightOperands, size), Arrays.copyOf(constants, size), calls.toArray(new Function[0]),
+                precision);
+    }
+
+    /**
+     * @param node A node of a function
+     * @return The operands of the node which are stored as nodes of the expression, in order
+     */
+    private static Function[] operands(Function node) {
+        Class<?> type = node.getClass();
+        if (type == BinaryOp.class) {
+            return new Function[]{((BinaryOp) node).getLeftOperand(), ((BinaryOp) node).getRightOperand()};
+        }
+        if (type == Sin.class || type == Cos.class || type == Exp.class || type == Log.class
+                || type == Polynomial.class) {
+            return new Function[]{((UnaryOp) node).getOperand()};
+        }
+        if (type == Sum.class || type == Product.class) {
+            return ((NaryOp) node).operands();
+        }
+        return new Function[0];
+    }
+
+    /**
+     * Converts the expression back into a tree of Function objects
+     * A node shared by several parents in the expression is shared by the same parents in the tree.  A Sum or Product
+     * comes back as the chain of BinaryOps it stands for, which prints the same and has the same values
+     *
+     * @return The function represented by the expression
+     */
+    public Function toFunction() {
+        Function[] nodes = new Function[types.length];
+        for (int i = 0; i < types.length; i++) {
+            Function left = types[i] > PostfixProgram.VARIABLE && types[i] != PostfixProgram.CALL
+                    ? nodes[leftOperands[i]] : null;
+            Function right = rightOperands[i] >= 0 ? nodes[rightOperands[i]] : null;
+            switch (types[i]) {
+                case PostfixProgram.NUMBER:
+                    nodes[i] = new Number(constants[i]);
+                    break;
+                case PostfixProgram.VARIABLE:
+                    nodes[i] = calls[leftOperands[i]];
+                    break;
+                case PostfixProgram.PLUS:
+                    nodes[i] = new BinaryOp(left, right, BinaryOp.Op.PLUS);
+                    break;
+                case PostfixProgram.SUB:
+                    nodes[i] = new BinaryOp(left, right, BinaryOp.Op.SUB);
+                    break;
+                case PostfixProgram.MULT:
+                    nodes[i] = new BinaryOp(left, right, BinaryOp.Op.MULT);
+                    break;
+                case PostfixProgram.DIV:
+                    nodes[i] = new BinaryOp(left, right, BinaryOp.Op.DIV);
+                    break;
+                case PostfixProgram.SIN:
+                    nodes[i] = new Sin(left);
+                    break;
+                case PostfixProgram.COS:
+                    nodes[i] = new Cos(left);
+                    break;
+                case PostfixProgram.EXP:
+                    nodes[i] = new Exp(left);
+                    break;
+                case PostfixProgram.LOG:
+                    nodes[i] = new Log(left);
+                    break;
+                case PostfixProgram.POLYNOMIAL:
+                    nodes[i] = new Polynomial(left, constants[i]);
+                    break;
+                default:
+                    nodes[i] = calls[leftOperands[i]];
+                    break;
+            }
+        }
+        return nodes[nodes.length - 1];
+    }
+
+    /**
+     * Evaluates the expression at a given input by computing the value of every node in order
+     *
+     * @param input The value at which to evaluate the expression
+     * @return The value of the expression at the input
+     * @throws UnsupportedOperationException If the expression has a variable other than x
+     */
+    public double value(double input) {
+        return values(input, precision)[types.length - 1];
+    }
+
+    /**
+     * Evaluates the expression at a given input with a given precision, whatever the precision of the expression
+     *
+     * @param input     The value at which to evaluate the expression
+     * @param precision How the sines, cosines, exponentials, logarithms and powers are computed
+     * @return The value of the expression at the input
+     * @throws UnsupportedOperationException If the expression has a variable other than x
+     */
+    public double value(double input, Precision precision) {
+        return values(input, precision)[types.length - 1];
+    }
+
+    /**
+     * Computes the value of every node of the expression at a given input
+     *
+     * @param input The value at which to evaluate the expression
+     * @return The value of each node, in an array owned by the current thread which the next evaluation overwrites
+     * @throws UnsupportedOperationException If the expression has a variable other than x
+     */
+    double[] values(double input) {
+        return values(input, precision);
+    }
+
+    /**
+     * Computes the value of every node of the expression at a given input with a given precision
+     *
+     * @param input     The value at which to evaluate the expression
+     * @param precision How the sines, cosines, exponentials, logarithms and powers are computed
+     * @return The value of each node, in an array owned by the current thread which the next evaluation overwrites
+     * @throws UnsupportedOperationException If the expression has a variable other than x
+     */
+    private double[] values(double input, Precision precision) {
+        if (variableCount > 1) {
+            throw new UnsupportedOperationException("An expression of " + variableCount
+                    + " variables can only be evaluated in an environment");
+        }
+        boolean fast = precision == Precision.FAST;
+        byte[] types = this.types;
+        int[] leftOperands = this.leftOperands;
+        int[] rightOperands = this.rightOperands;
+        double[] constants = this.constants;
+        double[] values = this.values.get();
+        for (int i = 0; i < types.length; i++) {
+            switch (types[i]) {
+                case PostfixProgram.NUMBER:
+                    values[i] = constants[i];
+                    break;
+                case PostfixProgram.VARIABLE:
+                    values[i] = input;
+                    break;
+                case PostfixProgram.PLUS:
+                    values[i] = values[leftOperands[i]] + values[rightOperands[i]];
+                    break;
+                case PostfixProgram.SUB:
+                    values[i] = values[leftOperands[i]] - values[rightOperands[i]];
+                    break;
+                case PostfixProgram.MULT:
+                    values[i] = values[leftOperands[i]] * values[rightOperands[i]];
+                    break;
+                case PostfixProgram.DIV:
+                    values[i] = values[leftOperands[i]] / values[rightOperands[i]];
+                    break;
+                case PostfixProgram.SIN:
+                    values[i] = fast ? FastMath.sin(values[leftOperands[i]]) : Math.sin(values[leftOperands[i]]);
+                    break;
+                case PostfixProgram.COS:
+                    values[i] = fast ? FastMath.cos(values[leftOperands[i]]) : Math.cos(values[leftOperands[i]]);
+                    break;
+                case PostfixProgram.EXP:
+                    values[i] = fast ? FastMath.exp(values[leftOperands[i]]) : Math.exp(values[leftOperands[i]]);
+                    break;
+                case PostfixProgram.LOG:
+                    values[i] = fast ? FastMath.log(values[leftOperands[i]]) : Math.log(values[leftOperands[i]]);
+                    break;
+                case PostfixProgram.POLYNOMIAL:
+                    values[i] = fast ? FastMath.pow(values[leftOperands[i]], constants[i])
+                            : Math.pow(values[leftOperands[i]], constants[i]);
+                    break;
+                default:
+                    values[i] = calls[leftOperands[i]].value(input);
+                    break;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Evaluates the expression in an environment by computing the value of every node in order
+     * The functions called by the expression are evaluated through their own evaluate(double[]) method
+     *
+     * @param environment The value of each variable, by index, at least variableCount() long
+     * @return The value of the expression in the environment
+     */
+    public double evaluate(double[] environment) {
+        return values(environment, precision)[types.length - 1];
+    }
+
+    /**
+     * Evaluates the expression in an environment with a given precision, whatever the precision of the expression
+     *
+     * @param environment The value of each variable, by index, at least variableCount() long
+     * @param precision   How the sines, cosines, exponentials, logarithms and powers are computed
+     * @return The value of the expression in the environment
+     */
+    public double evaluate(double[] environment, Precision precision) {
+        return values(environment, precision)[types.length - 1];
+    }
+
+    /**
+     * Computes the value of every node of the expression in an environment
+     *
+     * @param environment The value of each variable, by index, at least variableCount() long
+     * @return The value of each node, in an array owned by the current thread which the next evaluation overwrites
+     */
+    double[] values(double[] environment) {
+        return values(environment, precision);
+    }
+
+    /**
+     * Computes the value of every node of the expression in an environment with a given precision
+     *
+     * @param environment The value of each variable, by index, at least variableCount() long
+     * @param precision   How the sines, cosines, exponentials, logarithms and powers are computed
+     * @return The value of each node, in an array owned by the current thread which the next evaluation overwrites
+     */
+    private double[] values(double[] environment, Precision precision) {
+        boolean fast = precision == Precision.FAST;
+        byte[] types = this.types;
+        int[] leftOperands = this.leftOperands;
+        int[] rightOperands = this.rightOperands;
+        double[] constants = this.constants;
+        double[] values = this.values.get();
+        for (int i = 0; i < types.length; i++) {
+            switch (types[i]) {
+                case PostfixProgram.NUMBER:
+                    values[i] = constants[i];
+                    break;
+                case PostfixProgram.VARIABLE:
+                    values[i] = environment[(int) constants[i]];
+                    break;
+                case PostfixProgram.PLUS:
+                    values[i] = values[leftOperands[i]] + values[rightOperands[i]];
+                    break;
+                case PostfixProgram.SUB:
+                    values[i] = values[leftOperands[i]] - values[rightOperands[i]];
+                    break;
+                case PostfixProgram.MULT:
+                    values[i] = values[leftOperands[i]] * values[rightOperands[i]];
+                    break;
+                case PostfixProgram.DIV:
+                    values[i] = values[leftOperands[i]] / values[rightOperands[i]];
+                    break;
+                case PostfixProgram.SIN:
+                    values[i] = fast ? FastMath.sin(values[leftOperands[i]]) : Math.sin(values[leftOperands[i]]);
+                    break;
+                case PostfixProgram.COS:
+                    values[i] = fast ? FastMath.cos(values[leftOperands[i]]) : Math.cos(values[leftOperands[i]]);
+                    break;
+                case PostfixProgram.EXP:
+                    values[i] = fast ? FastMath.exp(values[leftOperands[i]]) : Math.exp(values[leftOperands[i]]);
+                    break;
+                case PostfixProgram.LOG:
+                    values[i] = fast ? FastMath.log(values[leftOperands[i]]) : Math.log(values[leftOperands[i]]);
+                    break;
+                case PostfixProgram.POLYNOMIAL:
+                    values[i] = fast ? FastMath.pow(values[leftOperands[i]], constants[i])
+                            : Math.pow(values[leftOperands[i]], constants[i]);
+                    break;
+                default:
+                    values[i] = calls[leftOperands[i]].evaluate(environment);
+                    break;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Computes the value of the expression in an environment and its partial derivative with respect to every
+     * variable, by reverse mode differentiation
+     * The nodes are evaluated in order, then visited in reverse order while the derivative of the result with
+     * respect to each node is pushed back to its operands by the chain rule, so the gradient costs one evaluation
+     * and one backward sweep however many variables there are.  Constant nodes pass nothing back, as derivative()
+     * does not differentiate a constant subtree.  A function called by the expression is differentiated as a
+     * function of x alone, by its valueAndDerivative() method
+     *
+     * @param environment The value of each variable, by index, at least variableCount() long
+     * @param gradient    The array which receives the partial derivative with respect to each variable, by index, at
+     *                    least variableCount() long; every other element is set to zero
+     * @return The value of the expression in the environment
+     */
+    public double gradient(double[] environment, double[] gradient) {
+        byte[] types = this.types;
+        int[] leftOperands = this.leftOperands;
+        int[] rightOperands = this.rightOperands;
+        double[] constants = this.constants;
+        double[] values = values(environment);
+        double result = values[types.length - 1];
+        double[] adjoints = this.adjoints.get();
+        double[] derivative = null;
+        Arrays.fill(gradient, 0);
+        Arrays.fill(adjoints, 0);
+        adjoints[types.length - 1] = 1;
+        for (int i = types.length - 1; i >= 0; i--) {
+            double adjoint = adjoints[i];
+
+            //a node which the result does not depend on, or whose value is constant, passes nothing back
+            if (adjoint == 0 || constantNodes[i]) {
+                continue;
+            }
+            int left = leftOperands[i];
+            int right = rightOperands[i];
+            switch (types[i]) {
+                case PostfixProgram.NUMBER:
+                    break;
+                case PostfixProgram.VARIABLE:
+                    gradient[(int) constants[i]] += adjoint;
+                    break;
+                case PostfixProgram.PLUS:
+                    adjoints[left] += adjoint;
+                    adjoints[right] += adjoint;
+                    break;
+                case PostfixProgram.SUB:
+                    adjoints[left] += adjoint;
+                    adjoints[right] -= adjoint;
+                    break;
+                case PostfixProgram.MULT:
+                    adjoints[left] += adjoint * values[right];
+                    adjoints[right] += adjoint * values[left];
+                    break;
+                case PostfixProgram.DIV:
+                    adjoints[left] += adjoint / values[right];
+                    adjoints[right] -= adjoint * values[i] / values[right];
+                    break;
+                case PostfixProgram.SIN:
+                    adjoints[left] += adjoint * Math.cos(values[left]);
+                    break;
+                case PostfixProgram.COS:
+                    adjoints[left] -= adjoint * Math.sin(values[left]);
+                    break;
+                case PostfixProgram.EXP:
+                    adjoints[left] += adjoint * values[i];
+                    break;
+                case PostfixProgram.LOG:
+                    adjoints[left] += adjoint / values[left];
+                    break;
+                case PostfixProgram.POLYNOMIAL:
+                    adjoints[left] += adjoint * constants[i] * Math.pow(values[left], constants[i] - 1);
+                    break;
+                default:
+                    if (derivative == null) {
+                        derivative = new double[1];
+                    }
+                    calls[left].valueAndDerivative(environment[0], derivative);
+                    gradient[0] += adjoint * derivative[0];
+                    break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param index The index of a node
+     * @return The type of the node
+     */
+    byte type(int index) {
+        return types[index];
+    }
+
+    /**
+     * @param index The index of a node
+     * @return The index of the left (or only) operand of the node, or of the function called by a CALL node or the
+     * Variable of a VARIABLE node
+     */
+    int leftOperand(int index) {
+        return leftOperands[index];
+    }
+
+    /**
+     * @param index The index of a node
+     * @return The index of the right operand of a BinaryOp node
+     */
+    int rightOperand(int index) {
+        return rightOperands[index];
+    }
+
+    /**
+     * @param index The index of a node
+     * @return The value of a Number node, the power of a Polynomial node or the index of a Variable node
+     */
+    double constant(int index) {
+        return constants[index];
+    }
+
+    /**
+     * @param index The index of a function called by a CALL node or of the Variable of a VARIABLE node
+     * @return The function
+     */
+    Function call(int index) {
+        return calls[index];
+    }
+
+    /**
+     * @return The largest index of a Variable in the expression plus one, which is the length an environment needs
+     */
+    public int variableCount() {
+        return variableCount;
+    }
+
+    /**
+     * @return The number of nodes in the expression, counting shared nodes once
+     */
+    public int size() {
+        return types.length;
+    }
+
+    /**
+     * Computes the number of bytes taken by the elements of the arrays of the expression, not counting the headers of
+     * the arrays or the functions it calls
+     * The values and adjoints of every thread which has evaluated the expression or computed its gradient are
+     * counted, including those of threads which have since finished, whose arrays may not be collected yet
+     *
+     * @return The number of bytes taken by the arrays of the expression
+     */
+    public long bytes() {
+        return (long) Byte.BYTES * types.length + (long) Integer.BYTES * (leftOperands.length + rightOperands.length)
+                + (long) Double.BYTES * constants.length + constantNodes.length
+                + (long) Double.BYTES * types.length * threadArrays.get();
+    }
+}
@@ -0,0 +1,123 @@
+package cas;
+
+/**
+ * Represents the trigonometric cosine function
+ *
+ * @author Kennan LeJeune
+ */
+public class Cos extends UnaryOp {
+    /**
+     * Initializes the operand argument to be taken by a Cos function instance
+     *
+     * @param operand the operand to be taken by the Cos instance
+     */
+    public Cos(Function operand) {
+        super(operand);
+    }
+
+    /**
+     * @return the value of a Cos instance
+     */
+    @Override
+    public double value() {
+        if (Instrumentation.ENABLED && Instrumentation.enter(this)) {
+            return Instrumentation.value(this);
+        }
+        return Math.cos(this.getOperand().value());
+    }
+
+    /**
+     * @param input the value at which to evaluate the function
+     * @return the value of the Cos function at the given input value
+     */
+    @Override
+    public double value(double input) {
+        if (Instrumentation.ENABLED && Instrumentation.enter(this)) {
+            return Instrumentation.value(this, input);
+        }
+        return Math.cos(this.getOperand().value(input));
+    }
+
+    /**
+     * Computes the value of a Cos function of several variables in an environment
+     *
+     * @param environment The value of each variable, by index
+     * @return The value of the Cos function in the environment
+     */
+    @Override
+    public double evaluate(double[] environment) {
+        return Math.cos(this.getOperand().evaluate(environment));
+    }
+
+    /**
+     * Evaluates a Cos function at every value of an input array
+     *
+     * @param inputs  The values at which to evaluate the function
+     * @param outputs The array which receives the value of the Cos function at each input
+     */
+    @Override
+    public void value(double[] inputs, double[] outputs) {
+        getOperand().value(inputs, outputs);
+        for (int i = 0; i < inputs.length; i++) {
+            outputs[i] = Math.cos(outputs[i]);
+        }
+    }
+
+    /**
+     * Computes bounds on the cosine of the operand at every input of an interval
+     *
+     * @param input The interval of inputs
+     * @return An interval containing the value of the Cos function at every input
+     */
+    @Override
+    public Interval valueInterval(Interval input) {
+        return getOperand().valueInterval(input).cos();
+    }
+
+    /**
+     * Computes the value and derivative of a Cos function at the value of an input parameter, using the same chain
+     * rule as derivative()
+     *
+     * @param input      The value at which to evaluate the function
+     * @param derivative The array whose first element receives the derivative of the Cos function at the input
+     * @return The value of the Cos function at the given input value
+     */
+    @Override
+    public double valueAndDerivative(double input, double[] derivative) {
+        if (isConstant()) {
+            derivative[0] = 0;
+            return value(input);
+        }
+        double operand = this.getOperand().valueAndDerivative(input, derivative);
+        derivative[0] = (-1 * Math.sin(operand)) * derivative[0];
+        return Math.cos(operand);
+    }
+
+    /**
+     * Computes the Taylor series of a Cos function from the series of its operand
+     *
+     * @param input The value around which to expand the function
+     * @param order The highest power of the series
+     * @return The coefficients of the Taylor series of the Cos function
+     */
+    @Override
+    protected double[] taylor(double input, int order) {
+        if (isConstant()) {
+            return constantSeries(input, order);
+        }
+        double[] cos = new double[order + 1];
+        Sin.sinCos(this.getOperand().taylor(input, order), new double[order + 1], cos);
+        return cos;
+    }
+
+    /**
+     * Computes the derivative of a Cos function
+     *
+     * @return The Function which is the derivative of the Cos function
+     */
+    @Override
+    protected Function computeDerivative() {
+        return new BinaryOp(new BinaryOp(new Number(-1), new Sin(getOperand()), BinaryOp.Op.MULT), getOperand()
+                .derivative(), BinaryOp.Op.MULT);
+    }
+}
@@ -0,0 +1,133 @@
+package cas;
+
+/**
+ * Represents a base e exponential function
+ *
+ * @author Kennan LeJeune
+ */
+public class Exp extends UnaryOp {
+    /**
+     * Initializes the operand argument to be taken by an Exp function instance
+     *
+     * @param operand the operand to be taken by the Exp instance
+     */
+    public Exp(Function operand) {
+        super(operand);
+    }
+
+    /**
+     * Evaluates an Exp function at a given input value
+     *
+     * @param input The value at which to evaluate the function
+     * @return The value of the Exp function at the value of the input parameter
+     */
+    public double value(double input) {
+        if (Instrumentation.ENABLED && Instrumentation.enter(this)) {
+            return Instrumentation.value(this, input);
+        }
+        return Math.exp(this.getOperand().value(input));
+    }
+
+    /**
+     * Computes the value of an Exp function of several variables in an environment
+     *
+     * @param environment The value of each variable, by index
+     * @return The value of the Exp function in the environment
+     */
+    @Override
+    public double evaluate(double[] environment) {
+        return Math.exp(this.getOperand().evaluate(environment));
+    }
+
+    /**
+     * Evaluates an Exp function at every value of an input array
+     *
+     * @param inputs  The values at which to evaluate the function
+     * @param outputs The array which receives the value of the Exp function at each input
+     */
+    @Override
+    public void value(double[] inputs, double[] outputs) {
+        getOperand().value(inputs, outputs);
+        for (int i = 0; i < inputs.length; i++) {
+            outputs[i] = Math.exp(outputs[i]);
+        }
+    }
+
+    /**
+     * Computes bounds on the exponential of the operand at every input of an interval
+     *
+     * @param input The interval of inputs
+     * @return An interval containing the value of the Exp function at every input
+     */
+    @Override
+    public Interval valueInterval(Interval input) {
+        return getOperand().valueInterval(input).exp();
+    }
+
+    /**
+     * Computes the value and derivative of an Exp function at a given input value, using the same chain rule as
+     * derivative()
+     *
+     * @param input      The value at which to evaluate the function
+     * @param derivative The array whose first element receives the derivative of the Exp function at the input
+     * @return The value of the Exp function at the value of the input parameter
+     */
+    @Override
+    public double valueAndDerivative(double input, double[] derivative) {
+        if (isConstant()) {
+            derivative[0] = 0;
+            return value(input);
+        }
+        double value = Math.exp(this.getOperand().valueAndDerivative(input, derivative));
+        derivative[0] = value * derivative[0];
+        return value;
+    }
+
+    /**
+     * Computes the Taylor series of an Exp function from the series of its operand
+     *
+     * @param input The value around which to expand the function
+     * @param order The highest power of the series
+     * @return The coefficients of the Taylor series of the Exp function
+     */
+    @Override
+    protected double[] taylor(double input, int order) {
+        if (isConstant()) {
+            return constantSeries(input, order);
+        }
+        double[] operand = this.getOperand().taylor(input, order);
+        double[] exp = new double[order + 1];
+        exp[0] = Math.exp(operand[0]);
+        for (int k = 1; k <= order; k++) {
+            double sum = 0;
+            for (int j = 1; j <= k; j++) {
+                sum += j * operand[j] * exp[k - j];
+            }
+            exp[k] = sum / k;
+        }
+        return exp;
+    }
+
+    /**
+     * Computes the value of a numeric Exp function
+     *
+     * @return The value of the Exp function
+     */
+    public double value() {
+        if (Instrumentation.ENABLED && Instrumentation.enter(this)) {
+            return Instrumentation.value(this);
+        }
+        return Math.exp(this.getOperand().value());
+    }
+
+    /**
+     * Computes the derivative of an Exp function
+     *
+     * @return The function that is the derivative of the Exp function
+     */
+    @Override
+    protected Function computeDerivative() {
+        return new BinaryOp(this, getOperand().derivative(), BinaryOp.Op.MULT);
+    }
+
+}
@@ -0,0 +1,257 @@
+package cas;
+
+/**
+ * Computes the elementary functions with short polynomial approximations, trading the last bits of accuracy of
+ * java.lang.Math for throughput
+ * Each function reduces its argument to a small interval around zero with a few exact floating point operations and
+ * at most one lookup in a small table, evaluates a fixed polynomial on that interval, and rebuilds the result, with
+ * no correction terms for the last ulp.  Arguments outside the range the reduction handles, and the special values
+ * infinity and NaN, are passed to the method of java.lang.Math, so each function agrees with Math wherever its
+ * approximation is not used, apart from the sign of a zero result
+ * The error bounds below hold with a margin over the largest errors measured against StrictMath across tens of
+ * millions of arguments spread over each range
+ *
+ * @author Kennan LeJeune
+ */
+public final class FastMath {
+    //the largest argument of sin and cos reduced here, for which k * PIO2_1 and k * PIO2_2 are exact
+    private static final double TRIG_LIMIT = 0x1p20;
+
+    //adding 1.5 * 2^52 rounds a number below 2^51 in magnitude to a whole number, held in the low bits of the sum
+    private static final double SHIFT = 0x1.8p52;
+
+    //2 / pi, and pi / 2 split into three parts of 33 bits each
+    private static final double TWO_OVER_PI = 6.36619772367581382433e-01;
+    private static final double PIO2_1 = 1.57079632673412561417e+00;
+    private static final double PIO2_2 = 6.07710050630396597660e-11;
+    private static final double PIO2_3 = 2.02226624871116645580e-21;
+
+    //minimax coefficients of sin(r) / r - 1 and of cos(r) - 1 + r^2 / 2 in powers of r^2 on [-pi / 4, pi / 4]
+    private static final double S1 = -1.66666666666666324348e-01;
+    private static final double S2 = 8.33333333332248946124e-03;
+    private static final double S3 = -1.98412698298579493134e-04;
+    private static final double S4 = 2.75573137070700676789e-06;
+    private static final double S5 = -2.50507602534068634195e-08;
+    private static final double S6 = 1.58969099521155010221e-10;
+    private static final double C1 = 4.16666666666666019037e-02;
+    private static final double C2 = -1.38888888888741095749e-03;
+    private static final double C3 = 2.48015872894767294178e-05;
+    private static final double C4 = -2.75573143513906633035e-07;
+    private static final double C5 = 2.08757232129817482790e-09;
+    private static final double C6 = -1.13596475577881948265e-11;
+
+    //the largest magnitude of an argument of exp whose result is a normal number
+    private static final double EXP_LIMIT = 708;
+
+    //the number of steps of 2^(j / 32) by which exp reduces its argument, and its table of those steps
+    private static final int EXP_STEPS = 32;
+    private static final double[] EXP_TABLE = new double[EXP_STEPS];
+
+    //32 / ln 2, and ln 2 / 32 split into a part of 27 bits and the rest
+    private static final double STEPS_OVER_LN2 = EXP_STEPS / 6.93147180559945286227e-01;
+    private static final double LN2_HI = 6.93147180369123816490e-01;
+    private static final double LN2_LO = 1.90821492927058770002e-10;
+    private static final double STEP_HI = LN2_HI / EXP_STEPS;
+    private static final double STEP_LO = LN2_LO / EXP_STEPS;
+
+    //the bits of the lowest significand reduced by log, about sqrt(1/2), placing 1 at the middle of an interval
+    private static final long LOG_OFFSET = 0x3fe6a00000000000L;
+
+    //the number of intervals into which log divides its reduced significands, and the one centred on 1
+    private static final int LOG_INTERVALS = 64;
+    private static final int LOG_ONE = 37;
+
+    //the reciprocal, rounded to 32 bits, of the centre c of each interval, and the logarithm of c
+    private static final double[] LOG_INVERSES = new double[LOG_INTERVALS];
+    private static final double[] LOG_CENTRES = new double[LOG_INTERVALS];
+
+    static {
+        for (int j = 0; j < EXP_STEPS; j++) {
+            EXP_TABLE[j] = StrictMath.pow(2, (double) j / EXP_STEPS);
+        }
+        for (int i = 0; i < LOG_INTERVALS; i++) {
+            double centre = Double.longBitsToDouble(LOG_OFFSET + ((2L * i + 1) << 45));
+            double inverse = i == LOG_ONE ? 1 : Double.longBitsToDouble(
+                    Double.doubleToRawLongBits(1 / centre) & 0xffffffffffe00000L);
+            LOG_INVERSES[i] = inverse;
+            LOG_CENTRES[i] = -StrictMath.log(inverse);
+        }
+    }
+
+    //the largest magnitude of a whole or half power computed by multiplication
+    private static final int MAX_MULTIPLIED_POWER = 16;
+
+    /**
+     * Prevents instantiation of a class of static methods
+     */
+    private FastMath() {
+    }
+
+    /**
+     * Computes the sine of an argument to within an absolute error of 2^-51 of the exact result, for arguments up
+     * to 2^20 in magnitude; larger arguments and special values are computed by Math.sin
+     *
+     * @param x The argument, in radians
+     * @return The sine of the argument
+     */
+    public static double sin(double x) {
+        if (!(Math.abs(x) <= TRIG_LIMIT)) {
+            return Math.sin(x);
+        }
+        double shifted = x * TWO_OVER_PI + SHIFT;
+        double k = shifted - SHIFT;
+        double r = x - k * PIO2_1 - k * PIO2_2 - k * PIO2_3;
+        int quadrant = (int) Double.doubleToRawLongBits(shifted);
+        double value = (quadrant & 1) == 0 ? sinKernel(r) : cosKernel(r);
+        return (quadrant & 2) == 0 ? value : -value;
+    }
+
+    /**
+     * Computes the cosine of an argument to within an absolute error of 2^-51 of the exact result, for arguments up
+     * to 2^20 in magnitude; larger arguments and special values are computed by Math.cos
+     *
+     * @param x The argument, in radians
+     * @return The cosine of the argument
+     */
+    public static double cos(double x) {
+        if (!(Math.abs(x) <= TRIG_LIMIT)) {
+            return Math.cos(x);
+        }
+        double shifted = x * TWO_OVER_PI + SHIFT;
+        double k = shifted - SHIFT;
+        double r = x - k * PIO2_1 - k * PIO2_2 - k * PIO2_3;
+        int quadrant = (int) Double.doubleToRawLongBits(shifted) + 1;
+        double value = (quadrant & 1) == 0 ? sinKernel(r) : cosKernel(r);
+        return (quadrant & 2) == 0 ? value : -value;
+    }
+
+    /**
+     * Computes the sine of a reduced argument
+     *
+     * @param r The argument, at most pi / 4 in magnitude
+     * @return The sine of the argument
+     */
+    private static double sinKernel(double r) {
+        double z = r * r;
+        return r + r * z * (S1 + z * (S2 + z * (S3 + z * (S4 + z * (S5 + z * S6)))));
+    }
+
+    /**
+     * Computes the cosine of a reduced argument
+     *
+     * @param r The argument, at most pi / 4 in magnitude
+     * @return The cosine of the argument
+     */
+    private static double cosKernel(double r) {
+        double z = r * r;
+        return 1 - 0.5 * z + z * z * (C1 + z * (C2 + z * (C3 + z * (C4 + z * (C5 + z * C6)))));
+    }
+
+    /**
+     * Computes e raised to a power to within a relative error of 2^-51 of the exact result, for powers up to 708 in
+     * magnitude; larger powers and special values are computed by Math.exp
+     * The power is reduced to (k + j / 32) ln 2 + r with |r| at most ln 2 / 64, so that the result is 2^k times an
+     * entry of a table of 2^(j / 32) times a polynomial of degree six in r
+     *
+     * @param x The power
+     * @return e raised to the power
+     */
+    public static double exp(double x) {
+        if (!(Math.abs(x) <= EXP_LIMIT)) {
+            return Math.exp(x);
+        }
+        double shifted = x * STEPS_OVER_LN2 + SHIFT;
+        double steps = shifted - SHIFT;
+        long bits = Double.doubleToRawLongBits(shifted);
+        double r = x - steps * STEP_HI - steps * STEP_LO;
+        double z = r * r;
+        double polynomial = r + z * (0.5 + r * (1.0 / 6) + z * (1.0 / 24 + r * (1.0 / 120) + z * (1.0 / 720)));
+        double step = EXP_TABLE[(int) bits & (EXP_STEPS - 1)];
+        return (step + step * polynomial) * Double.longBitsToDouble(((bits >> 5) + 1023) << 52);
+    }
+
+    /**
+     * Computes the natural logarithm of a positive normal number to within a relative error of 2^-50 of the exact
+     * result; every other argument is computed by Math.log
+     * The argument is reduced to 2^k m with m between about sqrt(1/2) and sqrt(2), and m to c (1 + r) with c the
+     * centre of one of 64 intervals and |r| at most 1 / 128, so that the result is k ln 2 plus a table entry for
+     * log(c) plus a polynomial of degree eight in r.  The interval around 1 has c = 1, so there is no cancellation
+     * between the terms for arguments near 1
+     *
+     * @param x The argument
+     * @return The natural logarithm of the argument
+     */
+    public static double log(double x) {
+        if (!(x >= Double.MIN_NORMAL && x < Double.POSITIVE_INFINITY)) {
+            return Math.log(x);
+        }
+        long bits = Double.doubleToRawLongBits(x);
+        long reduced = bits - LOG_OFFSET;
+        int k = (int) (reduced >> 52);
+        int interval = (int) (reduced >>> 46) & (LOG_INTERVALS - 1);
+        long significand = bits - (reduced & 0xfff0000000000000L);
+
+        //m times the 32 bit reciprocal, split so that the product of the top 21 bits of m is exact
+        double m = Double.longBitsToDouble(significand);
+        double high = Double.longBitsToDouble(significand & 0xffffffff00000000L);
+        double inverse = LOG_INVERSES[interval];
+        double r = (high * inverse - 1) + (m - high) * inverse;
+
+        double z = r * r;
+        double polynomial = r - 0.5 * z + z * r * (1.0 / 3 - 0.25 * r + z * (0.2 - r * (1.0 / 6)
+                + z * (1.0 / 7 - 0.125 * r)));
+        return (k * LN2_HI + LOG_CENTRES[interval]) + (polynomial + k * LN2_LO);
+    }
+
+    /**
+     * Raises a number to a power, multiplying out whole powers and whole powers plus one half up to 16 in magnitude
+     * Whole powers n are computed by repeated squaring, to within a relative error of |n| 2^-52, and a further half
+     * is a multiplication by a correctly rounded square root, to within (|n| + 2) 2^-52; any other power, and a half
+     * power of a number which is not positive and finite, is computed by Math.pow.  The bounds hold while the
+     * intermediate powers are normal numbers
+     *
+     * @param x     The base
+     * @param power The power
+     * @return The base raised to the power
+     */
+    public static double pow(double x, double power) {
+        //the most common power, as the JIT compiler makes Math.pow(x, 2)
+        if (power == 2) {
+            return x * x;
+        }
+        double magnitude = Math.abs(power);
+        if (!(magnitude <= MAX_MULTIPLIED_POWER)) {
+            return Math.pow(x, power);
+        }
+        int n = (int) magnitude;
+        double fraction = magnitude - n;
+        double result;
+        if (fraction == 0) {
+            result = multiply(x, n);
+        } else if (fraction == 0.5 && x > 0 && x < Double.POSITIVE_INFINITY) {
+            result = multiply(x, n) * Math.sqrt(x);
+        } else {
+            return Math.pow(x, power);
+        }
+        return power < 0 ? 1 / result : result;
+    }
+
+    /**
+     * Raises a number to a whole power by repeated squaring
+     *
+     * @param x The base
+     * @param n The power, at least zero
+     * @return The base raised to the power
+     */
+    private static double multiply(double x, int n) {
+        double result = 1;
+        double square = x;
+        for (; n > 0; n >>= 1) {
+            if ((n & 1) == 1) {
+                result *= square;
+            }
+            square *= square;
+        }
+        return result;
+    }
+}
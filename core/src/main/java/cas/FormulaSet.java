@@ -0,0 +1,100 @@
+package cas;
+
+import java.util.List;
+
+/**
+ * Evaluates many Functions at the same inputs together, computing each subterm they have in common once per input
+ * The formulas are interned by a FunctionFactory, so structurally equal subterms such as Sin[x] or x^2.0 become the
+ * same object however many formulas contain them, and are then stored as a single CompactExpression in which every
+ * distinct subterm is one node.  Evaluating the set is one loop over those nodes, after which the value of each
+ * formula is read from the node at its root.  Since the factory treats a sum or product with swapped operands, and
+ * zero and negative zero, as equal, a formula may only differ from its own value(double) in the sign of a zero
+ *
+ * @author Kennan LeJeune
+ */
+public class FormulaSet {
+    //every distinct subterm of the formulas, each stored once
+    private final CompactExpression expression;
+
+    //the index of the node of the expression at the root of each formula
+    private final int[] roots;
+
+    /**
+     * Merges a list of formulas into a set
+     *
+     * @param formulas The formulas, in the order their values are written by evaluate
+     * @throws IllegalArgumentException If there are no formulas
+     */
+    public FormulaSet(List<? extends Function> formulas) {
+        if (formulas.isEmpty()) {
+            throw new IllegalArgumentException("A formula set needs at least one formula");
+        }
+        FunctionFactory factory = new FunctionFactory();
+        Function[] interned = new Function[formulas.size()];
+        for (int i = 0; i < interned.length; i++) {
+            interned[i] = factory.intern(formulas.get(i));
+        }
+        this.roots = new int[interned.length];
+        this.expression = CompactExpression.of(interned, roots, Precision.EXACT);
+    }
+
+    /**
+     * Merges formulas into a set
+     *
+     * @param formulas The formulas, in the order their values are written by evaluate
+     * @throws IllegalArgumentException If there are no formulas
+     */
+    public FormulaSet(Function... formulas) {
+        this(List.of(formulas));
+    }
+
+    /**
+     * Evaluates every formula at a given input, computing each distinct subterm once
+     *
+     * @param input   The value at which to evaluate the formulas
+     * @param outputs The array which receives the value of each formula, in order, at least size() long
+     * @throws UnsupportedOperationException If a formula has a variable other than x
+     */
+    public void evaluate(double input, double[] outputs) {
+        double[] values = expression.values(input);
+        int[] roots = this.roots;
+        for (int i = 0; i < roots.length; i++) {
+            outputs[i] = values[roots[i]];
+        }
+    }
+
+    /**
+     * Evaluates every formula in an environment of several variables, computing each distinct subterm once
+     *
+     * @param environment The value of each variable, by index, at least variableCount() long
+     * @param outputs     The array which receives the value of each formula, in order, at least size() long
+     */
+    public void evaluate(double[] environment, double[] outputs) {
+        double[] values = expression.values(environment);
+        int[] roots = this.roots;
+        for (int i = 0; i < roots.length; i++) {
+            outputs[i] = values[roots[i]];
+        }
+    }
+
+    /**
+     * @return The number of formulas in the set
+     */
+    public int size() {
+        return roots.length;
+    }
+
+    /**
+     * @return The number of distinct subterms of the formulas, each of which is computed once per evaluation
+     */
+    public int nodeCount() {
+        return expression.size();
+    }
+
+    /**
+     * @return The largest index of a Variable in the formulas plus one, which is the length an environment needs
+     */
+    public int variableCount() {
+        return expression.variableCount();
+    }
+}
@@ -0,0 +1,262 @@
+package cas;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Represents any mathematical function
+ *
+ * @author Kennan LeJeune
+ */
+public abstract class Function {
+    //caches the derivative of the function once it has been computed
+    private volatile Function derivative;
+
+    /**
+     * Initializes a Function, counting it as allocated by derivative() if instrumentation is on
+     */
+    protected Function() {
+        if (Instrumentation.ENABLED) {
+            Instrumentation.allocated();
+        }
+    }
+
+    /**
+     * Computes the value of a strictly numerical (containing no variables) Function instance
+     *
+     * @return The value of the function
+     */
+    public abstract double value();
+
+    /**
+     * Computes the value of a Function instance composed of either variables or numbers
+     *
+     * @param input The value at which to evaluate the function
+     * @return The value of the function at the given input
+     */
+    public abstract double value(double input);
+
+    /**
+     * Computes the value of a Function instance of several variables, each of which takes the value at its index in an
+     * environment array
+     * Functions which are not built from other functions depend only on x, so by default they are evaluated at the
+     * first value of the environment
+     *
+     * @param environment The value of each variable, by index, at least as long as the largest index plus one
+     * @return The value of the function in the environment
+     */
+    public double evaluate(double[] environment) {
+        return value(environment[0]);
+    }
+
+    /**
+     * Evaluates a Function instance at every value of an input array, storing the results in an output array
+     * Subclasses evaluate one node at a time across the whole array instead of walking the tree once per input
+     *
+     * @param inputs  The values at which to evaluate the function
+     * @param outputs The array which receives the value of the function at each input, must be at least as long as
+     *                the inputs and must not be the same array as the inputs
+     */
+    public void value(double[] inputs, double[] outputs) {
+        for (int i = 0; i < inputs.length; i++) {
+            outputs[i] = value(inputs[i]);
+        }
+    }
+
+    /**
+     * Computes the value and the derivative of a Function instance at a given input in a single walk of the function,
+     * without building the Function that is its derivative
+     *
+     * @param input      The value at which to evaluate the function and its derivative
+     * @param derivative The array whose first element receives the value of the derivative at the given input
+     * @return The value of the function at the given input
+     */
+    public double valueAndDerivative(double input, double[] derivative) {
+        derivative[0] = derivative().value(input);
+        return value(input);
+    }
+
+    /**
+     * Computes the value and the first derivatives of a Function instance at a given input by propagating Taylor
+     * series through the function, without building the Functions that are its derivatives
+     *
+     * @param input The value at which to evaluate the function and its derivatives
+     * @param order The number of derivatives to compute
+     * @return An array of length order + 1 whose kth element is the value of the kth derivative at the given input
+     * @throws IllegalArgumentException If the order is negative
+     */
+    public double[] derivatives(double input, int order) {
+        if (order < 0) {
+            throw new IllegalArgumentException("Cannot take a negative number of derivatives: " + order);
+        }
+        double[] derivatives = taylor(input, order);
+        double factorial = 1;
+        for (int k = 1; k <= order; k++) {
+            factorial *= k;
+            derivatives[k] *= factorial;
+        }
+        return derivatives;
+    }
+
+    /**
+     * Computes bounds which are guaranteed to contain the value of a Function instance at every input of an interval
+     * Subclasses which do not know how to bound their values return an interval of unknown values
+     *
+     * @param input The interval of inputs
+     * @return An interval containing the value of the function at every input, which also records whether the
+     * function may be undefined at some of the inputs
+     */
+    public Interval valueInterval(Interval input) {
+        return Interval.UNKNOWN;
+    }
+
+    /**
+     * Computes bounds which are guaranteed to contain the value of a Function instance at every input from lo to hi
+     *
+     * @param lo The lower bound of the inputs
+     * @param hi The upper bound of the inputs
+     * @return An interval containing the value of the function at every input from lo to hi
+     */
+    public Interval valueInterval(double lo, double hi) {
+        return valueInterval(new Interval(lo, hi));
+    }
+
+    /**
+     * Determines whether a Function instance has the same value at every input, which is the case when it is built
+     * only from Numbers
+     * Subclasses which cannot tell are never treated as constant
+     *
+     * @return Whether the value of the function does not depend on its input
+     */
+    public boolean isConstant() {
+        return false;
+    }
+
+    /**
+     * Computes the Taylor series of a constant function, whose only nonzero coefficient is its value
+     * Used by the Taylor and forward modes so that the zero derivatives of a constant subtree are never multiplied
+     * by an infinite or undefined value, just as derivative() does not differentiate a constant subtree
+     *
+     * @param input The value around which to expand the function
+     * @param order The highest power of the series
+     * @return The coefficients of the Taylor series of the constant function
+     */
+    protected double[] constantSeries(double input, int order) {
+        double[] coefficients = new double[order + 1];
+        coefficients[0] = value(input);
+        return coefficients;
+    }
+
+    /**
+     * Computes the Taylor series of a Function instance around a given input, where the kth coefficient is the kth
+     * derivative at the input divided by k factorial
+     *
+     * @param input The value around which to expand the function
+     * @param order The highest power of the series
+     * @return An array of length order + 1 containing the coefficients of the series
+     */
+    protected double[] taylor(double input, int order) {
+        double[] coefficients = new double[order + 1];
+        double factorial = 1;
+        for (int k = 0; k <= order; k++) {
+            if (k > 0) {
+                factorial *= k;
+            }
+            coefficients[k] = derivative(k).value(input) / factorial;
+        }
+        return coefficients;
+    }
+
+    /**
+     * Computes the String representation of a Function instance
+     * The representation is written by appendTo into a single buffer, so no intermediate String is built per subtree
+     *
+     * @return The String representation of a Function instance
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        try {
+            this.appendTo(builder);
+        } catch (IOException e) {
+            //a StringBuilder never throws
+            throw new UncheckedIOException(e);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Writes the String representation of a Function instance to a buffer or stream, one piece at a time
+     *
+     * @param out The Appendable which receives the representation
+     * @throws IOException If the Appendable cannot be written to
+     */
+    public abstract void appendTo(Appendable out) throws IOException;
+
+    /**
+     * Computes the derivative of a Function instance
+     * The derivative is computed once and cached, so a subtree shared by several functions, or by a function and its
+     * own derivative, is only differentiated once and its derivative is shared as well.  The derivative of a constant
+     * function is zero, even where the rules for its subtrees would multiply an infinite or undefined value by zero
+     *
+     * @return The Function that is the derivative of a Function instance
+     */
+    public Function derivative() {
+        Function derivative = this.derivative;
+        if (derivative == null) {
+            if (isConstant()) {
+                derivative = new Number(0);
+            } else {
+                derivative = Instrumentation.ENABLED ? Instrumentation.derivative(this) : computeDerivative();
+            }
+            this.derivative = derivative;
+        }
+        return derivative;
+    }
+
+    /**
+     * Computes the nth derivative of a Function instance
+     * Every intermediate derivative is cached, so the result shares its subtrees with the lower derivatives
+     *
+     * @param n The number of times to differentiate the function
+     * @return The Function that is the nth derivative of a Function instance, or the function itself if n is 0
+     * @throws IllegalArgumentException If n is negative
+     */
+    public Function derivative(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Cannot take a negative number of derivatives: " + n);
+        }
+        Function result = this;
+        for (int i = 0; i < n; i++) {
+            result = result.derivative();
+        }
+        return result;
+    }
+
+    /**
+     * Computes the derivative of a Function instance, called by derivative() the first time the derivative is needed
+     * Implementations should differentiate operands through their derivative() method so that cached derivatives
+     * are reused
+     *
+     * @return The Function that is the derivative of a Function instance
+     */
+    protected abstract Function computeDerivative();
+
+    /**
+     * Compare whether an input object is equivalent to a Function instance
+     *
+     * @param input The function to be compared
+     * @return Whether or not the functions are equivalent
+     */
+    @Override
+    public abstract boolean equals(Object input);
+
+    /**
+     * Computes a hash code from the structure of a Function instance, so that equivalent functions have equal hash
+     * codes
+     *
+     * @return The hash code of the function
+     */
+    @Override
+    public abstract int hashCode();
+}
@@ -0,0 +1,582 @@
+package cas;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Compiles a Function into a generated class whose applyAsDouble(double) method evaluates the whole expression as
+ * straight-line arithmetic and calls to java.lang.Math, so the JIT compiler can inline it as a single method
+ * Subtrees of a type the compiler does not recognize are evaluated by calling their value(double) method, and an
+ * expression too large to be JIT compiled is evaluated by the Function itself
+ * A node reached from several parents, as in derivatives, which share their subtrees, is computed once and kept in
+ * a local variable, from which each later use loads it
+ * A function compiled with Precision.FAST calls FastMath instead of java.lang.Math for its sines, cosines,
+ * exponentials, logarithms and powers
+ *
+ * @author Kennan LeJeune
+ */
+public class FunctionCompiler {
+    //the largest method HotSpot will JIT compile, larger methods would only ever be interpreted
+    private static final int MAX_CODE_LENGTH = 8000;
+
+    //counts compiled classes so that each generated class has a unique name
+    private static final AtomicInteger COUNT = new AtomicInteger();
+
+    //internal name of the Function class, referenced by subtrees which must be interpreted
+    private static final String FUNCTION = Function.class.getName().replace('.', '/');
+
+    //bytecode instructions emitted by the compiler
+    private static final int DCONST_0 = 0x0e;
+    private static final int DCONST_1 = 0x0f;
+    private static final int SIPUSH = 0x11;
+    private static final int LDC2_W = 0x14;
+    private static final int ALOAD_0 = 0x2a;
+    private static final int ALOAD_1 = 0x2b;
+    private static final int DLOAD = 0x18;
+    private static final int DLOAD_1 = 0x27;
+    private static final int DSTORE = 0x39;
+    private static final int DUP2 = 0x5c;
+    private static final int WIDE = 0xc4;
+    private static final int AALOAD = 0x32;
+    private static final int DADD = 0x63;
+    private static final int DSUB = 0x67;
+    private static final int DMUL = 0x6b;
+    private static final int DDIV = 0x6f;
+    private static final int DRETURN = 0xaf;
+    private static final int RETURN = 0xb1;
+    private static final int GETFIELD = 0xb4;
+    private static final int PUTFIELD = 0xb5;
+    private static final int INVOKEVIRTUAL = 0xb6;
+    private static final int INVOKESPECIAL = 0xb7;
+    private static final int INVOKESTATIC = 0xb8;
+
+    //constant pool tags
+    private static final int UTF8 = 1;
+    private static final int DOUBLE = 6;
+    private static final int CLASS = 7;
+    private static final int FIELD_REF = 9;
+    private static final int METHOD_REF = 10;
+    private static final int NAME_AND_TYPE = 12;
+
+    //the states of a node waiting to be emitted: its operands are not emitted yet, they are and its instruction is
+    //next, or its value is complete and is kept in its local variable
+    private static final int VISIT = 0;
+    private static final int EMIT = 1;
+    private static final int KEEP = 2;
+
+    //the local variable of the first shared node, after this and the input, each double taking up two variables
+    private static final int FIRST_LOCAL = 3;
+
+    //the constant pool of the class being generated
+    private final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+    private final DataOutputStream poolOut = new DataOutputStream(pool);
+
+    //the index of every entry already in the constant pool, so that no entry is written twice
+    private final Map<String, Integer> entries = new HashMap<>();
+
+    //the next free index of the constant pool
+    private int poolSize = 1;
+
+    //the instructions of the applyAsDouble(double) method
+    private final ByteArrayOutputStream code = new ByteArrayOutputStream();
+
+    //the number of local variables of the applyAsDouble(double) method
+    private int maxLocals = FIRST_LOCAL;
+
+    //subtrees which are evaluated by calling their own value(double) method
+    private final List<Function> interpreted = new ArrayList<>();
+
+    //the name of the class being generated
+    private final String name = "CompiledFunction$" + COUNT.incrementAndGet();
+
+    //the internal name of the class whose static methods compute the elementary functions
+    private final String math;
+
+    /**
+     * Prevents instantiation outside of compile(Function, Precision)
+     *
+     * @param precision How the compiled function computes its elementary functions
+     */
+    private FunctionCompiler(Precision precision) {
+        this.math = precision == Precision.FAST ? FastMath.class.getName().replace('.', '/') : "java/lang/Math";
+    }
+
+    /**
+     * Compiles a Function into an operator which computes the same values as its value(double) method
+     *
+     * @param function The function to be compiled
+     * @return An operator which evaluates the function at its input
+     */
+    public static DoubleUnaryOperator compile(Function function) {
+        return compile(function, Precision.EXACT);
+    }
+
+    /**
+     * Compiles a Function into an operator which computes its sines, cosines, exponentials, logarithms and powers
+     * with a given precision
+     * An expression too large to be compiled is still evaluated by the Function itself, at full precision
+     *
+     * @param function  The function to be compiled
+     * @param precision How the operator computes the elementary functions
+     * @return An operator which evaluates the function at its input
+     */
+    public static DoubleUnaryOperator compile(Function function, Precision precision) {
+        FunctionCompiler compiler = new FunctionCompiler(precision);
+        int maxStack = compiler.emit(function);
+        if (maxStack < 0 || compiler.interpreted.size() > Short.MAX_VALUE || compiler.maxLocals > 0xffff) {
+            return function::value;
+        }
+
+        byte[] bytes = compiler.toClassFile(maxStack);
+        Class<?> compiled = new Loader(FunctionCompiler.class.getClassLoader()).define(compiler.name, bytes);
+        try {
+            return (DoubleUnaryOperator) compiled.getConstructor(Function[].class)
+                    .newInstance((Object) compiler.interpreted.toArray(new Function[0]));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not instantiate the compiled function " + function, e);
+        }
+    }
+
+    /**
+     * Emits the instructions which leave the value of a Function on the operand stack
+     * The function is walked in post-order with an explicit stack, so that long chains of operations cannot overflow
+     * the call stack.  Each node with more than one parent, other than a Number or the input, is emitted once and
+     * stored in a local variable
+     *
+     * @param function The function to be evaluated
+     * @return The maximum size of the operand stack while evaluating the function, in words, or -1 if the function
+     * is too large to be JIT compiled
+     */
+    private int emit(Function function) {
+        //the local variable of each shared node, which holds its value once the node has been emitted
+        Map<Function, Integer> locals = new IdentityHashMap<>();
+        for (Map.Entry<Function, Integer> entry : PostfixProgram.parents(function).entrySet()) {
+            Function node = entry.getKey();
+            if (entry.getValue() > 1 && node.getClass() != Number.class
+                    && !(node.getClass() == Variable.class && ((Variable) node).getIndex() == 0)) {
+                locals.put(node, maxLocals);
+                maxLocals += 2;
+            }
+        }
+        boolean[] stored = new boolean[maxLocals];
+
+        //functions waiting to be emitted, and the state of each
+        Deque<Function> pending = new ArrayDeque<>();
+        Deque<Integer> states = new ArrayDeque<>();
+        pending.push(function);
+        states.push(VISIT);
+
+        //the current and largest size of the operand stack, in words
+        int height = 0;
+        int maxHeight = 0;
+
+        while (!pending.isEmpty()) {
+            if (code.size() > MAX_CODE_LENGTH) {
+                return -1;
+            }
+            Function node = pending.pop();
+            int state = states.pop();
+            Class<?> type = node.getClass();
+
+            Integer local = locals.get(node);
+            if (state == KEEP) {
+                //the value stays on the stack for the parent which emitted it
+                code.write(DUP2);
+                maxHeight = Math.max(maxHeight, height + 2);
+                emitLocal(DSTORE, local);
+                stored[local] = true;
+                continue;
+            }
+            if (state == VISIT && local != null) {
+                if (stored[local]) {
+                    emitLocal(DLOAD, local);
+                    height += 2;
+                    maxHeight = Math.max(maxHeight, height);
+                    continue;
+                }
+                pending.push(node);
+                states.push(KEEP);
+            }
+
+            if (type == Number.class) {
+                emitConstant(node.value());
+                height += 2;
+            } else if (type == Variable.class && ((Variable) node).getIndex() == 0) {
+                //any other variable has no value at a single input, so it is called and throws like the tree
+                code.write(DLOAD_1);
+                height += 2;
+            } else if (type == BinaryOp.class) {
+                BinaryOp binaryOp = (BinaryOp) node;
+                if (state == VISIT) {
+                    pending.push(node);
+                    states.push(EMIT);
+                    pending.push(binaryOp.getRightOperand());
+                    states.push(VISIT);
+                    pending.push(binaryOp.getLeftOperand());
+                    states.push(VISIT);
+                    continue;
+                }
+                switch (binaryOp.getOperator()) {
+                    case PLUS:
+                        code.write(DADD);
+                        break;
+                    case SUB:
+                        code.write(DSUB);
+                        break;
+                    case MULT:
+                        code.write(DMUL);
+                        break;
+                    case DIV:
+                        code.write(DDIV);
+                        break;
+                }
+                height -= 2;
+            } else if (type == Sum.class || type == Product.class) {
+                //the node is pushed once before each operand after the first, and emits one instruction each time
+                NaryOp naryOp = (NaryOp) node;
+                if (state == VISIT) {
+                    Function[] operands = naryOp.operands();
+                    for (int k = operands.length - 1; k >= 1; k--) {
+                        pending.push(node);
+                        states.push(EMIT);
+                        pending.push(operands[k]);
+                        states.push(VISIT);
+                    }
+                    pending.push(operands[0]);
+                    states.push(VISIT);
+                    continue;
+                }
+                code.write(naryOp.getOperator() == BinaryOp.Op.PLUS ? DADD : DMUL);
+                height -= 2;
+            } else if (type == Sin.class || type == Cos.class || type == Exp.class || type == Log.class
+                    || type == Polynomial.class) {
+                if (state == VISIT) {
+                    pending.push(node);
+                    states.push(EMIT);
+                    pending.push(((UnaryOp) node).getOperand());
+                    states.push(VISIT);
+                    continue;
+                }
+                if (type == Sin.class) {
+                    emitMath("sin", "(D)D");
+                } else if (type == Cos.class) {
+                    emitMath("cos", "(D)D");
+                } else if (type == Exp.class) {
+                    emitMath("exp", "(D)D");
+                } else if (type == Log.class) {
+                    emitMath("log", "(D)D");
+                } else {
+                    emitConstant(((Polynomial) node).getPower());
+                    maxHeight = Math.max(maxHeight, height + 2);
+                    emitMath("pow", "(DD)D");
+                }
+            } else {
+                //calls[index].value(input), which needs the array, the function and the input on the stack at once
+                int index = interpreted.size();
+                interpreted.add(node);
+                code.write(ALOAD_0);
+                emitReference(GETFIELD, fieldRef("calls", "[L" + FUNCTION + ";"));
+                code.write(SIPUSH);
+                writeShort(code, index);
+                code.write(AALOAD);
+                code.write(DLOAD_1);
+                emitReference(INVOKEVIRTUAL, methodRef(FUNCTION, "value", "(D)D"));
+                maxHeight = Math.max(maxHeight, height + 3);
+                height += 2;
+            }
+            maxHeight = Math.max(maxHeight, height);
+        }
+        return code.size() > MAX_CODE_LENGTH ? -1 : maxHeight;
+    }
+
+    /**
+     * Emits the instruction which pushes a constant onto the operand stack
+     *
+     * @param value The constant to be pushed
+     */
+    private void emitConstant(double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        if (bits == Double.doubleToRawLongBits(0.0)) {
+            code.write(DCONST_0);
+        } else if (bits == Double.doubleToRawLongBits(1.0)) {
+            code.write(DCONST_1);
+        } else {
+            emitReference(LDC2_W, doubleConstant(bits));
+        }
+    }
+
+    /**
+     * Emits an instruction which stores or loads a local variable, widened when its index does not fit in a byte
+     *
+     * @param opcode The instruction
+     * @param local  The index of the local variable
+     */
+    private void emitLocal(int opcode, int local) {
+        if (local > 0xff) {
+            code.write(WIDE);
+            code.write(opcode);
+            writeShort(code, local);
+        } else {
+            code.write(opcode);
+            code.write(local);
+        }
+    }
+
+    /**
+     * Emits a call to a static method of java.lang.Math, or of FastMath for a fast compiled function
+     *
+     * @param name       The name of the method
+     * @param descriptor The descriptor of the method
+     */
+    private void emitMath(String name, String descriptor) {
+        emitReference(INVOKESTATIC, methodRef(math, name, descriptor));
+    }
+
+    /**
+     * Emits an instruction whose operand is the index of a constant pool entry
+     *
+     * @param opcode The instruction
+     * @param index  The index of the constant pool entry
+     */
+    private void emitReference(int opcode, int index) {
+        code.write(opcode);
+        writeShort(code, index);
+    }
+
+    /**
+     * Assembles the class file of the compiled function
+     *
+     * @param maxStack The maximum size of the operand stack of the applyAsDouble(double) method
+     * @return The bytes of the class file
+     */
+    private byte[] toClassFile(int maxStack) {
+        //references from the class file itself must be in the pool before the pool is written
+        int thisClass = classRef(name);
+        int superClass = classRef("java/lang/Object");
+        int operatorInterface = classRef("java/util/function/DoubleUnaryOperator");
+        int callsName = utf8("calls");
+        int callsDescriptor = utf8("[L" + FUNCTION + ";");
+        int calls = fieldRef("calls", "[L" + FUNCTION + ";");
+        int objectInit = methodRef("java/lang/Object", "<init>", "()V");
+        int initName = utf8("<init>");
+        int initDescriptor = utf8("([L" + FUNCTION + ";)V");
+        int applyName = utf8("applyAsDouble");
+        int applyDescriptor = utf8("(D)D");
+        int codeName = utf8("Code");
+
+        ByteArrayOutputStream init = new ByteArrayOutputStream();
+        init.write(ALOAD_0);
+        init.write(INVOKESPECIAL);
+        writeShort(init, objectInit);
+        init.write(ALOAD_0);
+        init.write(ALOAD_1);
+        init.write(PUTFIELD);
+        writeShort(init, calls);
+        init.write(RETURN);
+        code.write(DRETURN);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            //Java 8 class files without branches need no stack map frames
+            out.writeShort(52);
+            out.writeShort(poolSize);
+            pool.writeTo(out);
+            //public final super
+            out.writeShort(0x0031);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(1);
+            out.writeShort(operatorInterface);
+
+            //private final Function[] calls
+            out.writeShort(1);
+            out.writeShort(0x0012);
+            out.writeShort(callsName);
+            out.writeShort(callsDescriptor);
+            out.writeShort(0);
+
+            out.writeShort(2);
+            writeMethod(out, initName, initDescriptor, codeName, 2, 2, init);
+            writeMethod(out, applyName, applyDescriptor, codeName, maxStack, maxLocals, code);
+            out.writeShort(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Writes a public method with a Code attribute
+     *
+     * @param out        The stream receiving the class file
+     * @param name       The constant pool index of the name of the method
+     * @param descriptor The constant pool index of the descriptor of the method
+     * @param codeName   The constant pool index of the string "Code"
+     * @param maxStack   The maximum size of the operand stack of the method
+     * @param maxLocals  The number of local variable slots of the method
+     * @param body       The instructions of the method
+     * @throws IOException If the stream cannot be written
+     */
+    private static void writeMethod(DataOutputStream out, int name, int descriptor, int codeName, int maxStack,
+                                    int maxLocals, ByteArrayOutputStream body) throws IOException {
+        out.writeShort(0x0001);
+        out.writeShort(name);
+        out.writeShort(descriptor);
+        out.writeShort(1);
+        out.writeShort(codeName);
+        out.writeInt(12 + body.size());
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(body.size());
+        body.writeTo(out);
+        //no exception table and no attributes
+        out.writeShort(0);
+        out.writeShort(0);
+    }
+
+    /**
+     * @param value The string to be added to the constant pool
+     * @return The index of the string in the constant pool
+     */
+    private int utf8(String value) {
+        Integer index = entries.get("U" + value);
+        if (index == null) {
+            index = poolSize++;
+            entries.put("U" + value, index);
+            try {
+                poolOut.writeByte(UTF8);
+                poolOut.writeUTF(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * @param bits The bits of the double to be added to the constant pool
+     * @return The index of the double in the constant pool
+     */
+    private int doubleConstant(long bits) {
+        Integer index = entries.get("D" + bits);
+        if (index == null) {
+            index = poolSize;
+            //doubles take up two entries of the constant pool
+            poolSize += 2;
+            entries.put("D" + bits, index);
+            try {
+                poolOut.writeByte(DOUBLE);
+                poolOut.writeLong(bits);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * @param name The internal name of the class to be added to the constant pool
+     * @return The index of the class in the constant pool
+     */
+    private int classRef(String name) {
+        return entry("C" + name, CLASS, utf8(name), -1);
+    }
+
+    /**
+     * @param name       The name of a field of the generated class
+     * @param descriptor The descriptor of the field
+     * @return The index of the field reference in the constant pool
+     */
+    private int fieldRef(String name, String descriptor) {
+        return entry("F" + name, FIELD_REF, classRef(this.name), nameAndType(name, descriptor));
+    }
+
+    /**
+     * @param owner      The internal name of the class declaring the method
+     * @param name       The name of the method
+     * @param descriptor The descriptor of the method
+     * @return The index of the method reference in the constant pool
+     */
+    private int methodRef(String owner, String name, String descriptor) {
+        return entry("M" + owner + "." + name + descriptor, METHOD_REF, classRef(owner), nameAndType(name, descriptor));
+    }
+
+    /**
+     * @param name       The name of a field or method
+     * @param descriptor The descriptor of the field or method
+     * @return The index of the name and type in the constant pool
+     */
+    private int nameAndType(String name, String descriptor) {
+        return entry("N" + name + ":" + descriptor, NAME_AND_TYPE, utf8(name), utf8(descriptor));
+    }
+
+    /**
+     * Adds an entry made up of a tag and one or two constant pool indexes to the constant pool
+     *
+     * @param key    The key identifying the entry
+     * @param tag    The tag of the entry
+     * @param first  The first index of the entry
+     * @param second The second index of the entry, or -1 if the entry has a single index
+     * @return The index of the entry in the constant pool
+     */
+    private int entry(String key, int tag, int first, int second) {
+        Integer index = entries.get(key);
+        if (index == null) {
+            index = poolSize++;
+            entries.put(key, index);
+            pool.write(tag);
+            writeShort(pool, first);
+            if (second >= 0) {
+                writeShort(pool, second);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Writes a big-endian two byte value
+     *
+     * @param out   The stream receiving the value
+     * @param value The value to be written
+     */
+    private static void writeShort(ByteArrayOutputStream out, int value) {
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    /**
+     * Defines each compiled class in its own class loader, so that the class can be unloaded once the compiled
+     * function is no longer reachable
+     */
+    private static class Loader extends ClassLoader {
+        /**
+         * @param parent The class loader which loaded the Function classes
+         */
+        Loader(ClassLoader parent) {
+            super(parent);
+        }
+
+        /**
+         * @param name  The name of the class
+         * @param bytes The class file
+         * @return The defined class
+         */
+        Class<?> define(String name, byte[] bytes) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package cas;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Creates Functions while guaranteeing that structurally equivalent functions are the same instance
+ * Every function returned by a factory is canonical: its operands are canonical, and any other equivalent function
+ * created by the same factory is the same object.  Comparing canonical functions therefore only compares references,
+ * and equivalent subtrees are stored once no matter how many expressions contain them
+ *
+ * @author Kennan LeJeune
+ */
+public class FunctionFactory {
+    //maps every canonical function to itself
+    private final ConcurrentMap<Function, Function> canonical = new ConcurrentHashMap<>();
+
+    /**
+     * @param value The value of the Number
+     * @return The canonical Number of the given value
+     */
+    public Number number(double value) {
+        return (Number) canonical(new Number(value));
+    }
+
+    /**
+     * @return The canonical Variable
+     */
+    public Variable variable() {
+        return (Variable) canonical(new Variable());
+    }
+
+    /**
+     * @param name  The name of the Variable
+     * @param index The position of the value of the Variable in an environment array
+     * @return The canonical Variable of the given name and index
+     * @throws IllegalArgumentException If the index is negative or the name is not a valid variable name
+     */
+    public Variable variable(String name, int index) {
+        return (Variable) canonical(new Variable(name, index));
+    }
+
+    /**
+     * @param leftOperand  The left operand of the BinaryOp
+     * @param rightOperand The right operand of the BinaryOp
+     * @param operator     The operation to be performed by the BinaryOp
+     * @return The canonical BinaryOp of the given operands and operator
+     */
+    public BinaryOp binaryOp(Function leftOperand, Function rightOperand, BinaryOp.Op operator) {
+        return (BinaryOp) intern(new BinaryOp(intern(leftOperand), intern(rightOperand), operator));
+    }
+
+    /**
+     * @param operands The terms of the Sum, at least two
+     * @return The canonical Sum of the given terms, flattened as by the Sum constructor
+     */
+    public Sum sum(Function... operands) {
+        return (Sum) intern(new Sum(operands));
+    }
+
+    /**
+     * @param operands The factors of the Product, at least two
+     * @return The canonical Product of the given factors, flattened as by the Product constructor
+     */
+    public Product product(Function... operands) {
+        return (Product) intern(new Product(operands));
+    }
+
+    /**
+     * @param operand The operand of the Sin function
+     * @return The canonical Sin function of the given operand
+     */
+    public Sin sin(Function operand) {
+        return (Sin) canonical(new Sin(intern(operand)));
+    }
+
+    /**
+     * @param operand The operand of the Cos function
+     * @return The canonical Cos function of the given operand
+     */
+    public Cos cos(Function operand) {
+        return (Cos) canonical(new Cos(intern(operand)));
+    }
+
+    /**
+     * @param operand The operand of the Exp function
+     * @return The canonical Exp function of the given operand
+     */
+    public Exp exp(Function operand) {
+        return (Exp) canonical(new Exp(intern(operand)));
+    }
+
+    /**
+     * @param operand The operand of the Log function
+     * @return The canonical Log function of the given operand
+     */
+    public Log log(Function operand) {
+        return (Log) canonical(new Log(intern(operand)));
+    }
+
+    /**
+     * @param operand The operand of the Polynomial function
+     * @param power   The power to which the operand is raised
+     * @return The canonical Polynomial function of the given operand and power
+     */
+    public Polynomial polynomial(Function operand, double power) {
+        return (Polynomial) canonical(new Polynomial(intern(operand), power));
+    }
+
+    /**
+     * Finds the canonical instance of any Function, rebuilding it from canonical operands if no equivalent function
+     * has been created by this factory yet
+     * Functions of a type the factory does not recognize are made canonical as they are, without their operands
+     *
+     * @param function The function to be interned
+     * @return The canonical function equivalent to the input function
+     */
+    public Function intern(Function function) {
+        Function existing = canonical.get(function);
+        if (existing != null) {
+            return existing;
+        }
+
+        Class<?> type = function.getClass();
+        if (type == BinaryOp.class) {
+            BinaryOp binaryOp = (BinaryOp) function;
+            Function left = intern(binaryOp.getLeftOperand());
+            Function right = intern(binaryOp.getRightOperand());
+            if (left != binaryOp.getLeftOperand() || right != binaryOp.getRightOperand()) {
+                function = new BinaryOp(left, right, binaryOp.getOperator());
+            }
+        } else if (type == Sum.class || type == Product.class) {
+            Function[] operands = ((NaryOp) function).getOperands();
+            boolean changed = false;
+            for (int k = 0; k < operands.length; k++) {
+                Function operand = intern(operands[k]);
+                changed |= operand != operands[k];
+                operands[k] = operand;
+            }
+            if (changed) {
+                function = type == Sum.class ? new Sum(false, operands) : new Product(false, operands);
+            }
+        } else if (type == Sin.class || type == Cos.class || type == Exp.class || type == Log.class
+                || type == Polynomial.class) {
+            UnaryOp unaryOp = (UnaryOp) function;
+            Function operand = intern(unaryOp.getOperand());
+            if (operand != unaryOp.getOperand()) {
+                function = rebuild(unaryOp, operand);
+            }
+        }
+        return canonical(function);
+    }
+
+    /**
+     * @return The number of canonical functions created by this factory
+     */
+    public int size() {
+        return canonical.size();
+    }
+
+    /**
+     * Creates a UnaryOp of the same type as another UnaryOp with a different operand
+     *
+     * @param unaryOp The UnaryOp to be copied
+     * @param operand The operand of the new UnaryOp
+     * @return The new UnaryOp
+     */
+    static UnaryOp rebuild(UnaryOp unaryOp, Function operand) {
+        if (unaryOp instanceof Polynomial) {
+            return new Polynomial(operand, ((Polynomial) unaryOp).getPower());
+        } else if (unaryOp instanceof Sin) {
+            return new Sin(operand);
+        } else if (unaryOp instanceof Cos) {
+            return new Cos(operand);
+        } else if (unaryOp instanceof Exp) {
+            return new Exp(operand);
+        } else {
+            return new Log(operand);
+        }
+    }
+
+    /**
+     * Registers a function whose operands are already canonical
+     *
+     * @param function The function to be registered
+     * @return The registered function, or the equivalent function which was registered before it
+     */
+    private Function canonical(Function function) {
+        Function existing = canonical.putIfAbsent(function, function);
+        return existing == null ? function : existing;
+    }
+}
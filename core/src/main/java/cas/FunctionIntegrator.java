@@ -0,0 +1,264 @@
+package cas;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Integrates a Function numerically with adaptive 7-point Gauss and 15-point Kronrod rules
+ * Each subinterval is integrated by both rules, which share 7 of their points, and the difference between them is
+ * taken as its error.  A subinterval whose error is above its share of the tolerance is split in half, and the halves
+ * are integrated as separate tasks of a ForkJoinPool, so evaluations are only spent where the integrand is hard.  The
+ * estimates of the subintervals are always added in the same order, so unless the evaluation budget runs out the
+ * result does not depend on the number of threads
+ *
+ * @author Kennan LeJeune
+ */
+public class FunctionIntegrator {
+    //the default absolute error tolerance
+    static final double DEFAULT_TOLERANCE = 1e-10;
+
+    //the default largest number of evaluations of the integrand
+    static final long DEFAULT_MAX_EVALUATIONS = 1 << 20;
+
+    //the number of points of the Kronrod rule, all of which are evaluated for each subinterval
+    private static final int POINTS = 15;
+
+    //the largest number of times an interval is split in half
+    private static final int MAX_DEPTH = 60;
+
+    //the nonnegative points of the Kronrod rule on [-1, 1], where the odd ones are the points of the Gauss rule
+    private static final double[] KRONROD_POINTS = {0.991455371120812639206854697526329,
+            0.949107912342758524526189684047851, 0.864864423359769072789712788640926,
+            0.741531185599394439863864773280788, 0.586087235467691130294144845693013,
+            0.405845151377397166906606412076961, 0.207784955007898467600689403773245, 0.0};
+
+    //the weights of the Kronrod rule at each of its points
+    private static final double[] KRONROD_WEIGHTS = {0.022935322010529224963732008058970,
+            0.063092092629978553290700663189204, 0.104790010322250183839876322541518,
+            0.140653259715525918745189590510238, 0.169004726639267902826583426598550,
+            0.190350578064785409913256402421014, 0.204432940075298892414161999234649,
+            0.209482141084727828012999174891714};
+
+    //the weights of the Gauss rule at the odd points of the Kronrod rule
+    private static final double[] GAUSS_WEIGHTS = {0.129484966168869693270611432679082,
+            0.279705391489276667901467771423780, 0.381830050505118944950369775488975,
+            0.417959183673469387755102040816327};
+
+    /**
+     * A FunctionIntegrator only has static methods
+     */
+    private FunctionIntegrator() {
+    }
+
+    /**
+     * Integrates a function from a to b to the default tolerance using the common pool
+     *
+     * @param function The integrand
+     * @param a        The lower bound of integration
+     * @param b        The upper bound of integration
+     * @return The integral and its estimated error
+     */
+    public static Result integrate(Function function, double a, double b) {
+        return integrate(function, a, b, DEFAULT_TOLERANCE);
+    }
+
+    /**
+     * Integrates a function from a to b to a given tolerance using the common pool
+     *
+     * @param function  The integrand
+     * @param a         The lower bound of integration
+     * @param b         The upper bound of integration
+     * @param tolerance The largest acceptable absolute error
+     * @return The integral and its estimated error
+     */
+    public static Result integrate(Function function, double a, double b, double tolerance) {
+        return integrate(function, a, b, tolerance, DEFAULT_MAX_EVALUATIONS, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Integrates a function from a to b to a given tolerance
+     * Once the integrand has been evaluated maxEvaluations times, no more subintervals are split and the result is
+     * not converged
+     *
+     * @param function       The integrand
+     * @param a              The lower bound of integration
+     * @param b              The upper bound of integration
+     * @param tolerance      The largest acceptable absolute error
+     * @param maxEvaluations The largest number of evaluations of the integrand
+     * @param pool           The pool whose threads integrate the subintervals
+     * @return The integral and its estimated error
+     */
+    public static Result integrate(Function function, double a, double b, double tolerance, long maxEvaluations,
+                                   ForkJoinPool pool) {
+        if (!(tolerance > 0)) {
+            throw new IllegalArgumentException("The tolerance must be positive: " + tolerance);
+        }
+        if (a == b) {
+            return new Result(0, 0, 0, true);
+        }
+        return pool.invoke(new IntegrateTask(function, a, b, tolerance, 0, new AtomicLong(maxEvaluations)));
+    }
+
+    /**
+     * Holds the result of an integration
+     */
+    public static class Result {
+        //the estimated value of the integral
+        private final double value;
+
+        //the estimated absolute error of the value
+        private final double error;
+
+        //the number of times the integrand was evaluated
+        private final long evaluations;
+
+        //whether every subinterval met its share of the tolerance
+        private final boolean converged;
+
+        /**
+         * Initializes the result of an integration
+         *
+         * @param value       The estimated value of the integral
+         * @param error       The estimated absolute error of the value
+         * @param evaluations The number of times the integrand was evaluated
+         * @param converged   Whether every subinterval met its share of the tolerance
+         */
+        Result(double value, double error, long evaluations, boolean converged) {
+            this.value = value;
+            this.error = error;
+            this.evaluations = evaluations;
+            this.converged = converged;
+        }
+
+        /**
+         * @return The estimated value of the integral
+         */
+        public double getValue() {
+            return this.value;
+        }
+
+        /**
+         * @return The estimated absolute error of the value, the sum of the errors of the subintervals
+         */
+        public double getError() {
+            return this.error;
+        }
+
+        /**
+         * @return The number of times the integrand was evaluated
+         */
+        public long getEvaluations() {
+            return this.evaluations;
+        }
+
+        /**
+         * @return Whether the estimated error is within the tolerance, which is false if the evaluation budget ran
+         * out, an interval could not be split further, or the integrand was not finite
+         */
+        public boolean isConverged() {
+            return this.converged;
+        }
+
+        /**
+         * @return The String representation of the result
+         */
+        @Override
+        public String toString() {
+            return this.value + " +/- " + this.error + " (" + this.evaluations + " evaluations"
+                    + (this.converged ? ")" : ", not converged)");
+        }
+    }
+
+    /**
+     * Integrates one subinterval, splitting it into two tasks if its error is too large
+     */
+    private static class IntegrateTask extends RecursiveTask<Result> {
+        //ForkJoinTask is Serializable, but a task is never serialized, so the version is fixed
+        private static final long serialVersionUID = 1L;
+
+        //the integrand
+        private final Function function;
+
+        //the bounds of the subinterval
+        private final double a;
+        private final double b;
+
+        //the share of the tolerance allowed to the subinterval
+        private final double tolerance;
+
+        //the number of times the whole interval was split to reach the subinterval
+        private final int depth;
+
+        //the evaluations left in the budget of the whole integration
+        private final AtomicLong budget;
+
+        /**
+         * Initializes a task integrating a subinterval
+         *
+         * @param function  The integrand
+         * @param a         The lower bound of the subinterval
+         * @param b         The upper bound of the subinterval
+         * @param tolerance The share of the tolerance allowed to the subinterval
+         * @param depth     The number of times the whole interval was split to reach the subinterval
+         * @param budget    The evaluations left in the budget of the whole integration
+         */
+        private IntegrateTask(Function function, double a, double b, double tolerance, int depth, AtomicLong budget) {
+            this.function = function;
+            this.a = a;
+            this.b = b;
+            this.tolerance = tolerance;
+            this.depth = depth;
+            this.budget = budget;
+        }
+
+        /**
+         * Integrates the subinterval with both rules, and splits it if they disagree by more than its tolerance
+         *
+         * @return The integral over the subinterval
+         */
+        @Override
+        protected Result compute() {
+            double center = 0.5 * (a + b);
+            double halfWidth = 0.5 * (b - a);
+            double[] inputs = new double[POINTS];
+            double[] outputs = new double[POINTS];
+            for (int i = 0; i < 7; i++) {
+                inputs[2 * i] = center - halfWidth * KRONROD_POINTS[i];
+                inputs[2 * i + 1] = center + halfWidth * KRONROD_POINTS[i];
+            }
+            inputs[14] = center;
+            function.value(inputs, outputs);
+            long remaining = budget.addAndGet(-POINTS);
+
+            double kronrod = KRONROD_WEIGHTS[7] * outputs[14];
+            double gauss = GAUSS_WEIGHTS[3] * outputs[14];
+            for (int i = 0; i < 7; i++) {
+                double sum = outputs[2 * i] + outputs[2 * i + 1];
+                kronrod += KRONROD_WEIGHTS[i] * sum;
+                if (i % 2 == 1) {
+                    gauss += GAUSS_WEIGHTS[i / 2] * sum;
+                }
+            }
+            kronrod *= halfWidth;
+            double error = Math.abs(kronrod - gauss * halfWidth);
+
+            if (error <= tolerance) {
+                return new Result(kronrod, error, POINTS, true);
+            }
+            if (!Double.isFinite(kronrod) || remaining < 2 * POINTS || depth == MAX_DEPTH || center == a
+                    || center == b) {
+                return new Result(kronrod, error, POINTS, false);
+            }
+
+            IntegrateTask left = new IntegrateTask(function, a, center, 0.5 * tolerance, depth + 1, budget);
+            IntegrateTask right = new IntegrateTask(function, center, b, 0.5 * tolerance, depth + 1, budget);
+            right.fork();
+            Result leftResult = left.compute();
+            Result rightResult = right.join();
+            return new Result(leftResult.value + rightResult.value, leftResult.error + rightResult.error,
+                    POINTS + leftResult.evaluations + rightResult.evaluations,
+                    leftResult.converged && rightResult.converged);
+        }
+    }
+}
@@ -0,0 +1,582 @@
+package cas;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stores many Functions in one binary file, and loads them back from a memory-mapped file one at a time
+ * A file starts with a header (magic number, format version, number of nodes, number of functions), followed by the
+ * node index of each function and then one fixed size record per node: its kind, the index of its left (or only)
+ * operand, and either the index of its right operand or the bits of its value or power.  Operands are always stored
+ * before the nodes that use them, and identical subtrees are stored once however many functions contain them
+ * A Sum or Product is stored as a chain of records which each add or multiply one more operand to the chain before
+ * it, like a chain of BinaryOps; only the last record of the chain is a node, and the others are parts of it
+ * The record of a Variable holds its index and the position of its name in a table of names, which follows the
+ * records as a count and then each name in modified UTF-8.  Files older than version 3 have no table, and their
+ * only variable is x
+ * Opening a library only maps the file and checks its header, and a function is only read from the file the first
+ * time it is retrieved
+ *
+ * @author Kennan LeJeune
+ */
+public class FunctionLibrary {
+    //the first four bytes of every library file, "CASL"
+    static final int MAGIC = 0x4341534C;
+
+    //the version of the format written by this class
+    static final int VERSION = 3;
+
+    //the oldest version of the format which can still be read, since each version only adds to the format
+    static final int OLDEST_VERSION = 1;
+
+    //the first version with a table of variable names
+    private static final int NAMES_VERSION = 3;
+
+    //kinds of nodes, which are part of the file format and must never be renumbered
+    private static final byte NUMBER = 0;
+    private static final byte VARIABLE = 1;
+    private static final byte PLUS = 2;
+    private static final byte SUB = 3;
+    private static final byte MULT = 4;
+    private static final byte DIV = 5;
+    private static final byte SIN = 6;
+    private static final byte COS = 7;
+    private static final byte EXP = 8;
+    private static final byte LOG = 9;
+    private static final byte POLYNOMIAL = 10;
+    private static final byte SUM = 11;
+    private static final byte PRODUCT = 12;
+    private static final byte SUM_PART = 13;
+    private static final byte PRODUCT_PART = 14;
+
+    //bytes taken by the header and by one node record
+    private static final int HEADER_BYTES = 4 * 4;
+    private static final int NODE_BYTES = 1 + 4 + 8;
+
+    //the mapped contents of the file
+    private final ByteBuffer buffer;
+
+    //the index of the root node of each function
+    private final int[] roots;
+
+    //the offset of the first node record in the file
+    private final int nodesOffset;
+
+    //every node read from the file so far, null for those not read yet
+    private final Function[] nodes;
+
+    //the names of the variables, by their position in the table of names
+    private final String[] names;
+
+    /**
+     * Initializes a library from the mapped contents of a file whose header has been checked
+     *
+     * @param buffer    The contents of the file
+     * @param nodeCount The number of nodes in the file
+     * @param roots     The index of the root node of each function
+     * @param names     The names of the variables
+     */
+    private FunctionLibrary(ByteBuffer buffer, int nodeCount, int[] roots, String[] names) {
+        this.buffer = buffer;
+        this.roots = roots;
+        this.nodesOffset = HEADER_BYTES + 4 * roots.length;
+        this.nodes = new Function[nodeCount];
+        this.names = names;
+    }
+
+    /**
+     * Writes a list of Functions to a library file, replacing the file if it exists
+     *
+     * @param file      The file to be written
+     * @param functions The functions to be stored, in the order they will be retrieved
+     * @throws IOException              If the file cannot be written
+     * @throws IllegalArgumentException If a function contains a type of Function the format cannot store
+     */
+    public static void write(Path file, List<? extends Function> functions) throws IOException {
+        List<Record> written = new ArrayList<>();
+
+        //the index of every node already stored, by reference and by record
+        //records are compared instead of functions, since equals() treats swapped operands of a sum or product and
+        //0.0 and -0.0 as equal, but they print differently
+        Map<Function, Integer> stored = new IdentityHashMap<>();
+        Map<Record, Integer> records = new HashMap<>();
+
+        //the position of each variable name in the table, which starts with x so that x is stored as before
+        Map<String, Integer> names = new LinkedHashMap<>();
+        names.put("x", 0);
+
+        int[] roots = new int[functions.size()];
+        Deque<Function> pending = new ArrayDeque<>();
+        for (int r = 0; r < roots.length; r++) {
+            pending.push(functions.get(r));
+            while (!pending.isEmpty()) {
+                Function node = pending.peek();
+                if (stored.containsKey(node)) {
+                    pending.pop();
+                    continue;
+                }
+                Class<?> type = node.getClass();
+
+                //store the operands first, then come back to the node
+                Function left = null;
+                Function right = null;
+                if (type == Sum.class || type == Product.class) {
+                    Function[] operands = ((NaryOp) node).operands();
+                    boolean ready = true;
+                    for (int k = operands.length - 1; k >= 0; k--) {
+                        if (!stored.containsKey(operands[k])) {
+                            pending.push(operands[k]);
+                            ready = false;
+                        }
+                    }
+                    if (!ready) {
+                        continue;
+                    }
+                    pending.pop();
+
+                    //each record of the chain adds one more operand to the chain before it
+                    byte kind = kind(node);
+                    int previous = stored.get(operands[0]);
+                    for (int k = 1; k < operands.length; k++) {
+                        byte step = k == operands.length - 1 ? kind : (kind == SUM ? SUM_PART : PRODUCT_PART);
+                        previous = store(new Record(step, previous, stored.get(operands[k])), records, written);
+                    }
+                    stored.put(node, previous);
+                    continue;
+                } else if (type == BinaryOp.class) {
+                    left = ((BinaryOp) node).getLeftOperand();
+                    right = ((BinaryOp) node).getRightOperand();
+                } else if (node instanceof UnaryOp) {
+                    left = ((UnaryOp) node).getOperand();
+                }
+                boolean ready = true;
+                if (right != null && !stored.containsKey(right)) {
+                    pending.push(right);
+                    ready = false;
+                }
+                if (left != null && !stored.containsKey(left)) {
+                    pending.push(left);
+                    ready = false;
+                }
+                if (!ready) {
+                    continue;
+                }
+                pending.pop();
+
+                long payload = 0;
+                if (type == Number.class) {
+                    payload = Double.doubleToRawLongBits(node.value());
+                } else if (type == Polynomial.class) {
+                    payload = Double.doubleToRawLongBits(((Polynomial) node).getPower());
+                } else if (type == Variable.class) {
+                    Variable variable = (Variable) node;
+                    names.putIfAbsent(variable.getName(), names.size());
+                    payload = (long) names.get(variable.getName()) << 32 | variable.getIndex();
+                } else if (right != null) {
+                    payload = stored.get(right);
+                }
+                Record record = new Record(kind(node), left == null ? -1 : stored.get(left), payload);
+                stored.put(node, store(record, records, written));
+            }
+            roots[r] = stored.get(functions.get(r));
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(written.size());
+            out.writeInt(roots.length);
+            for (int root : roots) {
+                out.writeInt(root);
+            }
+            for (Record record : written) {
+                out.writeByte(record.kind);
+                out.writeInt(record.left);
+                out.writeLong(record.payload);
+            }
+            out.writeInt(names.size());
+            for (String name : names.keySet()) {
+                out.writeUTF(name);
+            }
+        }
+    }
+
+    /**
+     * Appends a record to those being written, unless an identical record has already been written
+     *
+     * @param record  The record
+     * @param records The index of every record already written
+     * @param written The records already written, in order
+     * @return The index of the record
+     */
+    private static int store(Record record, Map<Record, Integer> records, List<Record> written) {
+        Integer existing = records.putIfAbsent(record, written.size());
+        if (existing != null) {
+            return existing;
+        }
+        written.add(record);
+        return written.size() - 1;
+    }
+
+    /**
+     * Holds the contents of one node record, so that nodes with the same record are stored once
+     */
+    private static final class Record {
+        //the kind of the node
+        private final byte kind;
+
+        //the index of the left (or only) operand of the node
+        private final int left;
+
+        //the index of the right operand, the bits of the value or power of the node, or the name and index of a
+        //variable
+        private final long payload;
+
+        /**
+         * Initializes a record
+         *
+         * @param kind    The kind of the node
+         * @param left    The index of the left operand of the node
+         * @param payload The index of the right operand, the bits of the value or power, or the name and index of a
+         *                Variable
+         */
+        private Record(byte kind, int left, long payload) {
+            this.kind = kind;
+            this.left = left;
+            this.payload = payload;
+        }
+
+        /**
+         * @param input The object to be compared
+         * @return Whether the input is a record with the same contents
+         */
+        @Override
+        public boolean equals(Object input) {
+            return input instanceof Record && kind == ((Record) input).kind && left == ((Record) input).left
+                    && payload == ((Record) input).payload;
+        }
+
+        /**
+         * @return The hash code of the contents of the record
+         */
+        @Override
+        public int hashCode() {
+            return (31 * kind + left) * 31 + Long.hashCode(payload);
+        }
+    }
+
+    /**
+     * @param node A node of a function
+     * @return The kind of the node in the file format
+     * @throws IllegalArgumentException If the node is of a type the format cannot store
+     */
+    private static byte kind(Function node) {
+        Class<?> type = node.getClass();
+        if (type == Number.class) {
+            return NUMBER;
+        } else if (type == Variable.class) {
+            return VARIABLE;
+        } else if (type == BinaryOp.class) {
+            switch (((BinaryOp) node).getOperator()) {
+                case PLUS:
+                    return PLUS;
+                case SUB:
+                    return SUB;
+                case MULT:
+                    return MULT;
+                default:
+                    return DIV;
+            }
+        } else if (type == Sin.class) {
+            return SIN;
+        } else if (type == Cos.class) {
+            return COS;
+        } else if (type == Exp.class) {
+            return EXP;
+        } else if (type == Log.class) {
+            return LOG;
+        } else if (type == Polynomial.class) {
+            return POLYNOMIAL;
+        } else if (type == Sum.class) {
+            return SUM;
+        } else if (type == Product.class) {
+            return PRODUCT;
+        }
+        throw new IllegalArgumentException("Cannot store a function of type " + type.getName());
+    }
+
+    /**
+     * Opens a library file by mapping it into memory
+     * Only the header and the table of functions are read; the nodes are read when a function is first retrieved
+     *
+     * @param file The library file to be opened
+     * @return The library stored in the file
+     * @throws IOException If the file cannot be read, or is not a library of a version this class can read
+     */
+    public static FunctionLibrary open(Path file) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_BYTES || length > Integer.MAX_VALUE) {
+                throw new IOException("Not a function library: " + file);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+        }
+
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a function library: " + file);
+        }
+        int version = buffer.getInt(4);
+        if (version < OLDEST_VERSION || version > VERSION) {
+            throw new IOException("Unsupported function library version " + version + ", expected " + OLDEST_VERSION
+                    + " to " + VERSION);
+        }
+        int nodeCount = buffer.getInt(8);
+        int rootCount = buffer.getInt(12);
+        long namesOffset = HEADER_BYTES + 4L * rootCount + (long) NODE_BYTES * nodeCount;
+        if (nodeCount < 0 || rootCount < 0 || namesOffset > buffer.capacity()
+                || (version < NAMES_VERSION && namesOffset != buffer.capacity())) {
+            throw new IOException("Truncated or corrupt function library: " + file);
+        }
+        String[] names = version < NAMES_VERSION ? new String[]{"x"} : names(buffer, (int) namesOffset, file);
+
+        int[] roots = new int[rootCount];
+        for (int i = 0; i < rootCount; i++) {
+            roots[i] = buffer.getInt(HEADER_BYTES + 4 * i);
+            if (roots[i] < 0 || roots[i] >= nodeCount) {
+                throw new IOException("Corrupt function library: function " + i + " has no node " + roots[i]);
+            }
+        }
+        return new FunctionLibrary(buffer, nodeCount, roots, names);
+    }
+
+    /**
+     * Reads the table of variable names at the end of a library file
+     *
+     * @param buffer The contents of the file
+     * @param offset The offset of the table in the file
+     * @param file   The library file, for error messages
+     * @return The names of the variables, in the order of the table
+     * @throws IOException If the table is truncated, corrupt, or followed by anything else
+     */
+    private static String[] names(ByteBuffer buffer, int offset, Path file) throws IOException {
+        byte[] table = new byte[buffer.capacity() - offset];
+        buffer.duplicate().position(offset).get(table);
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(table))) {
+            int count = in.readInt();
+            if (count < 0 || count > table.length) {
+                throw new IOException("Corrupt function library: " + file);
+            }
+            String[] names = new String[count];
+            for (int i = 0; i < count; i++) {
+                names[i] = in.readUTF();
+            }
+            if (in.available() > 0) {
+                throw new IOException("Corrupt function library: " + file);
+            }
+            return names;
+        } catch (EOFException | UTFDataFormatException e) {
+            throw new IOException("Truncated or corrupt function library: " + file, e);
+        }
+    }
+
+    /**
+     * Retrieves a function from the library, reading its nodes from the file if they have not been read yet
+     * Functions that shared a subtree when they were written share the same subtree when they are retrieved
+     *
+     * @param index The position of the function in the list that was written
+     * @return The function at the given position
+     * @throws UncheckedIOException If the nodes of the function are corrupt
+     */
+    public synchronized Function get(int index) {
+        int root = roots[index];
+        Deque<Integer> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            int node = pending.peek();
+            if (nodes[node] != null) {
+                pending.pop();
+                continue;
+            }
+
+            int offset = nodesOffset + NODE_BYTES * node;
+            byte kind = buffer.get(offset);
+            int left = buffer.getInt(offset + 1);
+            long payload = buffer.getLong(offset + 5);
+            boolean binary = kind >= PLUS && kind <= DIV;
+            if (kind < NUMBER || kind > PRODUCT || (kind > VARIABLE && (left < 0 || left >= node))
+                    || (binary && (payload < 0 || payload >= node))) {
+                throw new UncheckedIOException(new IOException("Corrupt function library: node " + node));
+            }
+
+            if (kind == SUM || kind == PRODUCT) {
+                int[] operands = chain(node);
+                boolean ready = true;
+                for (int k = operands.length - 1; k >= 0; k--) {
+                    if (nodes[operands[k]] == null) {
+                        pending.push(operands[k]);
+                        ready = false;
+                    }
+                }
+                if (!ready) {
+                    continue;
+                }
+                pending.pop();
+                Function[] functions = new Function[operands.length];
+                for (int k = 0; k < operands.length; k++) {
+                    functions[k] = nodes[operands[k]];
+                }
+                nodes[node] = kind == SUM ? new Sum(false, functions) : new Product(false, functions);
+                continue;
+            }
+
+            //read the operands first, then come back to the node
+            boolean ready = true;
+            if (binary && nodes[(int) payload] == null) {
+                pending.push((int) payload);
+                ready = false;
+            }
+            if (kind > VARIABLE && nodes[left] == null) {
+                pending.push(left);
+                ready = false;
+            }
+            if (!ready) {
+                continue;
+            }
+            pending.pop();
+            nodes[node] = node(node, kind, left, payload);
+        }
+        return nodes[root];
+    }
+
+    /**
+     * Reads the indexes of the operands of a Sum or Product by walking its chain of records back to the first operand
+     *
+     * @param node The index of the last record of the chain
+     * @return The index of each operand, in order
+     * @throws UncheckedIOException If a record of the chain is corrupt
+     */
+    private int[] chain(int node) {
+        byte part = buffer.get(nodesOffset + NODE_BYTES * node) == SUM ? SUM_PART : PRODUCT_PART;
+        int[] operands = new int[4];
+        int count = 0;
+        int record = node;
+        while (true) {
+            int offset = nodesOffset + NODE_BYTES * record;
+            int left = buffer.getInt(offset + 1);
+            long payload = buffer.getLong(offset + 5);
+            if (left < 0 || left >= record || payload < 0 || payload >= record) {
+                throw new UncheckedIOException(new IOException("Corrupt function library: node " + record));
+            }
+            if (count + 2 > operands.length) {
+                operands = Arrays.copyOf(operands, 2 * operands.length);
+            }
+            operands[count++] = (int) payload;
+            if (buffer.get(nodesOffset + NODE_BYTES * left) != part) {
+                operands[count++] = left;
+                break;
+            }
+            record = left;
+        }
+
+        //the chain was walked from the last operand back to the first
+        for (int i = 0, j = count - 1; i < j; i++, j--) {
+            int swap = operands[i];
+            operands[i] = operands[j];
+            operands[j] = swap;
+        }
+        return Arrays.copyOf(operands, count);
+    }
+
+    /**
+     * Creates a node from its record, once its operands have been created
+     *
+     * @param node    The index of the node
+     * @param kind    The kind of the node
+     * @param left    The index of the left (or only) operand of the node
+     * @param payload The index of the right operand, the bits of the value or power, or the name and index of a
+     *                Variable
+     * @return The node
+     */
+    private Function node(int node, byte kind, int left, long payload) {
+        switch (kind) {
+            case NUMBER:
+                return new Number(Double.longBitsToDouble(payload));
+            case VARIABLE:
+                return variable(node, payload);
+            case PLUS:
+                return new BinaryOp(nodes[left], nodes[(int) payload], BinaryOp.Op.PLUS);
+            case SUB:
+                return new BinaryOp(nodes[left], nodes[(int) payload], BinaryOp.Op.SUB);
+            case MULT:
+                return new BinaryOp(nodes[left], nodes[(int) payload], BinaryOp.Op.MULT);
+            case DIV:
+                return new BinaryOp(nodes[left], nodes[(int) payload], BinaryOp.Op.DIV);
+            case SIN:
+                return new Sin(nodes[left]);
+            case COS:
+                return new Cos(nodes[left]);
+            case EXP:
+                return new Exp(nodes[left]);
+            case LOG:
+                return new Log(nodes[left]);
+            default:
+                return new Polynomial(nodes[left], Double.longBitsToDouble(payload));
+        }
+    }
+
+    /**
+     * Creates a Variable from the payload of its record
+     *
+     * @param node    The index of the node
+     * @param payload The position of the name of the Variable in the table of names, followed by its index
+     * @return The Variable
+     * @throws UncheckedIOException If the payload does not describe a valid Variable
+     */
+    private Variable variable(int node, long payload) {
+        long name = payload >>> 32;
+        int index = (int) payload;
+        if (name >= names.length || index < 0) {
+            throw new UncheckedIOException(new IOException("Corrupt function library: node " + node));
+        }
+        try {
+            return new Variable(names[(int) name], index);
+        } catch (IllegalArgumentException e) {
+            throw new UncheckedIOException(new IOException("Corrupt function library: node " + node, e));
+        }
+    }
+
+    /**
+     * @return The number of functions in the library
+     */
+    public int size() {
+        return roots.length;
+    }
+
+    /**
+     * @return The number of distinct nodes stored in the library file
+     */
+    public int nodeCount() {
+        return nodes.length;
+    }
+}
@@ -0,0 +1,462 @@
+package cas;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Reads Functions back from the format produced by their toString() methods, such as "Sin[x^2.0] + (x * 3.0)"
+ * The format has no operator precedence: a BinaryOp which is the right operand of another BinaryOp is only printed
+ * without parentheses when both have the same operator, so a chain of operators is read from the right.  The text is
+ * scanned in place one character at a time, and the only objects created besides the Functions are the lists which
+ * hold the operands of each group of parentheses or brackets while it is open
+ *
+ * @author Kennan LeJeune
+ */
+public class FunctionParser {
+    //largest number of significant digits which a double holds exactly
+    private static final int EXACT_DIGITS = 15;
+
+    //powers of ten which a double holds exactly
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12,
+            1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    //the text being parsed
+    private final CharSequence text;
+
+    //the variables which may appear in the text, by name
+    private final Variable[] variables;
+
+    //the index of the next character to be read
+    private int position;
+
+    /**
+     * Initializes a parser at the start of a text
+     *
+     * @param text      The text to be parsed
+     * @param variables The variables which may appear in the text
+     */
+    private FunctionParser(CharSequence text, Variable[] variables) {
+        this.text = text;
+        this.variables = variables;
+    }
+
+    /**
+     * Parses a single Function of the variable x
+     *
+     * @param text The String representation of the function
+     * @return The function which the text represents
+     * @throws IllegalArgumentException If the text is not the representation of a function
+     */
+    public static Function parse(CharSequence text) {
+        return parse(text, new Variable());
+    }
+
+    /**
+     * Parses a single Function of several variables, such as "Sin[x * y] + z"
+     *
+     * @param text      The String representation of the function
+     * @param variables The variables which may appear in the text, each of which is read by its name
+     * @return The function which the text represents
+     * @throws IllegalArgumentException If the text is not the representation of a function of the variables
+     */
+    public static Function parse(CharSequence text, Variable... variables) {
+        FunctionParser parser = new FunctionParser(text, variables);
+        Function function = parser.expression();
+        parser.skipSpaces();
+        if (parser.position < text.length()) {
+            throw parser.error("end of input");
+        }
+        return function;
+    }
+
+    /**
+     * Parses a file with one Function on each line, splitting the lines between the threads of the common pool
+     * Blank lines are skipped
+     *
+     * @param file The file to be parsed, encoded in UTF-8
+     * @return The function on each non-blank line, in the order of the lines
+     * @throws IOException              If the file cannot be read
+     * @throws IllegalArgumentException If a line is not the representation of a function
+     */
+    public static List<Function> parseAll(Path file) throws IOException {
+        return parseAll(Files.readAllLines(file, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses a list of Functions, splitting them between the threads of the common pool
+     * Blank lines are skipped
+     *
+     * @param lines The String representations of the functions
+     * @return The function represented by each non-blank line, in the order of the lines
+     * @throws IllegalArgumentException If a line is not the representation of a function
+     */
+    public static List<Function> parseAll(List<String> lines) {
+        return IntStream.range(0, lines.size()).parallel().mapToObj(i -> {
+            String line = lines.get(i);
+            if (line.trim().isEmpty()) {
+                return null;
+            }
+            try {
+                return parse(line);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Line " + (i + 1) + ": " + e.getMessage(), e);
+            }
+        }).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    /**
+     * Parses operands separated by operators, such as "(x + 1.0) * Sin[x] * 2.0"
+     * Parentheses and the brackets of UnaryOps are tracked with an explicit stack of the groups which are still open,
+     * and the operands of each group are read first and then combined from the right, so there is no recursion and
+     * neither long chains nor deeply nested groups can overflow the call stack
+     *
+     * @return The function made of the operands and operators
+     */
+    private Function expression() {
+        Deque<Group> open = new ArrayDeque<>();
+        Group group = new Group(-1, -1);
+        while (true) {
+            //open every group before the next operand
+            skipSpaces();
+            if (position < text.length() && text.charAt(position) == '(') {
+                position++;
+                open.push(group);
+                group = new Group(-1, -1);
+                continue;
+            }
+            int start = position;
+            int end = unaryName();
+            if (end >= 0) {
+                open.push(group);
+                group = new Group(start, end);
+                continue;
+            }
+
+            //close every group which ends after the operand
+            Function operand = primary();
+            while (true) {
+                group.operands.add(powers(operand));
+                skipSpaces();
+                BinaryOp.Op operator = operator();
+                if (operator != null) {
+                    position++;
+                    group.operators.add(operator);
+                    break;
+                }
+                if (open.isEmpty()) {
+                    return group.combine();
+                }
+                if (group.start < 0) {
+                    expect(')');
+                    operand = group.combine();
+                } else {
+                    expect(']');
+                    operand = unaryOp(group.start, group.end, group.combine());
+                }
+                group = open.pop();
+            }
+        }
+    }
+
+    /**
+     * @return The operator at the current position, or null if there is none
+     */
+    private BinaryOp.Op operator() {
+        if (position >= text.length()) {
+            return null;
+        }
+        switch (text.charAt(position)) {
+            case '+':
+                return BinaryOp.Op.PLUS;
+            case '-':
+                return BinaryOp.Op.SUB;
+            case '*':
+                return BinaryOp.Op.MULT;
+            case '/':
+                return BinaryOp.Op.DIV;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Parses any number of powers following an operand, such as the "^2.0^3.0" of "x^2.0^3.0"
+     *
+     * @param function The operand
+     * @return The operand raised to each power in turn
+     */
+    private Function powers(Function function) {
+        while (position < text.length() && text.charAt(position) == '^') {
+            position++;
+            function = new Polynomial(function, number());
+        }
+        return function;
+    }
+
+    /**
+     * Moves past the name of a UnaryOp and its opening bracket, if they are at the current position
+     *
+     * @return The index after the last character of the name, or -1 if there is no name followed by a bracket
+     */
+    private int unaryName() {
+        int start = position;
+        if (position >= text.length() || !Character.isLetter(text.charAt(position))) {
+            return -1;
+        }
+        while (position < text.length() && Character.isLetterOrDigit(text.charAt(position))) {
+            position++;
+        }
+        if (position < text.length() && text.charAt(position) == '[') {
+            return position++;
+        }
+        position = start;
+        return -1;
+    }
+
+    /**
+     * Parses a variable or a number
+     *
+     * @return The function at the current position
+     */
+    private Function primary() {
+        if (position >= text.length()) {
+            throw error("an operand");
+        }
+        char c = text.charAt(position);
+        if (c == '-' || c == '.' || (c >= '0' && c <= '9')) {
+            return new Number(number());
+        }
+        if (!Character.isLetter(c)) {
+            throw error("an operand");
+        }
+
+        int start = position;
+        while (position < text.length() && Character.isLetterOrDigit(text.charAt(position))) {
+            position++;
+        }
+        for (Variable variable : variables) {
+            if (matches(start, position - start, variable.getName())) {
+                return variable;
+            }
+        }
+        position = start;
+        return new Number(number());
+    }
+
+    /**
+     * Creates the UnaryOp whose name starts at a given index
+     *
+     * @param start   The index of the first character of the name
+     * @param end     The index after the last character of the name
+     * @param operand The operand of the UnaryOp
+     * @return The UnaryOp of the given name and operand
+     */
+    private UnaryOp unaryOp(int start, int end, Function operand) {
+        int length = end - start;
+        if (matches(start, length, "Sin")) {
+            return new Sin(operand);
+        } else if (matches(start, length, "Cos")) {
+            return new Cos(operand);
+        } else if (matches(start, length, "Exp")) {
+            return new Exp(operand);
+        } else if (matches(start, length, "Log")) {
+            return new Log(operand);
+        }
+        throw new IllegalArgumentException("Unknown function " + text.subSequence(start, start + length)
+                + " at index " + start);
+    }
+
+    /**
+     * Parses a number in the format of Double.toString(double), such as "-1.5", "2.0E-10", "NaN" or "-Infinity"
+     * Numbers with at most 15 significant digits and a small exponent are computed exactly from their digits, and
+     * any other number is passed to Double.parseDouble
+     *
+     * @return The value of the number at the current position
+     */
+    private double number() {
+        int start = position;
+        boolean negative = position < text.length() && text.charAt(position) == '-';
+        if (negative) {
+            position++;
+        }
+        if (matchesWord("NaN")) {
+            return Double.NaN;
+        }
+        if (matchesWord("Infinity")) {
+            return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean point = false;
+        boolean any = false;
+        while (position < text.length()) {
+            char c = text.charAt(position);
+            if (c >= '0' && c <= '9') {
+                any = true;
+                if (digits < EXACT_DIGITS + 1 && (mantissa > 0 || c != '0')) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    digits++;
+                    if (point) {
+                        scale--;
+                    }
+                } else if (mantissa == 0) {
+                    //leading zeros only move the decimal point
+                    if (point) {
+                        scale--;
+                    }
+                } else {
+                    //too many digits for the exact path
+                    digits++;
+                    if (!point) {
+                        scale++;
+                    }
+                }
+            } else if (c == '.' && !point) {
+                point = true;
+            } else {
+                break;
+            }
+            position++;
+        }
+        if (!any) {
+            position = start;
+            throw error("a number");
+        }
+
+        if (position < text.length() && (text.charAt(position) == 'E' || text.charAt(position) == 'e')) {
+            position++;
+            boolean negativeExponent = position < text.length() && text.charAt(position) == '-';
+            if (negativeExponent) {
+                position++;
+            }
+            int exponent = 0;
+            int exponentStart = position;
+            while (position < text.length() && text.charAt(position) >= '0' && text.charAt(position) <= '9') {
+                exponent = Math.min(exponent * 10 + (text.charAt(position) - '0'), 100000);
+                position++;
+            }
+            if (position == exponentStart) {
+                throw error("an exponent");
+            }
+            scale += negativeExponent ? -exponent : exponent;
+        }
+
+        if (digits <= EXACT_DIGITS && Math.abs(scale) < POWERS_OF_TEN.length) {
+            double value = scale < 0 ? mantissa / POWERS_OF_TEN[-scale] : mantissa * POWERS_OF_TEN[scale];
+            return negative ? -value : value;
+        }
+        return Double.parseDouble(text.subSequence(start, position).toString());
+    }
+
+    /**
+     * Moves past a word if it is at the current position and is not followed by another letter
+     *
+     * @param word The word to be matched
+     * @return Whether the word was at the current position
+     */
+    private boolean matchesWord(String word) {
+        int end = position + word.length();
+        if (matches(position, word.length(), word)
+                && (end == text.length() || !Character.isLetterOrDigit(text.charAt(end)))) {
+            position = end;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @param start  The index of the first character to be compared
+     * @param length The number of characters to be compared
+     * @param word   The word to compare them to
+     * @return Whether the characters of the text are the word
+     */
+    private boolean matches(int start, int length, String word) {
+        if (length != word.length() || start + length > text.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (text.charAt(start + i) != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Moves past a character which must be at the current position
+     *
+     * @param c The expected character
+     */
+    private void expect(char c) {
+        if (position >= text.length() || text.charAt(position) != c) {
+            throw error("'" + c + "'");
+        }
+        position++;
+    }
+
+    /**
+     * Moves past any spaces at the current position
+     */
+    private void skipSpaces() {
+        while (position < text.length() && text.charAt(position) == ' ') {
+            position++;
+        }
+    }
+
+    /**
+     * @param expected A description of what should have been at the current position
+     * @return An exception describing what was found instead
+     */
+    private IllegalArgumentException error(String expected) {
+        String found = position < text.length() ? "'" + text.charAt(position) + "'" : "end of input";
+        return new IllegalArgumentException("Expected " + expected + " at index " + position + " but found " + found);
+    }
+
+    /**
+     * Holds the operands and operators read so far inside a pair of parentheses or the brackets of a UnaryOp
+     */
+    private static final class Group {
+        //the operands of the group, in order
+        private final List<Function> operands = new ArrayList<>();
+
+        //the operator between each operand and the next
+        private final List<BinaryOp.Op> operators = new ArrayList<>();
+
+        //the indexes of the first character of the name of the UnaryOp and after its last, or -1 for parentheses
+        private final int start;
+        private final int end;
+
+        /**
+         * @param start The index of the first character of the name of the UnaryOp, or -1 for parentheses
+         * @param end   The index after the last character of the name of the UnaryOp, or -1 for parentheses
+         */
+        private Group(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * Combines the operands of the group from the right, as the format prints chains of an operator
+         *
+         * @return The function made of the operands and operators
+         */
+        private Function combine() {
+            Function function = operands.get(operands.size() - 1);
+            for (int i = operators.size() - 1; i >= 0; i--) {
+                function = new BinaryOp(operands.get(i), function, operators.get(i));
+            }
+            return function;
+        }
+    }
+}
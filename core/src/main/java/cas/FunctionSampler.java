@@ -0,0 +1,188 @@
+package cas;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Samples a Function at evenly spaced points of an interval, splitting the points between the threads of a
+ * ForkJoinPool
+ * Each thread evaluates the function over blocks of consecutive points with the array form of value, and every
+ * sample is identical to calling value(double) at the same point.  Ranges are only split at multiples of BLOCK, so the
+ * blocks of every thread reuse the same arrays, and only the partial block at the end of the grid allocates its own
+ *
+ * @author Kennan LeJeune
+ */
+public class FunctionSampler {
+    //number of points evaluated together by one call to the array form of value
+    static final int BLOCK = 4096;
+
+    //number of tasks created for each thread of the pool, so that threads which finish early can help the others
+    private static final int TASKS_PER_THREAD = 8;
+
+    //the input and output blocks of each thread
+    private static final ThreadLocal<double[][]> BLOCKS = ThreadLocal.withInitial(() ->
+            new double[][]{new double[BLOCK], new double[BLOCK]});
+
+    /**
+     * A FunctionSampler only has static methods
+     */
+    private FunctionSampler() {
+    }
+
+    /**
+     * Samples a function at n evenly spaced points from a to b using the common pool
+     *
+     * @param function The function to be sampled
+     * @param a        The first point
+     * @param b        The last point
+     * @param n        The number of points
+     * @return The value of the function at each point
+     */
+    public static double[] sample(Function function, double a, double b, int n) {
+        double[] outputs = new double[n];
+        sample(function, a, b, outputs, ForkJoinPool.commonPool());
+        return outputs;
+    }
+
+    /**
+     * Samples a function at evenly spaced points from a to b using the common pool, one point for each element of
+     * a preallocated array
+     *
+     * @param function The function to be sampled
+     * @param a        The first point
+     * @param b        The last point
+     * @param outputs  The array which receives the value of the function at each point
+     */
+    public static void sample(Function function, double a, double b, double[] outputs) {
+        sample(function, a, b, outputs, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Samples a function at evenly spaced points from a to b using a given pool, one point for each element of a
+     * preallocated array
+     *
+     * @param function The function to be sampled
+     * @param a        The first point
+     * @param b        The last point
+     * @param outputs  The array which receives the value of the function at each point
+     * @param pool     The pool whose threads evaluate the function
+     */
+    public static void sample(Function function, double a, double b, double[] outputs, ForkJoinPool pool) {
+        if (outputs.length == 0) {
+            throw new IllegalArgumentException("Cannot sample a function at zero points");
+        }
+        int threshold = Math.max(BLOCK, outputs.length / (pool.getParallelism() * TASKS_PER_THREAD));
+        pool.invoke(new SampleTask(function, a, b, outputs, 0, outputs.length, threshold));
+    }
+
+    /**
+     * Computes a point of an evenly spaced grid
+     * The last point is exactly b, and every other point is a plus a whole number of steps.  A grid of one point
+     * only contains a
+     *
+     * @param a The first point
+     * @param b The last point
+     * @param n The number of points
+     * @param i The index of the point
+     * @return The ith of n evenly spaced points from a to b
+     */
+    public static double point(double a, double b, int n, int i) {
+        if (i == 0) {
+            return a;
+        } else if (i == n - 1) {
+            return b;
+        }
+        return a + i * ((b - a) / (n - 1));
+    }
+
+    /**
+     * Finds where to split a range of the points between two tasks, at the multiple of BLOCK nearest its middle
+     *
+     * @param from The first index of the range, a multiple of BLOCK
+     * @param to   The index after the last of the range, more than BLOCK after from
+     * @return The first index of the second half, a multiple of BLOCK strictly between from and to
+     */
+    static int split(int from, int to) {
+        //the number of blocks in the range, counting a partial block at the end as one
+        int blocks = (to - from - 1) / BLOCK + 1;
+        return from + blocks / 2 * BLOCK;
+    }
+
+    /**
+     * Samples a range of the points, splitting it in half until it is small enough for one task
+     */
+    private static class SampleTask extends RecursiveAction {
+        //ForkJoinTask is Serializable, but a task is never serialized, so the version is fixed
+        private static final long serialVersionUID = 1L;
+
+        //the function to be sampled
+        private final Function function;
+
+        //the first and last points of the whole grid
+        private final double a;
+        private final double b;
+
+        //the array receiving the samples of the whole grid
+        private final double[] outputs;
+
+        //the first index of the range and the index after its last
+        private final int from;
+        private final int to;
+
+        //the largest range which is not split
+        private final int threshold;
+
+        /**
+         * Initializes a task sampling a range of the points
+         *
+         * @param function  The function to be sampled
+         * @param a         The first point of the grid
+         * @param b         The last point of the grid
+         * @param outputs   The array receiving the samples
+         * @param from      The first index of the range
+         * @param to        The index after the last of the range
+         * @param threshold The largest range which is not split
+         */
+        private SampleTask(Function function, double a, double b, double[] outputs, int from, int to, int threshold) {
+            this.function = function;
+            this.a = a;
+            this.b = b;
+            this.outputs = outputs;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        /**
+         * Samples the range, or splits it between two tasks if it is too large
+         */
+        @Override
+        protected void compute() {
+            if (to - from > threshold) {
+                int middle = split(from, to);
+                invokeAll(new SampleTask(function, a, b, outputs, from, middle, threshold),
+                        new SampleTask(function, a, b, outputs, middle, to, threshold));
+                return;
+            }
+
+            double[][] blocks = BLOCKS.get();
+            double[] inputs = blocks[0];
+            double[] values = blocks[1];
+            int n = outputs.length;
+            for (int start = from; start < to; start += BLOCK) {
+                int length = Math.min(BLOCK, to - start);
+
+                //only the last block of the grid is partial, since ranges are split at multiples of BLOCK
+                if (length < BLOCK) {
+                    inputs = new double[length];
+                    values = new double[length];
+                }
+                for (int i = 0; i < length; i++) {
+                    inputs[i] = point(a, b, n, start + i);
+                }
+                function.value(inputs, values);
+                System.arraycopy(values, 0, outputs, start, length);
+            }
+        }
+    }
+}
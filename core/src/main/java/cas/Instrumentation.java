@@ -0,0 +1,476 @@
+package cas;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the work done by the Function hierarchy: the nodes visited by each call to value, the nodes allocated by
+ * derivative(), and how often each simplification of BinaryOp fires, broken down by operator and Function type
+ * Instrumentation is switched on by starting the JVM with -Dcas.instrumentation=true.  Every hook is guarded by
+ * ENABLED, which is a static final field, so when instrumentation is off the JIT compiler removes the hooks from the
+ * hot paths entirely.  Evaluations and derivatives which take longer than the threshold of their JFR event are also
+ * recorded as cas.Evaluation and cas.Differentiation events while a flight recording is running.  Only value(double)
+ * and value() are instrumented, not the array form of value
+ *
+ * @author Kennan LeJeune
+ */
+public final class Instrumentation {
+    //whether the hooks of the Function hierarchy record anything, read once when the class is initialized
+    public static final boolean ENABLED = Boolean.getBoolean("cas.instrumentation");
+
+    /**
+     * The simplifications of BinaryOp.simplifyOperation(), each of which removes an operand of one operator
+     */
+    public enum Rule {
+        ZERO_PRODUCT(BinaryOp.Op.MULT), //0 * f and f * 0 become 0
+        UNIT_PRODUCT(BinaryOp.Op.MULT), //1 * f and f * 1 become f
+        ZERO_QUOTIENT(BinaryOp.Op.DIV), //0 / f becomes 0
+        UNIT_QUOTIENT(BinaryOp.Op.DIV), //f / 1 becomes f
+        ZERO_DIFFERENCE(BinaryOp.Op.SUB), //f - 0 becomes f
+        NEGATION(BinaryOp.Op.SUB), //0 - f becomes -1.0 * f
+        ZERO_SUM(BinaryOp.Op.PLUS); //0 + f and f + 0 become f
+
+        //the operator of the operations the rule simplifies
+        private final BinaryOp.Op operator;
+
+        /**
+         * Initializes a rule from the operator it simplifies
+         *
+         * @param operator The operator of the operations the rule simplifies
+         */
+        Rule(BinaryOp.Op operator) {
+            this.operator = operator;
+        }
+
+        /**
+         * @return The operator of the operations the rule simplifies
+         */
+        public BinaryOp.Op getOperator() {
+            return this.operator;
+        }
+    }
+
+    //the nodes visited by value, by the operator of each BinaryOp and the type of every other node
+    private static final Counters VISITS = new Counters();
+
+    //the nodes allocated by derivative(), by the operator or type of the node being differentiated
+    private static final Counters ALLOCATIONS = new Counters();
+
+    //the number of times each rule of simplifyOperation() fired
+    private static final LongAdder[] SIMPLIFICATIONS = adders(Rule.values().length);
+
+    //the number of outermost calls to value, and the largest number of nodes visited by one of them
+    private static final LongAdder CALLS = new LongAdder();
+    private static final LongAccumulator MAX_VISITS = new LongAccumulator(Math::max, 0);
+
+    //the call in progress on each thread
+    private static final ThreadLocal<Trace> TRACES = ThreadLocal.withInitial(Trace::new);
+
+    /**
+     * Instrumentation only has static methods
+     */
+    private Instrumentation() {
+    }
+
+    /**
+     * Counts instances of a quantity by the operator of each BinaryOp and the type of every other Function
+     */
+    private static final class Counters {
+        //the count for each operator
+        private final LongAdder[] byOperator = adders(BinaryOp.Op.values().length);
+
+        //the count for each other type of Function
+        private final Map<Class<?>, LongAdder> byType = new ConcurrentHashMap<>();
+
+        /**
+         * Adds to the count of the operator or type of a function
+         *
+         * @param function The function which is counted
+         * @param amount   The amount to be added
+         */
+        private void add(Function function, long amount) {
+            if (function instanceof BinaryOp) {
+                byOperator[((BinaryOp) function).getOperator().ordinal()].add(amount);
+            } else {
+                LongAdder adder = byType.get(function.getClass());
+                if (adder == null) {
+                    adder = byType.computeIfAbsent(function.getClass(), type -> new LongAdder());
+                }
+                adder.add(amount);
+            }
+        }
+
+        /**
+         * @return The total count of every operator and type
+         */
+        private long sum() {
+            long sum = 0;
+            for (LongAdder adder : byOperator) {
+                sum += adder.sum();
+            }
+            for (LongAdder adder : byType.values()) {
+                sum += adder.sum();
+            }
+            return sum;
+        }
+
+        /**
+         * Sets every count to zero
+         */
+        private void reset() {
+            for (LongAdder adder : byOperator) {
+                adder.reset();
+            }
+            byType.clear();
+        }
+    }
+
+    /**
+     * Holds the state of the outermost call to value or derivative() in progress on one thread
+     */
+    private static final class Trace {
+        //whether an outermost call to value is in progress
+        private boolean evaluating;
+
+        //the nodes visited by the call to value in progress
+        private long visits;
+
+        //the node whose derivative is being computed, or null
+        private Function differentiating;
+
+        //the nodes allocated by the outermost call to derivative() in progress
+        private long allocations;
+    }
+
+    /**
+     * Records a JFR event for each outermost call to value which takes longer than its threshold
+     */
+    @Name("cas.Evaluation")
+    @Label("Function Evaluation")
+    @Description("An outermost call to value which took longer than the threshold")
+    @Category("CAS")
+    @Threshold("1 ms")
+    static final class EvaluationEvent extends Event {
+        @Label("Root")
+        @Description("The operator or type of the root of the evaluated function")
+        String root;
+
+        @Label("Nodes Visited")
+        long nodes;
+    }
+
+    /**
+     * Records a JFR event for each outermost call to derivative() which takes longer than its threshold
+     */
+    @Name("cas.Differentiation")
+    @Label("Function Differentiation")
+    @Description("An outermost call to derivative() which took longer than the threshold")
+    @Category("CAS")
+    @Threshold("1 ms")
+    static final class DifferentiationEvent extends Event {
+        @Label("Root")
+        @Description("The operator or type of the root of the differentiated function")
+        String root;
+
+        @Label("Nodes Allocated")
+        long nodes;
+    }
+
+    /**
+     * @param length The number of adders
+     * @return An array of new adders
+     */
+    private static LongAdder[] adders(int length) {
+        LongAdder[] adders = new LongAdder[length];
+        for (int i = 0; i < length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * @param function A function
+     * @return The operator of the function if it is a BinaryOp, or the simple name of its type
+     */
+    private static String describe(Function function) {
+        if (function instanceof BinaryOp) {
+            return "BinaryOp " + ((BinaryOp) function).getOperator().name();
+        }
+        return function.getClass().getSimpleName();
+    }
+
+    /**
+     * Called at the start of value by a node of the hierarchy, which counts the node as visited if a call is already
+     * in progress on the thread
+     *
+     * @param function The node being evaluated
+     * @return Whether no call is in progress, in which case the node must evaluate itself through value(Function)
+     * or value(Function, double) so that the call is traced
+     */
+    static boolean enter(Function function) {
+        Trace trace = TRACES.get();
+        if (trace.evaluating) {
+            trace.visits++;
+            VISITS.add(function, 1);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Traces an outermost call to value(double)
+     *
+     * @param function The function being evaluated
+     * @param input    The value at which to evaluate the function
+     * @return The value of the function at the input
+     */
+    static double value(Function function, double input) {
+        Trace trace = start();
+        EvaluationEvent event = new EvaluationEvent();
+        event.begin();
+        try {
+            return function.value(input);
+        } finally {
+            finish(trace, event, function);
+        }
+    }
+
+    /**
+     * Traces an outermost call to value()
+     *
+     * @param function The function being evaluated
+     * @return The value of the function
+     */
+    static double value(Function function) {
+        Trace trace = start();
+        EvaluationEvent event = new EvaluationEvent();
+        event.begin();
+        try {
+            return function.value();
+        } finally {
+            finish(trace, event, function);
+        }
+    }
+
+    /**
+     * @return The trace of the thread, marked as evaluating
+     */
+    private static Trace start() {
+        Trace trace = TRACES.get();
+        trace.evaluating = true;
+        trace.visits = 0;
+        return trace;
+    }
+
+    /**
+     * Records the nodes visited by an outermost call to value, even if it threw, and its event if it took long enough
+     *
+     * @param trace    The trace of the thread
+     * @param event    The event begun with the call
+     * @param function The function which was evaluated
+     */
+    private static void finish(Trace trace, EvaluationEvent event, Function function) {
+        event.end();
+        trace.evaluating = false;
+        CALLS.increment();
+        MAX_VISITS.accumulate(trace.visits);
+        if (event.shouldCommit()) {
+            event.root = describe(function);
+            event.nodes = trace.visits;
+            event.commit();
+        }
+    }
+
+    /**
+     * Computes the derivative of a function for derivative(), counting the nodes allocated while it is computed
+     * Nodes are counted against the innermost node being differentiated, since derivative() recurses through the
+     * operands
+     *
+     * @param function The function to be differentiated
+     * @return The derivative of the function
+     */
+    static Function derivative(Function function) {
+        Trace trace = TRACES.get();
+        Function outer = trace.differentiating;
+        if (outer != null) {
+            trace.differentiating = function;
+            try {
+                return function.computeDerivative();
+            } finally {
+                trace.differentiating = outer;
+            }
+        }
+
+        DifferentiationEvent event = new DifferentiationEvent();
+        event.begin();
+        trace.differentiating = function;
+        trace.allocations = 0;
+        try {
+            return function.computeDerivative();
+        } finally {
+            trace.differentiating = null;
+            event.end();
+            if (event.shouldCommit()) {
+                event.root = describe(function);
+                event.nodes = trace.allocations;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Called by the constructor of Function, which counts the new node if a derivative is being computed on the
+     * thread
+     */
+    static void allocated() {
+        Trace trace = TRACES.get();
+        if (trace.differentiating != null) {
+            trace.allocations++;
+            ALLOCATIONS.add(trace.differentiating, 1);
+        }
+    }
+
+    /**
+     * Called by simplifyOperation() each time one of its rules fires
+     *
+     * @param rule The rule which fired
+     */
+    static void simplified(Rule rule) {
+        SIMPLIFICATIONS[rule.ordinal()].increment();
+    }
+
+    /**
+     * @param operator An operator
+     * @return The number of BinaryOps with the operator visited by value
+     */
+    public static long getVisits(BinaryOp.Op operator) {
+        return VISITS.byOperator[operator.ordinal()].sum();
+    }
+
+    /**
+     * @param type A type of Function other than BinaryOp, such as a subclass of UnaryOp
+     * @return The number of nodes of exactly that type visited by value
+     */
+    public static long getVisits(Class<? extends Function> type) {
+        LongAdder adder = VISITS.byType.get(type);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    /**
+     * @return The number of nodes of every type visited by value
+     */
+    public static long getVisits() {
+        return VISITS.sum();
+    }
+
+    /**
+     * @return The number of outermost calls to value, each of which may visit many nodes
+     */
+    public static long getCalls() {
+        return CALLS.sum();
+    }
+
+    /**
+     * @return The largest number of nodes visited by one outermost call to value
+     */
+    public static long getMaxVisits() {
+        return MAX_VISITS.get();
+    }
+
+    /**
+     * @param operator An operator
+     * @return The number of nodes allocated by derivative() while differentiating BinaryOps with the operator
+     */
+    public static long getAllocations(BinaryOp.Op operator) {
+        return ALLOCATIONS.byOperator[operator.ordinal()].sum();
+    }
+
+    /**
+     * @param type A type of Function other than BinaryOp, such as a subclass of UnaryOp
+     * @return The number of nodes allocated by derivative() while differentiating nodes of exactly that type
+     */
+    public static long getAllocations(Class<? extends Function> type) {
+        LongAdder adder = ALLOCATIONS.byType.get(type);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    /**
+     * @return The number of nodes allocated by derivative() while differentiating nodes of every type
+     */
+    public static long getAllocations() {
+        return ALLOCATIONS.sum();
+    }
+
+    /**
+     * @param rule A rule of simplifyOperation()
+     * @return The number of times the rule fired
+     */
+    public static long getSimplifications(Rule rule) {
+        return SIMPLIFICATIONS[rule.ordinal()].sum();
+    }
+
+    /**
+     * Sets every count to zero
+     * Calls in progress on other threads may still be counted afterwards
+     */
+    public static void reset() {
+        VISITS.reset();
+        ALLOCATIONS.reset();
+        for (LongAdder adder : SIMPLIFICATIONS) {
+            adder.reset();
+        }
+        CALLS.reset();
+        MAX_VISITS.reset();
+    }
+
+    /**
+     * Computes a summary of every count which is not zero, one per line
+     *
+     * @return The summary of the counts
+     */
+    public static String report() {
+        StringBuilder report = new StringBuilder();
+        report.append("calls to value: ").append(getCalls()).append(", nodes visited: ").append(getVisits())
+                .append(", most in one call: ").append(getMaxVisits()).append('\n');
+        report.append("nodes allocated by derivative(): ").append(getAllocations()).append('\n');
+        appendCounts(report, "visited", VISITS);
+        appendCounts(report, "allocated differentiating", ALLOCATIONS);
+        for (Rule rule : Rule.values()) {
+            long count = getSimplifications(rule);
+            if (count != 0) {
+                report.append("  simplified by ").append(rule).append(": ").append(count).append('\n');
+            }
+        }
+        return report.toString();
+    }
+
+    /**
+     * Appends a line for every operator and type of a set of counters which is not zero
+     *
+     * @param report   The summary being built
+     * @param verb     The description of what was counted
+     * @param counters The counters
+     */
+    private static void appendCounts(StringBuilder report, String verb, Counters counters) {
+        for (BinaryOp.Op operator : BinaryOp.Op.values()) {
+            long count = counters.byOperator[operator.ordinal()].sum();
+            if (count != 0) {
+                report.append("  ").append(verb).append(" BinaryOp ").append(operator.name()).append(": ")
+                        .append(count).append('\n');
+            }
+        }
+        for (Map.Entry<Class<?>, LongAdder> entry : counters.byType.entrySet()) {
+            report.append("  ").append(verb).append(' ').append(entry.getKey().getSimpleName()).append(": ")
+                    .append(entry.getValue().sum()).append('\n');
+        }
+    }
+}
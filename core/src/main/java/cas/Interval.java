@@ -0,0 +1,364 @@
+package cas;
+
+/**
+ * Represents a closed range of doubles which is guaranteed to contain a set of values, such as every value of a
+ * Function over a range of inputs
+ * Every operation rounds its bounds outward, so the result contains the exact result of the operation on any values
+ * from its operands despite rounding.  An interval also records whether some of the values it stands for may be
+ * undefined, such as the logarithm of a nonpositive number or a quotient by zero; its bounds then only cover the
+ * values which are defined.  An interval with no defined values is empty
+ *
+ * @author Kennan LeJeune
+ */
+public class Interval {
+    //the interval containing every double
+    public static final Interval ENTIRE = new Interval(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, false);
+
+    //the interval of a value about which nothing is known, which may be any double or undefined
+    public static final Interval UNKNOWN = new Interval(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, true);
+
+    //the interval containing no defined values
+    public static final Interval EMPTY = new Interval(Double.NaN, Double.NaN, true);
+
+    //above this magnitude, consecutive doubles are further apart than a period of sine and cosine
+    private static final double PERIODIC_LIMIT = 1e15;
+
+    //the bounds of the interval, both NaN if it is empty
+    private final double lo;
+    private final double hi;
+
+    //whether some of the values the interval stands for may be undefined
+    private final boolean undefined;
+
+    /**
+     * Initializes the interval of every double from lo to hi
+     *
+     * @param lo The lower bound
+     * @param hi The upper bound
+     * @throws IllegalArgumentException If lo is greater than hi or either bound is NaN
+     */
+    public Interval(double lo, double hi) {
+        this(lo, hi, false);
+        if (!(lo <= hi)) {
+            throw new IllegalArgumentException("Not an interval: [" + lo + ", " + hi + "]");
+        }
+    }
+
+    /**
+     * Initializes an interval from its bounds and whether it may stand for undefined values
+     *
+     * @param lo        The lower bound
+     * @param hi        The upper bound
+     * @param undefined Whether some of the values the interval stands for may be undefined
+     */
+    private Interval(double lo, double hi, boolean undefined) {
+        this.lo = lo;
+        this.hi = hi;
+        this.undefined = undefined;
+    }
+
+    /**
+     * Creates an interval from bounds computed by operations with at most one rounding error, widening them by one
+     * double each way
+     * A NaN bound comes from an indeterminate form such as infinity minus infinity, and is replaced by an infinity
+     *
+     * @param lo        The computed lower bound
+     * @param hi        The computed upper bound
+     * @param undefined Whether some of the values may be undefined
+     * @return The widened interval
+     */
+    private static Interval rounded(double lo, double hi, boolean undefined) {
+        return new Interval(Double.isNaN(lo) ? Double.NEGATIVE_INFINITY : Math.nextDown(lo),
+                Double.isNaN(hi) ? Double.POSITIVE_INFINITY : Math.nextUp(hi), undefined);
+    }
+
+    /**
+     * Creates an interval from bounds computed by a Math function accurate to one ulp, widening them by two doubles
+     * each way
+     *
+     * @param lo        The computed lower bound
+     * @param hi        The computed upper bound
+     * @param undefined Whether some of the values may be undefined
+     * @return The widened interval
+     */
+    private static Interval approximate(double lo, double hi, boolean undefined) {
+        return rounded(Math.nextDown(lo), Math.nextUp(hi), undefined);
+    }
+
+    /**
+     * @return The lower bound of the interval, NaN if it is empty
+     */
+    public double getLo() {
+        return this.lo;
+    }
+
+    /**
+     * @return The upper bound of the interval, NaN if it is empty
+     */
+    public double getHi() {
+        return this.hi;
+    }
+
+    /**
+     * @return Whether the interval contains no defined values
+     */
+    public boolean isEmpty() {
+        return Double.isNaN(this.lo);
+    }
+
+    /**
+     * @return Whether some of the values the interval stands for may be undefined
+     */
+    public boolean mayBeUndefined() {
+        return this.undefined;
+    }
+
+    /**
+     * @param value A double
+     * @return Whether the value is within the bounds of the interval
+     */
+    public boolean contains(double value) {
+        return this.lo <= value && value <= this.hi;
+    }
+
+    /**
+     * Computes an interval containing every sum of a value of this interval and a value of another interval
+     * If one interval reaches positive infinity and the other negative infinity, the sum may be undefined
+     *
+     * @param other The interval of the right operand
+     * @return The interval of the sums
+     */
+    public Interval plus(Interval other) {
+        if (this.isEmpty() || other.isEmpty()) {
+            return EMPTY;
+        }
+        boolean opposite = this.hi == Double.POSITIVE_INFINITY && other.lo == Double.NEGATIVE_INFINITY
+                || this.lo == Double.NEGATIVE_INFINITY && other.hi == Double.POSITIVE_INFINITY;
+        return rounded(this.lo + other.lo, this.hi + other.hi, this.undefined || other.undefined || opposite);
+    }
+
+    /**
+     * Computes an interval containing every difference of a value of this interval and a value of another interval
+     * If both intervals reach the same infinity, the difference may be undefined
+     *
+     * @param other The interval of the right operand
+     * @return The interval of the differences
+     */
+    public Interval minus(Interval other) {
+        if (this.isEmpty() || other.isEmpty()) {
+            return EMPTY;
+        }
+        boolean same = this.hi == Double.POSITIVE_INFINITY && other.hi == Double.POSITIVE_INFINITY
+                || this.lo == Double.NEGATIVE_INFINITY && other.lo == Double.NEGATIVE_INFINITY;
+        return rounded(this.lo - other.hi, this.hi - other.lo, this.undefined || other.undefined || same);
+    }
+
+    /**
+     * Computes an interval containing every product of a value of this interval and a value of another interval
+     *
+     * @param other The interval of the right operand
+     * @return The interval of the products
+     */
+    public Interval times(Interval other) {
+        if (this.isEmpty() || other.isEmpty()) {
+            return EMPTY;
+        }
+        double a = product(this.lo, other.lo);
+        double b = product(this.lo, other.hi);
+        double c = product(this.hi, other.lo);
+        double d = product(this.hi, other.hi);
+        return rounded(Math.min(Math.min(a, b), Math.min(c, d)), Math.max(Math.max(a, b), Math.max(c, d)),
+                this.undefined || other.undefined);
+    }
+
+    /**
+     * @param x A bound of an interval
+     * @param y A bound of another interval
+     * @return The product of the bounds, where zero times an infinite bound is zero
+     */
+    private static double product(double x, double y) {
+        return x == 0 || y == 0 ? 0 : x * y;
+    }
+
+    /**
+     * Computes an interval containing every quotient of a value of this interval by a value of another interval
+     * If the other interval contains zero, the quotient may be undefined and its bounds cover every quotient by a
+     * nonzero value
+     *
+     * @param other The interval of the denominator
+     * @return The interval of the quotients
+     */
+    public Interval divide(Interval other) {
+        if (this.isEmpty() || other.isEmpty()) {
+            return EMPTY;
+        }
+        boolean undefined = this.undefined || other.undefined;
+        if (other.lo > 0 || other.hi < 0) {
+            return this.times(rounded(1 / other.hi, 1 / other.lo, undefined));
+        }
+        if (other.lo == 0 && other.hi == 0) {
+            return EMPTY;
+        }
+        if (other.lo == 0) {
+            return this.times(new Interval(Math.nextDown(1 / other.hi), Double.POSITIVE_INFINITY, true));
+        }
+        if (other.hi == 0) {
+            return this.times(new Interval(Double.NEGATIVE_INFINITY, Math.nextUp(1 / other.lo), true));
+        }
+        return new Interval(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, true);
+    }
+
+    /**
+     * @return An interval containing the sine of every value of this interval
+     */
+    public Interval sin() {
+        //sine has its maxima at pi / 2 plus a multiple of 2 pi, and its minima at -pi / 2 plus a multiple of 2 pi
+        return periodic(Math.PI / 2, Math.sin(this.lo), Math.sin(this.hi));
+    }
+
+    /**
+     * @return An interval containing the cosine of every value of this interval
+     */
+    public Interval cos() {
+        //cosine has its maxima at multiples of 2 pi, and its minima at pi plus a multiple of 2 pi
+        return periodic(0, Math.cos(this.lo), Math.cos(this.hi));
+    }
+
+    /**
+     * Bounds a function of period 2 pi which is 1 at its maximum, -1 at its minimum half a period later, and monotone
+     * in between
+     * An extremum is counted as inside the interval whenever rounding could place it there, so the bounds are never
+     * too tight.  The function of an infinite value is undefined
+     *
+     * @param maximum The position of one of the maxima of the function
+     * @param atLo    The value of the function at the lower bound of the interval
+     * @param atHi    The value of the function at the upper bound of the interval
+     * @return An interval containing the function of every value of this interval
+     */
+    private Interval periodic(double maximum, double atLo, double atHi) {
+        if (this.isEmpty() || this.lo == Double.POSITIVE_INFINITY || this.hi == Double.NEGATIVE_INFINITY) {
+            return EMPTY;
+        }
+        if (Double.isInfinite(this.lo) || Double.isInfinite(this.hi)) {
+            return new Interval(-1, 1, true);
+        }
+        if (!(Math.abs(this.lo) < PERIODIC_LIMIT && Math.abs(this.hi) < PERIODIC_LIMIT)
+                || this.hi - this.lo >= 2 * Math.PI) {
+            return new Interval(-1, 1, this.undefined);
+        }
+        double lo = Math.max(-1, Math.nextDown(Math.nextDown(Math.min(atLo, atHi))));
+        double hi = Math.min(1, Math.nextUp(Math.nextUp(Math.max(atLo, atHi))));
+        if (containsPeriodic(maximum)) {
+            hi = 1;
+        }
+        if (containsPeriodic(maximum + Math.PI)) {
+            lo = -1;
+        }
+        return new Interval(lo, hi, this.undefined);
+    }
+
+    /**
+     * @param point A point
+     * @return Whether the point plus some multiple of 2 pi may be within the interval
+     */
+    private boolean containsPeriodic(double point) {
+        double slack = 1e-9;
+        double first = Math.ceil((this.lo - point) / (2 * Math.PI) - slack);
+        double last = Math.floor((this.hi - point) / (2 * Math.PI) + slack);
+        return first <= last;
+    }
+
+    /**
+     * @return An interval containing the exponential of every value of this interval
+     */
+    public Interval exp() {
+        if (this.isEmpty()) {
+            return EMPTY;
+        }
+        Interval result = approximate(Math.exp(this.lo), Math.exp(this.hi), this.undefined);
+        return new Interval(Math.max(0, result.lo), result.hi, result.undefined);
+    }
+
+    /**
+     * Computes an interval containing the natural logarithm of every positive value of this interval
+     * If the interval contains values which are not positive, the logarithm may be undefined
+     *
+     * @return The interval of the logarithms
+     */
+    public Interval log() {
+        if (this.isEmpty() || this.hi < 0) {
+            return EMPTY;
+        }
+        boolean undefined = this.undefined || this.lo <= 0;
+        if (this.hi == 0) {
+            return new Interval(Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, true);
+        }
+        Interval result = approximate(this.lo <= 0 ? Double.NEGATIVE_INFINITY : Math.log(this.lo), Math.log(this.hi),
+                undefined);
+        return this.lo <= 0 ? new Interval(Double.NEGATIVE_INFINITY, result.hi, true) : result;
+    }
+
+    /**
+     * Computes an interval containing every value of this interval raised to a power, as computed by Math.pow
+     * Negative values raised to a power which is not a whole number are undefined, as is zero raised to a negative
+     * power, which like a quotient by zero is flagged even though Math.pow gives an infinity
+     *
+     * @param power The power to which the values are raised
+     * @return The interval of the powers
+     */
+    public Interval pow(double power) {
+        if (this.isEmpty()) {
+            return EMPTY;
+        }
+        if (power == 0) {
+            return new Interval(1, 1, this.undefined);
+        }
+        if (Double.isNaN(power)) {
+            return EMPTY;
+        }
+
+        //the powers of the nonnegative values, which are monotone
+        double lo = Double.NaN;
+        double hi = Double.NaN;
+        if (this.hi >= 0) {
+            double a = Math.pow(Math.max(this.lo, 0), power);
+            double b = Math.pow(this.hi, power);
+            lo = Math.min(a, b);
+            hi = Math.max(a, b);
+        }
+
+        //the powers of the negative values, which are only defined for whole powers
+        boolean undefined = this.undefined || power < 0 && this.lo <= 0 && this.hi >= 0;
+        if (this.lo < 0) {
+            boolean whole = power == Math.rint(power) && !Double.isInfinite(power);
+            if (whole) {
+                double a = Math.pow(this.lo, power);
+                double b = Math.pow(Math.min(this.hi, -0.0), power);
+                lo = Double.isNaN(lo) ? Math.min(a, b) : Math.min(lo, Math.min(a, b));
+                hi = Double.isNaN(hi) ? Math.max(a, b) : Math.max(hi, Math.max(a, b));
+            } else {
+                undefined = true;
+            }
+        }
+        if (Double.isNaN(lo)) {
+            return EMPTY;
+        }
+        Interval result = approximate(lo, hi, undefined);
+
+        //powers which are all nonnegative stay nonnegative after rounding
+        return lo >= 0 ? new Interval(Math.max(0, result.lo), result.hi, undefined) : result;
+    }
+
+    /**
+     * Computes the String representation of an Interval
+     *
+     * @return The String representation of the Interval
+     */
+    @Override
+    public String toString() {
+        if (this.isEmpty()) {
+            return "[]";
+        }
+        return "[" + this.lo + ", " + this.hi + "]" + (this.undefined ? "?" : "");
+    }
+}
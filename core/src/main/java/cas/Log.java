@@ -0,0 +1,136 @@
+package cas;
+
+/**
+ * Represents the base e logarithmic function
+ *
+ * @author Kennan LeJeune
+ */
+public class Log extends UnaryOp {
+    /**
+     * Initializes the operand argument to be taken by a Log function instance
+     *
+     * @param operand The operand to be taken by the Log instance
+     */
+    public Log(Function operand) {
+        super(operand);
+    }
+
+    /**
+     * Compute the value of a Log function which contains a variable at a given input value
+     *
+     * @param input The value at which to evaluate the function
+     * @return The value of the Log instance at the value of the input parameter
+     */
+    @Override
+    public double value(double input) {
+        if (Instrumentation.ENABLED && Instrumentation.enter(this)) {
+            return Instrumentation.value(this, input);
+        }
+        return Math.log(getOperand().value(input));
+    }
+
+    /**
+     * Computes the value of a Log function of several variables in an environment
+     *
+     * @param environment The value of each variable, by index
+     * @return The value of the Log function in the environment
+     */
+    @Override
+    public double evaluate(double[] environment) {
+        return Math.log(this.getOperand().evaluate(environment));
+    }
+
+    /**
+     * Evaluates a Log function at every value of an input array
+     *
+     * @param inputs  The values at which to evaluate the function
+     * @param outputs The array which receives the value of the Log function at each input
+     */
+    @Override
+    public void value(double[] inputs, double[] outputs) {
+        getOperand().value(inputs, outputs);
+        for (int i = 0; i < inputs.length; i++) {
+            outputs[i] = Math.log(outputs[i]);
+        }
+    }
+
+    /**
+     * Computes bounds on the natural logarithm of the operand at every input of an interval
+     * The result may be undefined wherever the operand may not be positive
+     *
+     * @param input The interval of inputs
+     * @return An interval containing the value of the Log function at every input
+     */
+    @Override
+    public Interval valueInterval(Interval input) {
+        return getOperand().valueInterval(input).log();
+    }
+
+    /**
+     * Computes the value and derivative of a Log function at a given input value, using the same chain rule as
+     * derivative()
+     *
+     * @param input      The value at which to evaluate the function
+     * @param derivative The array whose first element receives the derivative of the Log function at the input
+     * @return The value of the Log instance at the value of the input parameter
+     */
+    @Override
+    public double valueAndDerivative(double input, double[] derivative) {
+        if (isConstant()) {
+            derivative[0] = 0;
+            return value(input);
+        }
+        double operand = getOperand().valueAndDerivative(input, derivative);
+        derivative[0] = (1 / operand) * derivative[0];
+        return Math.log(operand);
+    }
+
+    /**
+     * Computes the Taylor series of a Log function from the series of its operand
+     *
+     * @param input The value around which to expand the function
+     * @param order The highest power of the series
+     * @return The coefficients of the Taylor series of the Log function
+     */
+    @Override
+    protected double[] taylor(double input, int order) {
+        if (isConstant()) {
+            return constantSeries(input, order);
+        }
+        double[] operand = getOperand().taylor(input, order);
+        double[] log = new double[order + 1];
+        log[0] = Math.log(operand[0]);
+        for (int k = 1; k <= order; k++) {
+            double sum = 0;
+            for (int j = 1; j < k; j++) {
+                sum += j * log[j] * operand[k - j];
+            }
+            log[k] = (operand[k] - sum / k) / operand[0];
+        }
+        return log;
+    }
+
+    /**
+     * Compute the value of a strictly numeric Log function
+     *
+     * @return The value of the Log instance
+     */
+    @Override
+    public double value() {
+        if (Instrumentation.ENABLED && Instrumentation.enter(this)) {
+            return Instrumentation.value(this);
+        }
+        return Math.log(getOperand().value());
+    }
+
+    /**
+     * Computes the derivative of a Log function instance
+     *
+     * @return The Function that is the derivative of a Log function instance
+     */
+    @Override
+    protected Function computeDerivative() {
+        return new BinaryOp(new BinaryOp(new Number(1), this.getOperand(), BinaryOp.Op.DIV), this.getOperand()
+                .derivative(), BinaryOp.Op.MULT);
+    }
+}
@@ -0,0 +1,418 @@
+package cas;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+/**
+ * Represents an addition or multiplication of any number of operands, which are held in an array instead of a chain of
+ * BinaryOps
+ * An NaryOp stands for the chain of BinaryOps which combines its operands from left to right, so the operands a, b, c
+ * of a Sum stand for (a + b) + c.  It prints exactly like that chain, and two NaryOps are equal whenever their chains
+ * would be, so operands may only be swapped in the same places.  Nested chains of the
+ * same operator, whether BinaryOps or NaryOps, are flattened into the operand array when an NaryOp is built, so a
+ * + (b + c) becomes the Sum of a, b, c.  Operands and steps of the chain which are operations on a zero or a one are
+ * simplified as the BinaryOps of the chain would simplify them, so an NaryOp keeps printing and evaluating like its
+ * chain.  An NaryOp is never equal to a BinaryOp, not even to the chain it prints like, so parsing the String of an
+ * NaryOp gives a chain which is not equal to it, and a FunctionFactory keeps the two as separate canonical functions.
+ * Its hash code is therefore scrambled from that of the chain, so that the two do not collide in hash tables
+ *
+ * @author Kennan LeJeune
+ */
+public abstract class NaryOp extends Function {
+    //the operands, in the order they are combined
+    private final Function[] operands;
+
+    //whether every operand is built only from Numbers
+    private final boolean constant;
+
+    //the operator which combines the operands, PLUS or MULT
+    private final BinaryOp.Op operator;
+
+    //the hash code of the chain of the first k + 1 operands at index k, null until it is first computed
+    private int[] prefixHashes;
+
+    /**
+     * Initializes the operands of an NaryOp
+     *
+     * @param operator The operator which combines the operands
+     * @param flatten  Whether operands which are chains of the same operator are replaced by their own operands
+     * @param operands The operands, in the order they are combined
+     * @throws IllegalArgumentException If there are fewer than two operands
+     */
+    NaryOp(BinaryOp.Op operator, boolean flatten, Function... operands) {
+        if (operands.length < 2) {
+            throw new IllegalArgumentException("An operation needs at least two operands, not " + operands.length);
+        }
+        this.operator = operator;
+        Function[] simplified = new Function[operands.length];
+        for (int k = 0; k < operands.length; k++) {
+            simplified[k] = BinaryOp.simplifyOperand(operands[k]);
+        }
+        this.operands = chain(operator, flatten ? flatten(operator, simplified) : simplified);
+        boolean constant = true;
+        for (Function operand : this.operands) {
+            constant &= operand.isConstant();
+        }
+        this.constant = constant;
+    }
+
+    /**
+     * @return Whether every operand, and so the NaryOp, has the same value at every input
+     */
+    @Override
+    public boolean isConstant() {
+        return constant;
+    }
+
+    /**
+     * Simplifies the first step of a chain of operands, as each BinaryOp of the chain simplifies the step before it
+     * Only the step combining the first two operands can be an operation on a zero or a one, since every later step
+     * has the chain before it as its left operand.  Each step which is simplified to a single operand makes the next
+     * step another candidate
+     *
+     * @param operator The operator which combines the operands
+     * @param operands The operands, each already simplified
+     * @return The operands of the simplified chain
+     */
+    private static Function[] chain(BinaryOp.Op operator, Function[] operands) {
+        Function[] chain = new Function[operands.length];
+        int size = 0;
+        for (Function operand : operands) {
+            if (size == 2) {
+                Function simplified = BinaryOp.simplify(operator, chain[0], chain[1]);
+                if (simplified != null) {
+                    chain[0] = simplified;
+                    size = 1;
+                }
+            }
+            chain[size++] = operand;
+        }
+        return size == chain.length ? chain : Arrays.copyOf(chain, size);
+    }
+
+    /**
+     * Simplifies the NaryOp as an operand of another operation, as BinaryOp.simplifyOperand() would simplify its
+     * chain
+     *
+     * @return The simpler function equal to the NaryOp, or the NaryOp itself
+     */
+    Function simplified() {
+        int n = operands.length;
+        if (n == 2) {
+            Function simplified = BinaryOp.simplify(operator, operands[0], operands[1]);
+            return simplified == null ? this : simplified;
+        }
+
+        //the left operand of the last step is the chain before it, which is neither zero nor one
+        Function simplified = BinaryOp.simplify(operator, this, operands[n - 1]);
+        if (simplified != this) {
+            return simplified == null ? this : simplified;
+        }
+        Function[] before = Arrays.copyOf(operands, n - 1);
+        return operator == BinaryOp.Op.PLUS ? new Sum(false, before) : new Product(false, before);
+    }
+
+    /**
+     * Replaces every operand which is a chain of an operator by the operands of the chain, in order
+     * The chains are walked with an explicit stack, so chains of any length can be flattened
+     *
+     * @param operator The operator whose chains are flattened
+     * @param operands The operands
+     * @return The flattened operands
+     */
+    private static Function[] flatten(BinaryOp.Op operator, Function[] operands) {
+        Function[] flat = new Function[operands.length];
+        int size = 0;
+        Deque<Function> pending = new ArrayDeque<>();
+        for (Function operand : operands) {
+            pending.push(operand);
+            while (!pending.isEmpty()) {
+                Function node = pending.pop();
+                if (node instanceof NaryOp && ((NaryOp) node).operator == operator) {
+                    Function[] nested = ((NaryOp) node).operands;
+                    for (int i = nested.length - 1; i >= 0; i--) {
+                        pending.push(nested[i]);
+                    }
+                } else if (node instanceof BinaryOp && ((BinaryOp) node).getOperator() == operator) {
+                    pending.push(((BinaryOp) node).getRightOperand());
+                    pending.push(((BinaryOp) node).getLeftOperand());
+                } else {
+                    if (size == flat.length) {
+                        flat = Arrays.copyOf(flat, 2 * size);
+                    }
+                    flat[size++] = node;
+                }
+            }
+        }
+        return size == flat.length ? flat : Arrays.copyOf(flat, size);
+    }
+
+    /**
+     * Retrieves the operator of an NaryOp
+     *
+     * @return The operator which combines the operands, PLUS or MULT
+     */
+    public BinaryOp.Op getOperator() {
+        return this.operator;
+    }
+
+    /**
+     * @return The number of operands of the NaryOp
+     */
+    public int getOperandCount() {
+        return this.operands.length;
+    }
+
+    /**
+     * @param index The index of an operand
+     * @return The operand at the index
+     */
+    public Function getOperand(int index) {
+        return this.operands[index];
+    }
+
+    /**
+     * @return A copy of the operands of the NaryOp, in the order they are combined
+     */
+    public Function[] getOperands() {
+        return this.operands.clone();
+    }
+
+    /**
+     * @return The operands themselves, which must not be modified
+     */
+    Function[] operands() {
+        return this.operands;
+    }
+
+    /**
+     * Evaluates an NaryOp at every value of an input array
+     * The first operand is evaluated into the output array and each other operand into one scratch array borrowed
+     * from the BatchWorkspace of the thread, which is combined with the outputs in a single loop
+     *
+     * @param inputs  The values at which to evaluate the NaryOp
+     * @param outputs The array which receives the value of the NaryOp at each input
+     */
+    @Override
+    public void value(double[] inputs, double[] outputs) {
+        int length = inputs.length;
+        operands[0].value(inputs, outputs);
+        BatchWorkspace workspace = null;
+        double[] scratch = null;
+        try {
+            for (int k = 1; k < operands.length; k++) {
+                Function operand = operands[k];
+
+                //a constant operand does not need the scratch array
+                if (operand instanceof Number) {
+                    double constant = operand.value();
+                    if (operator == BinaryOp.Op.PLUS) {
+                        for (int i = 0; i < length; i++) {
+                            outputs[i] += constant;
+                        }
+                    } else {
+                        for (int i = 0; i < length; i++) {
+                            outputs[i] *= constant;
+                        }
+                    }
+                    continue;
+                }
+
+                if (scratch == null) {
+                    workspace = BatchWorkspace.current();
+                    scratch = workspace.borrow(length);
+                }
+                operand.value(inputs, scratch);
+                if (operator == BinaryOp.Op.PLUS) {
+                    for (int i = 0; i < length; i++) {
+                        outputs[i] += scratch[i];
+                    }
+                } else {
+                    for (int i = 0; i < length; i++) {
+                        outputs[i] *= scratch[i];
+                    }
+                }
+            }
+        } finally {
+            if (workspace != null) {
+                workspace.release();
+            }
+        }
+    }
+
+    /**
+     * Computes the hash code of the chain of the first operands, which is the hash code a chain of BinaryOps with
+     * the same operands would have, each operand which is an NaryOp being hashed as the chain it stands for
+     *
+     * @param count The number of operands, at least one
+     * @return The hash code of the chain
+     */
+    int prefixHash(int count) {
+        int[] hashes = this.prefixHashes;
+        if (hashes == null) {
+            hashes = new int[operands.length];
+            hashes[0] = hash(operands[0], count(operands[0]));
+            for (int k = 1; k < operands.length; k++) {
+                hashes[k] = 31 * (BinaryOp.mix(hashes[k - 1]) + BinaryOp.mix(hash(operands[k], count(operands[k]))))
+                        + operator.ordinal();
+            }
+            this.prefixHashes = hashes;
+        }
+        return hashes[count - 1];
+    }
+
+    /**
+     * Computes the hash code of an NaryOp, scrambled from that of the chain of BinaryOps it stands for, since the
+     * two are never equal
+     *
+     * @return The hash code of the NaryOp
+     */
+    @Override
+    public int hashCode() {
+        return BinaryOp.mix(prefixHash(operands.length));
+    }
+
+    /**
+     * Determines if an NaryOp is equivalent to an input parameter
+     * The NaryOps are compared as the chains they stand for: at each step of a chain, the last operand and the chain
+     * before it must match those of the other chain, either in order or swapped, just as for the operands of a
+     * BinaryOp.  Steps which can only match in order are compared in a loop rather than recursively
+     *
+     * @param input The function to be compared
+     * @return Whether or not the functions are equal
+     */
+    @Override
+    public boolean equals(Object input) {
+        if (this == input) {
+            return true;
+        }
+        if (!(input instanceof NaryOp) || ((NaryOp) input).operator != this.operator
+                || this.hashCode() != input.hashCode()) {
+            return false;
+        }
+        return chainEquals(this, operands.length, (NaryOp) input, ((NaryOp) input).operands.length);
+    }
+
+    /**
+     * @param function A function
+     * @return The number of operands of the function if it is an NaryOp, otherwise 0
+     */
+    private static int count(Function function) {
+        return function instanceof NaryOp ? ((NaryOp) function).operands.length : 0;
+    }
+
+    /**
+     * @param function A function
+     * @param count    The number of operands of the chain if the function is an NaryOp
+     * @return The hash code of the chain of the first operands of an NaryOp, which is not scrambled as the hash code
+     * of the NaryOp is, or of any other function
+     */
+    private static int hash(Function function, int count) {
+        return function instanceof NaryOp ? ((NaryOp) function).prefixHash(count) : function.hashCode();
+    }
+
+    /**
+     * Compares two chains, each of which is the chain of the first operands of an NaryOp or any other function
+     *
+     * @param a      The first function
+     * @param aCount The number of operands of the first chain if the first function is an NaryOp
+     * @param b      The second function
+     * @param bCount The number of operands of the second chain if the second function is an NaryOp
+     * @return Whether the chains are equal
+     */
+    private static boolean chainEquals(Function a, int aCount, Function b, int bCount) {
+        while (true) {
+            //a chain of one operand is the operand itself
+            if (a instanceof NaryOp && aCount == 1) {
+                a = ((NaryOp) a).operands[0];
+                aCount = count(a);
+            }
+            if (b instanceof NaryOp && bCount == 1) {
+                b = ((NaryOp) b).operands[0];
+                bCount = count(b);
+            }
+            boolean aChain = a instanceof NaryOp;
+            boolean bChain = b instanceof NaryOp;
+            if (!aChain || !bChain) {
+                return aChain == bChain && a.equals(b);
+            }
+            if (((NaryOp) a).operator != ((NaryOp) b).operator || hash(a, aCount) != hash(b, bCount)) {
+                return false;
+            }
+
+            //the last operand of each chain, and the chain before it
+            Function aLast = ((NaryOp) a).operands[aCount - 1];
+            Function bLast = ((NaryOp) b).operands[bCount - 1];
+            int aLastHash = hash(aLast, count(aLast));
+            int bLastHash = hash(bLast, count(bLast));
+            int aRest = hash(a, aCount - 1);
+            int bRest = hash(b, bCount - 1);
+            boolean inOrder = aLastHash == bLastHash && aRest == bRest;
+            boolean swapped = aLastHash == bRest && aRest == bLastHash;
+            if (inOrder && swapped) {
+                return aLast.equals(bLast) && chainEquals(a, aCount - 1, b, bCount - 1)
+                        || chainEquals(a, aCount - 1, bLast, count(bLast))
+                        && chainEquals(aLast, count(aLast), b, bCount - 1);
+            } else if (inOrder) {
+                if (!aLast.equals(bLast)) {
+                    return false;
+                }
+                aCount--;
+                bCount--;
+            } else if (swapped) {
+                if (!chainEquals(a, aCount - 1, bLast, count(bLast))) {
+                    return false;
+                }
+                a = aLast;
+                aCount = count(aLast);
+                bCount--;
+            } else {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Writes the String representation of an NaryOp, which is that of the chain of BinaryOps it stands for
+     *
+     * @param out The Appendable which receives the representation
+     * @throws IOException If the Appendable cannot be written to
+     */
+    @Override
+    public void appendTo(Appendable out) throws IOException {
+        //every step of the chain after the first is the left operand of the next, so it is in parentheses
+        for (int k = 2; k < operands.length; k++) {
+            out.append('(');
+        }
+        boolean firstIsOperation = BinaryOp.operatorOf(operands[0]) != null;
+        if (firstIsOperation) {
+            out.append('(');
+            operands[0].appendTo(out);
+            out.append(')');
+        } else {
+            operands[0].appendTo(out);
+        }
+
+        for (int k = 1; k < operands.length; k++) {
+            if (k >= 2) {
+                out.append(')');
+            }
+            out.append(' ');
+            out.append(operator.toString());
+            out.append(' ');
+
+            //as in a BinaryOp, an operation on the right is only left without parentheses when the left is also an
+            //operation with the same operator
+            BinaryOp.Op rightOperator = BinaryOp.operatorOf(operands[k]);
+            if (rightOperator != null && !((k >= 2 || firstIsOperation) && rightOperator == operator)) {
+                out.append('(');
+                operands[k].appendTo(out);
+                out.append(')');
+            } else {
+                operands[k].appendTo(out);
+            }
+        }
+    }
+}
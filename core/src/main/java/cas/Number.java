@@ -0,0 +1,171 @@
+package cas;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Represents a constant number value
+ *
+ * @author Kennan LeJeune
+ */
+public class Number extends Function {
+    //stores the value of a number object
+    private final double value;
+
+    /**
+     * Initializes the value of a Number instance
+     *
+     * @param value the value of the Number
+     */
+    public Number(double value) {
+        this.value = value;
+    }
+
+    /**
+     * Computes the value of a number at a given input parameter
+     * Always equivalent to the initial value
+     *
+     * @param input The value at which to evaluate the function
+     * @return The value of the number
+     */
+    @Override
+    public double value(double input) {
+        if (Instrumentation.ENABLED && Instrumentation.enter(this)) {
+            return Instrumentation.value(this, input);
+        }
+        return this.value;
+    }
+
+    /**
+     * Fills the output array with the value of the number, which does not depend on the inputs
+     *
+     * @param inputs  The values at which to evaluate the function
+     * @param outputs The array which receives the value of the number at each input
+     */
+    @Override
+    public void value(double[] inputs, double[] outputs) {
+        Arrays.fill(outputs, 0, inputs.length, this.value);
+    }
+
+    /**
+     * @param environment The value of each variable, by index
+     * @return The value of the number, which does not depend on the variables
+     */
+    @Override
+    public double evaluate(double[] environment) {
+        return this.value;
+    }
+
+    /**
+     * @return The value of the number
+     */
+    @Override
+    public double value() {
+        if (Instrumentation.ENABLED && Instrumentation.enter(this)) {
+            return Instrumentation.value(this);
+        }
+        return this.value;
+    }
+
+    /**
+     * @param input The interval of inputs
+     * @return The interval containing only the value of the Number, or an empty interval if it is NaN
+     */
+    @Override
+    public Interval valueInterval(Interval input) {
+        return Double.isNaN(this.value) ? Interval.EMPTY : new Interval(this.value, this.value);
+    }
+
+    /**
+     * Computes the value of a number, whose derivative is always zero
+     *
+     * @param input      The value at which to evaluate the function
+     * @param derivative The array whose first element receives the derivative of the number
+     * @return The value of the number
+     */
+    @Override
+    public double valueAndDerivative(double input, double[] derivative) {
+        derivative[0] = 0;
+        return this.value;
+    }
+
+    /**
+     * @return True, since a number has the same value at every input
+     */
+    @Override
+    public boolean isConstant() {
+        return true;
+    }
+
+    /**
+     * @param input The value around which to expand the function
+     * @param order The highest power of the series
+     * @return The Taylor series of the number, whose only nonzero coefficient is its value
+     */
+    @Override
+    protected double[] taylor(double input, int order) {
+        double[] coefficients = new double[order + 1];
+        coefficients[0] = this.value;
+        return coefficients;
+    }
+
+    /**
+     * Writes the String representation of a Number
+     *
+     * @param out The Appendable which receives the representation
+     * @throws IOException If the Appendable cannot be written to
+     */
+    @Override
+    public void appendTo(Appendable out) throws IOException {
+        append(out, this.value);
+    }
+
+    /**
+     * Writes a double in the same format as String.valueOf(double), without creating a String when writing to a
+     * StringBuilder
+     *
+     * @param out   The Appendable which receives the value
+     * @param value The value to be written
+     * @throws IOException If the Appendable cannot be written to
+     */
+    static void append(Appendable out, double value) throws IOException {
+        if (out instanceof StringBuilder) {
+            ((StringBuilder) out).append(value);
+        } else {
+            out.append(String.valueOf(value));
+        }
+    }
+
+    /**
+     * Compares whether a Function input is equivalent to the current instance
+     *
+     * @param input the function to be compared
+     * @return whether the current Number instance is equivalent to the input Function
+     */
+    @Override
+    public boolean equals(Object input) {
+        return input instanceof Number && this.value == ((Number) input).value;
+    }
+
+    /**
+     * Computes the hash code of a Number from its value
+     * Zero and negative zero are equal Numbers, so they share a hash code
+     *
+     * @return The hash code of the Number
+     */
+    @Override
+    public int hashCode() {
+        return this.value == 0 ? 0 : Double.hashCode(this.value);
+    }
+
+    /**
+     * Computes the derivative of the Number instance
+     * The value of any constant is zero, so this is always zero
+     *
+     * @return A number object of value 0
+     */
+    @Override
+    protected Function computeDerivative() {
+        return new Number(0);
+    }
+}
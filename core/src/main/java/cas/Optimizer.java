@@ -0,0 +1,914 @@
+package cas;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rewrites a Function into the equivalent form which is cheapest to evaluate, by equality saturation
+ * The function is loaded into an e-graph, which holds classes of equivalent expressions, and identities are applied
+ * to every expression of the graph until they add nothing new or the budget runs out.  The cheapest expression of the
+ * class of the function is then extracted.  The identities are commutativity and associativity of addition and
+ * multiplication, distributing products over sums and factoring sums of products, combining fractions with the same
+ * denominator, Exp[a] * Exp[b] = Exp[a + b], merging powers of the same base, x^2.0 = x * x, x^-1.0 = 1.0 / x and
+ * Log[Exp[a]] = a, and every operation on constants is folded into a Number.  Unlike the Simplifier, no identity makes
+ * the function defined where it was not, so the optimized function only differs from the original by rounding and
+ * where an intermediate value overflows.  No identity moves a factor or divisor whose value is zero or not finite, and
+ * no product with a zero factor or quotient of zero is extracted, since BinaryOp cancels those to zero
+ * The cost of an expression is an estimate of the time taken to evaluate it: a division costs more than an addition
+ * or multiplication, a call to Math.sin, cos, exp or log costs more than a division, and a call to Math.pow costs
+ * most of all, except for a square which the JIT compiler turns into a multiplication.  The graph is limited to a
+ * number of nodes and a time, so any function can be optimized safely
+ *
+ * @author Kennan LeJeune
+ */
+public class Optimizer {
+    //the budget of optimize(Function)
+    private static final int DEFAULT_MAX_NODES = 20000;
+    private static final long DEFAULT_TIME_LIMIT_MILLIS = 200;
+
+    //the most times the identities are applied to the whole graph
+    private static final int MAX_ITERATIONS = 64;
+
+    //the largest power up to which every integer is a double, so a product of integer powers is exact
+    private static final double MAX_EXACT_POWER = 0x1p53;
+
+    //the estimated cost of evaluating each type of node, not counting its operands, indexed by PostfixProgram
+    //instruction: NUMBER, VARIABLE, PLUS, SUB, MULT, DIV, SIN, COS, EXP, LOG, POLYNOMIAL and CALL
+    private static final double[] COSTS = {0, 0, 1, 1, 1, 4, 20, 20, 20, 20, 40, 50};
+
+    //the class of every node of the graph, by the node with its operands as they were when it was last indexed
+    private final Map<Node, Integer> classes = new HashMap<>();
+
+    //the nodes of each class, null for classes which have been merged into another
+    private final List<List<Node>> members = new ArrayList<>();
+
+    //the union-find parent of each class, which is the class itself for the representative of its merged classes
+    private int[] parents = new int[16];
+
+    //whether each class has a constant value, and that value
+    private boolean[] folded = new boolean[16];
+    private double[] constants = new double[16];
+
+    //the functions of a type the graph does not know, called by CALL nodes, and the Variables of VARIABLE nodes
+    private final List<Function> calls = new ArrayList<>();
+
+    //the most nodes the graph may hold before the identities stop being applied
+    private final int maxNodes;
+
+    //the number of nodes added to the graph, counting nodes which were later found equal to others
+    private int nodeCount;
+
+    //the value of System.nanoTime() after which the identities stop being applied
+    private final long deadline;
+
+    /**
+     * Holds one node of the graph: an operation and the classes of its operands
+     */
+    private static final class Node {
+        //the type of the node, a PostfixProgram instruction
+        private final int type;
+
+        //the value of a NUMBER, the power of a POLYNOMIAL or the index of the function of a CALL
+        private final double payload;
+
+        //the classes of the operands
+        private final int[] operands;
+
+        /**
+         * Initializes a node
+         *
+         * @param type     The type of the node
+         * @param payload  The value, power or function index of the node
+         * @param operands The classes of the operands
+         */
+        private Node(int type, double payload, int... operands) {
+            this.type = type;
+            this.payload = payload;
+            this.operands = operands;
+        }
+
+        /**
+         * @param input The object to be compared
+         * @return Whether the input is a node of the same type, payload and operand classes
+         */
+        @Override
+        public boolean equals(Object input) {
+            if (!(input instanceof Node)) {
+                return false;
+            }
+            Node node = (Node) input;
+            return type == node.type && Double.doubleToLongBits(payload) == Double.doubleToLongBits(node.payload)
+                    && Arrays.equals(operands, node.operands);
+        }
+
+        /**
+         * @return The hash code of the type, payload and operand classes
+         */
+        @Override
+        public int hashCode() {
+            return (31 * type + Double.hashCode(payload)) * 31 + Arrays.hashCode(operands);
+        }
+    }
+
+    /**
+     * Initializes an empty graph
+     *
+     * @param maxNodes The most nodes the graph may hold
+     * @param deadline The value of System.nanoTime() after which no more identities are applied
+     */
+    private Optimizer(int maxNodes, long deadline) {
+        this.maxNodes = maxNodes;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Optimizes a function with a budget of 20000 nodes and 200 milliseconds
+     *
+     * @param function The function to be optimized
+     * @return The cheapest equivalent function found, or the function itself if none is cheaper
+     */
+    public static Function optimize(Function function) {
+        return optimize(function, DEFAULT_MAX_NODES, DEFAULT_TIME_LIMIT_MILLIS);
+    }
+
+    /**
+     * Optimizes a function within a budget
+     * Once maxNodes nodes have been added to the graph or the time limit has passed, no more identities are applied
+     * and the cheapest expression found so far is extracted.  The limits are checked before each match of an identity
+     * is rewritten, each of which adds a few nodes, so loading the function, merging the last classes and extracting
+     * the result take time beyond the limit which grows with the size of the function
+     *
+     * @param function        The function to be optimized
+     * @param maxNodes        The most nodes the e-graph may hold, which bounds the memory used
+     * @param timeLimitMillis The time after which no more identities are applied, in milliseconds
+     * @return The cheapest equivalent function found, or the function itself if none is cheaper
+     * @throws IllegalArgumentException If the budget is not positive
+     */
+    public static Function optimize(Function function, int maxNodes, long timeLimitMillis) {
+        if (maxNodes <= 0 || timeLimitMillis <= 0) {
+            throw new IllegalArgumentException("Cannot optimize with " + maxNodes + " nodes in " + timeLimitMillis
+                    + " ms");
+        }
+        CompactExpression expression = CompactExpression.of(function);
+        Optimizer graph = new Optimizer(maxNodes, System.nanoTime() + timeLimitMillis * 1000000);
+        int root = graph.load(expression);
+        graph.rebuild();
+        for (int i = 0; i < MAX_ITERATIONS && !graph.exhausted(); i++) {
+            if (!graph.applyIdentities()) {
+                break;
+            }
+        }
+
+        Node[] best = new Node[graph.members.size()];
+        double[] costs = graph.extract(best);
+        if (costs[graph.find(root)] >= cost(expression)) {
+            return function;
+        }
+        return graph.build(graph.find(root), best);
+    }
+
+    /**
+     * Estimates the cost of evaluating a function, counting a subtree shared by several parents once for each parent
+     *
+     * @param function The function
+     * @return The sum of the costs of the nodes of the function
+     */
+    public static double cost(Function function) {
+        return cost(CompactExpression.of(function));
+    }
+
+    /**
+     * @param expression The compact representation of a function
+     * @return The sum of the costs of the nodes of the function
+     */
+    private static double cost(CompactExpression expression) {
+        double[] costs = new double[expression.size()];
+        for (int i = 0; i < costs.length; i++) {
+            int type = expression.type(i);
+            costs[i] = cost(type, expression.constant(i));
+            if (type >= PostfixProgram.PLUS && type <= PostfixProgram.POLYNOMIAL) {
+                costs[i] += costs[expression.leftOperand(i)];
+            }
+            if (type >= PostfixProgram.PLUS && type <= PostfixProgram.DIV) {
+                costs[i] += costs[expression.rightOperand(i)];
+            }
+        }
+        return costs[costs.length - 1];
+    }
+
+    /**
+     * @param type    The type of a node
+     * @param payload The value, power or function index of the node
+     * @return The estimated cost of evaluating the node, not counting its operands
+     */
+    private static double cost(int type, double payload) {
+        //the JIT compiler turns Math.pow(x, 2.0) into a multiplication
+        if (type == PostfixProgram.POLYNOMIAL && payload == 2) {
+            return COSTS[PostfixProgram.MULT];
+        }
+        return COSTS[type];
+    }
+
+    /**
+     * Finds the payload of the VARIABLE nodes of a Variable, so that nodes of equal Variables are the same node
+     *
+     * @param variable The Variable
+     * @return The index of the Variable among the functions called by the graph
+     */
+    private int variable(Function variable) {
+        int index = calls.indexOf(variable);
+        if (index < 0) {
+            index = calls.size();
+            calls.add(variable);
+        }
+        return index;
+    }
+
+    /**
+     * Adds every node of a compact expression to the graph
+     *
+     * @param expression The expression
+     * @return The class of the root of the expression
+     */
+    private int load(CompactExpression expression) {
+        int[] loaded = new int[expression.size()];
+        for (int i = 0; i < loaded.length; i++) {
+            int type = expression.type(i);
+            Node node;
+            if (type == PostfixProgram.NUMBER) {
+                node = new Node(type, expression.constant(i));
+            } else if (type == PostfixProgram.VARIABLE) {
+                node = new Node(type, variable(expression.call(expression.leftOperand(i))));
+            } else if (type <= PostfixProgram.DIV) {
+                node = new Node(type, 0, loaded[expression.leftOperand(i)], loaded[expression.rightOperand(i)]);
+            } else if (type == PostfixProgram.POLYNOMIAL) {
+                node = new Node(type, expression.constant(i), loaded[expression.leftOperand(i)]);
+            } else if (type == PostfixProgram.CALL) {
+                node = new Node(type, calls.size());
+                calls.add(expression.call(expression.leftOperand(i)));
+            } else {
+                node = new Node(type, 0, loaded[expression.leftOperand(i)]);
+            }
+            loaded[i] = add(node);
+        }
+        return loaded[loaded.length - 1];
+    }
+
+    /**
+     * Finds the representative of a class, shortening the path to it
+     *
+     * @param id A class
+     * @return The class into which the class has been merged
+     */
+    private int find(int id) {
+        while (parents[id] != id) {
+            parents[id] = parents[parents[id]];
+            id = parents[id];
+        }
+        return id;
+    }
+
+    /**
+     * @param node A node
+     * @return The node with the representative of each operand class
+     */
+    private Node canonical(Node node) {
+        int[] operands = node.operands;
+        for (int k = 0; k < operands.length; k++) {
+            if (parents[operands[k]] != operands[k]) {
+                operands = operands.clone();
+                for (int j = k; j < operands.length; j++) {
+                    operands[j] = find(operands[j]);
+                }
+                return new Node(node.type, node.payload, operands);
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Adds a node to the graph, unless an equal node is already in it
+     *
+     * @param node The node
+     * @return The class of the node
+     */
+    private int add(Node node) {
+        node = canonical(node);
+        Integer existing = classes.get(node);
+        if (existing != null) {
+            return find(existing);
+        }
+
+        int id = members.size();
+        if (id == parents.length) {
+            parents = Arrays.copyOf(parents, 2 * id);
+            folded = Arrays.copyOf(folded, 2 * id);
+            constants = Arrays.copyOf(constants, 2 * id);
+        }
+        parents[id] = id;
+        nodeCount++;
+        List<Node> nodes = new ArrayList<>();
+        nodes.add(node);
+        members.add(nodes);
+        classes.put(node, id);
+        if (node.type == PostfixProgram.NUMBER) {
+            folded[id] = true;
+            constants[id] = node.payload;
+        } else if (isFoldable(node)) {
+            union(id, add(new Node(PostfixProgram.NUMBER, evaluate(node))));
+        }
+        return find(id);
+    }
+
+    /**
+     * @param node A node
+     * @return Whether the node is an operation whose operands all have constant values
+     */
+    private boolean isFoldable(Node node) {
+        if (node.type == PostfixProgram.NUMBER || node.type == PostfixProgram.VARIABLE
+                || node.type == PostfixProgram.CALL) {
+            return false;
+        }
+        for (int operand : node.operands) {
+            if (!folded[find(operand)]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param node An operation whose operands all have constant values
+     * @return The value of the operation
+     */
+    private double evaluate(Node node) {
+        double left = constants[find(node.operands[0])];
+        double right = node.operands.length > 1 ? constants[find(node.operands[1])] : 0;
+        switch (node.type) {
+            case PostfixProgram.PLUS:
+                return left + right;
+            case PostfixProgram.SUB:
+                return left - right;
+            case PostfixProgram.MULT:
+                return left * right;
+            case PostfixProgram.DIV:
+                return left / right;
+            case PostfixProgram.SIN:
+                return Math.sin(left);
+            case PostfixProgram.COS:
+                return Math.cos(left);
+            case PostfixProgram.EXP:
+                return Math.exp(left);
+            case PostfixProgram.LOG:
+                return Math.log(left);
+            default:
+                return Math.pow(left, node.payload);
+        }
+    }
+
+    /**
+     * Merges two classes, keeping the nodes of both
+     *
+     * @param a A class
+     * @param b Another class
+     * @return Whether the classes were different
+     */
+    private boolean union(int a, int b) {
+        a = find(a);
+        b = find(b);
+        if (a == b) {
+            return false;
+        }
+        if (members.get(a).size() < members.get(b).size()) {
+            int swap = a;
+            a = b;
+            b = swap;
+        }
+        parents[b] = a;
+        members.get(a).addAll(members.get(b));
+        members.set(b, null);
+        if (!folded[a] && folded[b]) {
+            folded[a] = true;
+            constants[a] = constants[b];
+        }
+        return true;
+    }
+
+    /**
+     * Restores the invariants of the graph after classes have been merged: every node refers to representative
+     * classes, equal nodes are in the same class, and every class whose operands are all constant is constant
+     * Merging two classes can make the nodes of other classes equal, so this repeats until nothing more is merged
+     */
+    private void rebuild() {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            classes.clear();
+            List<int[]> merges = new ArrayList<>();
+            List<Node> foldable = new ArrayList<>();
+            for (int id = 0; id < members.size(); id++) {
+                if (parents[id] != id) {
+                    continue;
+                }
+                List<Node> nodes = members.get(id);
+                Set<Node> distinct = new LinkedHashSet<>();
+                for (Node node : nodes) {
+                    distinct.add(canonical(node));
+                }
+                nodes.clear();
+                nodes.addAll(distinct);
+                for (Node node : distinct) {
+                    Integer existing = classes.putIfAbsent(node, id);
+                    if (existing != null) {
+                        merges.add(new int[]{existing, id});
+                    }
+                    if (!folded[id] && isFoldable(node)) {
+                        foldable.add(node);
+                        merges.add(new int[]{id, -1});
+                    }
+                }
+            }
+
+            int next = 0;
+            for (int[] merge : merges) {
+                if (merge[1] < 0) {
+                    Node node = foldable.get(next++);
+                    merge[1] = add(new Node(PostfixProgram.NUMBER, evaluate(node)));
+                }
+                changed |= union(merge[0], merge[1]);
+            }
+        }
+    }
+
+    /**
+     * @return Whether the graph has used up its nodes or its time
+     */
+    private boolean exhausted() {
+        return nodeCount >= maxNodes || System.nanoTime() > deadline;
+    }
+
+    /**
+     * Applies every identity once to every node of the graph, then rebuilds it
+     * The nodes of a class with a constant value are skipped, since its Number is the cheapest expression it can hold
+     *
+     * @return Whether the identities added any node or merged any classes
+     */
+    private boolean applyIdentities() {
+        int before = classes.size();
+        boolean changed = false;
+        int count = members.size();
+        for (int id = 0; id < count && !exhausted(); id++) {
+            if (parents[id] != id || folded[id]) {
+                continue;
+            }
+            for (Node node : new ArrayList<>(members.get(id))) {
+                if (exhausted()) {
+                    break;
+                }
+                changed |= apply(find(id), canonical(node));
+            }
+        }
+        rebuild();
+        return changed || classes.size() != before;
+    }
+
+    /**
+     * @param id A class
+     * @return A copy of the nodes of the class, which may be iterated while nodes are added
+     */
+    private List<Node> nodes(int id) {
+        return new ArrayList<>(members.get(find(id)));
+    }
+
+    /**
+     * @param id    A class
+     * @param value A number
+     * @return Whether the class has the number as its constant value
+     */
+    private boolean isConstant(int id, double value) {
+        return folded[find(id)] && constants[find(id)] == value;
+    }
+
+    /**
+     * Determines whether the identities may not move a factor or divisor
+     * Multiplying or dividing by zero or a number which is not finite loses the value of the other operand, so
+     * regrouping such an operation changes where the result is zero, infinite or NaN, and with which sign
+     *
+     * @param id A class
+     * @return Whether the class has a constant value which is zero or not finite
+     */
+    private boolean isSingular(int id) {
+        id = find(id);
+        return folded[id] && (constants[id] == 0 || !Double.isFinite(constants[id]));
+    }
+
+    /**
+     * @param node A node
+     * @return Whether the node is a product with a zero factor or a quotient of zero, which BinaryOp cancels to zero
+     * when it is built as an operand, losing the value of the other operand
+     */
+    private boolean cancels(Node node) {
+        if (node.type == PostfixProgram.MULT) {
+            return isConstant(node.operands[0], 0) || isConstant(node.operands[1], 0);
+        }
+        return node.type == PostfixProgram.DIV && isConstant(node.operands[0], 0);
+    }
+
+    /**
+     * Adds a node to the graph and puts it in a class
+     *
+     * @param id   The class
+     * @param node The node equivalent to the class
+     * @return Whether the node was not already in the class
+     */
+    private boolean equate(int id, Node node) {
+        return union(id, add(node));
+    }
+
+    /**
+     * Adds the node of an operation to the graph
+     *
+     * @param type     The type of the operation
+     * @param operands The classes of the operands
+     * @return The class of the node
+     */
+    private int add(int type, int... operands) {
+        return add(new Node(type, 0, operands));
+    }
+
+    /**
+     * Applies every identity which matches a node
+     *
+     * @param id   The class of the node
+     * @param node The node
+     * @return Whether any classes were merged
+     */
+    private boolean apply(int id, Node node) {
+        boolean changed = false;
+        int a = node.operands.length > 0 ? node.operands[0] : -1;
+        int b = node.operands.length > 1 ? node.operands[1] : -1;
+        switch (node.type) {
+            case PostfixProgram.PLUS:
+            case PostfixProgram.MULT:
+                //a + b = b + a, and (x + y) + b = x + (y + b), and the same for multiplication
+                changed |= equate(id, new Node(node.type, 0, b, a));
+                for (Node left : nodes(a)) {
+                    if (exhausted()) {
+                        break;
+                    }
+                    if (left.type == node.type) {
+                        changed |= equate(id, new Node(node.type, 0, left.operands[0],
+                                add(node.type, left.operands[1], b)));
+                    }
+                }
+                if (node.type == PostfixProgram.PLUS) {
+                    changed |= isConstant(b, 0) && union(id, a);
+                    changed |= factor(id, node.type, a, b);
+                } else {
+                    changed |= isConstant(b, 1) && union(id, a);
+                    changed |= applyProductIdentities(id, a, b);
+                }
+                break;
+            case PostfixProgram.SUB:
+                changed |= isConstant(b, 0) && union(id, a);
+                changed |= factor(id, node.type, a, b);
+                break;
+            case PostfixProgram.DIV:
+                //(x / y) / b = x / (y * b)
+                changed |= isConstant(b, 1) && union(id, a);
+                for (Node left : nodes(a)) {
+                    if (exhausted()) {
+                        break;
+                    }
+                    if (left.type == PostfixProgram.DIV && !isSingular(left.operands[1]) && !isSingular(b)) {
+                        changed |= equate(id, new Node(PostfixProgram.DIV, 0, left.operands[0],
+                                add(PostfixProgram.MULT, left.operands[1], b)));
+                    }
+                }
+                break;
+            case PostfixProgram.POLYNOMIAL:
+                changed |= applyPowerIdentities(id, a, node.payload);
+                break;
+            case PostfixProgram.LOG:
+                //Log[Exp[x]] = x
+                for (Node operand : nodes(a)) {
+                    if (exhausted()) {
+                        break;
+                    }
+                    if (operand.type == PostfixProgram.EXP) {
+                        changed |= union(id, operand.operands[0]);
+                    }
+                }
+                break;
+            default:
+                break;
+        }
+        return changed;
+    }
+
+    /**
+     * Applies the identities which factor a sum or difference: a * x + a * y = a * (x + y), a * x + a = a * (x + 1.0)
+     * and x / c + y / c = (x + y) / c, and the same for differences
+     *
+     * @param id   The class of the sum or difference
+     * @param type PLUS or SUB
+     * @param a    The class of the left operand
+     * @param b    The class of the right operand
+     * @return Whether any classes were merged
+     */
+    private boolean factor(int id, int type, int a, int b) {
+        boolean changed = false;
+        List<Node> rights = nodes(b);
+        for (Node left : nodes(a)) {
+            if (exhausted()) {
+                break;
+            }
+            if (left.type == PostfixProgram.MULT && !isSingular(left.operands[0]) && !isSingular(left.operands[1])) {
+                int common = find(left.operands[0]);
+                if (common == find(b)) {
+                    int one = add(new Node(PostfixProgram.NUMBER, 1));
+                    changed |= equate(id, new Node(PostfixProgram.MULT, 0, common,
+                            add(type, left.operands[1], one)));
+                }
+                for (Node right : rights) {
+                    if (exhausted()) {
+                        break;
+                    }
+                    if (right.type == PostfixProgram.MULT && find(right.operands[0]) == common
+                            && !isSingular(right.operands[1])) {
+                        changed |= equate(id, new Node(PostfixProgram.MULT, 0, common,
+                                add(type, left.operands[1], right.operands[1])));
+                    }
+                }
+            } else if (left.type == PostfixProgram.DIV && !isSingular(left.operands[1])) {
+                int denominator = find(left.operands[1]);
+                for (Node right : rights) {
+                    if (exhausted()) {
+                        break;
+                    }
+                    if (right.type == PostfixProgram.DIV && find(right.operands[1]) == denominator) {
+                        changed |= equate(id, new Node(PostfixProgram.DIV, 0,
+                                add(type, left.operands[0], right.operands[0]), denominator));
+                    }
+                }
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Applies the identities of a product a * b: distributing it over a sum or difference, a * (x / y) = (a * x) / y,
+     * Exp[x] * Exp[y] = Exp[x + y], and merging powers of the same base
+     *
+     * @param id The class of the product
+     * @param a  The class of the left factor
+     * @param b  The class of the right factor
+     * @return Whether any classes were merged
+     */
+    private boolean applyProductIdentities(int id, int a, int b) {
+        if (isSingular(a) || isSingular(b)) {
+            return false;
+        }
+        boolean changed = false;
+        List<Node> lefts = nodes(a);
+        List<Node> rights = nodes(b);
+        for (Node right : rights) {
+            if (exhausted()) {
+                break;
+            }
+            //a sum, difference or quotient with a singular operand is left as it is
+            if (right.operands.length == 2 && (isSingular(right.operands[0]) || isSingular(right.operands[1]))) {
+                continue;
+            }
+            if (right.type == PostfixProgram.PLUS || right.type == PostfixProgram.SUB) {
+                changed |= equate(id, new Node(right.type, 0, add(PostfixProgram.MULT, a, right.operands[0]),
+                        add(PostfixProgram.MULT, a, right.operands[1])));
+            } else if (right.type == PostfixProgram.DIV) {
+                changed |= equate(id, new Node(PostfixProgram.DIV, 0, add(PostfixProgram.MULT, a, right.operands[0]),
+                        right.operands[1]));
+            } else if (right.type == PostfixProgram.EXP) {
+                for (Node left : lefts) {
+                    if (exhausted()) {
+                        break;
+                    }
+                    if (left.type == PostfixProgram.EXP) {
+                        changed |= equate(id, new Node(PostfixProgram.EXP, 0, add(PostfixProgram.PLUS,
+                                left.operands[0], right.operands[0])));
+                    }
+                }
+            }
+        }
+
+        //every factor is its own base to the power of one, and a Polynomial is its operand to its power
+        List<double[]> leftPowers = powers(a, lefts);
+        List<double[]> rightPowers = powers(b, rights);
+        for (double[] left : leftPowers) {
+            for (double[] right : rightPowers) {
+                if (exhausted()) {
+                    return changed;
+                }
+                if (find((int) left[0]) == find((int) right[0]) && !isSingular((int) left[0])
+                        && canMerge(left[1], right[1])) {
+                    changed |= equate(id, new Node(PostfixProgram.POLYNOMIAL, left[1] + right[1], (int) left[0]));
+                }
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * @param id    A class
+     * @param nodes The nodes of the class
+     * @return Each way of writing the class as a base to a power, as the class of the base and the power
+     */
+    private static List<double[]> powers(int id, List<Node> nodes) {
+        List<double[]> powers = new ArrayList<>();
+        powers.add(new double[]{id, 1});
+        for (Node node : nodes) {
+            if (node.type == PostfixProgram.POLYNOMIAL) {
+                powers.add(new double[]{node.operands[0], node.payload});
+            }
+        }
+        return powers;
+    }
+
+    /**
+     * Determines whether x^a * x^b may be replaced by x^(a + b) without making it defined where it was not
+     * Both sides are undefined for negative x unless the powers are integers, so an integer sum of powers which are
+     * not both integers would only be defined on one side.  A negative power is infinite at x = 0.0, where a positive
+     * power is zero, so x^a * x^b is undefined there when the powers have opposite signs and x^(a + b) is not
+     *
+     * @param a The first power
+     * @param b The second power
+     * @return Whether the powers may be merged
+     */
+    private static boolean canMerge(double a, double b) {
+        if (a < 0 && b > 0 || a > 0 && b < 0) {
+            return false;
+        }
+        return isInteger(a) && isInteger(b) || !isInteger(a + b);
+    }
+
+    /**
+     * Applies the identities of a power x^p: x^1.0 = x, x^0.0 = 1.0, x^2.0 = x * x, x^-1.0 = 1.0 / x, and
+     * (y^q)^p = y^(q * p) for integer powers whose product is exact, so that an odd power stays odd
+     *
+     * @param id    The class of the power
+     * @param base  The class of the base
+     * @param power The power
+     * @return Whether any classes were merged
+     */
+    private boolean applyPowerIdentities(int id, int base, double power) {
+        boolean changed = false;
+        if (power == 1) {
+            changed |= union(id, base);
+        } else if (power == 0) {
+            changed |= equate(id, new Node(PostfixProgram.NUMBER, 1));
+        } else if (power == 2) {
+            changed |= equate(id, new Node(PostfixProgram.MULT, 0, base, base));
+        } else if (power == -1) {
+            changed |= equate(id, new Node(PostfixProgram.DIV, 0, add(new Node(PostfixProgram.NUMBER, 1)), base));
+        }
+        if (isInteger(power)) {
+            for (Node node : nodes(base)) {
+                if (exhausted()) {
+                    break;
+                }
+                if (node.type == PostfixProgram.POLYNOMIAL && isInteger(node.payload)
+                        && Math.abs(power * node.payload) <= MAX_EXACT_POWER) {
+                    changed |= equate(id, new Node(PostfixProgram.POLYNOMIAL, power * node.payload,
+                            node.operands[0]));
+                }
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * @param value A number
+     * @return Whether the number is an integer
+     */
+    private static boolean isInteger(double value) {
+        return value == Math.rint(value) && !Double.isInfinite(value);
+    }
+
+    /**
+     * Finds the cheapest node of every class, repeating until no cheaper node is found
+     * A node which BinaryOp would cancel is never chosen, so a class whose nodes all cancel keeps an infinite cost and
+     * a function which needs one is returned as it is
+     *
+     * @param best The array which receives the cheapest node of each class
+     * @return The cost of the cheapest expression of each class
+     */
+    private double[] extract(Node[] best) {
+        double[] costs = new double[members.size()];
+        Arrays.fill(costs, Double.POSITIVE_INFINITY);
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int id = 0; id < costs.length; id++) {
+                if (parents[id] != id) {
+                    continue;
+                }
+                for (Node node : members.get(id)) {
+                    if (cancels(node)) {
+                        continue;
+                    }
+                    double cost = cost(node.type, node.payload);
+                    for (int operand : node.operands) {
+                        cost += costs[find(operand)];
+                    }
+                    if (cost < costs[id]) {
+                        costs[id] = cost;
+                        best[id] = node;
+                        changed = true;
+                    }
+                }
+            }
+        }
+        return costs;
+    }
+
+    /**
+     * Builds the cheapest expression of a class as a Function
+     * The expression is built with an explicit stack, so expressions of any depth can be built, and a class used by
+     * several nodes is built once and shared
+     *
+     * @param root The class
+     * @param best The cheapest node of every class
+     * @return The function
+     */
+    private Function build(int root, Node[] best) {
+        Function[] built = new Function[best.length];
+        Deque<Integer> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            int id = pending.peek();
+            if (built[id] != null) {
+                pending.pop();
+                continue;
+            }
+            Node node = best[id];
+            boolean ready = true;
+            for (int operand : node.operands) {
+                if (built[find(operand)] == null) {
+                    pending.push(find(operand));
+                    ready = false;
+                }
+            }
+            if (!ready) {
+                continue;
+            }
+            pending.pop();
+
+            Function left = node.operands.length > 0 ? built[find(node.operands[0])] : null;
+            Function right = node.operands.length > 1 ? built[find(node.operands[1])] : null;
+            switch (node.type) {
+                case PostfixProgram.NUMBER:
+                    built[id] = new Number(node.payload);
+                    break;
+                case PostfixProgram.VARIABLE:
+                    built[id] = calls.get((int) node.payload);
+                    break;
+                case PostfixProgram.PLUS:
+                    built[id] = new BinaryOp(left, right, BinaryOp.Op.PLUS);
+                    break;
+                case PostfixProgram.SUB:
+                    built[id] = new BinaryOp(left, right, BinaryOp.Op.SUB);
+                    break;
+                case PostfixProgram.MULT:
+                    built[id] = new BinaryOp(left, right, BinaryOp.Op.MULT);
+                    break;
+                case PostfixProgram.DIV:
+                    built[id] = new BinaryOp(left, right, BinaryOp.Op.DIV);
+                    break;
+                case PostfixProgram.SIN:
+                    built[id] = new Sin(left);
+                    break;
+                case PostfixProgram.COS:
+                    built[id] = new Cos(left);
+                    break;
+                case PostfixProgram.EXP:
+                    built[id] = new Exp(left);
+                    break;
+                case PostfixProgram.LOG:
+                    built[id] = new Log(left);
+                    break;
+                case PostfixProgram.POLYNOMIAL:
+                    built[id] = new Polynomial(left, node.payload);
+                    break;
+                default:
+                    built[id] = calls.get((int) node.payload);
+                    break;
+            }
+        }
+        return built[root];
+    }
+}
@@ -0,0 +1,237 @@
+package cas;
+
+import java.io.IOException;
+
+/**
+ * Represents a function raised to a power
+ *
+ * @author Kennan LeJeune
+ */
+public class Polynomial extends UnaryOp {
+    //stores the power to which the operand of the Polynomial instance is raised
+    private final double power;
+
+    /**
+     * @param operand The function argument to be taken by a Polynomial
+     * @param power   The power to which the operand is raised in a Polynomial instance
+     */
+    public Polynomial(Function operand, double power) {
+        super(operand);
+        this.power = power;
+    }
+
+    /**
+     * @return Whether the power is zero, which makes the Polynomial one at every input, or its operand is constant
+     */
+    @Override
+    public boolean isConstant() {
+        return power == 0 || super.isConstant();
+    }
+
+    /**
+     * Compute the value of a Polynomial function composed of variables at a given input value
+     *
+     * @param input The value at which to evaluate the function
+     * @return The value of a Polynomial function at the value of the input parameter
+     */
+    @Override
+    public double value(double input) {
+        if (Instrumentation.ENABLED && Instrumentation.enter(this)) {
+            return Instrumentation.value(this, input);
+        }
+
+        return Math.pow(getOperand().value(input), this.getPower());
+    }
+
+    /**
+     * Computes the value of a Polynomial function of several variables in an environment
+     *
+     * @param environment The value of each variable, by index
+     * @return The value of the Polynomial function in the environment
+     */
+    @Override
+    public double evaluate(double[] environment) {
+        return Math.pow(getOperand().evaluate(environment), this.getPower());
+    }
+
+    /**
+     * Compute the value of a Polynomial function at every value of an input array
+     *
+     * @param inputs  The values at which to evaluate the function
+     * @param outputs The array which receives the value of the Polynomial function at each input
+     */
+    @Override
+    public void value(double[] inputs, double[] outputs) {
+        getOperand().value(inputs, outputs);
+        for (int i = 0; i < inputs.length; i++) {
+            outputs[i] = Math.pow(outputs[i], this.getPower());
+        }
+    }
+
+    /**
+     * Computes bounds on the operand raised to the power at every input of an interval
+     * The result may be undefined wherever the operand may be negative and the power is not a whole number
+     *
+     * @param input The interval of inputs
+     * @return An interval containing the value of the Polynomial function at every input
+     */
+    @Override
+    public Interval valueInterval(Interval input) {
+        return getOperand().valueInterval(input).pow(this.power);
+    }
+
+    /**
+     * Compute the value and derivative of a Polynomial function at a given input value, using the same power and
+     * chain rules as derivative()
+     *
+     * @param input      The value at which to evaluate the function
+     * @param derivative The array whose first element receives the derivative of the Polynomial at the input
+     * @return The value of a Polynomial function at the value of the input parameter
+     */
+    @Override
+    public double valueAndDerivative(double input, double[] derivative) {
+        if (isConstant()) {
+            derivative[0] = 0;
+            return value(input);
+        }
+        double operand = getOperand().valueAndDerivative(input, derivative);
+        derivative[0] = power * Math.pow(operand, power - 1) * derivative[0];
+        return Math.pow(operand, power);
+    }
+
+    /**
+     * Computes the Taylor series of a Polynomial function from the series of its operand
+     * When the operand is zero at the input the usual recurrence divides by zero, so whole number powers are
+     * computed by repeated multiplication of the series instead
+     *
+     * @param input The value around which to expand the function
+     * @param order The highest power of the series
+     * @return The coefficients of the Taylor series of the Polynomial function
+     */
+    @Override
+    protected double[] taylor(double input, int order) {
+        if (isConstant()) {
+            return constantSeries(input, order);
+        }
+        double[] operand = getOperand().taylor(input, order);
+        double[] result = new double[order + 1];
+        if (operand[0] == 0 && power >= 0 && power == Math.rint(power) && power <= Integer.MAX_VALUE) {
+            //exponentiation by squaring of the operand series
+            result[0] = 1;
+            double[] square = operand;
+            for (long exponent = (long) power; exponent > 0; exponent >>= 1) {
+                if ((exponent & 1) == 1) {
+                    result = multiply(result, square);
+                }
+                if (exponent > 1) {
+                    square = multiply(square, square);
+                }
+            }
+            return result;
+        }
+
+        result[0] = Math.pow(operand[0], power);
+        for (int k = 1; k <= order; k++) {
+            double sum = 0;
+            for (int j = 1; j <= k; j++) {
+                sum += ((power + 1) * j - k) * operand[j] * result[k - j];
+            }
+            result[k] = sum / (k * operand[0]);
+        }
+        return result;
+    }
+
+    /**
+     * Multiplies two Taylor series of the same order
+     *
+     * @param left  The coefficients of the first series
+     * @param right The coefficients of the second series
+     * @return The coefficients of the product of the series
+     */
+    private static double[] multiply(double[] left, double[] right) {
+        double[] product = new double[left.length];
+        for (int k = 0; k < left.length; k++) {
+            for (int j = 0; j <= k; j++) {
+                product[k] += left[j] * right[k - j];
+            }
+        }
+        return product;
+    }
+
+    /**
+     * Compute the value of a strictly numeric Polynomial function
+     *
+     * @return The value of a Polynomial function instance
+     */
+    @Override
+    public double value() {
+        if (Instrumentation.ENABLED && Instrumentation.enter(this)) {
+            return Instrumentation.value(this);
+        }
+        return Math.pow(getOperand().value(), this.getPower());
+    }
+
+    /**
+     * Retrieves the power to which a Polynomial function operand is raised
+     *
+     * @return The power of the polynomial
+     */
+    public double getPower() {
+        return this.power;
+    }
+
+    /**
+     * Checks whether a Polynomial instance is equivalent to another Function
+     *
+     * @param input The function to be compared
+     * @return Whether or not a Polynomial instance is equivalent to the input parameter
+     */
+    @Override
+    public boolean equals(Object input) {
+        if (this == input) {
+            return true;
+        }
+        return input instanceof Polynomial && this.getOperand().equals(((Polynomial) input).getOperand()) && this
+                .getPower() == ((Polynomial) input).getPower();
+    }
+
+    /**
+     * Computes the hash code of a Polynomial function from its operand and power
+     *
+     * @return The hash code of the Polynomial function
+     */
+    @Override
+    public int hashCode() {
+        return 31 * getOperand().hashCode() + (power == 0 ? 0 : Double.hashCode(power));
+    }
+
+    /**
+     * Computes the derivative of a Polynomial function
+     *
+     * @return The function which is the derivative of a Polymomial function
+     */
+    @Override
+    protected Function computeDerivative() {
+        return new BinaryOp(new BinaryOp(new Number(power), new Polynomial(this.getOperand(), power - 1), BinaryOp.Op
+                .MULT), this.getOperand().derivative(), BinaryOp.Op.MULT);
+    }
+
+    /**
+     * Writes the String representation of a Polynomial function
+     *
+     * @param out The Appendable which receives the representation
+     * @throws IOException If the Appendable cannot be written to
+     */
+    @Override
+    public void appendTo(Appendable out) throws IOException {
+        if (BinaryOp.operatorOf(this.getOperand()) != null) {
+            out.append('(');
+            this.getOperand().appendTo(out);
+            out.append(')');
+        } else {
+            this.getOperand().appendTo(out);
+        }
+        out.append('^');
+        Number.append(out, power);
+    }
+}
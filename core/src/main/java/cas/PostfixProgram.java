@@ -0,0 +1,396 @@
+package cas;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents a Function compiled into a flat postfix program: an array of instructions and a pool of constants,
+ * evaluated by a loop over an operand stack instead of by recursion through the Function tree
+ * A node reached from several parents, as in derivatives, which share their subtrees, is computed once and kept in
+ * a slot after the operand stack, from which each later use loads it, so the program grows with the number of
+ * distinct nodes rather than with the size of the tree they unfold into
+ * Programs are immutable, so several threads may evaluate the same program at once.  Evaluating a program never
+ * allocates, and never overflows the call stack no matter how deeply the compiled function is nested
+ *
+ * @author Kennan LeJeune
+ */
+public class PostfixProgram {
+    //instructions of a program, followed by an operand where noted
+    static final int NUMBER = 0; //pushes the constant at the operand index of the constant pool
+    static final int VARIABLE = 1; //pushes the input
+    static final int PLUS = 2; //pops two values and pushes their sum
+    static final int SUB = 3; //pops two values and pushes their difference
+    static final int MULT = 4; //pops two values and pushes their product
+    static final int DIV = 5; //pops two values and pushes their quotient
+    static final int SIN = 6; //replaces the top value with its sine
+    static final int COS = 7; //replaces the top value with its cosine
+    static final int EXP = 8; //replaces the top value with its exponential
+    static final int LOG = 9; //replaces the top value with its natural logarithm
+    static final int POLYNOMIAL = 10; //raises the top value to the power at the operand index of the constant pool
+    static final int CALL = 11; //pushes the value at the input of the function at the operand index of the calls
+    static final int STORE = 12; //copies the top value into the slot at the operand index, leaving it on the stack
+    static final int LOAD = 13; //pushes the value of the slot at the operand index
+
+    //the states of a node waiting to be compiled: its operands are not compiled yet, they are and its instruction
+    //is next, or its value is complete and is kept in its slot
+    private static final int VISIT = 0;
+    private static final int EMIT = 1;
+    private static final int KEEP = 2;
+
+    //the instructions of the program and their operands
+    private final int[] code;
+
+    //the constants and powers referenced by the instructions
+    private final double[] constants;
+
+    //functions of a type the compiler does not recognize, evaluated through their own value(double) method
+    private final Function[] calls;
+
+    //the largest number of values on the operand stack at once, which is also the index of the first slot
+    private final int maxStack;
+
+    //the number of slots which hold the values of shared nodes
+    private final int slots;
+
+    //the operand stack of each thread evaluating the program
+    private final ThreadLocal<double[]> stacks;
+
+    /**
+     * Initializes a compiled program
+     *
+     * @param code      The instructions of the program and their operands
+     * @param constants The constants referenced by the instructions
+     * @param calls     The functions called by the instructions
+     * @param maxStack  The largest number of values on the operand stack at once
+     * @param slots     The number of slots which hold the values of shared nodes
+     */
+    private PostfixProgram(int[] code, double[] constants, Function[] calls, int maxStack, int slots) {
+        this.code = code;
+        this.constants = constants;
+        this.calls = calls;
+        this.maxStack = maxStack;
+        this.slots = slots;
+        this.stacks = ThreadLocal.withInitial(this::newStack);
+    }
+
+    /**
+     * Compiles a Function into a postfix program
+     * The function is walked in post-order with an explicit stack, so functions of any depth can be compiled.  Each
+     * node with more than one parent, other than a Number or the input, is compiled once and stored in a slot
+     *
+     * @param function The function to be compiled
+     * @return The program which computes the same values as the value(double) method of the function
+     */
+    public static PostfixProgram compile(Function function) {
+        int[] code = new int[16];
+        int length = 0;
+        List<Double> constants = new ArrayList<>();
+        Map<Long, Integer> constantIndexes = new HashMap<>();
+        List<Function> calls = new ArrayList<>();
+        int height = 0;
+        int maxHeight = 0;
+
+        //the slot of each shared node, which holds its value once the node has been compiled
+        Map<Function, Integer> slots = new IdentityHashMap<>();
+        for (Map.Entry<Function, Integer> entry : parents(function).entrySet()) {
+            if (entry.getValue() > 1 && entry.getKey().getClass() != Number.class && !isInput(entry.getKey())) {
+                slots.put(entry.getKey(), slots.size());
+            }
+        }
+        boolean[] stored = new boolean[slots.size()];
+
+        //functions waiting to be compiled, and the state of each
+        Deque<Function> pending = new ArrayDeque<>();
+        Deque<Integer> states = new ArrayDeque<>();
+        pending.push(function);
+        states.push(VISIT);
+
+        while (!pending.isEmpty()) {
+            Function node = pending.pop();
+            int state = states.pop();
+            Class<?> type = node.getClass();
+            if (code.length < length + 2) {
+                code = Arrays.copyOf(code, code.length * 2);
+            }
+
+            Integer slot = slots.get(node);
+            if (state == KEEP) {
+                code[length++] = STORE;
+                code[length++] = slot;
+                stored[slot] = true;
+                continue;
+            }
+            if (state == VISIT && slot != null) {
+                if (stored[slot]) {
+                    code[length++] = LOAD;
+                    code[length++] = slot;
+                    height++;
+                    maxHeight = Math.max(maxHeight, height);
+                    continue;
+                }
+                pending.push(node);
+                states.push(KEEP);
+            }
+
+            if (type == Sum.class || type == Product.class) {
+                //the node is pushed once before each operand after the first, and emits one instruction each time
+                NaryOp naryOp = (NaryOp) node;
+                if (state == VISIT) {
+                    Function[] operands = naryOp.operands();
+                    for (int k = operands.length - 1; k >= 1; k--) {
+                        pending.push(node);
+                        states.push(EMIT);
+                        pending.push(operands[k]);
+                        states.push(VISIT);
+                    }
+                    pending.push(operands[0]);
+                    states.push(VISIT);
+                    continue;
+                }
+                code[length++] = opcode(naryOp.getOperator());
+                height--;
+            } else if (type == BinaryOp.class || type == Sin.class || type == Cos.class || type == Exp.class
+                    || type == Log.class || type == Polynomial.class) {
+                if (state == VISIT) {
+                    pending.push(node);
+                    states.push(EMIT);
+                    if (node instanceof BinaryOp) {
+                        pending.push(((BinaryOp) node).getRightOperand());
+                        states.push(VISIT);
+                        pending.push(((BinaryOp) node).getLeftOperand());
+                    } else {
+                        pending.push(((UnaryOp) node).getOperand());
+                    }
+                    states.push(VISIT);
+                    continue;
+                }
+                if (node instanceof BinaryOp) {
+                    code[length++] = opcode(((BinaryOp) node).getOperator());
+                    height--;
+                } else if (type == Polynomial.class) {
+                    code[length++] = POLYNOMIAL;
+                    code[length++] = constant(((Polynomial) node).getPower(), constants, constantIndexes);
+                } else if (type == Sin.class) {
+                    code[length++] = SIN;
+                } else if (type == Cos.class) {
+                    code[length++] = COS;
+                } else if (type == Exp.class) {
+                    code[length++] = EXP;
+                } else {
+                    code[length++] = LOG;
+                }
+            } else {
+                if (type == Number.class) {
+                    code[length++] = NUMBER;
+                    code[length++] = constant(node.value(), constants, constantIndexes);
+                } else if (isInput(node)) {
+                    //any other variable has no value at a single input, so it is called and throws like the tree
+                    code[length++] = VARIABLE;
+                } else {
+                    code[length++] = CALL;
+                    code[length++] = calls.size();
+                    calls.add(node);
+                }
+                height++;
+                maxHeight = Math.max(maxHeight, height);
+            }
+        }
+
+        double[] pool = new double[constants.size()];
+        for (int i = 0; i < pool.length; i++) {
+            pool[i] = constants.get(i);
+        }
+        return new PostfixProgram(Arrays.copyOf(code, length), pool, calls.toArray(new Function[0]), maxHeight,
+                slots.size());
+    }
+
+    /**
+     * Counts the parents of every node of a function, each node being walked once however many parents it has
+     *
+     * @param function The function whose nodes are counted
+     * @return The number of times each node is an operand of another node, or one for the function itself
+     */
+    static Map<Function, Integer> parents(Function function) {
+        Map<Function, Integer> parents = new IdentityHashMap<>();
+        Deque<Function> pending = new ArrayDeque<>();
+        pending.push(function);
+        while (!pending.isEmpty()) {
+            Function node = pending.pop();
+            if (parents.merge(node, 1, Integer::sum) > 1) {
+                continue;
+            }
+            Class<?> type = node.getClass();
+            if (type == Sum.class || type == Product.class) {
+                for (Function operand : ((NaryOp) node).operands()) {
+                    pending.push(operand);
+                }
+            } else if (type == BinaryOp.class) {
+                pending.push(((BinaryOp) node).getLeftOperand());
+                pending.push(((BinaryOp) node).getRightOperand());
+            } else if (type == Sin.class || type == Cos.class || type == Exp.class || type == Log.class
+                    || type == Polynomial.class) {
+                pending.push(((UnaryOp) node).getOperand());
+            }
+        }
+        return parents;
+    }
+
+    /**
+     * @param node A node of a function
+     * @return Whether the node is the Variable of index 0, which the program reads from its input
+     */
+    private static boolean isInput(Function node) {
+        return node.getClass() == Variable.class && ((Variable) node).getIndex() == 0;
+    }
+
+    /**
+     * @param operator The operator of a BinaryOp
+     * @return The instruction which performs the operator
+     */
+    static int opcode(BinaryOp.Op operator) {
+        switch (operator) {
+            case PLUS:
+                return PLUS;
+            case SUB:
+                return SUB;
+            case MULT:
+                return MULT;
+            default:
+                return DIV;
+        }
+    }
+
+    /**
+     * Finds the index of a constant in the constant pool, adding it if it is not already there
+     *
+     * @param value           The constant
+     * @param constants       The constant pool
+     * @param constantIndexes The index of every constant in the pool, by its bits
+     * @return The index of the constant in the pool
+     */
+    private static int constant(double value, List<Double> constants, Map<Long, Integer> constantIndexes) {
+        Integer index = constantIndexes.get(Double.doubleToRawLongBits(value));
+        if (index == null) {
+            index = constants.size();
+            constants.add(value);
+            constantIndexes.put(Double.doubleToRawLongBits(value), index);
+        }
+        return index;
+    }
+
+    /**
+     * Evaluates the program at a given input using the operand stack of the current thread
+     *
+     * @param input The value at which to evaluate the program
+     * @return The value of the compiled function at the input
+     */
+    public double value(double input) {
+        return value(input, stacks.get());
+    }
+
+    /**
+     * Evaluates the program at a given input using a caller supplied operand stack
+     *
+     * @param input The value at which to evaluate the program
+     * @param stack The operand stack, at least getMaxStack() long
+     * @return The value of the compiled function at the input
+     */
+    public double value(double input, double[] stack) {
+        int[] code = this.code;
+        double[] constants = this.constants;
+        int top = -1;
+        int pc = 0;
+        while (pc < code.length) {
+            switch (code[pc++]) {
+                case NUMBER:
+                    stack[++top] = constants[code[pc++]];
+                    break;
+                case VARIABLE:
+                    stack[++top] = input;
+                    break;
+                case PLUS:
+                    top--;
+                    stack[top] += stack[top + 1];
+                    break;
+                case SUB:
+                    top--;
+                    stack[top] -= stack[top + 1];
+                    break;
+                case MULT:
+                    top--;
+                    stack[top] *= stack[top + 1];
+                    break;
+                case DIV:
+                    top--;
+                    stack[top] /= stack[top + 1];
+                    break;
+                case SIN:
+                    stack[top] = Math.sin(stack[top]);
+                    break;
+                case COS:
+                    stack[top] = Math.cos(stack[top]);
+                    break;
+                case EXP:
+                    stack[top] = Math.exp(stack[top]);
+                    break;
+                case LOG:
+                    stack[top] = Math.log(stack[top]);
+                    break;
+                case POLYNOMIAL:
+                    stack[top] = Math.pow(stack[top], constants[code[pc++]]);
+                    break;
+                case STORE:
+                    stack[maxStack + code[pc++]] = stack[top];
+                    break;
+                case LOAD:
+                    stack[++top] = stack[maxStack + code[pc++]];
+                    break;
+                default:
+                    stack[++top] = calls[code[pc++]].value(input);
+                    break;
+            }
+        }
+        return stack[0];
+    }
+
+    /**
+     * Evaluates the program at every value of an input array
+     *
+     * @param inputs  The values at which to evaluate the program
+     * @param outputs The array which receives the value of the compiled function at each input
+     */
+    public void value(double[] inputs, double[] outputs) {
+        double[] stack = stacks.get();
+        for (int i = 0; i < inputs.length; i++) {
+            outputs[i] = value(inputs[i], stack);
+        }
+    }
+
+    /**
+     * @return The largest number of values on the operand stack while evaluating the program, plus the number of
+     * slots kept after it for the values of shared nodes
+     */
+    public int getMaxStack() {
+        return this.maxStack + this.slots;
+    }
+
+    /**
+     * @return A new operand stack large enough to evaluate the program
+     */
+    public double[] newStack() {
+        return new double[Math.max(1, getMaxStack())];
+    }
+
+    /**
+     * @return The number of instructions and operands in the program
+     */
+    public int length() {
+        return this.code.length;
+    }
+}
@@ -0,0 +1,13 @@
+package cas;
+
+/**
+ * the Precision enum selects how a compiled expression computes the sine, cosine, exponential, logarithm and powers
+ * of its nodes, either with the methods of java.lang.Math or with the faster approximations of FastMath
+ *
+ * @author Kennan LeJeune
+ */
+public enum Precision {
+
+    EXACT, //the methods of java.lang.Math, giving the same values as the Function itself
+    FAST //the approximations of FastMath, each within a few ulps of the exact result
+}
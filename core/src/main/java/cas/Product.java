@@ -0,0 +1,242 @@
+package cas;
+
+import java.util.Arrays;
+
+/**
+ * Represents the product of any number of operands, multiplied from left to right
+ * A Product is evaluated in a loop over its operands.  Its derivative is the Sum over each factor of the derivative
+ * of that factor times the product of the factors before it and the product of the factors after it; those partial
+ * products are built once and shared between the terms, so the derivative only grows linearly with the number of
+ * factors
+ *
+ * @author Kennan LeJeune
+ */
+public class Product extends NaryOp {
+    /**
+     * Initializes a Product of operands, replacing every operand which is itself a product by its own factors
+     *
+     * @param operands The factors of the product, at least two
+     * @throws IllegalArgumentException If there are fewer than two operands
+     */
+    public Product(Function... operands) {
+        super(BinaryOp.Op.MULT, true, operands);
+    }
+
+    /**
+     * Initializes a Product of operands which may be left as they are, so that they can be shared by other products
+     *
+     * @param flatten  Whether operands which are products are replaced by their own factors
+     * @param operands The factors of the product, at least two
+     * @throws IllegalArgumentException If there are fewer than two operands
+     */
+    Product(boolean flatten, Function... operands) {
+        super(BinaryOp.Op.MULT, flatten, operands);
+    }
+
+    /**
+     * Evaluates a Product at a given input value
+     *
+     * @param input The value at which to evaluate the Product
+     * @return The product of the values of the factors at the input
+     */
+    @Override
+    public double value(double input) {
+        if (Instrumentation.ENABLED && Instrumentation.enter(this)) {
+            return Instrumentation.value(this, input);
+        }
+        Function[] operands = operands();
+        double product = operands[0].value(input);
+        for (int k = 1; k < operands.length; k++) {
+            product *= operands[k].value(input);
+        }
+        return product;
+    }
+
+    /**
+     * Computes the value of a Product of several variables in an environment
+     *
+     * @param environment The value of each variable, by index
+     * @return The product of the values of the factors in the environment
+     */
+    @Override
+    public double evaluate(double[] environment) {
+        Function[] operands = operands();
+        double product = operands[0].evaluate(environment);
+        for (int k = 1; k < operands.length; k++) {
+            product *= operands[k].evaluate(environment);
+        }
+        return product;
+    }
+
+    /**
+     * Computes the value of a Product with no input parameter
+     *
+     * @return The product of the values of the factors
+     */
+    @Override
+    public double value() {
+        if (Instrumentation.ENABLED && Instrumentation.enter(this)) {
+            return Instrumentation.value(this);
+        }
+        Function[] operands = operands();
+        double product = operands[0].value();
+        for (int k = 1; k < operands.length; k++) {
+            product *= operands[k].value();
+        }
+        return product;
+    }
+
+    /**
+     * Computes bounds on the value of a Product at every input of an interval by multiplying the bounds of its
+     * factors
+     *
+     * @param input The interval of inputs
+     * @return An interval containing the value of the Product at every input
+     */
+    @Override
+    public Interval valueInterval(Interval input) {
+        Function[] operands = operands();
+        Interval product = operands[0].valueInterval(input);
+        for (int k = 1; k < operands.length; k++) {
+            product = product.times(operands[k].valueInterval(input));
+        }
+        return product;
+    }
+
+    /**
+     * Computes the value and derivative of a Product at a given input value
+     * The derivative of each factor is multiplied by the product of the factors before it and the product of the
+     * factors after it, which are accumulated from each end, so no value is ever divided out
+     *
+     * @param input      The value at which to evaluate the Product
+     * @param derivative The array whose first element receives the derivative of the Product at the input value
+     * @return The value of the Product at the specified input value
+     */
+    @Override
+    public double valueAndDerivative(double input, double[] derivative) {
+        if (isConstant()) {
+            derivative[0] = 0;
+            return value(input);
+        }
+        Function[] operands = operands();
+        int n = operands.length;
+        double[] values = new double[n];
+        double[] derivatives = new double[n];
+        for (int k = 0; k < n; k++) {
+            values[k] = operands[k].valueAndDerivative(input, derivative);
+            derivatives[k] = derivative[0];
+        }
+
+        //suffixes[k] is the product of the values after index k
+        double[] suffixes = new double[n];
+        suffixes[n - 1] = 1;
+        for (int k = n - 2; k >= 0; k--) {
+            suffixes[k] = values[k + 1] * suffixes[k + 1];
+        }
+        //the terms of constant factors are left out, as derivative() leaves them out
+        double product = values[0];
+        double sum = operands[0].isConstant() ? 0 : derivatives[0] * suffixes[0];
+        for (int k = 1; k < n; k++) {
+            if (!operands[k].isConstant()) {
+                sum += product * derivatives[k] * suffixes[k];
+            }
+            product *= values[k];
+        }
+        derivative[0] = sum;
+        return product;
+    }
+
+    /**
+     * Computes the Taylor series of a Product by multiplying the series of its factors
+     *
+     * @param input The value around which to expand the Product
+     * @param order The highest power of the series
+     * @return The coefficients of the Taylor series of the Product
+     */
+    @Override
+    protected double[] taylor(double input, int order) {
+        if (isConstant()) {
+            return constantSeries(input, order);
+        }
+        Function[] operands = operands();
+
+        //constant factors only scale the series, so the coefficients of the others are never multiplied by zero
+        double scale = 1;
+        double[] result = null;
+        for (Function operand : operands) {
+            if (operand.isConstant()) {
+                scale *= operand.value(input);
+                continue;
+            }
+            double[] factor = operand.taylor(input, order);
+            if (result == null) {
+                result = factor.clone();
+                continue;
+            }
+            double[] product = new double[order + 1];
+            for (int i = 0; i <= order; i++) {
+                for (int j = 0; j <= i; j++) {
+                    product[i] += result[j] * factor[i - j];
+                }
+            }
+            result = product;
+        }
+        for (int i = 0; i <= order; i++) {
+            result[i] *= scale;
+        }
+        return result;
+    }
+
+    /**
+     * Computes the derivative of a Product by the general product rule
+     * The products of the factors before and after each factor are built as chains which share their nodes, so the
+     * derivative of n factors has O(n) nodes rather than n products of n factors.  Terms whose factor has a zero
+     * derivative are left out, and factors whose derivative is one are not multiplied by it
+     *
+     * @return The function which is the derivative of the Product
+     */
+    @Override
+    protected Function computeDerivative() {
+        Function[] operands = operands();
+        int n = operands.length;
+
+        //prefixes[k] is the product of the factors before index k, and suffixes[k] of the factors after it
+        Function[] prefixes = new Function[n];
+        Function[] suffixes = new Function[n];
+        prefixes[1] = operands[0];
+        for (int k = 2; k < n; k++) {
+            prefixes[k] = new Product(false, prefixes[k - 1], operands[k - 1]);
+        }
+        suffixes[n - 2] = operands[n - 1];
+        for (int k = n - 3; k >= 0; k--) {
+            suffixes[k] = new Product(false, operands[k + 1], suffixes[k + 1]);
+        }
+
+        Function[] terms = new Function[n];
+        int count = 0;
+        for (int k = 0; k < n; k++) {
+            Function derivative = operands[k].derivative();
+            if (derivative instanceof Number && derivative.value() == 0) {
+                continue;
+            }
+            Function[] factors = new Function[3];
+            int size = 0;
+            if (prefixes[k] != null) {
+                factors[size++] = prefixes[k];
+            }
+            if (!(derivative instanceof Number && derivative.value() == 1)) {
+                factors[size++] = derivative;
+            }
+            if (suffixes[k] != null) {
+                factors[size++] = suffixes[k];
+            }
+            terms[count++] = size == 1 ? factors[0] : new Product(false, Arrays.copyOf(factors, size));
+        }
+        if (count == 0) {
+            return new Number(0);
+        } else if (count == 1) {
+            return terms[0];
+        }
+        return new Sum(Arrays.copyOf(terms, count));
+    }
+}
@@ -0,0 +1,217 @@
+package cas;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Finds the roots and extrema of Functions over an interval
+ * The interval is divided by a grid, and every grid cell over which the function changes sign is refined by Newton
+ * steps on the function and its symbolic derivative.  A Newton step which would leave the cell, or which does not
+ * shrink fast enough, is replaced by a bisection step, so the refinement always converges.  Roots where the function
+ * touches zero without changing sign are only found if they fall on the grid.  A cell over which the function changes
+ * sign through a pole, such as 1.0 / x at 0.0, is refined to the pole, which is rejected since the function is larger
+ * there than at either end of the cell
+ *
+ * @author Kennan LeJeune
+ */
+public class RootFinder {
+    //the default number of grid cells over the interval
+    static final int DEFAULT_CELLS = 1000;
+
+    //the largest number of steps taken to refine one root
+    private static final int MAX_STEPS = 200;
+
+    /**
+     * A RootFinder only has static methods
+     */
+    private RootFinder() {
+    }
+
+    /**
+     * Finds the roots of a function between a and b over the default grid
+     *
+     * @param function The function whose roots are to be found
+     * @param a        The lower bound of the interval
+     * @param b        The upper bound of the interval
+     * @return The roots of the function in increasing order
+     */
+    public static double[] roots(Function function, double a, double b) {
+        return roots(function, a, b, DEFAULT_CELLS);
+    }
+
+    /**
+     * Finds the roots of a function between a and b over a grid with a given number of cells
+     * At most one root is found in each cell, so the grid should be finer than the distance between roots
+     *
+     * @param function The function whose roots are to be found
+     * @param a        The lower bound of the interval
+     * @param b        The upper bound of the interval
+     * @param cells    The number of cells of the grid
+     * @return The roots of the function in increasing order
+     */
+    public static double[] roots(Function function, double a, double b, int cells) {
+        return solve(function, function.derivative(), a, b, cells);
+    }
+
+    /**
+     * Finds the extrema of a function between a and b over the default grid, as the roots of its derivative
+     * The derivative is refined by Newton steps on the second derivative
+     *
+     * @param function The function whose extrema are to be found
+     * @param a        The lower bound of the interval
+     * @param b        The upper bound of the interval
+     * @return The points at which the function has a local minimum or maximum, in increasing order
+     */
+    public static double[] extrema(Function function, double a, double b) {
+        return extrema(function, a, b, DEFAULT_CELLS);
+    }
+
+    /**
+     * Finds the extrema of a function between a and b over a grid with a given number of cells
+     *
+     * @param function The function whose extrema are to be found
+     * @param a        The lower bound of the interval
+     * @param b        The upper bound of the interval
+     * @param cells    The number of cells of the grid
+     * @return The points at which the function has a local minimum or maximum, in increasing order
+     */
+    public static double[] extrema(Function function, double a, double b, int cells) {
+        Function derivative = function.derivative();
+        return solve(derivative, derivative.derivative(), a, b, cells);
+    }
+
+    /**
+     * Finds the roots of many functions between a and b, splitting the functions between the threads of the common
+     * pool
+     *
+     * @param functions The functions whose roots are to be found
+     * @param a         The lower bound of the interval
+     * @param b         The upper bound of the interval
+     * @return The roots of each function in increasing order, in the order of the functions
+     */
+    public static List<double[]> roots(List<? extends Function> functions, double a, double b) {
+        return functions.parallelStream().map(function -> roots(function, a, b)).collect(Collectors.toList());
+    }
+
+    /**
+     * Finds the extrema of many functions between a and b, splitting the functions between the threads of the common
+     * pool
+     *
+     * @param functions The functions whose extrema are to be found
+     * @param a         The lower bound of the interval
+     * @param b         The upper bound of the interval
+     * @return The extrema of each function in increasing order, in the order of the functions
+     */
+    public static List<double[]> extrema(List<? extends Function> functions, double a, double b) {
+        return functions.parallelStream().map(function -> extrema(function, a, b)).collect(Collectors.toList());
+    }
+
+    /**
+     * Finds the roots of a function in every cell of a grid over which it changes sign
+     * The function and its derivative are compiled once, and the compiled programs are used for every step
+     *
+     * @param function   The function whose roots are to be found
+     * @param derivative The derivative of the function
+     * @param a          The lower bound of the interval
+     * @param b          The upper bound of the interval
+     * @param cells      The number of cells of the grid
+     * @return The roots of the function in increasing order
+     */
+    private static double[] solve(Function function, Function derivative, double a, double b, int cells) {
+        if (cells < 1) {
+            throw new IllegalArgumentException("The grid must have at least one cell: " + cells);
+        }
+        if (a > b) {
+            double swap = a;
+            a = b;
+            b = swap;
+        }
+        PostfixProgram f = PostfixProgram.compile(function);
+        PostfixProgram df = PostfixProgram.compile(derivative);
+        double[] stack = new double[Math.max(f.getMaxStack(), df.getMaxStack()) + 1];
+
+        double[] grid = new double[cells + 1];
+        double[] values = new double[cells + 1];
+        for (int i = 0; i <= cells; i++) {
+            grid[i] = FunctionSampler.point(a, b, cells + 1, i);
+            values[i] = f.value(grid[i], stack);
+        }
+
+        double[] roots = new double[4];
+        int count = 0;
+        for (int i = 0; i <= cells; i++) {
+            double root = Double.NaN;
+            if (values[i] == 0) {
+                root = grid[i];
+            } else if (i < cells && (values[i] < 0 && values[i + 1] > 0 || values[i] > 0 && values[i + 1] < 0)) {
+                root = refine(f, df, stack, grid[i], grid[i + 1], values[i]);
+                if (!(Math.abs(f.value(root, stack)) <= Math.max(Math.abs(values[i]), Math.abs(values[i + 1])))) {
+                    root = Double.NaN;
+                }
+            }
+            if (!Double.isNaN(root)) {
+                if (count == roots.length) {
+                    roots = Arrays.copyOf(roots, 2 * count);
+                }
+                roots[count++] = root;
+            }
+        }
+        return Arrays.copyOf(roots, count);
+    }
+
+    /**
+     * Refines a root of a function inside a cell over which it changes sign
+     *
+     * @param f         The compiled function
+     * @param df        The compiled derivative of the function
+     * @param stack     An operand stack large enough for both programs
+     * @param lo        The lower bound of the cell
+     * @param hi        The upper bound of the cell
+     * @param valueAtLo The value of the function at the lower bound
+     * @return The root of the function inside the cell
+     */
+    private static double refine(PostfixProgram f, PostfixProgram df, double[] stack, double lo, double hi,
+                                 double valueAtLo) {
+        //orient the bracket so the function is negative at its low end
+        if (valueAtLo > 0) {
+            double swap = lo;
+            lo = hi;
+            hi = swap;
+        }
+        double x = 0.5 * (lo + hi);
+        double step = Math.abs(hi - lo);
+        double previousStep = step;
+        for (int i = 0; i < MAX_STEPS; i++) {
+            double value = f.value(x, stack);
+            if (value == 0) {
+                return x;
+            }
+            if (value < 0) {
+                lo = x;
+            } else {
+                hi = x;
+            }
+
+            //take the Newton step only if it stays inside the bracket and at least halves the step before last
+            double slope = df.value(x, stack);
+            double newton = x - value / slope;
+            if (newton == x) {
+                return x;
+            }
+            double next;
+            if ((newton - lo) * (newton - hi) < 0 && Math.abs(2 * value) < Math.abs(previousStep * slope)) {
+                next = newton;
+            } else {
+                next = 0.5 * (lo + hi);
+            }
+            previousStep = step;
+            step = Math.abs(next - x);
+            if (step == 0 || next == lo || next == hi) {
+                return x;
+            }
+            x = next;
+        }
+        return x;
+    }
+}
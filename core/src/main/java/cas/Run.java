@@ -1,3 +1,5 @@
+package cas;
+
 public class Run {
     public static void main(String[] args) {
 
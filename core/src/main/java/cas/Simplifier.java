@@ -0,0 +1,327 @@
+package cas;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Simplifies a Function by rewriting it with algebraic rules until no rule changes it any more
+ * Every subtree without a Variable is folded into a single Number.  Each maximal sum (a tree of additions and
+ * subtractions) is collected into a constant plus a coefficient for each distinct term, so x + x becomes 2.0 * x and
+ * x - x disappears.  Each maximal product (a tree of multiplications and divisions) is collected into a coefficient
+ * and an exponent for each distinct base, so x^2.0 * x / x^3.0 becomes 1.0 and x * x becomes x^2.0.  Powers of one and
+ * zero, powers of integer powers and Log[Exp[u]] are reduced as well
+ * The rules are those of real algebra, so a simplified function may be defined where the original was not: x / x is
+ * 1.0 even at 0, and x^0.5 * x^0.5 is x even where x is negative.  Terms are combined in a different order, so
+ * values may also differ in the last few bits.  Functions of types the simplifier does not know are left as they are
+ *
+ * @author Kennan LeJeune
+ */
+public class Simplifier {
+    //the most passes simplify() makes before giving up on reaching a fixed point
+    private static final int MAX_PASSES = 32;
+
+    //the simplified form of every node simplified by this pass
+    private final Map<Function, Function> simplified = new IdentityHashMap<>();
+
+    /**
+     * Prevents instantiation outside of simplify, since each pass uses its own instance
+     */
+    private Simplifier() {
+    }
+
+    /**
+     * Simplifies a function, repeating the rules until they no longer change it
+     * Subtrees which are shared by several nodes are simplified once, and equal subtrees of the simplified function
+     * are made the same instance with a FunctionFactory, so they are shared however the rules rebuilt them
+     *
+     * @param function The function to be simplified
+     * @return An equivalent function which no rule changes, or the function itself if it was already simplified
+     */
+    public static Function simplify(Function function) {
+        Function current = function;
+        for (int pass = 0; pass < MAX_PASSES; pass++) {
+            Function next = new Simplifier().simplifyNode(current);
+            if (next.equals(current)) {
+                break;
+            }
+            current = next;
+        }
+        return current == function ? function : new FunctionFactory().intern(current);
+    }
+
+    /**
+     * Simplifies a node once, reusing the result if the node has already been simplified
+     *
+     * @param node The node to be simplified
+     * @return The simplified node
+     */
+    private Function simplifyNode(Function node) {
+        Function result = simplified.get(node);
+        if (result == null) {
+            if (isSum(node)) {
+                result = collectSum(node);
+            } else if (isProduct(node)) {
+                result = collectProduct(node);
+            } else if (node instanceof UnaryOp) {
+                result = simplifyUnaryOp((UnaryOp) node);
+            } else {
+                result = node;
+            }
+            simplified.put(node, result);
+        }
+        return result;
+    }
+
+    /**
+     * @param node A node
+     * @return Whether the node is a sum or difference, which is collected with the sum around it
+     */
+    private static boolean isSum(Function node) {
+        BinaryOp.Op operator = BinaryOp.operatorOf(node);
+        return (operator == BinaryOp.Op.PLUS || operator == BinaryOp.Op.SUB)
+                && (node.getClass() == BinaryOp.class || node.getClass() == Sum.class);
+    }
+
+    /**
+     * @param node A node
+     * @return Whether the node is a product or quotient, which is collected with the product around it
+     */
+    private static boolean isProduct(Function node) {
+        BinaryOp.Op operator = BinaryOp.operatorOf(node);
+        return (operator == BinaryOp.Op.MULT || operator == BinaryOp.Op.DIV)
+                && (node.getClass() == BinaryOp.class || node.getClass() == Product.class);
+    }
+
+    /**
+     * Pushes the operands of a sum or product onto a stack, each with the sign it has in the enclosing sum or the
+     * exponent it has in the enclosing product
+     *
+     * @param node   A sum or product
+     * @param sign   The sign or exponent of the node itself
+     * @param nodes  The stack of nodes
+     * @param signs  The stack of signs, parallel to nodes
+     */
+    private static void pushOperands(Function node, double sign, Deque<Function> nodes, Deque<Double> signs) {
+        if (node instanceof BinaryOp) {
+            BinaryOp binaryOp = (BinaryOp) node;
+            boolean inverse = binaryOp.getOperator() == BinaryOp.Op.SUB || binaryOp.getOperator() == BinaryOp.Op.DIV;
+            nodes.push(binaryOp.getRightOperand());
+            signs.push(inverse ? -sign : sign);
+            nodes.push(binaryOp.getLeftOperand());
+            signs.push(sign);
+        } else {
+            Function[] operands = ((NaryOp) node).operands();
+            for (int k = operands.length - 1; k >= 0; k--) {
+                nodes.push(operands[k]);
+                signs.push(sign);
+            }
+        }
+    }
+
+    /**
+     * Collects a sum into a constant and a coefficient for each distinct term, then builds it again
+     * The sum is walked with an explicit stack, so sums of any length can be collected
+     *
+     * @param node The root of the sum
+     * @return The collected sum
+     */
+    private Function collectSum(Function node) {
+        double constant = 0;
+        Map<Function, Double> coefficients = new LinkedHashMap<>();
+        Deque<Function> nodes = new ArrayDeque<>();
+        Deque<Double> signs = new ArrayDeque<>();
+        pushOperands(node, 1, nodes, signs);
+        while (!nodes.isEmpty()) {
+            Function term = nodes.pop();
+            double sign = signs.pop();
+            if (isSum(term)) {
+                pushOperands(term, sign, nodes, signs);
+                continue;
+            }
+            term = simplifyNode(term);
+            if (isSum(term)) {
+                pushOperands(term, sign, nodes, signs);
+            } else if (term instanceof Number) {
+                constant += sign * term.value();
+            } else {
+                //a term c * b adds c to the coefficient of b, and a term c / b adds c to the coefficient of 1.0 / b
+                double coefficient = 1;
+                if (term.getClass() == BinaryOp.class && ((BinaryOp) term).getLeftOperand() instanceof Number) {
+                    BinaryOp binaryOp = (BinaryOp) term;
+                    if (binaryOp.getOperator() == BinaryOp.Op.MULT) {
+                        coefficient = binaryOp.getLeftOperand().value();
+                        term = binaryOp.getRightOperand();
+                    } else if (binaryOp.getOperator() == BinaryOp.Op.DIV) {
+                        coefficient = binaryOp.getLeftOperand().value();
+                        term = new BinaryOp(new Number(1), binaryOp.getRightOperand(), BinaryOp.Op.DIV);
+                    }
+                }
+                coefficients.merge(term, sign * coefficient, Double::sum);
+            }
+        }
+
+        Function sum = null;
+        for (Map.Entry<Function, Double> entry : coefficients.entrySet()) {
+            double coefficient = entry.getValue();
+            if (coefficient == 0) {
+                continue;
+            }
+            if (sum == null) {
+                sum = scale(coefficient, entry.getKey());
+            } else if (coefficient < 0) {
+                sum = new BinaryOp(sum, scale(-coefficient, entry.getKey()), BinaryOp.Op.SUB);
+            } else {
+                sum = new BinaryOp(sum, scale(coefficient, entry.getKey()), BinaryOp.Op.PLUS);
+            }
+        }
+        if (sum == null) {
+            return new Number(constant);
+        } else if (constant < 0) {
+            return new BinaryOp(sum, new Number(-constant), BinaryOp.Op.SUB);
+        } else if (constant > 0 || Double.isNaN(constant)) {
+            return new BinaryOp(sum, new Number(constant), BinaryOp.Op.PLUS);
+        }
+        return sum;
+    }
+
+    /**
+     * @param coefficient The coefficient of a term
+     * @param term        The term
+     * @return The term multiplied by the coefficient, or the term itself if the coefficient is one
+     */
+    private static Function scale(double coefficient, Function term) {
+        if (coefficient == 1) {
+            return term;
+        }
+        //a reciprocal 1.0 / b is scaled to c / b
+        if (term.getClass() == BinaryOp.class && ((BinaryOp) term).getOperator() == BinaryOp.Op.DIV
+                && ((BinaryOp) term).getLeftOperand() instanceof Number) {
+            return new BinaryOp(new Number(coefficient), ((BinaryOp) term).getRightOperand(), BinaryOp.Op.DIV);
+        }
+        return new BinaryOp(new Number(coefficient), term, BinaryOp.Op.MULT);
+    }
+
+    /**
+     * Collects a product into a coefficient and an exponent for each distinct base, then builds it again as the
+     * coefficient times the bases with positive exponents divided by the bases with negative exponents
+     * The product is walked with an explicit stack, so products of any length can be collected
+     *
+     * @param node The root of the product
+     * @return The collected product
+     */
+    private Function collectProduct(Function node) {
+        double coefficient = 1;
+        Map<Function, Double> exponents = new LinkedHashMap<>();
+        Deque<Function> nodes = new ArrayDeque<>();
+        Deque<Double> signs = new ArrayDeque<>();
+        pushOperands(node, 1, nodes, signs);
+        while (!nodes.isEmpty()) {
+            Function factor = nodes.pop();
+            double sign = signs.pop();
+            if (isProduct(factor)) {
+                pushOperands(factor, sign, nodes, signs);
+                continue;
+            }
+            factor = simplifyNode(factor);
+            if (isProduct(factor)) {
+                pushOperands(factor, sign, nodes, signs);
+            } else if (factor instanceof Number) {
+                coefficient = sign > 0 ? coefficient * factor.value() : coefficient / factor.value();
+            } else if (factor.getClass() == Polynomial.class) {
+                //a factor b^p adds p to the exponent of b
+                Polynomial power = (Polynomial) factor;
+                exponents.merge(power.getOperand(), sign * power.getPower(), Double::sum);
+            } else {
+                exponents.merge(factor, sign, Double::sum);
+            }
+        }
+
+        //as in BinaryOp, a product with a factor of zero is zero
+        if (coefficient == 0) {
+            return new Number(0);
+        }
+        Function numerator = null;
+        Function denominator = null;
+        for (Map.Entry<Function, Double> entry : exponents.entrySet()) {
+            double exponent = entry.getValue();
+            if (exponent > 0) {
+                numerator = multiply(numerator, power(entry.getKey(), exponent));
+            } else if (exponent < 0) {
+                denominator = multiply(denominator, power(entry.getKey(), -exponent));
+            } else if (Double.isNaN(exponent)) {
+                numerator = multiply(numerator, new Polynomial(entry.getKey(), exponent));
+            }
+        }
+
+        if (denominator == null) {
+            return numerator == null ? new Number(coefficient) : scale(coefficient, numerator);
+        } else if (numerator == null) {
+            return new BinaryOp(new Number(coefficient), denominator, BinaryOp.Op.DIV);
+        }
+        return scale(coefficient, new BinaryOp(numerator, denominator, BinaryOp.Op.DIV));
+    }
+
+    /**
+     * @param product A product, or null for an empty product
+     * @param factor  A factor
+     * @return The product multiplied by the factor
+     */
+    private static Function multiply(Function product, Function factor) {
+        return product == null ? factor : new BinaryOp(product, factor, BinaryOp.Op.MULT);
+    }
+
+    /**
+     * @param base     The base of a power
+     * @param exponent The exponent of the power
+     * @return The base raised to the exponent, or the base itself if the exponent is one
+     */
+    private static Function power(Function base, double exponent) {
+        return exponent == 1 ? base : new Polynomial(base, exponent);
+    }
+
+    /**
+     * Simplifies a UnaryOp of a type the simplifier knows, after simplifying its operand
+     *
+     * @param node The UnaryOp
+     * @return The simplified UnaryOp
+     */
+    private Function simplifyUnaryOp(UnaryOp node) {
+        Class<?> type = node.getClass();
+        if (type != Sin.class && type != Cos.class && type != Exp.class && type != Log.class
+                && type != Polynomial.class) {
+            return node;
+        }
+        Function operand = simplifyNode(node.getOperand());
+
+        //a function of a constant is a constant
+        if (operand instanceof Number) {
+            return new Number(FunctionFactory.rebuild(node, operand).value());
+        }
+        if (type == Polynomial.class) {
+            double power = ((Polynomial) node).getPower();
+            if (power == 1) {
+                return operand;
+            } else if (power == 0) {
+                return new Number(1);
+            } else if (operand.getClass() == Polynomial.class && isInteger(power)
+                    && isInteger(((Polynomial) operand).getPower())) {
+                //only integer powers of integer powers can be multiplied, since (x^2.0)^0.5 is not x
+                return power(((Polynomial) operand).getOperand(), power * ((Polynomial) operand).getPower());
+            }
+        } else if (type == Log.class && operand.getClass() == Exp.class) {
+            return ((Exp) operand).getOperand();
+        }
+        return operand == node.getOperand() ? node : FunctionFactory.rebuild(node, operand);
+    }
+
+    /**
+     * @param value A number
+     * @return Whether the number is an integer
+     */
+    private static boolean isInteger(double value) {
+        return value == Math.rint(value) && !Double.isInfinite(value);
+    }
+}
@@ -0,0 +1,149 @@
+package cas;
+
+/**
+ * Represents the trigonometric sine function
+ *
+ * @author Kennan LeJeune
+ */
+public class Sin extends UnaryOp {
+    /**
+     * Initializes the operand argument to be taken by a Sin function
+     *
+     * @param operand The operand to be taken by the Sin function
+     */
+    public Sin(Function operand) {
+        super(operand);
+    }
+
+    /**
+     * Computes the value of a Sin function at the value of an input parameter
+     *
+     * @param input The value at which to evaluate the function
+     * @return The value of the Sin function at the value of the input parameter
+     */
+    @Override
+    public double value(double input) {
+        if (Instrumentation.ENABLED && Instrumentation.enter(this)) {
+            return Instrumentation.value(this, input);
+        }
+        return Math.sin(this.getOperand().value(input));
+    }
+
+    /**
+     * Computes the value of a Sin function of several variables in an environment
+     *
+     * @param environment The value of each variable, by index
+     * @return The value of the Sin function in the environment
+     */
+    @Override
+    public double evaluate(double[] environment) {
+        return Math.sin(this.getOperand().evaluate(environment));
+    }
+
+    /**
+     * Evaluates a Sin function at every value of an input array
+     *
+     * @param inputs  The values at which to evaluate the function
+     * @param outputs The array which receives the value of the Sin function at each input
+     */
+    @Override
+    public void value(double[] inputs, double[] outputs) {
+        getOperand().value(inputs, outputs);
+        for (int i = 0; i < inputs.length; i++) {
+            outputs[i] = Math.sin(outputs[i]);
+        }
+    }
+
+    /**
+     * Computes bounds on the sine of the operand at every input of an interval
+     *
+     * @param input The interval of inputs
+     * @return An interval containing the value of the Sin function at every input
+     */
+    @Override
+    public Interval valueInterval(Interval input) {
+        return getOperand().valueInterval(input).sin();
+    }
+
+    /**
+     * Computes the value and derivative of a Sin function at the value of an input parameter, using the same chain
+     * rule as derivative()
+     *
+     * @param input      The value at which to evaluate the function
+     * @param derivative The array whose first element receives the derivative of the Sin function at the input
+     * @return The value of the Sin function at the value of the input parameter
+     */
+    @Override
+    public double valueAndDerivative(double input, double[] derivative) {
+        if (isConstant()) {
+            derivative[0] = 0;
+            return value(input);
+        }
+        double operand = this.getOperand().valueAndDerivative(input, derivative);
+        derivative[0] = Math.cos(operand) * derivative[0];
+        return Math.sin(operand);
+    }
+
+    /**
+     * Computes the Taylor series of a Sin function from the series of its operand
+     *
+     * @param input The value around which to expand the function
+     * @param order The highest power of the series
+     * @return The coefficients of the Taylor series of the Sin function
+     */
+    @Override
+    protected double[] taylor(double input, int order) {
+        if (isConstant()) {
+            return constantSeries(input, order);
+        }
+        double[] sin = new double[order + 1];
+        sinCos(this.getOperand().taylor(input, order), sin, new double[order + 1]);
+        return sin;
+    }
+
+    /**
+     * Computes the Taylor series of the sine and cosine of a series together, since the coefficients of each depend
+     * on the coefficients of the other
+     *
+     * @param operand The coefficients of the series whose sine and cosine are computed
+     * @param sin     The array which receives the coefficients of the sine of the series
+     * @param cos     The array which receives the coefficients of the cosine of the series
+     */
+    static void sinCos(double[] operand, double[] sin, double[] cos) {
+        sin[0] = Math.sin(operand[0]);
+        cos[0] = Math.cos(operand[0]);
+        for (int k = 1; k < operand.length; k++) {
+            double sinSum = 0;
+            double cosSum = 0;
+            for (int j = 1; j <= k; j++) {
+                sinSum += j * operand[j] * cos[k - j];
+                cosSum += j * operand[j] * sin[k - j];
+            }
+            sin[k] = sinSum / k;
+            cos[k] = -cosSum / k;
+        }
+    }
+
+    /**
+     * Computes the value of a numeric Sin function
+     *
+     * @return The value of the Sin function
+     */
+    @Override
+    public double value() {
+        if (Instrumentation.ENABLED && Instrumentation.enter(this)) {
+            return Instrumentation.value(this);
+        }
+        return Math.sin(this.getOperand().value());
+    }
+
+    /**
+     * Computes the derivative of a Sin function
+     *
+     * @return The function which is the derivative of a Sin function instance
+     */
+    @Override
+    protected Function computeDerivative() {
+        return new BinaryOp(new Cos(getOperand()), getOperand().derivative(), BinaryOp.Op.MULT);
+    }
+}
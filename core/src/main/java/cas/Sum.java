@@ -0,0 +1,175 @@
+package cas;
+
+import java.util.Arrays;
+
+/**
+ * Represents the sum of any number of operands, added from left to right
+ * A Sum is evaluated and differentiated in a loop over its operands, so a sum of many terms never recurses through a
+ * chain of BinaryOps, and its derivative is a single Sum of the derivatives of its terms
+ *
+ * @author Kennan LeJeune
+ */
+public class Sum extends NaryOp {
+    /**
+     * Initializes a Sum of operands, replacing every operand which is itself a sum by its own terms
+     *
+     * @param operands The terms of the sum, at least two
+     * @throws IllegalArgumentException If there are fewer than two operands
+     */
+    public Sum(Function... operands) {
+        super(BinaryOp.Op.PLUS, true, operands);
+    }
+
+    /**
+     * Initializes a Sum of operands which may be left as they are, so that they can be shared by other sums
+     *
+     * @param flatten  Whether operands which are sums are replaced by their own terms
+     * @param operands The terms of the sum, at least two
+     * @throws IllegalArgumentException If there are fewer than two operands
+     */
+    Sum(boolean flatten, Function... operands) {
+        super(BinaryOp.Op.PLUS, flatten, operands);
+    }
+
+    /**
+     * Evaluates a Sum at a given input value
+     *
+     * @param input The value at which to evaluate the Sum
+     * @return The sum of the values of the terms at the input
+     */
+    @Override
+    public double value(double input) {
+        if (Instrumentation.ENABLED && Instrumentation.enter(this)) {
+            return Instrumentation.value(this, input);
+        }
+        Function[] operands = operands();
+        double sum = operands[0].value(input);
+        for (int k = 1; k < operands.length; k++) {
+            sum += operands[k].value(input);
+        }
+        return sum;
+    }
+
+    /**
+     * Computes the value of a Sum of several variables in an environment
+     *
+     * @param environment The value of each variable, by index
+     * @return The sum of the values of the terms in the environment
+     */
+    @Override
+    public double evaluate(double[] environment) {
+        Function[] operands = operands();
+        double sum = operands[0].evaluate(environment);
+        for (int k = 1; k < operands.length; k++) {
+            sum += operands[k].evaluate(environment);
+        }
+        return sum;
+    }
+
+    /**
+     * Computes the value of a Sum with no input parameter
+     *
+     * @return The sum of the values of the terms
+     */
+    @Override
+    public double value() {
+        if (Instrumentation.ENABLED && Instrumentation.enter(this)) {
+            return Instrumentation.value(this);
+        }
+        Function[] operands = operands();
+        double sum = operands[0].value();
+        for (int k = 1; k < operands.length; k++) {
+            sum += operands[k].value();
+        }
+        return sum;
+    }
+
+    /**
+     * Computes bounds on the value of a Sum at every input of an interval by adding the bounds of its terms
+     *
+     * @param input The interval of inputs
+     * @return An interval containing the value of the Sum at every input
+     */
+    @Override
+    public Interval valueInterval(Interval input) {
+        Function[] operands = operands();
+        Interval sum = operands[0].valueInterval(input);
+        for (int k = 1; k < operands.length; k++) {
+            sum = sum.plus(operands[k].valueInterval(input));
+        }
+        return sum;
+    }
+
+    /**
+     * Computes the value and derivative of a Sum at a given input value
+     *
+     * @param input      The value at which to evaluate the Sum
+     * @param derivative The array whose first element receives the derivative of the Sum at the input value
+     * @return The value of the Sum at the specified input value
+     */
+    @Override
+    public double valueAndDerivative(double input, double[] derivative) {
+        if (isConstant()) {
+            derivative[0] = 0;
+            return value(input);
+        }
+        Function[] operands = operands();
+        double sum = 0;
+        double derivativeSum = 0;
+        for (int k = 0; k < operands.length; k++) {
+            double value = operands[k].valueAndDerivative(input, derivative);
+            sum = k == 0 ? value : sum + value;
+            derivativeSum = k == 0 ? derivative[0] : derivativeSum + derivative[0];
+        }
+        derivative[0] = derivativeSum;
+        return sum;
+    }
+
+    /**
+     * Computes the Taylor series of a Sum by adding the series of its terms
+     *
+     * @param input The value around which to expand the Sum
+     * @param order The highest power of the series
+     * @return The coefficients of the Taylor series of the Sum
+     */
+    @Override
+    protected double[] taylor(double input, int order) {
+        if (isConstant()) {
+            return constantSeries(input, order);
+        }
+        Function[] operands = operands();
+        double[] result = operands[0].taylor(input, order).clone();
+        for (int k = 1; k < operands.length; k++) {
+            double[] term = operands[k].taylor(input, order);
+            for (int j = 0; j <= order; j++) {
+                result[j] += term[j];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Computes the derivative of a Sum, which is the Sum of the derivatives of its terms
+     * Terms whose derivative is zero are left out, as a chain of BinaryOps would simplify them away
+     *
+     * @return The function which is the derivative of the Sum
+     */
+    @Override
+    protected Function computeDerivative() {
+        Function[] operands = operands();
+        Function[] derivatives = new Function[operands.length];
+        int count = 0;
+        for (Function operand : operands) {
+            Function derivative = operand.derivative();
+            if (!(derivative instanceof Number && derivative.value() == 0)) {
+                derivatives[count++] = derivative;
+            }
+        }
+        if (count == 0) {
+            return new Number(0);
+        } else if (count == 1) {
+            return derivatives[0];
+        }
+        return new Sum(Arrays.copyOf(derivatives, count));
+    }
+}
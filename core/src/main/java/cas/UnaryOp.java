@@ -0,0 +1,112 @@
+package cas;
+
+import java.io.IOException;
+
+/**
+ * Represents any Function which takes a single input and produces a single output
+ *
+ * @author Kennan LeJeune
+ */
+public abstract class UnaryOp extends Function {
+
+    //stores the function that is the operand of a Unary Operation
+    private final Function operand;
+
+    //stores the name of each UnaryOp true type, so that instances of the same type share one String
+    private static final ClassValue<String> FUNCTION_NAMES = new ClassValue<String>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            //returns "package.TypeName", so the name after the last '.' is "TypeName"
+            String name = type.getName();
+            return name.substring(name.lastIndexOf('.') + 1);
+        }
+    };
+
+    //caches the structural hash code of the UnaryOp, 0 until it is first computed
+    private int hash;
+
+    //whether the operand is built only from Numbers
+    private final boolean constant;
+
+    /**
+     * Initializes the operand of a Function that is a Unary Operation
+     *
+     * @param operand The operand to be taken as a function argument
+     */
+    public UnaryOp(Function operand) {
+        this.operand = operand;
+        this.constant = operand.isConstant();
+    }
+
+    /**
+     * @return Whether the operand, and so the UnaryOp, has the same value at every input
+     */
+    @Override
+    public boolean isConstant() {
+        return constant;
+    }
+
+    /**
+     * Retrieve the name of the UnaryOp true type
+     *
+     * @return The name of the current type of the Unary Operation
+     */
+    public String getFunctionName() {
+        return FUNCTION_NAMES.get(this.getClass());
+    }
+
+    /**
+     * Retrieves the operand (argument) of a UnaryOp instance
+     *
+     * @return The Function which is the operand of a Unary Operation
+     */
+    public Function getOperand() {
+        return this.operand;
+    }
+
+    /**
+     * Write the String representation of a UnaryOp instance
+     *
+     * @param out The Appendable which receives the representation
+     * @throws IOException If the Appendable cannot be written to
+     */
+    @Override
+    public void appendTo(Appendable out) throws IOException {
+        out.append(getFunctionName()).append('[');
+        this.getOperand().appendTo(out);
+        out.append(']');
+    }
+
+    /**
+     * Compares a UnaryOp instance to an input function
+     *
+     * @param input the Function to be compared
+     * @return Whether or not the input function is equivalent to the UnaryOp instance
+     */
+    @Override
+    public boolean equals(Object input) {
+        if (this == input) {
+            return true;
+        }
+        //return whether the input true type is an instance of the UnaryOp true type
+        return input.getClass().isInstance(this) && ((UnaryOp) input).getOperand().equals(this.getOperand());
+    }
+
+    /**
+     * Computes the hash code of a UnaryOp from its true type and operand
+     * The hash code is cached, since the operand of a UnaryOp never changes
+     *
+     * @return The hash code of the UnaryOp
+     */
+    @Override
+    public int hashCode() {
+        int hash = this.hash;
+        if (hash == 0) {
+            hash = 31 * getFunctionName().hashCode() + getOperand().hashCode();
+            this.hash = hash;
+        }
+        return hash;
+    }
+}
+	
+
@@ -0,0 +1,202 @@
+package cas;
+
+import java.io.IOException;
+
+/**
+ * Represents a variable with no specific value, which is the input of the function it belongs to
+ * A function of several variables gives each of them an index and a name.  The Variable created with no arguments is
+ * the variable x of index 0, which the single-input methods such as value(double) and derivative() take as the input;
+ * every other variable only has a value in evaluate(double[]), where its index is its position in the environment
+ *
+ * @author Kennan LeJeune
+ */
+public class Variable extends Function {
+    //the position of the value of the variable in an environment array
+    private final int index;
+
+    //the name by which the variable is printed and parsed
+    private final String name;
+
+    /**
+     * Initializes the variable x, which has index 0
+     */
+    public Variable() {
+        this("x", 0);
+    }
+
+    /**
+     * Initializes a variable of a function of several variables
+     *
+     * @param name  The name of the variable, a letter followed by any letters or digits
+     * @param index The position of the value of the variable in an environment array
+     * @throws IllegalArgumentException If the index is negative or the name could not be parsed back as a variable
+     */
+    public Variable(String name, int index) {
+        if (index < 0) {
+            throw new IllegalArgumentException("A variable cannot have a negative index: " + index);
+        }
+        if (name.isEmpty() || !Character.isLetter(name.charAt(0)) || !name.chars().allMatch(Character::isLetterOrDigit)
+                || name.equals("NaN") || name.equals("Infinity")) {
+            throw new IllegalArgumentException("Not a valid variable name: \"" + name + "\"");
+        }
+        this.name = name;
+        this.index = index;
+    }
+
+    /**
+     * Retrieves the index of a Variable
+     *
+     * @return The position of the value of the variable in an environment array
+     */
+    public int getIndex() {
+        return this.index;
+    }
+
+    /**
+     * Retrieves the name of a Variable
+     *
+     * @return The name by which the variable is printed and parsed
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * @throws UnsupportedOperationException If the Variable is not the input of the single-input methods
+     */
+    private void requireInput() {
+        if (index != 0) {
+            throw new UnsupportedOperationException("The variable " + name + " of index " + index
+                    + " only has a value in evaluate(double[])");
+        }
+    }
+
+    /**
+     * Writes the string representation of a variable
+     *
+     * @param out The Appendable which receives the representation
+     * @throws IOException If the Appendable cannot be written to
+     */
+    @Override
+    public void appendTo(Appendable out) throws IOException {
+        out.append(name);
+    }
+
+    /**
+     * @param input The value at which to evaluate the function
+     * @return The value of the Variable at the given input value
+     */
+    @Override
+    public double value(double input) {
+        if (Instrumentation.ENABLED && Instrumentation.enter(this)) {
+            return Instrumentation.value(this, input);
+        }
+        requireInput();
+        return input;
+    }
+
+    /**
+     * @param environment The value of each variable, by index
+     * @return The value of the Variable in the environment
+     */
+    @Override
+    public double evaluate(double[] environment) {
+        return environment[index];
+    }
+
+    /**
+     * Copies the input values to the output array, since a Variable is equal to its input
+     *
+     * @param inputs  The values at which to evaluate the function
+     * @param outputs The array which receives the value of the Variable at each input
+     */
+    @Override
+    public void value(double[] inputs, double[] outputs) {
+        requireInput();
+        System.arraycopy(inputs, 0, outputs, 0, inputs.length);
+    }
+
+    /**
+     * @param input The interval of inputs
+     * @return The interval of inputs, since the Variable takes the value of its input
+     */
+    @Override
+    public Interval valueInterval(Interval input) {
+        requireInput();
+        return input;
+    }
+
+    /**
+     * @param input      The value at which to evaluate the function
+     * @param derivative The array whose first element receives the derivative of the Variable, which is always 1
+     * @return The value of the Variable at the given input value
+     */
+    @Override
+    public double valueAndDerivative(double input, double[] derivative) {
+        requireInput();
+        derivative[0] = 1;
+        return input;
+    }
+
+    /**
+     * @param input The value around which to expand the function
+     * @param order The highest power of the series
+     * @return The Taylor series of the Variable, which is the input plus a first order term
+     */
+    @Override
+    protected double[] taylor(double input, int order) {
+        requireInput();
+        double[] coefficients = new double[order + 1];
+        coefficients[0] = input;
+        if (order > 0) {
+            coefficients[1] = 1;
+        }
+        return coefficients;
+    }
+
+    /**
+     * Attempts to compute the value of a variable with no input parameter
+     *
+     * @return The value of the variable
+     * @throws UnsupportedOperationException If the method is called on a Variable, since variables do not have
+     *                                       inherent value
+     */
+    @Override
+    public double value() {
+        if (Instrumentation.ENABLED && Instrumentation.enter(this)) {
+            return Instrumentation.value(this);
+        }
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Compute the derivative of a Variable with respect to x, the variable of index 0
+     *
+     * @return The Function that is the derivative of the Variable` function, 1 for x and 0 for any other variable
+     */
+    @Override
+    protected Function computeDerivative() {
+        return new Number(index == 0 ? 1 : 0);
+    }
+
+    /**
+     * Compares whether or not a Variable is equivalent to another input Function
+     *
+     * @param input the function to be compared
+     * @return Whether or not the input function is a variable of the same index and name
+     */
+    @Override
+    public boolean equals(Object input) {
+        return input instanceof Variable && ((Variable) input).index == this.index
+                && ((Variable) input).name.equals(this.name);
+    }
+
+    /**
+     * @return The hash code of the name and index of the Variable, which for x is the hash code of "x"
+     */
+    @Override
+    public int hashCode() {
+        return 31 * index + name.hashCode();
+    }
+}
+
@@ -0,0 +1,274 @@
+package cas;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Evaluates a Function at every value of an input array with the lanewise operations of the Java Vector API, so
+ * that every node is computed for as many inputs at once as the widest vector the processor supports
+ * The function is laid out as a CompactExpression, and the inputs are evaluated in blocks: each node computes its
+ * value at every input of the block with one loop of vector operations into a block of its own, and a block is
+ * handed back for reuse as soon as the last node reading it has been computed.  Every operand of a Sum or Product is
+ * computed before they are combined, so those operands all hold a block at once.  The last block of inputs is padded
+ * to a whole number of vectors, and only the values of real inputs are written to the outputs
+ * Arithmetic gives exactly the results of value(double).  The vector sine, cosine, exponential, logarithm and power
+ * keep the accuracy of the Math methods, within 1 ulp of the exact result, so each of those nodes is within 2 ulps of
+ * the scalar result; differences are only carried further by the nodes above them.  Functions of a type the
+ * expression cannot represent are evaluated one input at a time by their own value(double) method
+ * This class uses the incubating jdk.incubator.vector module, so it is compiled apart from the other sources with
+ * that module added, and the module must be added to the running program with --add-modules jdk.incubator.vector
+ *
+ * @author Kennan LeJeune
+ */
+public class VectorEvaluator {
+    //the vectors of the widest shape the processor supports
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    //number of inputs evaluated together, a whole number of vectors of any shape
+    static final int BLOCK = 256;
+
+    //the block which holds the inputs, shared by every VARIABLE node
+    private static final int INPUT = 0;
+
+    //the type of each node, a PostfixProgram instruction
+    private final byte[] types;
+
+    //the block holding the value of each node, and of the left (or only) and right operands of each node
+    private final int[] blocks;
+    private final int[] leftBlocks;
+    private final int[] rightBlocks;
+
+    //the value of each Number node and the power of each Polynomial node
+    private final double[] constants;
+
+    //the function of each CALL node, null for every other node
+    private final Function[] calls;
+
+    //the number of blocks needed at once, counting the block of inputs
+    private final int blockCount;
+
+    //the blocks of each thread evaluating the function
+    private final ThreadLocal<double[][]> scratch;
+
+    /**
+     * Initializes an evaluator from the nodes of an expression and the block of each node
+     *
+     * @param types       The type of each node
+     * @param blocks      The block holding the value of each node
+     * @param leftBlocks  The block holding the left operand of each node
+     * @param rightBlocks The block holding the right operand of each node
+     * @param constants   The value or power of each node
+     * @param calls       The function of each CALL node
+     * @param blockCount  The number of blocks needed at once
+     */
+    private VectorEvaluator(byte[] types, int[] blocks, int[] leftBlocks, int[] rightBlocks, double[] constants,
+                            Function[] calls, int blockCount) {
+        this.types = types;
+        this.blocks = blocks;
+        this.leftBlocks = leftBlocks;
+        this.rightBlocks = rightBlocks;
+        this.constants = constants;
+        this.calls = calls;
+        this.blockCount = blockCount;
+        this.scratch = ThreadLocal.withInitial(() -> new double[blockCount][BLOCK]);
+    }
+
+    /**
+     * Lays out a Function for vector evaluation
+     * Each node is given a block which is free when the node is computed, and the blocks of its operands are freed
+     * first if the node is the last to read them, since every lane of an operand is read before it is overwritten
+     *
+     * @param function The function to be evaluated
+     * @return The evaluator which computes the values of the function
+     * @throws IllegalArgumentException If the function has a variable other than x
+     */
+    public static VectorEvaluator compile(Function function) {
+        CompactExpression expression = CompactExpression.of(function);
+        if (expression.variableCount() > 1) {
+            throw new IllegalArgumentException("Only functions of x can be evaluated at an array of inputs");
+        }
+        int size = expression.size();
+        byte[] types = new byte[size];
+        int[] lefts = new int[size];
+        int[] rights = new int[size];
+        double[] constants = new double[size];
+        Function[] calls = new Function[size];
+
+        //the last node to read each node, or size for the root which is read by the outputs
+        int[] lastUses = new int[size];
+        for (int i = 0; i < size; i++) {
+            types[i] = expression.type(i);
+            constants[i] = expression.constant(i);
+            lefts[i] = types[i] > PostfixProgram.VARIABLE && types[i] != PostfixProgram.CALL
+                    ? expression.leftOperand(i) : -1;
+            rights[i] = types[i] >= PostfixProgram.PLUS && types[i] <= PostfixProgram.DIV
+                    ? expression.rightOperand(i) : -1;
+            if (types[i] == PostfixProgram.CALL) {
+                calls[i] = expression.call(expression.leftOperand(i));
+            }
+            if (lefts[i] >= 0) {
+                lastUses[lefts[i]] = i;
+            }
+            if (rights[i] >= 0) {
+                lastUses[rights[i]] = i;
+            }
+        }
+        lastUses[size - 1] = size;
+
+        int[] blocks = new int[size];
+        int[] leftBlocks = new int[size];
+        int[] rightBlocks = new int[size];
+        int[] free = new int[size + 1];
+        int freeCount = 0;
+        int blockCount = INPUT + 1;
+        for (int i = 0; i < size; i++) {
+            leftBlocks[i] = lefts[i] >= 0 ? blocks[lefts[i]] : INPUT;
+            rightBlocks[i] = rights[i] >= 0 ? blocks[rights[i]] : INPUT;
+            if (lefts[i] >= 0 && lastUses[lefts[i]] == i && blocks[lefts[i]] != INPUT) {
+                free[freeCount++] = blocks[lefts[i]];
+            }
+            if (rights[i] >= 0 && rights[i] != lefts[i] && lastUses[rights[i]] == i && blocks[rights[i]] != INPUT) {
+                free[freeCount++] = blocks[rights[i]];
+            }
+            if (types[i] == PostfixProgram.VARIABLE) {
+                blocks[i] = INPUT;
+            } else {
+                blocks[i] = freeCount > 0 ? free[--freeCount] : blockCount++;
+            }
+        }
+        return new VectorEvaluator(types, blocks, leftBlocks, rightBlocks, constants, calls, blockCount);
+    }
+
+    /**
+     * Evaluates the function at every value of an input array
+     *
+     * @param inputs  The values at which to evaluate the function
+     * @param outputs The array which receives the value of the function at each input, at least as long as the
+     *                inputs
+     */
+    public void value(double[] inputs, double[] outputs) {
+        double[][] scratch = this.scratch.get();
+        int root = blocks[blocks.length - 1];
+        for (int start = 0; start < inputs.length; start += BLOCK) {
+            int count = Math.min(BLOCK, inputs.length - start);
+            System.arraycopy(inputs, start, scratch[INPUT], 0, count);
+            evaluate(scratch, count);
+            System.arraycopy(scratch[root], 0, outputs, start, count);
+        }
+    }
+
+    /**
+     * Computes every node at the inputs of one block, a whole number of vectors at a time
+     *
+     * @param scratch The blocks, the first of which holds the inputs
+     * @param count   The number of inputs in the block
+     */
+    private void evaluate(double[][] scratch, int count) {
+        int lanes = SPECIES.length();
+        int length = (count + lanes - 1) / lanes * lanes;
+        for (int i = 0; i < types.length; i++) {
+            double[] result = scratch[blocks[i]];
+            double[] left = scratch[leftBlocks[i]];
+            double[] right = scratch[rightBlocks[i]];
+            switch (types[i]) {
+                case PostfixProgram.NUMBER:
+                    DoubleVector constant = DoubleVector.broadcast(SPECIES, constants[i]);
+                    for (int j = 0; j < length; j += lanes) {
+                        constant.intoArray(result, j);
+                    }
+                    break;
+                case PostfixProgram.VARIABLE:
+                    break;
+                case PostfixProgram.PLUS:
+                    for (int j = 0; j < length; j += lanes) {
+                        DoubleVector.fromArray(SPECIES, left, j).add(DoubleVector.fromArray(SPECIES, right, j))
+                                .intoArray(result, j);
+                    }
+                    break;
+                case PostfixProgram.SUB:
+                    for (int j = 0; j < length; j += lanes) {
+                        DoubleVector.fromArray(SPECIES, left, j).sub(DoubleVector.fromArray(SPECIES, right, j))
+                                .intoArray(result, j);
+                    }
+                    break;
+                case PostfixProgram.MULT:
+                    for (int j = 0; j < length; j += lanes) {
+                        DoubleVector.fromArray(SPECIES, left, j).mul(DoubleVector.fromArray(SPECIES, right, j))
+                                .intoArray(result, j);
+                    }
+                    break;
+                case PostfixProgram.DIV:
+                    for (int j = 0; j < length; j += lanes) {
+                        DoubleVector.fromArray(SPECIES, left, j).div(DoubleVector.fromArray(SPECIES, right, j))
+                                .intoArray(result, j);
+                    }
+                    break;
+                case PostfixProgram.SIN:
+                    unary(VectorOperators.SIN, left, result, length);
+                    break;
+                case PostfixProgram.COS:
+                    unary(VectorOperators.COS, left, result, length);
+                    break;
+                case PostfixProgram.EXP:
+                    unary(VectorOperators.EXP, left, result, length);
+                    break;
+                case PostfixProgram.LOG:
+                    unary(VectorOperators.LOG, left, result, length);
+                    break;
+                case PostfixProgram.POLYNOMIAL:
+                    double power = constants[i];
+
+                    //a square is a multiplication, as the JIT compiler makes it in value(double)
+                    if (power == 2) {
+                        for (int j = 0; j < length; j += lanes) {
+                            DoubleVector operand = DoubleVector.fromArray(SPECIES, left, j);
+                            operand.mul(operand).intoArray(result, j);
+                        }
+                        break;
+                    }
+                    for (int j = 0; j < length; j += lanes) {
+                        DoubleVector.fromArray(SPECIES, left, j).lanewise(VectorOperators.POW, power)
+                                .intoArray(result, j);
+                    }
+                    break;
+                default:
+                    //only the real inputs, since a function of unknown type may not accept the padding
+                    Function call = calls[i];
+                    double[] inputs = scratch[INPUT];
+                    for (int j = 0; j < count; j++) {
+                        result[j] = call.value(inputs[j]);
+                    }
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Applies a lanewise operation to a block
+     *
+     * @param operator The operation
+     * @param operand  The block of operands
+     * @param result   The block which receives the results
+     * @param length   The number of lanes to compute, a whole number of vectors
+     */
+    private static void unary(VectorOperators.Unary operator, double[] operand, double[] result, int length) {
+        for (int j = 0; j < length; j += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, operand, j).lanewise(operator).intoArray(result, j);
+        }
+    }
+
+    /**
+     * @return The number of doubles in one vector
+     */
+    public static int lanes() {
+        return SPECIES.length();
+    }
+
+    /**
+     * @return The number of blocks needed at once to evaluate the function, counting the block of inputs
+     */
+    public int blockCount() {
+        return blockCount;
+    }
+}
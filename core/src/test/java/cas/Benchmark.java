@@ -0,0 +1,769 @@
+package cas;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Measures the throughput of the Function hierarchy on large inputs
+ * Run with the names of the benchmarks to perform, or with no arguments to perform all of them
+ * Kept with the tests so that it is not shipped; newer benchmarks are JMH benchmarks in the benchmarks module, and
+ * this class reports what they cannot, such as the nodes of a simplified function.  Run it after mvn test with
+ * java -cp core/target/classes:core/target/test-classes cas.Benchmark
+ *
+ * @author Kennan LeJeune
+ */
+public class Benchmark {
+    //number of timed repetitions of each benchmark, the fastest of which is reported
+    private static final int REPETITIONS = 10;
+
+    //every benchmark, by the name used to select it on the command line
+    private static final Map<String, Runnable> BENCHMARKS = new LinkedHashMap<>();
+
+    static {
+        BENCHMARKS.put("batch", Benchmark::batchEvaluation);
+        BENCHMARKS.put("compile", Benchmark::compiledEvaluation);
+        BENCHMARKS.put("postfix", Benchmark::postfixEvaluation);
+        BENCHMARKS.put("compact", Benchmark::compactRepresentation);
+        BENCHMARKS.put("intern", Benchmark::interning);
+        BENCHMARKS.put("equals", Benchmark::equality);
+        BENCHMARKS.put("derivative", Benchmark::repeatedDerivatives);
+        BENCHMARKS.put("dual", Benchmark::forwardDerivatives);
+        BENCHMARKS.put("print", Benchmark::printing);
+        BENCHMARKS.put("parse", Benchmark::parsing);
+        BENCHMARKS.put("library", Benchmark::library);
+        BENCHMARKS.put("sample", Benchmark::sampling);
+        BENCHMARKS.put("integrate", Benchmark::integration);
+        BENCHMARKS.put("roots", Benchmark::rootFinding);
+        BENCHMARKS.put("interval", Benchmark::intervalPruning);
+        BENCHMARKS.put("chebyshev", Benchmark::chebyshev);
+        BENCHMARKS.put("simplify", Benchmark::simplification);
+        BENCHMARKS.put("optimize", Benchmark::optimization);
+    }
+
+    /**
+     * Runs the requested benchmarks and prints their results
+     *
+     * @param args The names of the benchmarks to run
+     */
+    public static void main(String[] args) {
+        for (String name : args) {
+            if (!BENCHMARKS.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown benchmark " + name + ", expected one of "
+                        + BENCHMARKS.keySet());
+            }
+        }
+        for (Map.Entry<String, Runnable> benchmark : BENCHMARKS.entrySet()) {
+            if (args.length == 0 || Arrays.asList(args).contains(benchmark.getKey())) {
+                benchmark.getValue().run();
+            }
+        }
+    }
+
+    /**
+     * Compares evaluating a composite function one input at a time with evaluating it over an entire array
+     */
+    private static void batchEvaluation() {
+        Function function = composite();
+        int size = 1 << 20;
+        double[] inputs = new double[size];
+        double[] outputs = new double[size];
+        for (int i = 0; i < size; i++) {
+            inputs[i] = 0.5 + 4.0 * i / size;
+        }
+
+        long scalar = time(() -> {
+            for (int i = 0; i < size; i++) {
+                outputs[i] = function.value(inputs[i]);
+            }
+        });
+        long batch = time(() -> function.value(inputs, outputs));
+
+        System.out.println("batch: " + function);
+        report("value(double)", size, scalar);
+        report("value(double[], double[])", size, batch);
+    }
+
+    /**
+     * Compares evaluating a composite function and its derivative through the tree with evaluating them through
+     * FunctionCompiler
+     */
+    private static void compiledEvaluation() {
+        int size = 1 << 20;
+        for (Function function : new Function[]{composite(), composite().derivative()}) {
+            DoubleUnaryOperator compiled = FunctionCompiler.compile(function);
+            double[] outputs = new double[size];
+
+            long tree = time(() -> {
+                for (int i = 0; i < size; i++) {
+                    outputs[i] = function.value(0.5 + 4.0 * i / size);
+                }
+            });
+            long bytecode = time(() -> {
+                for (int i = 0; i < size; i++) {
+                    outputs[i] = compiled.applyAsDouble(0.5 + 4.0 * i / size);
+                }
+            });
+
+            System.out.println("compile: " + function);
+            report("value(double)", size, tree);
+            report("FunctionCompiler.compile()", size, bytecode);
+        }
+    }
+
+    /**
+     * Compares evaluating the derivative of a composite function and a long sum through the tree with evaluating
+     * them through a PostfixProgram
+     */
+    private static void postfixEvaluation() {
+        Function sum = new Variable();
+        for (int i = 1; i <= 1000; i++) {
+            sum = new BinaryOp(sum, new Sin(new Number(i)), BinaryOp.Op.PLUS);
+        }
+
+        int size = 1 << 18;
+        for (Function function : new Function[]{composite().derivative(), sum}) {
+            PostfixProgram program = PostfixProgram.compile(function);
+            int points = function == sum ? size / 256 : size;
+            double[] outputs = new double[points];
+
+            long tree = time(() -> {
+                for (int i = 0; i < points; i++) {
+                    outputs[i] = function.value(0.5 + 4.0 * i / points);
+                }
+            });
+            long postfix = time(() -> {
+                for (int i = 0; i < points; i++) {
+                    outputs[i] = program.value(0.5 + 4.0 * i / points);
+                }
+            });
+
+            System.out.println("postfix: " + program.length() + " instructions and operands");
+            report("value(double)", points, tree);
+            report("PostfixProgram.value(double)", points, postfix);
+        }
+    }
+
+    /**
+     * Measures the heap taken per node by a function of a million nodes and by its CompactExpression, and compares
+     * the time taken to evaluate each
+     */
+    private static void compactRepresentation() {
+        long before = usedMemory();
+        Function[] terms = new Function[200000];
+        for (int i = 0; i < terms.length; i++) {
+            terms[i] = new Sin(new BinaryOp(new Variable(), new Number(i), BinaryOp.Op.MULT));
+        }
+        //add the terms pairwise so the sum is shallow enough to evaluate recursively
+        for (int length = terms.length; length > 1; length = (length + 1) / 2) {
+            for (int i = 0; i < length / 2; i++) {
+                terms[i] = new BinaryOp(terms[2 * i], terms[2 * i + 1], BinaryOp.Op.PLUS);
+            }
+            if (length % 2 == 1) {
+                terms[length / 2] = terms[length - 1];
+            }
+        }
+        Function function = terms[0];
+        long treeBytes = usedMemory() - before;
+
+        before = usedMemory();
+        CompactExpression expression = CompactExpression.of(function);
+        long compactBytes = usedMemory() - before;
+
+        System.out.printf("compact: %d nodes, %.1f bytes per node as objects, %.1f bytes per node as arrays "
+                        + "(%.1f measured)%n", expression.size(), (double) treeBytes / expression.size(),
+                (double) expression.bytes() / expression.size(), (double) compactBytes / expression.size());
+        int points = 64;
+        long tree = time(() -> {
+            for (int i = 0; i < points; i++) {
+                function.value(i);
+            }
+        });
+        long compact = time(() -> {
+            for (int i = 0; i < points; i++) {
+                expression.value(i);
+            }
+        });
+        report("value(double)", points, tree);
+        report("CompactExpression.value(double)", points, compact);
+    }
+
+    /**
+     * @return The number of bytes of the heap in use after collecting garbage
+     */
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Compares the number of distinct node objects in repeated derivatives of a composite function before and after
+     * interning them with a FunctionFactory
+     */
+    private static void interning() {
+        Function function = composite();
+        for (int order = 1; order <= 4; order++) {
+            function = function.derivative();
+            FunctionFactory factory = new FunctionFactory();
+            long start = System.nanoTime();
+            Function canonical = factory.intern(function);
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("intern: derivative %d, %d nodes before, %d nodes after, interned in %.2f ms%n", order,
+                    distinctNodes(function), distinctNodes(canonical), elapsed / 1e6);
+        }
+    }
+
+    /**
+     * Times equals() on nested sums which share every operand and differ only in their innermost operand, and on
+     * long products whose operands are swapped at every level
+     */
+    private static void equality() {
+        Function sum = new Variable();
+        Function other = new Number(2);
+        for (int depth = 1; depth <= 32; depth++) {
+            sum = new BinaryOp(sum, sum, BinaryOp.Op.PLUS);
+            other = new BinaryOp(other, other, BinaryOp.Op.PLUS);
+            if (depth % 8 == 0) {
+                Function left = sum;
+                Function right = other;
+                long elapsed = time(() -> left.equals(right));
+                System.out.printf("equals: nested sums %d deep, %.3f us%n", depth, elapsed / 1e3);
+            }
+        }
+
+        for (int length = 1000; length <= 4000; length *= 2) {
+            Function product = new Variable();
+            Function swapped = new Variable();
+            for (int i = 0; i < length; i++) {
+                product = new BinaryOp(product, new Sin(new Number(i)), BinaryOp.Op.MULT);
+                swapped = new BinaryOp(new Sin(new Number(i)), swapped, BinaryOp.Op.MULT);
+            }
+            Function left = product;
+            Function right = swapped;
+            long elapsed = time(() -> left.equals(right));
+            System.out.printf("equals: swapped products of %d operands, %.3f us%n", length, elapsed / 1e3);
+        }
+    }
+
+    /**
+     * Measures the size of repeated derivatives of a composite function and the time taken to compute them
+     * The tree size counts a node once for every path reaching it, which is how many nodes the derivative would have
+     * if shared subtrees were copied
+     */
+    private static void repeatedDerivatives() {
+        for (int order = 1; order <= 8; order++) {
+            Function function = composite();
+            long start = System.nanoTime();
+            Function derivative = function.derivative(order);
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("derivative: order %d, %d distinct nodes, %.0f tree nodes, %.2f ms%n", order,
+                    distinctNodes(derivative), treeSize(derivative, new IdentityHashMap<>()), elapsed / 1e6);
+        }
+    }
+
+    /**
+     * Compares evaluating the value and derivative of a composite function through its symbolic derivative with
+     * evaluating them in a single walk, and the same for its first four derivatives
+     */
+    private static void forwardDerivatives() {
+        Function function = composite();
+        int size = 1 << 18;
+        double[] outputs = new double[size];
+        double[] derivative = new double[1];
+
+        long symbolic = time(() -> {
+            for (int i = 0; i < size; i++) {
+                double input = 0.5 + 4.0 * i / size;
+                outputs[i] = function.value(input) + function.derivative().value(input);
+            }
+        });
+        long dual = time(() -> {
+            for (int i = 0; i < size; i++) {
+                outputs[i] = function.valueAndDerivative(0.5 + 4.0 * i / size, derivative) + derivative[0];
+            }
+        });
+        long symbolicTaylor = time(() -> {
+            for (int i = 0; i < size / 16; i++) {
+                double input = 0.5 + 4.0 * i / size;
+                for (int k = 0; k <= 4; k++) {
+                    outputs[i] += function.derivative(k).value(input);
+                }
+            }
+        });
+        long taylor = time(() -> {
+            for (int i = 0; i < size / 16; i++) {
+                outputs[i] = function.derivatives(0.5 + 4.0 * i / size, 4)[4];
+            }
+        });
+
+        System.out.println("dual: " + function);
+        report("value() and derivative().value()", size, symbolic);
+        report("valueAndDerivative()", size, dual);
+        report("derivative(k).value() for k <= 4", size / 16, symbolicTaylor);
+        report("derivatives(input, 4)", size / 16, taylor);
+    }
+
+    /**
+     * Measures printing a deeply nested sum and a large derivative, both as a new String and into one reused buffer
+     */
+    private static void printing() {
+        Function sum = new Variable();
+        for (int i = 0; i < 2000; i++) {
+            sum = new BinaryOp(sum, new Sin(new Number(i)), BinaryOp.Op.PLUS);
+        }
+        Function derivative = composite().derivative(4);
+        StringBuilder buffer = new StringBuilder();
+
+        for (Function function : new Function[]{sum, derivative}) {
+            int length = function.toString().length();
+            long toString = time(() -> function.toString());
+            long appendTo = time(() -> {
+                buffer.setLength(0);
+                try {
+                    function.appendTo(buffer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            System.out.println("print: " + length + " characters");
+            report("toString()", length, toString);
+            report("appendTo(StringBuilder), reused", length, appendTo);
+        }
+    }
+
+    /**
+     * Measures parsing a list of expressions of various sizes one at a time and split between threads
+     */
+    private static void parsing() {
+        List<String> lines = new ArrayList<>();
+        Function[] sources = {composite(), composite().derivative(), composite().derivative(2),
+                new BinaryOp(new Sin(new Polynomial(new Variable(), 2)), new BinaryOp(new Variable(), new Number(3),
+                        BinaryOp.Op.MULT), BinaryOp.Op.PLUS)};
+        for (int i = 0; i < 1 << 16; i++) {
+            lines.add(sources[i % sources.length].toString());
+        }
+        long characters = lines.stream().mapToLong(String::length).sum();
+
+        long sequential = time(() -> {
+            for (String line : lines) {
+                FunctionParser.parse(line);
+            }
+        });
+        long parallel = time(() -> FunctionParser.parseAll(lines));
+        System.out.printf("parse: %d expressions, %d characters, %d threads%n", lines.size(), characters,
+                Runtime.getRuntime().availableProcessors());
+        report("parse(), expressions", lines.size(), sequential);
+        report("parseAll(), expressions", lines.size(), parallel);
+    }
+
+    /**
+     * Measures writing a large library of functions and their derivatives, opening it, and retrieving functions
+     */
+    private static void library() {
+        List<Function> functions = new ArrayList<>();
+        long characters = 0;
+        for (int i = 0; i < 50000; i++) {
+            Function function = new Exp(new Sin(new Polynomial(new BinaryOp(new Variable(), new Number(i),
+                    BinaryOp.Op.PLUS), 2)));
+            functions.add(function);
+            functions.add(function.derivative(2));
+        }
+        for (Function function : functions) {
+            characters += function.toString().length();
+        }
+
+        try {
+            Path file = Files.createTempFile("benchmark", ".lib");
+            try {
+                long start = System.nanoTime();
+                FunctionLibrary.write(file, functions);
+                long write = System.nanoTime() - start;
+                start = System.nanoTime();
+                FunctionLibrary library = FunctionLibrary.open(file);
+                long open = System.nanoTime() - start;
+                start = System.nanoTime();
+                library.get(library.size() - 1);
+                long first = System.nanoTime() - start;
+                start = System.nanoTime();
+                for (int i = 0; i < library.size(); i++) {
+                    library.get(i);
+                }
+                long all = System.nanoTime() - start;
+
+                System.out.printf("library: %d functions, %d nodes, %d bytes (%d characters as text)%n",
+                        library.size(), library.nodeCount(), Files.size(file), characters);
+                System.out.printf("  write %.2f ms, open %.3f ms, first get %.3f ms, get all %.2f ms%n", write / 1e6,
+                        open / 1e6, first / 1e6, all / 1e6);
+            } finally {
+                Files.delete(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Measures sampling a composite function over a large grid with pools of 1 to N threads, where N is the number of
+     * processors, against a serial loop over value(double)
+     * The grid has 2^24 points by default; set the system property benchmark.points to sample 10^8 points
+     */
+    private static void sampling() {
+        Function function = composite();
+        int n = Integer.getInteger("benchmark.points", 1 << 24);
+        double[] outputs = new double[n];
+
+        long start = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            outputs[i] = function.value(FunctionSampler.point(0.5, 4.5, n, i));
+        }
+        long serial = System.nanoTime() - start;
+        System.out.println("sample: " + n + " points of " + function);
+        report("serial value(double)", n, serial);
+
+        long single = 0;
+        for (int threads = 1; threads <= Runtime.getRuntime().availableProcessors(); threads++) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                FunctionSampler.sample(function, 0.5, 4.5, outputs, pool);
+                long best = Long.MAX_VALUE;
+                for (int i = 0; i < 3; i++) {
+                    start = System.nanoTime();
+                    FunctionSampler.sample(function, 0.5, 4.5, outputs, pool);
+                    best = Math.min(best, System.nanoTime() - start);
+                }
+                if (threads == 1) {
+                    single = best;
+                }
+                report(String.format("%d threads, speedup %.2f", threads, (double) single / best), n, best);
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Compares the error and number of evaluations of the adaptive integrator with a fixed-step trapezoid loop, on a
+     * smooth composite function and on a narrow peak
+     */
+    private static void integration() {
+        Function peak = new Exp(new BinaryOp(new Number(-10000), new Polynomial(new Variable(), 2),
+                BinaryOp.Op.MULT));
+        Function[] functions = {composite(), peak};
+        double[][] bounds = {{0.5, 4.5}, {-1, 1}};
+        for (int f = 0; f < functions.length; f++) {
+            Function function = functions[f];
+            double a = bounds[f][0];
+            double b = bounds[f][1];
+            double exact = FunctionIntegrator.integrate(function, a, b, 1e-14).getValue();
+            System.out.println("integrate: " + function + " from " + a + " to " + b);
+            for (int n = 1000; n <= 10000000; n *= 10) {
+                long start = System.nanoTime();
+                double step = (b - a) / n;
+                double sum = 0.5 * (function.value(a) + function.value(b));
+                for (int i = 1; i < n; i++) {
+                    sum += function.value(a + i * step);
+                }
+                double trapezoid = sum * step;
+                System.out.printf("  %-40s %10.2f ms %12d evaluations, error %.2e%n", "trapezoid, " + n + " steps",
+                        (System.nanoTime() - start) / 1e6, n + 1, Math.abs(trapezoid - exact));
+            }
+            for (double tolerance = 1e-4; tolerance >= 1e-12; tolerance *= 1e-4) {
+                long start = System.nanoTime();
+                FunctionIntegrator.Result result = FunctionIntegrator.integrate(function, a, b, tolerance);
+                System.out.printf("  %-40s %10.2f ms %12d evaluations, error %.2e%n", "adaptive, tolerance "
+                        + tolerance, (System.nanoTime() - start) / 1e6, result.getEvaluations(),
+                        Math.abs(result.getValue() - exact));
+            }
+        }
+    }
+
+    /**
+     * Measures finding the roots of thousands of shifted composite functions one at a time and all at once
+     */
+    private static void rootFinding() {
+        List<Function> functions = new ArrayList<>();
+        for (int k = 0; k < 4000; k++) {
+            functions.add(new BinaryOp(composite(), new Number(1 + k / 4000.0), BinaryOp.Op.SUB));
+        }
+        long[] roots = new long[1];
+        long sequential = time(() -> {
+            roots[0] = 0;
+            for (Function function : functions) {
+                roots[0] += RootFinder.roots(function, 0.5, 4.5).length;
+            }
+        });
+        long batch = time(() -> RootFinder.roots(functions, 0.5, 4.5));
+        System.out.println("roots: " + functions.size() + " functions, " + roots[0] + " roots");
+        report("roots(function), functions", functions.size(), sequential);
+        report("roots(list), functions", functions.size(), batch);
+    }
+
+    /**
+     * Compares locating the roots of a shifted composite function to within 2^-20 of the interval by sampling every
+     * cell with locating them by discarding subranges whose interval bounds exclude zero
+     */
+    private static void intervalPruning() {
+        Function function = new BinaryOp(composite(), new Number(1.5), BinaryOp.Op.SUB);
+        int cells = 1 << 20;
+        int[] counts = new int[2];
+        long sampling = time(() -> {
+            counts[0] = 0;
+            double previous = function.value(0.5);
+            for (int i = 1; i <= cells; i++) {
+                double value = function.value(FunctionSampler.point(0.5, 4.5, cells + 1, i));
+                if (previous <= 0 && value >= 0 || previous >= 0 && value <= 0) {
+                    counts[0]++;
+                }
+                previous = value;
+            }
+        });
+        int[] pruned = new int[2];
+        long pruning = time(() -> {
+            pruned[0] = 0;
+            pruned[1] = 0;
+            prune(function, 0.5, 4.5, 4.0 / cells, pruned);
+        });
+        System.out.println("interval: roots of " + function + " in " + cells + " cells");
+        System.out.printf("  %-40s %10.2f ms %12d evaluations, %d cells with a sign change%n", "sampling every cell",
+                sampling / 1e6, cells + 1, counts[0]);
+        System.out.printf("  %-40s %10.2f ms %12d evaluations, %d cells which may contain a root%n",
+                "interval branch and bound", pruning / 1e6, pruned[0], pruned[1]);
+    }
+
+    /**
+     * Splits a range in half until its interval bounds exclude zero or it is no wider than a cell
+     *
+     * @param function The function whose roots are located
+     * @param lo       The lower bound of the range
+     * @param hi       The upper bound of the range
+     * @param width    The width of a cell
+     * @param counts   The number of interval evaluations, and the number of cells which may contain a root
+     */
+    private static void prune(Function function, double lo, double hi, double width, int[] counts) {
+        counts[0]++;
+        Interval bounds = function.valueInterval(lo, hi);
+        if (!bounds.contains(0) && !bounds.mayBeUndefined()) {
+            return;
+        }
+        if (hi - lo <= width) {
+            counts[1]++;
+            return;
+        }
+        double middle = 0.5 * (lo + hi);
+        prune(function, lo, middle, width, counts);
+        prune(function, middle, hi, width, counts);
+    }
+
+    /**
+     * Compares evaluating a composite function directly with evaluating Chebyshev approximations of it built to
+     * several tolerances, and reports the largest error of each approximation over a dense grid
+     */
+    private static void chebyshev() {
+        Function function = composite();
+        int size = 1 << 20;
+        double[] inputs = new double[size];
+        for (int i = 0; i < size; i++) {
+            inputs[i] = FunctionSampler.point(0.5, 4.5, size, i);
+        }
+        double[] expected = new double[size];
+        double[] outputs = new double[size];
+        function.value(inputs, expected);
+
+        System.out.println("chebyshev: " + function + " on [0.5, 4.5]");
+        long direct = time(() -> {
+            for (int i = 0; i < size; i++) {
+                outputs[i] = function.value(inputs[i]);
+            }
+        });
+        report("direct value(double)", size, direct);
+        for (double tolerance = 1e-4; tolerance >= 1e-14; tolerance *= 1e-2) {
+            long start = System.nanoTime();
+            Chebyshev approximation = Chebyshev.approximate(function, 0.5, 4.5, tolerance);
+            long build = System.nanoTime() - start;
+            long elapsed = time(() -> {
+                for (int i = 0; i < size; i++) {
+                    outputs[i] = approximation.value(inputs[i]);
+                }
+            });
+            double error = 0;
+            for (int i = 0; i < size; i++) {
+                error = Math.max(error, Math.abs(outputs[i] - expected[i]));
+            }
+            report(String.format("degree %d, tolerance %.0e", approximation.getDegree(), tolerance), size, elapsed);
+            System.out.printf("    built in %.2f ms, measured error %.2e, error on grid %.2e%n", build / 1e6,
+                    approximation.getMaxError(), error);
+        }
+    }
+
+    /**
+     * Measures how much the Simplifier reduces the size and evaluation cost of the derivatives of a composite function
+     */
+    private static void simplification() {
+        Function function = composite();
+        int size = 1 << 16;
+        double[] outputs = new double[size];
+        System.out.println("simplify: derivatives of " + function);
+        for (int n = 1; n <= 4; n++) {
+            Function derivative = function.derivative(n);
+            long start = System.nanoTime();
+            Function simplified = Simplifier.simplify(derivative);
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("  derivative %d simplified in %.2f ms: %d to %d distinct nodes, %.0f to %.0f in tree%n",
+                    n, elapsed / 1e6, distinctNodes(derivative), distinctNodes(simplified),
+                    treeSize(derivative, new IdentityHashMap<>()), treeSize(simplified, new IdentityHashMap<>()));
+            Function[] forms = {derivative, simplified};
+            String[] labels = {"original", "simplified"};
+            for (int f = 0; f < 2; f++) {
+                Function form = forms[f];
+                elapsed = time(() -> {
+                    for (int i = 0; i < size; i++) {
+                        outputs[i] = form.value(0.5 + 4.0 * i / size);
+                    }
+                });
+                report(labels[f] + " value(double)", size, elapsed);
+            }
+        }
+    }
+
+    /**
+     * Measures how much the Optimizer reduces the estimated and the measured evaluation cost of the derivatives of a
+     * composite function, on its own and after the Simplifier
+     */
+    private static void optimization() {
+        Function function = composite();
+        int size = 1 << 16;
+        double[] outputs = new double[size];
+        System.out.println("optimize: derivatives of " + function);
+        for (int n = 1; n <= 4; n++) {
+            Function derivative = function.derivative(n);
+            long start = System.nanoTime();
+            Function optimized = Optimizer.optimize(derivative);
+            long elapsed = System.nanoTime() - start;
+            Function simplified = Simplifier.simplify(derivative);
+            Function both = Optimizer.optimize(simplified);
+            System.out.printf("  derivative %d optimized in %.2f ms: cost %.0f, optimized %.0f, simplified %.0f, both "
+                            + "%.0f%n", n, elapsed / 1e6, Optimizer.cost(derivative), Optimizer.cost(optimized),
+                    Optimizer.cost(simplified), Optimizer.cost(both));
+            Function[] forms = {derivative, optimized, simplified, both};
+            String[] labels = {"original", "optimized", "simplified", "simplified and optimized"};
+            for (int f = 0; f < forms.length; f++) {
+                Function form = forms[f];
+                elapsed = time(() -> {
+                    for (int i = 0; i < size; i++) {
+                        outputs[i] = form.value(0.5 + 4.0 * i / size);
+                    }
+                });
+                report(labels[f] + " value(double)", size, elapsed);
+            }
+        }
+    }
+
+    /**
+     * Counts the nodes of a function as if every shared subtree were copied
+     *
+     * @param function The root of the function
+     * @param sizes    The tree size of every node already counted
+     * @return The number of nodes in the tree
+     */
+    private static double treeSize(Function function, Map<Function, Double> sizes) {
+        Double size = sizes.get(function);
+        if (size == null) {
+            size = 1.0;
+            if (function instanceof BinaryOp) {
+                size += treeSize(((BinaryOp) function).getLeftOperand(), sizes)
+                        + treeSize(((BinaryOp) function).getRightOperand(), sizes);
+            } else if (function instanceof UnaryOp) {
+                size += treeSize(((UnaryOp) function).getOperand(), sizes);
+            } else if (function instanceof NaryOp) {
+                for (Function operand : ((NaryOp) function).operands()) {
+                    size += treeSize(operand, sizes);
+                }
+            }
+            sizes.put(function, size);
+        }
+        return size;
+    }
+
+    /**
+     * Counts the node objects reachable from a function, counting a node shared by several parents once
+     *
+     * @param function The root of the function
+     * @return The number of distinct nodes
+     */
+    private static int distinctNodes(Function function) {
+        Set<Function> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Function> pending = new ArrayDeque<>();
+        pending.push(function);
+        while (!pending.isEmpty()) {
+            Function node = pending.pop();
+            if (visited.add(node)) {
+                if (node instanceof BinaryOp) {
+                    pending.push(((BinaryOp) node).getLeftOperand());
+                    pending.push(((BinaryOp) node).getRightOperand());
+                } else if (node instanceof UnaryOp) {
+                    pending.push(((UnaryOp) node).getOperand());
+                } else if (node instanceof NaryOp) {
+                    for (Function operand : ((NaryOp) node).operands()) {
+                        pending.push(operand);
+                    }
+                }
+            }
+        }
+        return visited.size();
+    }
+
+    /**
+     * @return The composite Exp[Sin[Cos[Log[(x + 1.0)^2.0]]]] used throughout FunctionTest
+     */
+    private static Function composite() {
+        return new Exp(new Sin(new Cos(new Log(new Polynomial(new BinaryOp(new Variable(), new Number(1),
+                BinaryOp.Op.PLUS), 2)))));
+    }
+
+    /**
+     * Runs a task several times after warming it up
+     *
+     * @param task The task to be timed
+     * @return The fastest time taken by the task in nanoseconds
+     */
+    private static long time(Runnable task) {
+        for (int i = 0; i < REPETITIONS; i++) {
+            task.run();
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < REPETITIONS; i++) {
+            long start = System.nanoTime();
+            task.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    /**
+     * Prints the throughput of a benchmark
+     *
+     * @param label       The name of the measured operation
+     * @param operations  The number of operations performed by each run
+     * @param nanoseconds The time taken by one run
+     */
+    private static void report(String label, long operations, long nanoseconds) {
+        System.out.printf("  %-40s %10.2f ms %12.2f Mops/s%n", label, nanoseconds / 1e6,
+                operations * 1e3 / nanoseconds);
+    }
+}
@@ -0,0 +1,1769 @@
+package cas;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.DoubleUnaryOperator;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FunctionTest {
+    @Test
+    public void testEquals() {
+        Number zero = new Number(0);
+        Number one = new Number(1);
+        Variable x = new Variable();
+        Polynomial xSquared = new Polynomial(x, 2);
+
+        //check true and false cases of equals() in the Number type
+        assertEquals(new Number(0), zero);
+        assertNotEquals(new Number(1), zero);
+
+        //check true and false cases of equals() in the Variable type
+        assertEquals(new Variable(), x);
+        assertNotEquals(new Number(1), x);
+
+        //check true and false cases of equals() in BinaryOp
+        BinaryOp xPlusOne = new BinaryOp(x, one, BinaryOp.Op.PLUS);
+        assertEquals(new BinaryOp(new Variable(), new Number(1), BinaryOp.Op.PLUS), xPlusOne);
+        assertNotEquals(xPlusOne, new BinaryOp(new Variable(), new Variable(), BinaryOp.Op.PLUS));
+
+        //check true and false case where binaryOp has flipped left and right operands but is still equivalent
+        // (1 + x) = (x + 1) but (1 / x) != (x / 1)
+        BinaryOp oneDivX = new BinaryOp(new Number(1), new Variable(), BinaryOp.Op.DIV);
+        assertEquals(new BinaryOp(new Number(1), new Variable(), BinaryOp.Op.PLUS), xPlusOne);
+        assertNotEquals(new BinaryOp(new Variable(), new Number(1), BinaryOp.Op.DIV), oneDivX);
+
+        //check equals() from UnaryOP
+        //check true and false cases of equals() in a UnaryOp type
+        UnaryOp sinX = new Sin(x);
+        assertEquals(new Sin(new Variable()), sinX);
+        assertNotEquals(new Sin(new Number(1)), sinX);
+
+        //check true and false cases of equals() in Polynomial type since it overrides UnaryOp
+        assertEquals(new Polynomial(new Variable(), 2), xSquared);
+        assertNotEquals(x, xSquared);
+
+        //check equals() in a composition of functions
+        Polynomial xPlusOneSquared = new Polynomial(xPlusOne, 2);
+        Log log = new Log(xPlusOneSquared);
+        Cos cos = new Cos(log);
+        Sin sin = new Sin(cos);
+        Exp composite = new Exp(sin);
+
+        assertEquals(new Exp(new Sin(new Cos(new Log(new Polynomial(new BinaryOp(new Variable(), new Number
+                (1), BinaryOp.Op.PLUS), 2))))), composite);
+
+        assertNotEquals(new Number(2), composite);
+
+        //check sums nested 40 deep which share every operand and differ only in their innermost operand, which
+        //would take exponential time if both operand orders were compared at every level
+        Function sum = x;
+        Function other = new Number(2);
+        for (int i = 0; i < 40; i++) {
+            sum = new BinaryOp(sum, sum, BinaryOp.Op.PLUS);
+            other = new BinaryOp(other, other, BinaryOp.Op.PLUS);
+        }
+        assertNotEquals(other, sum);
+
+        //check long products built in opposite orders, which are equal since every level swaps its operands
+        Function product = x;
+        Function swapped = new Variable();
+        for (int i = 2; i < 1000; i++) {
+            product = new BinaryOp(product, new Sin(new Number(i)), BinaryOp.Op.MULT);
+            swapped = new BinaryOp(new Sin(new Number(i)), swapped, BinaryOp.Op.MULT);
+        }
+        assertEquals(product, swapped);
+        assertNotEquals(product, new BinaryOp(swapped, new Number(1), BinaryOp.Op.DIV));
+    }
+
+    @Test
+    public void testHashCode() {
+        Variable x = new Variable();
+
+        //equivalent functions must have equal hash codes, including BinaryOps with swapped operands
+        assertEquals(new Number(0).hashCode(), new Number(-0.0).hashCode());
+        assertEquals(new Variable().hashCode(), x.hashCode());
+        assertEquals(new BinaryOp(x, new Number(1), BinaryOp.Op.PLUS).hashCode(), new BinaryOp(new Number(1), x,
+                BinaryOp.Op.PLUS).hashCode());
+        assertEquals(new BinaryOp(new Sin(x), new Polynomial(x, 2), BinaryOp.Op.MULT).hashCode(), new BinaryOp(new
+                Polynomial(new Variable(), 2), new Sin(new Variable()), BinaryOp.Op.MULT).hashCode());
+        assertEquals(new Exp(new Log(x)).hashCode(), new Exp(new Log(new Variable())).hashCode());
+
+        //functions can be used as keys of a HashMap
+        Map<Function, String> names = new HashMap<>();
+        names.put(new BinaryOp(x, new Number(1), BinaryOp.Op.DIV), "quotient");
+        names.put(new Cos(x), "cosine");
+        assertEquals("quotient", names.get(new BinaryOp(new Variable(), new Number(1), BinaryOp.Op.DIV)));
+        assertEquals("cosine", names.get(new Cos(new Variable())));
+        assertNull(names.get(new BinaryOp(new Number(1), x, BinaryOp.Op.DIV)));
+        assertNull(names.get(new Sin(x)));
+    }
+
+    @Test
+    public void testFunctionFactory() {
+        FunctionFactory factory = new FunctionFactory();
+        Variable x = factory.variable();
+
+        //structurally equivalent functions are the same instance
+        assertSame(x, factory.variable());
+        assertSame(factory.number(2), factory.number(2));
+        assertSame(factory.binaryOp(x, factory.number(1), BinaryOp.Op.PLUS), factory.binaryOp(factory.number(1), x,
+                BinaryOp.Op.PLUS));
+        assertNotSame(factory.binaryOp(x, factory.number(1), BinaryOp.Op.DIV), factory.binaryOp(factory.number(1), x,
+                BinaryOp.Op.DIV));
+        assertSame(factory.polynomial(factory.sin(x), 2), factory.polynomial(factory.sin(x), 2));
+
+        //interning separately built trees returns one canonical tree whose equivalent subtrees are shared
+        Function composite = new Exp(new Sin(new Cos(new Log(new Polynomial(new BinaryOp(new Variable(), new Number
+                (1), BinaryOp.Op.PLUS), 2)))));
+        Function canonical = factory.intern(composite);
+        assertEquals(composite, canonical);
+        assertSame(canonical, factory.intern(new Exp(new Sin(new Cos(new Log(new Polynomial(new BinaryOp(new Number(1),
+                new Variable(), BinaryOp.Op.PLUS), 2)))))));
+        assertSame(factory.exp(factory.sin(factory.cos(factory.log(factory.polynomial(factory.binaryOp(x, factory
+                .number(1), BinaryOp.Op.PLUS), 2))))), canonical);
+
+        BinaryOp product = (BinaryOp) factory.intern(new BinaryOp(new Sin(new Variable()), new Sin(new Variable()),
+                BinaryOp.Op.MULT));
+        assertSame(product.getLeftOperand(), product.getRightOperand());
+        assertSame(x, ((UnaryOp) product.getLeftOperand()).getOperand());
+
+        //simplified operands are canonical as well
+        BinaryOp negated = factory.binaryOp(factory.binaryOp(factory.number(0), x, BinaryOp.Op.SUB), x, BinaryOp.Op
+                .PLUS);
+        assertSame(factory.binaryOp(factory.number(-1), x, BinaryOp.Op.MULT), negated.getLeftOperand());
+    }
+
+    @Test
+    public void testValueWithoutInput() {
+        //represents the number Pi
+        Number pi = new Number(Math.PI);
+
+        //represents the number 1
+        Number one = new Number(1);
+
+        //represents a variable x
+        Variable x = new Variable();
+
+        //represents the function x^2
+        Polynomial xSquared = new Polynomial(new Variable(), 2);
+
+        //test a number value with no input with .0001 error to account for floating point
+        assertEquals(1, one.value(), .0001);
+
+        //test a variable value with no input to verify UnsupportedOperationException is thrown
+        try {
+            x.value();
+            fail("UnsupportedOperationException should be thrown");
+        } catch (Exception e) {
+            assertTrue(e instanceof UnsupportedOperationException);
+        }
+
+        //test a non-numeric UnaryOp with no input
+        //this behavior will occur for all non-numeric UnaryOps when calling value()
+        UnaryOp sinX = new Sin(x);
+        try {
+            sinX.value();
+            fail("The exception was not thrown.");
+        } catch (Exception e) {
+            assertTrue(e instanceof UnsupportedOperationException);
+        }
+
+        //test numeric outputs of each type:
+
+        //Sin
+        Sin sinPi = new Sin(pi);
+        assertEquals(0, sinPi.value(), .0001);
+
+        //Cos
+        Cos cosPi = new Cos(pi);
+        assertEquals(-1, cosPi.value());
+
+        //Exp
+        Exp exp0 = new Exp(new Number(0));
+        assertEquals(1, exp0.value());
+
+        //Log
+        Log log1 = new Log(new Number(1));
+        assertEquals(0, log1.value());
+
+        //BinaryOp
+        BinaryOp onePlusOne = new BinaryOp(one, one, BinaryOp.Op.PLUS);
+        assertEquals(2, onePlusOne.value());
+
+        //composite function
+        Cos cos = new Cos(new Number(0));
+        Log log = new Log(cos);
+        Sin sin = new Sin(log);
+        Exp exp = new Exp(sin);
+        assertEquals(1, exp.value());
+    }
+
+    @Test
+    public void testValueWithInput() {
+        Number pi = new Number(Math.PI);
+        Number one = new Number(1);
+        Variable x = new Variable();
+        Cos cos = new Cos(x);
+        Log log = new Log(cos);
+        Sin sin = new Sin(log);
+
+        //test value of a Number at an input value
+        assertEquals(1, one.value(123));
+        ///this should also equal the value of Number with no input
+        assertEquals(one.value(), one.value(123));
+
+        //test value of a Variable at an input value
+        assertEquals(1, x.value(1));
+
+        //test Numeric UnaryOp value at an input 0
+        //all other UnaryOps will behave in this manner since value() and value(double input) are defined identically
+        //for Numbers
+        UnaryOp test = new Sin(new Number(0));
+        assertEquals(0, test.value(0));
+
+        //test non-numeric sin value at an input 0
+        assertEquals(0, new Sin(x).value(0));
+
+        //test non-numeric Cos at an input 0
+        assertEquals(1, new Cos(x).value(0));
+
+        //test non-numeric Exp at an input 0
+        assertEquals(1, new Exp(x).value(0));
+
+        //test non-numeric Log at an input 0 and 1
+        assertEquals(Double.NEGATIVE_INFINITY, new Log(x).value(0));
+        assertEquals(0, new Log(x).value(1));
+    }
+
+    @Test
+    public void testValueArray() {
+        double[] inputs = {-2.5, -1, 0, 0.5, 1, 2, 3.75};
+        double[] outputs = new double[inputs.length];
+        Variable x = new Variable();
+
+        //every type evaluated over an array must match evaluating it one input at a time
+        Function[] functions = {new Number(3), x, new Sin(x), new Cos(x), new Exp(x), new Log(x), new Polynomial(x, 3),
+                new BinaryOp(x, new Number(2), BinaryOp.Op.PLUS), new BinaryOp(x, new Number(2), BinaryOp.Op.SUB),
+                new BinaryOp(new Number(2), x, BinaryOp.Op.MULT), new BinaryOp(new Number(1), x, BinaryOp.Op.DIV),
+                new Exp(new Sin(new Cos(new Log(new Polynomial(new BinaryOp(x, new Number(1), BinaryOp.Op.PLUS), 2)))))};
+        for (Function function : functions) {
+            function.value(inputs, outputs);
+            for (int i = 0; i < inputs.length; i++) {
+                assertEquals(function.value(inputs[i]), outputs[i], function.toString());
+            }
+        }
+
+        //an empty input array leaves the output untouched
+        new Sin(x).value(new double[0], outputs);
+        assertEquals(new Exp(new Sin(new Cos(new Log(new Polynomial(new BinaryOp(x, new Number(1), BinaryOp.Op.PLUS),
+                2))))).value(inputs[0]), outputs[0]);
+
+        //nested right operands each borrow their own scratch array, and every array is returned, even on a failure
+        Function nested = x;
+        for (int k = 0; k < 40; k++) {
+            nested = new BinaryOp(new Sin(x), k % 2 == 0 ? nested : new Sum(new Cos(x), nested, x), BinaryOp.Op.SUB);
+        }
+        BatchWorkspace workspace = BatchWorkspace.current();
+        double[] top = workspace.borrow(inputs.length);
+        workspace.release();
+        nested.value(inputs, outputs);
+        for (int i = 0; i < inputs.length; i++) {
+            assertEquals(nested.value(inputs[i]), outputs[i]);
+        }
+        Function failing = new BinaryOp(x, new Sin(new Variable("y", 1)), BinaryOp.Op.PLUS);
+        assertThrows(UnsupportedOperationException.class, () -> failing.value(inputs, outputs));
+        assertSame(top, workspace.borrow(inputs.length));
+        workspace.release();
+    }
+
+    @Test
+    public void testFunctionSampler() {
+        Function composite = new Exp(new Sin(new Cos(new Log(new Polynomial(new BinaryOp(new Variable(), new Number(1),
+                BinaryOp.Op.PLUS), 2)))));
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            for (Function function : new Function[]{composite, composite.derivative(2)}) {
+                for (int n : new int[]{1, 2, FunctionSampler.BLOCK + 3, 100003}) {
+                    //every sample is identical to evaluating the function at the same point one at a time
+                    double[] expected = new double[n];
+                    for (int i = 0; i < n; i++) {
+                        expected[i] = function.value(FunctionSampler.point(-2, 5, n, i));
+                    }
+                    assertArrayEquals(expected, FunctionSampler.sample(function, -2, 5, n));
+                    double[] outputs = new double[n];
+                    FunctionSampler.sample(function, -2, 5, outputs, pool);
+                    assertArrayEquals(expected, outputs);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        //ranges are split at whole blocks, so only the last block of the grid is partial
+        int block = FunctionSampler.BLOCK;
+        int[][] ranges = {{0, block + 1}, {0, 2 * block}, {0, 100003}, {3 * block, 3 * block + 5000},
+                {0, Integer.MAX_VALUE}};
+        for (int[] range : ranges) {
+            int middle = FunctionSampler.split(range[0], range[1]);
+            assertEquals(0, middle % block, range[0] + " to " + range[1]);
+            assertTrue(range[0] < middle && middle < range[1], range[0] + " to " + range[1]);
+        }
+        assertEquals(12 * block, FunctionSampler.split(0, 100003));
+
+        //the grid starts at a and ends exactly at b
+        assertEquals(0.1, FunctionSampler.point(0.1, 0.7, 7, 0));
+        assertEquals(0.7, FunctionSampler.point(0.1, 0.7, 7, 6));
+        assertEquals(0.1, FunctionSampler.point(0.1, 0.7, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> FunctionSampler.sample(composite, 0, 1, 0));
+    }
+
+    @Test
+    public void testFunctionIntegrator() {
+        Variable x = new Variable();
+
+        //polynomials of low degree are integrated exactly by a single pair of rules
+        FunctionIntegrator.Result square = FunctionIntegrator.integrate(new Polynomial(x, 2), 0, 3);
+        assertEquals(9, square.getValue(), 1e-13);
+        assertEquals(15, square.getEvaluations());
+        assertTrue(square.isConverged());
+
+        //smooth integrands, and reversed or empty bounds
+        assertEquals(Math.E - 1, FunctionIntegrator.integrate(new Exp(x), 0, 1).getValue(), 1e-10);
+        assertEquals(2, FunctionIntegrator.integrate(new Sin(x), 0, Math.PI).getValue(), 1e-10);
+        assertEquals(-2, FunctionIntegrator.integrate(new Sin(x), Math.PI, 0).getValue(), 1e-10);
+        assertEquals(0, FunctionIntegrator.integrate(new Sin(x), 1, 1).getValue());
+
+        //a narrow peak needs more evaluations, and the error stays within the tolerance
+        Function peak = new Exp(new BinaryOp(new Number(-10000), new Polynomial(x, 2), BinaryOp.Op.MULT));
+        FunctionIntegrator.Result result = FunctionIntegrator.integrate(peak, -1, 1, 1e-9);
+        assertTrue(result.isConverged());
+        assertEquals(Math.sqrt(Math.PI / 10000), result.getValue(), 1e-9);
+        assertTrue(result.getEvaluations() > 15, result.toString());
+
+        //an integrable singularity at an endpoint is refined towards the endpoint
+        result = FunctionIntegrator.integrate(new Log(x), 0, 1, 1e-8);
+        assertEquals(-1, result.getValue(), 1e-8);
+
+        //the result does not depend on the number of threads
+        ForkJoinPool pool = new ForkJoinPool(3);
+        ForkJoinPool single = new ForkJoinPool(1);
+        try {
+            FunctionIntegrator.Result parallel = FunctionIntegrator.integrate(peak, -1, 1, 1e-9, FunctionIntegrator
+                    .DEFAULT_MAX_EVALUATIONS, pool);
+            FunctionIntegrator.Result serial = FunctionIntegrator.integrate(peak, -1, 1, 1e-9, FunctionIntegrator
+                    .DEFAULT_MAX_EVALUATIONS, single);
+            assertEquals(serial.getValue(), parallel.getValue());
+            assertEquals(serial.getEvaluations(), parallel.getEvaluations());
+        } finally {
+            pool.shutdown();
+            single.shutdown();
+        }
+
+        //an integrand which is not finite, or which needs more than the budget, does not converge
+        assertFalse(FunctionIntegrator.integrate(new Log(x), -1, 1).isConverged());
+        result = FunctionIntegrator.integrate(peak, -1, 1, 1e-9, 100, ForkJoinPool.commonPool());
+        assertFalse(result.isConverged());
+        assertTrue(result.getEvaluations() <= 100 + 15, result.toString());
+        assertThrows(IllegalArgumentException.class, () -> FunctionIntegrator.integrate(x, 0, 1, 0));
+    }
+
+    @Test
+    public void testRootFinder() {
+        Variable x = new Variable();
+
+        //roots inside grid cells are refined to full precision, in increasing order
+        double[] roots = RootFinder.roots(new Sin(x), -1, 10);
+        assertEquals(4, roots.length);
+        for (int k = 0; k < roots.length; k++) {
+            assertEquals(k * Math.PI, roots[k], 1e-15 * (1 + k * Math.PI));
+        }
+        roots = RootFinder.roots(new BinaryOp(new Polynomial(x, 2), new Number(2), BinaryOp.Op.SUB), 3, -3);
+        assertArrayEquals(new double[]{-Math.sqrt(2), Math.sqrt(2)}, roots, 1e-15);
+        assertArrayEquals(new double[]{1}, RootFinder.roots(new Log(x), 0.5, 3), 1e-15);
+
+        //a root on the grid is found once, and a function without a sign change has no roots
+        assertArrayEquals(new double[]{0}, RootFinder.roots(new Polynomial(x, 3), -1, 1));
+        assertEquals(0, RootFinder.roots(new Exp(x), -5, 5).length);
+
+        //a sign change through a pole is not a root
+        assertEquals(0, RootFinder.roots(new BinaryOp(new Number(1), x, BinaryOp.Op.DIV), -1, 2).length);
+        Function tan = new BinaryOp(new Sin(x), new Cos(x), BinaryOp.Op.DIV);
+        assertArrayEquals(new double[]{Math.PI}, RootFinder.roots(tan, 0.5, 4.5), 1e-15);
+        assertArrayEquals(new double[]{0, Math.PI}, RootFinder.roots(tan, -1, 4), 1e-15);
+
+        //Newton steps which leave the cell fall back to bisection
+        Function steep = new BinaryOp(new Exp(new BinaryOp(new Number(50), x, BinaryOp.Op.MULT)), new Number(3),
+                BinaryOp.Op.SUB);
+        assertArrayEquals(new double[]{Math.log(3) / 50}, RootFinder.roots(steep, -1, 1, 1), 1e-15);
+
+        //extrema are the roots of the derivative, refined with the second derivative
+        double[] extrema = RootFinder.extrema(new Cos(x), -1, 7);
+        assertArrayEquals(new double[]{0, Math.PI, 2 * Math.PI}, extrema, 1e-14);
+        Function shifted = new Polynomial(new BinaryOp(x, new Number(0.25), BinaryOp.Op.SUB), 2);
+        assertArrayEquals(new double[]{0.25}, RootFinder.extrema(shifted, -3, 3), 1e-15);
+
+        //many functions are solved at once, in order
+        List<Function> functions = new ArrayList<>();
+        for (int k = 0; k < 2000; k++) {
+            functions.add(new BinaryOp(new Sin(x), new Number(k / 2000.0), BinaryOp.Op.SUB));
+        }
+        List<double[]> solutions = RootFinder.roots(functions, -0.5, Math.PI / 2);
+        assertEquals(functions.size(), solutions.size());
+        for (int k = 0; k < functions.size(); k++) {
+            assertEquals(Math.asin(k / 2000.0), solutions.get(k)[0], 1e-12);
+        }
+        List<double[]> maxima = RootFinder.extrema(functions.subList(0, 10), 0, 3);
+        for (double[] maximum : maxima) {
+            assertArrayEquals(new double[]{Math.PI / 2}, maximum, 1e-15);
+        }
+        assertThrows(IllegalArgumentException.class, () -> RootFinder.roots(x, 0, 1, 0));
+    }
+
+    @Test
+    public void testCompile() {
+        Variable x = new Variable();
+        Function composite = new Exp(new Sin(new Cos(new Log(new Polynomial(new BinaryOp(x, new Number(1), BinaryOp.Op
+                .PLUS), 2)))));
+        Function quotient = new BinaryOp(new BinaryOp(x, new Number(0.5), BinaryOp.Op.SUB), new BinaryOp(new Number(3),
+                new Polynomial(x, -1.5), BinaryOp.Op.MULT), BinaryOp.Op.DIV);
+
+        //a subclass of Sin may evaluate differently, so it is interpreted rather than compiled
+        Function interpreted = new BinaryOp(new Sin(x) {
+            @Override
+            public double value(double input) {
+                return 2 * input;
+            }
+        }, new Number(1), BinaryOp.Op.PLUS);
+
+        //a sum too long to be JIT compiled is evaluated by the function itself
+        Function sum = x;
+        for (int i = 0; i < 2500; i++) {
+            sum = new BinaryOp(sum, new Number(i), BinaryOp.Op.PLUS);
+        }
+
+        Function[] functions = {new Number(-0.0), x, composite, quotient, composite.derivative(), interpreted, sum};
+        for (Function function : functions) {
+            DoubleUnaryOperator compiled = FunctionCompiler.compile(function);
+            String name = function.toString();
+            for (double input = -3; input <= 3; input += 0.25) {
+                assertEquals(function.value(input), compiled.applyAsDouble(input), name);
+            }
+        }
+        assertEquals(7, FunctionCompiler.compile(interpreted).applyAsDouble(3));
+
+        //shared subterms of a high derivative are emitted once each, so it still fits in a JIT compiled method
+        Function fourth = composite.derivative(4);
+        DoubleUnaryOperator shared = FunctionCompiler.compile(fourth);
+        assertTrue(shared.getClass().getName().startsWith("CompiledFunction$"), shared.getClass().getName());
+        for (double input = -0.75; input <= 3; input += 0.25) {
+            assertEquals(fourth.value(input), shared.applyAsDouble(input));
+        }
+        Sin sin = new Sin(x);
+        assertEquals(Math.sin(2) * Math.sin(2), FunctionCompiler.compile(new BinaryOp(sin, sin, BinaryOp.Op.MULT))
+                .applyAsDouble(2));
+    }
+
+    @Test
+    public void testPostfixProgram() {
+        Variable x = new Variable();
+        Function composite = new Exp(new Sin(new Cos(new Log(new Polynomial(new BinaryOp(x, new Number(1), BinaryOp.Op
+                .PLUS), 2)))));
+        Function quotient = new BinaryOp(new BinaryOp(x, new Number(0.5), BinaryOp.Op.SUB), new BinaryOp(new Number(3),
+                new Polynomial(x, -1.5), BinaryOp.Op.MULT), BinaryOp.Op.DIV);
+        Function called = new BinaryOp(new Number(1), new Cos(x) {
+            @Override
+            public double value(double input) {
+                return 3 * input;
+            }
+        }, BinaryOp.Op.SUB);
+
+        //a program must compute exactly the same values as the function it was compiled from
+        for (Function function : new Function[]{new Number(4), x, composite, quotient, composite.derivative(), called}) {
+            PostfixProgram program = PostfixProgram.compile(function);
+            double[] stack = program.newStack();
+            for (double input = -3; input <= 3; input += 0.25) {
+                assertEquals(function.value(input), program.value(input));
+                assertEquals(function.value(input), program.value(input, stack));
+            }
+        }
+        assertEquals(-5, PostfixProgram.compile(called).value(2));
+        assertEquals(1, PostfixProgram.compile(new Polynomial(x, 2)).getMaxStack());
+        assertEquals(3, PostfixProgram.compile(quotient).getMaxStack());
+
+        //shared subterms of a high derivative are compiled once each, not once for every path which reaches them
+        Function eighth = composite.derivative(8);
+        PostfixProgram shared = PostfixProgram.compile(eighth);
+        CompactExpression nodes = CompactExpression.of(eighth);
+        assertTrue(shared.length() < 8 * nodes.size(), shared.length() + " words for " + nodes.size() + " nodes");
+        for (double input = -0.75; input <= 3; input += 0.25) {
+            assertEquals(nodes.value(input), shared.value(input));
+        }
+        Sin sin = new Sin(x);
+        PostfixProgram square = PostfixProgram.compile(new BinaryOp(sin, sin, BinaryOp.Op.MULT));
+        assertEquals(Math.sin(2) * Math.sin(2), square.value(2));
+        assertEquals(7, square.length());
+
+        //a sum nested too deeply to evaluate recursively, evaluated by several threads at once
+        Function sum = x;
+        for (int i = 1; i <= 100000; i++) {
+            sum = new BinaryOp(sum, new Number(i), BinaryOp.Op.PLUS);
+        }
+        PostfixProgram program = PostfixProgram.compile(sum);
+        assertEquals(2, program.getMaxStack());
+        double expected = 100000.0 * 100001 / 2;
+        assertEquals(64, IntStream.range(0, 64).parallel().filter(i -> program.value(i) == expected + i).count());
+    }
+
+    @Test
+    public void testCompactExpression() {
+        Variable x = new Variable();
+        Function composite = new Exp(new Sin(new Cos(new Log(new Polynomial(new BinaryOp(x, new Number(1), BinaryOp.Op
+                .PLUS), 2)))));
+        Function called = new BinaryOp(new Log(x) {
+            @Override
+            public double value(double input) {
+                return input / 2;
+            }
+        }, new Number(3), BinaryOp.Op.MULT);
+
+        //converting to the compact representation and back must give an equivalent function with the same values
+        for (Function function : new Function[]{new Number(4), x, composite, composite.derivative(2), called}) {
+            CompactExpression expression = CompactExpression.of(function);
+            assertEquals(function, expression.toFunction());
+            for (double input = -3; input <= 3; input += 0.25) {
+                assertEquals(function.value(input), expression.value(input));
+            }
+        }
+        assertEquals(6, CompactExpression.of(called).value(4));
+        //each node takes a type, two operand indexes, a constant and a flag, and then a value and an adjoint for each
+        //thread which evaluates it or computes its gradient
+        CompactExpression compact = CompactExpression.of(composite);
+        assertEquals(18 * 8, compact.bytes());
+        compact.value(1);
+        compact.value(2);
+        assertEquals(26 * 8, compact.bytes());
+        compact.gradient(new double[]{1}, new double[1]);
+        assertEquals(34 * 8, compact.bytes());
+
+        //a node shared by several parents is stored once and is shared again after converting back
+        Sin sin = new Sin(x);
+        CompactExpression product = CompactExpression.of(new BinaryOp(sin, sin, BinaryOp.Op.MULT));
+        assertEquals(3, product.size());
+        BinaryOp converted = (BinaryOp) product.toFunction();
+        assertSame(converted.getLeftOperand(), converted.getRightOperand());
+
+        //a sum nested too deeply to evaluate recursively
+        Function sum = x;
+        for (int i = 1; i <= 100000; i++) {
+            sum = new BinaryOp(sum, new Number(i), BinaryOp.Op.PLUS);
+        }
+        CompactExpression expression = CompactExpression.of(CompactExpression.of(sum).toFunction());
+        assertEquals(200001, expression.size());
+        assertEquals(100000.0 * 100001 / 2 + 3, expression.value(3));
+    }
+
+    @Test
+    public void testDerivative() {
+        //test derivative of a Number
+        Number six = new Number(6);
+        assertEquals(new Number(0), six.derivative());
+
+        //test derivative of a Variable
+        Variable x = new Variable();
+        assertEquals(new Number(1), x.derivative());
+
+        //test derivative of a Sin Function
+        Sin sin = new Sin(x);
+        assertEquals(new BinaryOp(new Cos(x), x.derivative(), BinaryOp.Op.MULT), sin.derivative());
+
+        //test derivative of Cos function
+        Cos cos = new Cos(x);
+        assertEquals(new BinaryOp(new BinaryOp(new Number(-1), new Sin(x), BinaryOp.Op.MULT), x.derivative(), BinaryOp
+                .Op.MULT), cos.derivative());
+
+        //test derivative of a Log function
+        Log log = new Log(x);
+        assertEquals(new BinaryOp(new BinaryOp(new Number(1), x, BinaryOp.Op.DIV), new Number(1), BinaryOp.Op.MULT),
+                log.derivative());
+
+        //test derivative of an Exp function
+        Exp exp = new Exp(x);
+        assertEquals(new BinaryOp(exp, new Number(1), BinaryOp.Op.MULT), exp.derivative());
+
+        //test derivative of a Polynomial function
+        Polynomial poly = new Polynomial(x, 2);
+        assertEquals(new BinaryOp(new BinaryOp(new Number(2), new Polynomial(x, 1), BinaryOp.Op.MULT),
+                new Number(1), BinaryOp.Op.MULT), poly.derivative());
+
+        //test BinaryOp derivatives including addition, subtraction, product, and quotient rules
+        Number one = new Number(1);
+        BinaryOp add = new BinaryOp(x, one, BinaryOp.Op.PLUS);
+        BinaryOp sub = new BinaryOp(x, one, BinaryOp.Op.SUB);
+        BinaryOp product = new BinaryOp(add, sub, BinaryOp.Op.MULT);
+        BinaryOp quotient = new BinaryOp(add, sub, BinaryOp.Op.DIV);
+
+        //add
+        assertEquals(new BinaryOp(new Number(1), new Number(0), BinaryOp.Op.PLUS), add.derivative());
+        //sub
+        assertEquals(new BinaryOp(new Number(1), new Number(0), BinaryOp.Op.SUB), sub.derivative());
+        //product
+        assertEquals(new BinaryOp(new BinaryOp(add.derivative(), sub, BinaryOp.Op.MULT), new BinaryOp(add,
+                sub.derivative(), BinaryOp.Op.MULT), BinaryOp.Op.PLUS), product.derivative());
+        //quotient
+        assertEquals(new BinaryOp(new BinaryOp(new BinaryOp(add.derivative(), sub, BinaryOp.Op.MULT), new BinaryOp(add,
+                        sub.derivative(), BinaryOp.Op.MULT), BinaryOp.Op.SUB), new Polynomial(sub, 2), BinaryOp.Op.DIV),
+                quotient.derivative());
+
+    }
+
+    @Test
+    public void testNthDerivative() {
+        Variable x = new Variable();
+        Function composite = new Exp(new Sin(new Cos(new Log(new Polynomial(new BinaryOp(x, new Number(1), BinaryOp.Op
+                .PLUS), 2)))));
+
+        //the zeroth derivative is the function itself, and the nth derivative differentiates n times
+        assertSame(composite, composite.derivative(0));
+        assertEquals(new Number(0), new Number(6).derivative(2));
+        assertEquals(composite.derivative().derivative().derivative(), composite.derivative(3));
+        assertEquals(new BinaryOp(new BinaryOp(new Number(3), new Polynomial(x, 2), BinaryOp.Op.MULT), new Number(1),
+                BinaryOp.Op.MULT).derivative(), new Polynomial(x, 3).derivative(2));
+        try {
+            composite.derivative(-1);
+            fail("IllegalArgumentException should be thrown");
+        } catch (Exception e) {
+            assertTrue(e instanceof IllegalArgumentException);
+        }
+
+        //derivatives are cached, so they are shared by repeated calls and by lower derivatives
+        assertSame(composite.derivative(), composite.derivative());
+        assertSame(composite.derivative(4), composite.derivative(2).derivative(2));
+
+        //an operand shared by both sides of a product is differentiated once
+        Sin sin = new Sin(x);
+        BinaryOp product = (BinaryOp) new BinaryOp(sin, sin, BinaryOp.Op.MULT).derivative();
+        assertSame(((BinaryOp) product.getLeftOperand()).getLeftOperand(), ((BinaryOp) product.getRightOperand())
+                .getLeftOperand());
+    }
+
+    @Test
+    public void testValueAndDerivative() {
+        Variable x = new Variable();
+        BinaryOp xPlusOne = new BinaryOp(x, new Number(1), BinaryOp.Op.PLUS);
+        Function[] functions = {new Number(6), x, new Sin(x), new Cos(x), new Exp(x), new Log(x), new Polynomial(x,
+                2.5), new BinaryOp(new Sin(x), xPlusOne, BinaryOp.Op.MULT), new BinaryOp(new Exp(x), xPlusOne, BinaryOp
+                .Op.DIV), new BinaryOp(new Cos(x), new Polynomial(x, 3), BinaryOp.Op.SUB), new Exp(new Sin(new Cos(new
+                Log(new Polynomial(xPlusOne, 2)))))};
+        double[] derivative = new double[1];
+
+        //the value and derivative in one walk must match value(double input) of the function and its derivative
+        for (Function function : functions) {
+            for (double input = 0.25; input < 3; input += 0.5) {
+                assertEquals(function.value(input), function.valueAndDerivative(input, derivative));
+                double expected = function.derivative().value(input);
+                assertEquals(expected, derivative[0], 1e-12 * Math.max(1, Math.abs(expected)), function.toString());
+            }
+        }
+
+        //the first several derivatives must match repeated symbolic derivatives
+        for (Function function : functions) {
+            for (double input = 0.25; input < 3; input += 0.5) {
+                double[] derivatives = function.derivatives(input, 4);
+                assertEquals(5, derivatives.length);
+                for (int k = 0; k <= 4; k++) {
+                    double expected = function.derivative(k).value(input);
+                    assertEquals(expected, derivatives[k], 1e-9 * Math.max(1, Math.abs(expected)), function + " " + k);
+                }
+            }
+        }
+
+        //a whole number power of an operand which is zero at the input
+        assertArrayEquals(new double[]{0, 0, 0, 6, 0}, new Polynomial(x, 3).derivatives(0, 4));
+        assertArrayEquals(new double[]{Math.sin(2)}, new Sin(x).derivatives(2, 0));
+
+        //a constant subtree has a zero derivative in every mode, though the rules for its operands give NaN
+        Function[] constants = {new Polynomial(new Number(0), 0.5), new Polynomial(new Number(0), 2.5),
+                new Log(new Log(new Polynomial(new Number(1), 0.5))), new Polynomial(new Log(x), 0)};
+        double[] gradient = new double[1];
+        for (Function constant : constants) {
+            assertTrue(constant.isConstant());
+            assertEquals(0, constant.derivative().value(1.5));
+            assertEquals(constant.value(1.5), constant.valueAndDerivative(1.5, derivative));
+            assertEquals(0, derivative[0]);
+            assertArrayEquals(new double[]{constant.value(1.5), 0, 0}, constant.derivatives(1.5, 2));
+            Function[] uses = {constant, new BinaryOp(x, constant, BinaryOp.Op.MULT), new BinaryOp(new Exp(x),
+                    constant, BinaryOp.Op.PLUS), new Sum(x, constant, new Sin(x)), new Product(x, constant,
+                    new Exp(x))};
+            for (Function use : uses) {
+                double expected = use.derivative().value(1.5);
+                use.valueAndDerivative(1.5, derivative);
+                assertEquals(expected, derivative[0], 1e-12 * Math.max(1, Math.abs(expected)), use.toString());
+                assertEquals(expected, use.derivatives(1.5, 2)[1], 1e-12 * Math.max(1, Math.abs(expected)),
+                        use.toString());
+                CompactExpression.of(use).gradient(new double[]{1.5}, gradient);
+                assertEquals(expected, gradient[0], 1e-12 * Math.max(1, Math.abs(expected)), use.toString());
+            }
+        }
+        assertFalse(new Polynomial(x, 2).isConstant());
+        try {
+            x.derivatives(0, -1);
+            fail("IllegalArgumentException should be thrown");
+        } catch (Exception e) {
+            assertTrue(e instanceof IllegalArgumentException);
+        }
+    }
+
+    @Test
+    public void testValueInterval() {
+        Variable x = new Variable();
+        Function composite = new Exp(new Sin(new Cos(new Log(new Polynomial(new BinaryOp(x, new Number(1),
+                BinaryOp.Op.PLUS), 2)))));
+        Function[] functions = {composite, composite.derivative(), composite.derivative(2), new Sin(x), new Cos(x),
+                new BinaryOp(new Number(1), new BinaryOp(x, new Number(1), BinaryOp.Op.SUB), BinaryOp.Op.DIV),
+                new Log(new BinaryOp(x, new Number(1), BinaryOp.Op.SUB)), new Polynomial(x, 0.5),
+                new Polynomial(x, -2), new Polynomial(x, 3), new Polynomial(x, -1),
+                new BinaryOp(new Sin(new BinaryOp(x, new Number(10), BinaryOp.Op.MULT)), new Exp(x), BinaryOp.Op.MULT)};
+
+        //the bounds contain the value at every input, and any input where the value is NaN is flagged
+        Random random = new Random(15);
+        for (Function function : functions) {
+            for (int trial = 0; trial < 200; trial++) {
+                double lo = -5 + 10 * random.nextDouble();
+                double hi = lo + Math.pow(10, -6 + 7 * random.nextDouble());
+                Interval bounds = function.valueInterval(lo, hi);
+                for (int i = 0; i <= 50; i++) {
+                    double value = function.value(FunctionSampler.point(lo, hi, 51, i));
+                    if (Double.isNaN(value)) {
+                        assertTrue(bounds.mayBeUndefined(), function + " on [" + lo + ", " + hi + "]");
+                    } else {
+                        assertTrue(bounds.contains(value), function + " on [" + lo + ", " + hi + "] is " + bounds
+                                + " but is " + value + " at " + FunctionSampler.point(lo, hi, 51, i));
+                    }
+                }
+            }
+        }
+
+        //bounds are tight for monotone functions and include the extrema of periodic ones
+        Interval bounds = new Exp(x).valueInterval(0, 1);
+        assertEquals(1, bounds.getLo(), 1e-15);
+        assertEquals(Math.E, bounds.getHi(), 1e-15);
+        assertFalse(bounds.mayBeUndefined());
+        bounds = new Sin(x).valueInterval(0, Math.PI);
+        assertEquals(1, bounds.getHi());
+        assertEquals(0, bounds.getLo(), 1e-15);
+        assertEquals(-1, new Cos(x).valueInterval(3, 3.5).getLo());
+        bounds = new Polynomial(x, 2).valueInterval(-3, 2);
+        assertEquals(0, bounds.getLo());
+        assertEquals(9, bounds.getHi(), 1e-14);
+
+        //logarithms of nonpositive numbers and quotients by zero are flagged
+        assertTrue(new Log(x).valueInterval(-1, 1).mayBeUndefined());
+        assertFalse(new Log(x).valueInterval(1, 2).mayBeUndefined());
+        assertTrue(new Log(x).valueInterval(-2, -1).isEmpty());
+        Function reciprocal = new BinaryOp(new Number(1), x, BinaryOp.Op.DIV);
+        assertTrue(reciprocal.valueInterval(-1, 1).mayBeUndefined());
+        bounds = reciprocal.valueInterval(1, 2);
+        assertFalse(bounds.mayBeUndefined());
+        assertEquals(0.5, bounds.getLo(), 1e-15);
+        assertEquals(1, bounds.getHi(), 1e-15);
+        assertTrue(new Polynomial(x, 0.5).valueInterval(-1, 4).mayBeUndefined());
+        assertTrue(new Number(Double.NaN).valueInterval(0, 1).isEmpty());
+
+        //negative powers of zero, sines of infinite bounds and sums of opposite infinities are flagged
+        assertTrue(new Polynomial(x, -1).valueInterval(-1, 1).mayBeUndefined());
+        assertFalse(new Polynomial(x, -1).valueInterval(1, 2).mayBeUndefined());
+        assertTrue(new Sin(new Polynomial(new Number(0), -1)).valueInterval(0, 1).mayBeUndefined());
+        assertTrue(new Cos(new BinaryOp(new Number(1), x, BinaryOp.Op.DIV)).valueInterval(0, 1).mayBeUndefined());
+        Function huge = new Exp(new Polynomial(x, 2));
+        assertTrue(new BinaryOp(huge, new Exp(new Polynomial(x, 2)), BinaryOp.Op.SUB).valueInterval(27, 28)
+                .mayBeUndefined());
+        assertTrue(new BinaryOp(huge, new BinaryOp(new Number(-1), huge, BinaryOp.Op.MULT), BinaryOp.Op.PLUS)
+                .valueInterval(27, 28).mayBeUndefined());
+        assertFalse(new BinaryOp(huge, huge, BinaryOp.Op.PLUS).valueInterval(27, 28).mayBeUndefined());
+        assertFalse(new BinaryOp(huge, new Exp(new Polynomial(x, 2)), BinaryOp.Op.SUB).valueInterval(0, 1)
+                .mayBeUndefined());
+        assertThrows(IllegalArgumentException.class, () -> x.valueInterval(1, 0));
+    }
+
+    @Test
+    public void testChebyshev() {
+        Variable x = new Variable();
+        Function composite = new Exp(new Sin(new Cos(new Log(new Polynomial(new BinaryOp(x, new Number(1),
+                BinaryOp.Op.PLUS), 2)))));
+
+        //the approximation meets the tolerance between the points it was built from
+        for (double tolerance : new double[]{1e-4, 1e-8, 1e-12}) {
+            Chebyshev approximation = Chebyshev.approximate(composite, 0.5, 4.5, tolerance);
+            assertTrue(approximation.getMaxError() <= tolerance, approximation.getMaxError() + " > " + tolerance);
+            Random random = new Random(16);
+            for (int i = 0; i < 1000; i++) {
+                double input = 0.5 + 4 * random.nextDouble();
+                assertEquals(composite.value(input), approximation.value(input), 2 * tolerance);
+            }
+        }
+
+        //polynomials are reproduced by a series of their own degree, and a constant by a single coefficient
+        Chebyshev cubic = Chebyshev.approximate(new BinaryOp(new Polynomial(x, 3), x, BinaryOp.Op.SUB), -2, 3, 1e-12);
+        assertEquals(3, cubic.getDegree());
+        assertEquals(6, cubic.value(2), 1e-12);
+        assertEquals(0, Chebyshev.approximate(new Number(4), 0, 1, 1e-12).getDegree());
+
+        //the series is an ordinary Function: it can be combined, differentiated and compiled
+        Chebyshev approximation = Chebyshev.approximate(composite, 0.5, 4.5, 1e-12);
+        Function shifted = new BinaryOp(approximation, new Number(1), BinaryOp.Op.PLUS);
+        assertEquals(composite.value(2) + 1, shifted.value(2), 1e-11);
+        assertEquals(composite.derivative().value(2), approximation.derivative().value(2), 1e-8);
+        assertTrue(Double.isNaN(((Chebyshev) approximation.derivative()).getMaxError()));
+        assertEquals(approximation.value(3), FunctionCompiler.compile(shifted).applyAsDouble(3) - 1, 1e-15);
+        assertEquals(approximation, Chebyshev.approximate(composite, 0.5, 4.5, 1e-12));
+        assertEquals("Chebyshev[x, 0.5, 4.5, " + approximation.getDegree() + "]", approximation.toString());
+
+        //a tolerance below rounding error is reported as not met, and a function which is not finite is rejected
+        Chebyshev limited = Chebyshev.approximate(new Exp(x), 0, 1, 1e-30);
+        assertTrue(limited.getMaxError() > 1e-30);
+        assertThrows(IllegalArgumentException.class, () -> Chebyshev.approximate(new Log(x), -1, 1, 1e-6));
+        assertThrows(IllegalArgumentException.class, () -> Chebyshev.approximate(x, 1, 1, 1e-6));
+    }
+
+    @Test
+    public void testInstrumentation() {
+        Assumptions.assumeTrue(Instrumentation.ENABLED, "Run with -Dcas.instrumentation=true");
+        Instrumentation.reset();
+        Variable x = new Variable();
+
+        //sin(x) * 2.0 visits one node of each type in one call
+        Function product = new BinaryOp(new Sin(x), new Number(2), BinaryOp.Op.MULT);
+        assertEquals(2 * Math.sin(0.5), product.value(0.5));
+        assertEquals(1, Instrumentation.getCalls());
+        assertEquals(4, Instrumentation.getVisits());
+        assertEquals(4, Instrumentation.getMaxVisits());
+        assertEquals(1, Instrumentation.getVisits(BinaryOp.Op.MULT));
+        assertEquals(0, Instrumentation.getVisits(BinaryOp.Op.PLUS));
+        assertEquals(1, Instrumentation.getVisits(Sin.class));
+        assertEquals(1, Instrumentation.getVisits(Variable.class));
+        assertEquals(1, Instrumentation.getVisits(Number.class));
+
+        //a constant function is traced through value() as well
+        Function constant = new BinaryOp(new Cos(new Number(0)), new Exp(new Number(0)), BinaryOp.Op.PLUS);
+        assertEquals(2, constant.value());
+        assertEquals(2, Instrumentation.getCalls());
+        assertEquals(9, Instrumentation.getVisits());
+        assertEquals(5, Instrumentation.getMaxVisits());
+
+        //a call which throws still ends, so the next call is counted on its own
+        assertThrows(UnsupportedOperationException.class, product::value);
+        assertEquals(3, Instrumentation.getCalls());
+        assertEquals(2 * Math.sin(1), product.value(1));
+        assertEquals(4, Instrumentation.getCalls());
+        assertEquals(3, Instrumentation.getVisits(BinaryOp.Op.MULT));
+
+        //the derivative of sin(x) allocates a Cos and a product, and that of x allocates 1.0
+        Function sine = new Sin(new Variable());
+        assertEquals(0, Instrumentation.getAllocations());
+        sine.derivative();
+        assertEquals(2, Instrumentation.getAllocations(Sin.class));
+        assertEquals(1, Instrumentation.getAllocations(Variable.class));
+        assertEquals(3, Instrumentation.getAllocations());
+        sine.derivative();
+        assertEquals(3, Instrumentation.getAllocations());
+        new BinaryOp(x, x, BinaryOp.Op.DIV).derivative();
+        assertTrue(Instrumentation.getAllocations(BinaryOp.Op.DIV) > 0);
+
+        //each rule is counted once for each operand it simplifies, including those simplified by derivative()
+        Instrumentation.reset();
+        for (Instrumentation.Rule rule : Instrumentation.Rule.values()) {
+            assertEquals(0, Instrumentation.getSimplifications(rule));
+        }
+        new BinaryOp(new BinaryOp(x, new Number(0), BinaryOp.Op.PLUS), new BinaryOp(new Number(0), x,
+                BinaryOp.Op.PLUS), BinaryOp.Op.MULT);
+        new BinaryOp(x, new BinaryOp(new Number(0), x, BinaryOp.Op.SUB), BinaryOp.Op.PLUS);
+        new BinaryOp(new BinaryOp(x, new Number(1), BinaryOp.Op.DIV), x, BinaryOp.Op.SUB);
+        assertEquals(2, Instrumentation.getSimplifications(Instrumentation.Rule.ZERO_SUM));
+        assertEquals(1, Instrumentation.getSimplifications(Instrumentation.Rule.NEGATION));
+        assertEquals(1, Instrumentation.getSimplifications(Instrumentation.Rule.UNIT_QUOTIENT));
+        assertEquals(0, Instrumentation.getSimplifications(Instrumentation.Rule.ZERO_PRODUCT));
+        assertEquals(BinaryOp.Op.SUB, Instrumentation.Rule.NEGATION.getOperator());
+        assertTrue(Instrumentation.report().contains("simplified by ZERO_SUM: 2"));
+
+        Instrumentation.reset();
+        assertEquals(0, Instrumentation.getCalls());
+        assertEquals(0, Instrumentation.getVisits());
+        assertEquals(0, Instrumentation.getAllocations(Sin.class));
+        assertEquals(0, Instrumentation.getSimplifications(Instrumentation.Rule.ZERO_SUM));
+    }
+
+    @Test
+    public void testSumAndProduct() throws IOException {
+        Variable x = new Variable();
+        Function sin = new Sin(x);
+        Function[] terms = {x, new Number(2), sin, new Polynomial(x, 2)};
+        Function chainSum = terms[0];
+        Function chainProduct = terms[0];
+        for (int k = 1; k < terms.length; k++) {
+            chainSum = new BinaryOp(chainSum, terms[k], BinaryOp.Op.PLUS);
+            chainProduct = new BinaryOp(chainProduct, terms[k], BinaryOp.Op.MULT);
+        }
+        Sum sum = new Sum(terms);
+        Product product = new Product(terms);
+
+        //nested sums are flattened, and an NaryOp prints and evaluates like the chain it stands for
+        assertEquals(4, new Sum(new Sum(x, new Number(2)), new BinaryOp(sin, new Polynomial(x, 2), BinaryOp.Op.PLUS))
+                .getOperandCount());
+        assertEquals(3, new Product(new Sum(x, x), x, x).getOperandCount());
+        assertEquals(chainSum.toString(), sum.toString());
+        assertEquals(chainProduct.toString(), product.toString());
+        assertEquals("(x + 1.0) * (x - 2.0)", new Product(new Sum(x, new Number(1)), new BinaryOp(x, new Number(2),
+                BinaryOp.Op.SUB)).toString());
+        assertNotEquals(chainSum.hashCode(), sum.hashCode());
+        assertNotEquals(chainProduct.hashCode(), product.hashCode());
+        for (double input = -3; input <= 3; input += 0.25) {
+            assertEquals(chainSum.value(input), sum.value(input), 1e-12);
+            assertEquals(chainProduct.value(input), product.value(input), 1e-12);
+        }
+        assertEquals(6, new Sum(new Number(1), new Number(2), new Number(3)).value());
+        assertEquals(24, new Product(new Number(2), new Number(3), new Number(4)).value());
+
+        //operations on a zero or a one among the operands are simplified as the chain simplifies them, and the chain
+        //comes back from every lowering with the same String and values
+        Function zero = new Number(0);
+        Function one = new Number(1);
+        Function undefined = new BinaryOp(new BinaryOp(new Number(4), x, BinaryOp.Op.DIV), zero, BinaryOp.Op.MULT);
+        assertEquals("x + 0.0", new Sum(x, new BinaryOp(sin, zero, BinaryOp.Op.MULT)).toString());
+        assertEquals("Cos[x] * Sin[x]", new Product(new Cos(x), new BinaryOp(one, sin, BinaryOp.Op.MULT)).toString());
+        assertEquals(new BinaryOp(x, sin, BinaryOp.Op.PLUS).derivative().toString(), new Sum(x, sin).derivative()
+                .toString());
+        Function[][] cases = {{x, new BinaryOp(sin, zero, BinaryOp.Op.MULT)}, {zero, x, sin}, {one, x, sin},
+                {x, zero, sin, zero}, {zero, zero, zero, x}, {undefined, x}, {x, undefined, sin},
+                {new Sum(x, zero), sin}, {x, sin, new Product(x, one)}, {new Sum(sin, x, zero), x},
+                {new BinaryOp(zero, x, BinaryOp.Op.SUB), new BinaryOp(x, one, BinaryOp.Op.DIV)}};
+        List<Function> naryOps = new ArrayList<>();
+        for (Function[] operands : cases) {
+            naryOps.add(new Sum(operands));
+            naryOps.add(new Product(operands));
+        }
+        Path simplifiedFile = Files.createTempFile("functions", ".lib");
+        try {
+            FunctionLibrary.write(simplifiedFile, naryOps);
+            FunctionLibrary library = FunctionLibrary.open(simplifiedFile);
+            for (int i = 0; i < naryOps.size(); i++) {
+                NaryOp naryOp = (NaryOp) naryOps.get(i);
+                Function[] operands = cases[i / 2];
+                Function chain = operands[0];
+                for (int k = 1; k < operands.length; k++) {
+                    chain = new BinaryOp(chain, operands[k], naryOp.getOperator());
+                }
+                String text = naryOp.toString();
+                assertEquals(chain.toString(), text);
+                Function[] lowered = {CompactExpression.of(naryOp).toFunction(), FunctionParser.parse(text),
+                        library.get(i)};
+                for (Function function : lowered) {
+                    assertEquals(text, function.toString());
+                    for (double input = -1; input <= 1; input += 0.5) {
+                        assertEquals(chain.value(input), naryOp.value(input), text);
+                        assertEquals(naryOp.value(input), function.value(input), text);
+                    }
+                }
+            }
+        } finally {
+            Files.delete(simplifiedFile);
+        }
+
+        //operands may only be swapped where they could be swapped in the chain, and a chain is never equal to a Sum
+        assertEquals(sum, new Sum(new Number(2), x, sin, new Polynomial(x, 2)));
+        assertEquals(sum, new Sum(false, new Polynomial(x, 2), new Sum(false, sin, new Sum(false, new Number(2), x))));
+        assertNotEquals(sum, new Sum(x, sin, new Number(2), new Polynomial(x, 2)));
+        assertNotEquals(sum, new Product(terms));
+        assertNotEquals(sum, chainSum);
+        assertNotEquals(chainSum, sum);
+        assertNotEquals(sum, FunctionParser.parse(sum.toString()));
+        assertEquals(chainSum, FunctionParser.parse(sum.toString()));
+        assertEquals(new Sum(false, x, new Sum(false, sin, new Number(2))), new Sum(false, new Sum(false, new Number(2),
+                sin), x));
+
+        //the batch, interval, derivative and Taylor computations agree with those of the chain
+        double[] inputs = new double[100];
+        for (int i = 0; i < inputs.length; i++) {
+            inputs[i] = -3 + 0.06 * i;
+        }
+        double[] outputs = new double[inputs.length];
+        product.value(inputs, outputs);
+        for (int i = 0; i < inputs.length; i++) {
+            assertEquals(product.value(inputs[i]), outputs[i]);
+        }
+        Interval interval = new Interval(0.5, 1.5);
+        assertEquals(chainProduct.valueInterval(interval).toString(), product.valueInterval(interval).toString());
+        assertEquals(chainSum.valueInterval(interval).toString(), sum.valueInterval(interval).toString());
+        double[] derivative = new double[1];
+        for (double input = -3; input <= 3; input += 0.5) {
+            assertEquals(chainSum.derivative().value(input), sum.derivative().value(input), 1e-9);
+            assertEquals(chainProduct.derivative().value(input), product.derivative().value(input), 1e-9);
+            assertEquals(product.value(input), product.valueAndDerivative(input, derivative));
+            assertEquals(chainProduct.derivative().value(input), derivative[0], 1e-9);
+            assertArrayEquals(chainProduct.derivatives(input, 4), product.derivatives(input, 4), 1e-6);
+            assertArrayEquals(chainSum.derivatives(input, 4), sum.derivatives(input, 4), 1e-6);
+        }
+
+        //the derivative of a Sum is one Sum, and that of a Product of n factors has O(n) nodes
+        Function[] factors = new Function[200];
+        for (int k = 0; k < factors.length; k++) {
+            factors[k] = new BinaryOp(x, new Number(k + 1), BinaryOp.Op.PLUS);
+        }
+        assertEquals(factors.length, ((Sum) new Sum(factors).derivative()).getOperandCount());
+        assertTrue(sum.derivative() instanceof Sum);
+        Function productDerivative = new Product(factors).derivative();
+        assertTrue(CompactExpression.of(productDerivative).size() < 10 * factors.length);
+        assertEquals(new Product(factors).valueAndDerivative(0.5, derivative), new Product(factors).value(0.5));
+        assertEquals(derivative[0], productDerivative.value(0.5), Math.abs(derivative[0]) * 1e-12);
+
+        //the compiled forms compute the same values
+        DoubleUnaryOperator compiled = FunctionCompiler.compile(product);
+        PostfixProgram program = PostfixProgram.compile(product);
+        CompactExpression expression = CompactExpression.of(product);
+        assertEquals(chainProduct.toString(), expression.toFunction().toString());
+        for (double input = -3; input <= 3; input += 0.25) {
+            assertEquals(product.value(input), compiled.applyAsDouble(input));
+            assertEquals(product.value(input), program.value(input));
+            assertEquals(product.value(input), expression.value(input));
+        }
+
+        //libraries and factories keep sums and products
+        Path file = Files.createTempFile("functions", ".lib");
+        try {
+            List<Function> functions = Arrays.asList(sum, product, productDerivative, new Sum(x, new Number(1)));
+            FunctionLibrary.write(file, functions);
+            FunctionLibrary library = FunctionLibrary.open(file);
+            for (int i = 0; i < functions.size(); i++) {
+                assertEquals(functions.get(i), library.get(i));
+                assertEquals(functions.get(i).getClass(), library.get(i).getClass());
+                assertEquals(functions.get(i).toString(), library.get(i).toString());
+            }
+        } finally {
+            Files.delete(file);
+        }
+        FunctionFactory factory = new FunctionFactory();
+        assertSame(factory.sum(x, sin), factory.sum(new Variable(), new Sin(new Variable())));
+        assertSame(factory.product(terms), factory.intern(product));
+        assertNotSame(factory.intern(chainProduct), factory.intern(product));
+        assertTrue(factory.intern(chainProduct) instanceof BinaryOp);
+        assertTrue(factory.intern(product) instanceof Product);
+
+        //an operation needs two operands, and a sum too long to evaluate recursively as a chain is evaluated in a loop
+        assertThrows(IllegalArgumentException.class, () -> new Sum(x));
+        Function[] many = new Function[100000];
+        for (int k = 0; k < many.length; k++) {
+            many[k] = k == 0 ? x : new Number(k);
+        }
+        Sum longSum = new Sum(many);
+        assertEquals(100000.0 * 99999 / 2 + 3, longSum.value(3));
+        assertEquals(longSum, new Sum(longSum.getOperands()));
+        assertEquals(1, longSum.derivative().value(3));
+        assertEquals(100000.0 * 99999 / 2 + 3, PostfixProgram.compile(longSum).value(3));
+    }
+
+    @Test
+    public void testSimplifier() {
+        Variable x = new Variable();
+
+        //constant subtrees are folded, like terms and powers of the same base are collected
+        assertEquals(new Number(5), Simplifier.simplify(new BinaryOp(new Number(2), new Number(3), BinaryOp.Op.PLUS)));
+        assertEquals(new Number(1.5), Simplifier.simplify(new BinaryOp(new BinaryOp(new Number(2), new Number(3),
+                BinaryOp.Op.MULT), new Number(4), BinaryOp.Op.DIV)));
+        assertEquals(new Number(1), Simplifier.simplify(new Cos(new BinaryOp(new Number(2), new Number(2),
+                BinaryOp.Op.SUB))));
+        assertEquals("2.0 * x", Simplifier.simplify(new BinaryOp(x, x, BinaryOp.Op.PLUS)).toString());
+        assertEquals(new Number(0), Simplifier.simplify(new BinaryOp(x, x, BinaryOp.Op.SUB)));
+        assertEquals("x^2.0", Simplifier.simplify(new BinaryOp(x, x, BinaryOp.Op.MULT)).toString());
+        assertEquals("x^5.0", Simplifier.simplify(new BinaryOp(new Polynomial(x, 2), new Polynomial(x, 3),
+                BinaryOp.Op.MULT)).toString());
+        assertEquals(new Number(1), Simplifier.simplify(new BinaryOp(new BinaryOp(new Polynomial(x, 2), x,
+                BinaryOp.Op.MULT), new Polynomial(x, 3), BinaryOp.Op.DIV)));
+        assertEquals("x + 3.0", Simplifier.simplify(new BinaryOp(new BinaryOp(x, new Number(1), BinaryOp.Op.PLUS),
+                new Number(2), BinaryOp.Op.PLUS)).toString());
+        assertEquals("5.0 * x", Simplifier.simplify(new BinaryOp(new BinaryOp(x, new Number(2), BinaryOp.Op.MULT),
+                new BinaryOp(new Number(3), x, BinaryOp.Op.MULT), BinaryOp.Op.PLUS)).toString());
+        assertEquals("(4.0 * x) - Sin[x]", Simplifier.simplify(new Sum(x, new Sin(x), x, new BinaryOp(x, new Number(2),
+                BinaryOp.Op.MULT), new BinaryOp(new Number(-2), new Sin(x), BinaryOp.Op.MULT), new Number(0.0)))
+                .toString());
+        assertEquals("3.0 / x", Simplifier.simplify(new BinaryOp(new BinaryOp(new Number(1), x, BinaryOp.Op.DIV),
+                new BinaryOp(new Number(2), x, BinaryOp.Op.DIV), BinaryOp.Op.PLUS)).toString());
+
+        //powers of one and zero, integer powers of integer powers, and logarithms of exponentials are reduced
+        assertEquals(x, Simplifier.simplify(new Polynomial(x, 1)));
+        assertEquals(new Number(1), Simplifier.simplify(new Polynomial(new Sin(x), 0)));
+        assertEquals("x^6.0", Simplifier.simplify(new Polynomial(new Polynomial(x, 2), 3)).toString());
+        assertEquals("x^2.0^0.5", Simplifier.simplify(new Polynomial(new Polynomial(x, 2), 0.5)).toString());
+        assertEquals(new Sin(x), Simplifier.simplify(new Log(new Exp(new Sin(x)))));
+
+        //a simplified function is returned as it is, and functions of unknown types are left alone
+        Function simplified = Simplifier.simplify(new BinaryOp(x, new Sin(x), BinaryOp.Op.MULT));
+        assertSame(simplified, Simplifier.simplify(simplified));
+        Function custom = new Sin(new BinaryOp(x, x, BinaryOp.Op.PLUS)) {
+        };
+        assertSame(custom, Simplifier.simplify(custom));
+
+        //derivatives become smaller and keep their values
+        Function composite = new Exp(new Sin(new Cos(new Log(new Polynomial(new BinaryOp(x, new Number(1), BinaryOp.Op
+                .PLUS), 2)))));
+        for (int n = 1; n <= 4; n++) {
+            Function derivative = composite.derivative(n);
+            Function result = Simplifier.simplify(derivative);
+            assertTrue(CompactExpression.of(result).size() < CompactExpression.of(derivative).size());
+            assertTrue(result.toString().length() < derivative.toString().length());
+            for (double input = 0.25; input <= 3; input += 0.25) {
+                double expected = derivative.value(input);
+                assertEquals(expected, result.value(input), 1e-9 * Math.max(1, Math.abs(expected)));
+            }
+        }
+
+        //a sum too long to simplify recursively is collected in a loop
+        Function[] terms = new Function[100001];
+        for (int i = 0; i < terms.length; i++) {
+            terms[i] = i == 0 ? x : new Number(i);
+        }
+        assertEquals("x + 5.00005E9", Simplifier.simplify(new Sum(terms)).toString());
+    }
+
+    @Test
+    public void testOptimizer() {
+        Variable x = new Variable();
+
+        //constants are folded, products of exponentials and powers are merged, and common factors are factored out
+        assertEquals(new Number(5), Optimizer.optimize(new BinaryOp(new Number(2), new Number(3), BinaryOp.Op.PLUS)));
+        assertEquals("Exp[x + Sin[x]]", Optimizer.optimize(new BinaryOp(new Exp(x), new Exp(new Sin(x)),
+                BinaryOp.Op.MULT)).toString());
+        assertEquals("x^5.0", Optimizer.optimize(new BinaryOp(new Polynomial(x, 2), new Polynomial(x, 3),
+                BinaryOp.Op.MULT)).toString());
+        Function factored = Optimizer.optimize(new BinaryOp(new BinaryOp(new Sin(x), new Exp(x), BinaryOp.Op.MULT),
+                new BinaryOp(new Sin(x), new Cos(x), BinaryOp.Op.MULT), BinaryOp.Op.PLUS));
+        assertEquals("Sin[x] * (Exp[x] + Cos[x])", factored.toString());
+        assertEquals(62, Optimizer.cost(factored));
+
+        //a function with no cheaper form is returned as it is
+        Function sin = new Sin(x);
+        assertSame(sin, Optimizer.optimize(sin));
+        assertSame(x, Optimizer.optimize(x));
+
+        //factors and divisors which are zero or not finite are not moved, so no operand is lost and no sign changes
+        for (String text : new String[]{"((3.0 / x) / 0.0) * Log[x^2.0 + 1.0]",
+                "Exp[2.0 / ((Log[1.0] * 0.5) * Log[x])]"}) {
+            Function function = FunctionParser.parse(text);
+            Function optimized = Optimizer.optimize(function);
+            for (double input : new double[]{-1.7, -0.5, 0.3, 1.2}) {
+                assertEquals(function.value(input), optimized.value(input));
+            }
+        }
+        assertEquals(Double.NEGATIVE_INFINITY, Optimizer.optimize(FunctionParser.parse(
+                "((3.0 / x) / 0.0) * Log[x^2.0 + 1.0]")).value(-1.7));
+
+        //powers are only merged where both forms are defined, and functions of unknown types are kept
+        Function roots = Optimizer.optimize(new BinaryOp(new Polynomial(x, 0.5), new Polynomial(x, 0.5),
+                BinaryOp.Op.MULT));
+        assertTrue(Double.isNaN(roots.value(-1)));
+        for (String text : new String[]{"x * x^-1.0", "x^2.0 * x^-2.0", "Sin[x] * Sin[x]^-1.0", "x^3.0 * x^-1.5"}) {
+            Function function = FunctionParser.parse(text);
+            assertTrue(Double.isNaN(function.value(0)));
+            assertTrue(Double.isNaN(Optimizer.optimize(function).value(0)));
+        }
+        Function custom = new Exp(x) {
+        };
+        BinaryOp called = (BinaryOp) Optimizer.optimize(new BinaryOp(new BinaryOp(custom, new Number(2),
+                BinaryOp.Op.MULT), new BinaryOp(custom, new Number(3), BinaryOp.Op.MULT), BinaryOp.Op.PLUS));
+        assertSame(custom, called.getLeftOperand());
+        assertEquals(5 * Math.exp(2), called.value(2), 1e-12);
+
+        //derivatives become cheaper and keep their values, even with a small budget
+        Function composite = new Exp(new Sin(new Cos(new Log(new Polynomial(new BinaryOp(x, new Number(1), BinaryOp.Op
+                .PLUS), 2)))));
+        for (int n = 1; n <= 4; n++) {
+            Function derivative = composite.derivative(n);
+            assertTrue(Optimizer.cost(Optimizer.optimize(derivative)) < Optimizer.cost(derivative));
+            for (Function optimized : new Function[]{Optimizer.optimize(derivative), Optimizer.optimize(derivative,
+                    50, 1000)}) {
+                assertTrue(Optimizer.cost(optimized) <= Optimizer.cost(derivative));
+                for (double input = 0.25; input <= 3; input += 0.25) {
+                    double expected = derivative.value(input);
+                    assertEquals(expected, optimized.value(input), 1e-12 * Math.max(1, Math.abs(expected)));
+                }
+            }
+        }
+
+        //every node added counts against the budget, so identities which feed each other stop in time
+        Function runaway = FunctionParser.parse("4.0 / Log[(x * x)^0.0^2.0 + 1.0]");
+        for (long timeLimit : new long[]{200, 600000}) {
+            long start = System.nanoTime();
+            Function bounded = Optimizer.optimize(runaway, 20000, timeLimit);
+            assertTrue(System.nanoTime() - start < 5_000_000_000L);
+            assertEquals(runaway.value(1.5), bounded.value(1.5), 1e-12);
+        }
+
+        //a large function is loaded and built again without recursion, and the budget must be positive
+        Function[] terms = new Function[100001];
+        for (int i = 0; i < terms.length; i++) {
+            terms[i] = i == 0 ? x : new Number(i);
+        }
+        assertEquals(100000.0 * 100001 / 2 + 3, Optimizer.optimize(new Sum(terms)).value(3));
+        assertThrows(IllegalArgumentException.class, () -> Optimizer.optimize(x, 0, 100));
+        assertThrows(IllegalArgumentException.class, () -> Optimizer.optimize(x, 100, 0));
+    }
+
+    @Test
+    public void testMultiVariable() throws IOException {
+        Variable x = new Variable();
+        Variable y = new Variable("y", 1);
+        Variable z = new Variable("z", 2);
+
+        //the Variable with no arguments is x of index 0, and variables differ by index and name
+        assertEquals(new Variable("x", 0), x);
+        assertEquals("x".hashCode(), x.hashCode());
+        assertNotEquals(x, y);
+        assertNotEquals(new Variable("y", 2), y);
+        assertNotEquals(new Variable("w", 1), y);
+        assertThrows(IllegalArgumentException.class, () -> new Variable("y", -1));
+        assertThrows(IllegalArgumentException.class, () -> new Variable("2y", 1));
+        assertThrows(IllegalArgumentException.class, () -> new Variable("NaN", 1));
+
+        //Sin[x * y] + Exp[z] / y + x^2.0
+        Function function = new BinaryOp(new Sin(new BinaryOp(x, y, BinaryOp.Op.MULT)),
+                new BinaryOp(new BinaryOp(new Exp(z), y, BinaryOp.Op.DIV), new Polynomial(x, 2), BinaryOp.Op.PLUS),
+                BinaryOp.Op.PLUS);
+        assertEquals("Sin[x * y] + ((Exp[z] / y) + x^2.0)", function.toString());
+        double[] environment = {0.5, 2, -1};
+        double expected = Math.sin(1) + Math.exp(-1) / 2 + 0.25;
+        assertEquals(expected, function.evaluate(environment), 1e-15);
+        assertEquals(expected, new Sum(function, new Number(0)).evaluate(environment), 1e-15);
+        assertEquals(expected, new FunctionFactory().intern(function).evaluate(environment), 1e-15);
+
+        //only x has a value at a single input, and the derivative is taken with respect to x
+        assertThrows(UnsupportedOperationException.class, () -> function.value(1));
+        assertThrows(UnsupportedOperationException.class, () -> FunctionCompiler.compile(function).applyAsDouble(1));
+        assertThrows(UnsupportedOperationException.class, () -> PostfixProgram.compile(function).value(1));
+        assertEquals(new Number(1), x.derivative());
+        assertEquals(new Number(0), y.derivative());
+        assertEquals(Math.cos(1) * 2 + 1, function.derivative().evaluate(environment), 1e-15);
+        assertEquals(9, new Polynomial(x, 2).evaluate(new double[]{3}));
+
+        //the variables are read back by name, and any other name is rejected
+        assertEquals(function, FunctionParser.parse(function.toString(), x, y, z));
+        assertThrows(IllegalArgumentException.class, () -> FunctionParser.parse(function.toString(), x, y));
+        assertThrows(IllegalArgumentException.class, () -> FunctionParser.parse("y"));
+
+        //the gradient is computed in one sweep forward and one backward
+        CompactExpression expression = CompactExpression.of(function);
+        assertEquals(3, expression.variableCount());
+        assertEquals(function, expression.toFunction());
+        assertEquals(expected, expression.evaluate(environment), 1e-15);
+        assertThrows(UnsupportedOperationException.class, () -> expression.value(1));
+        double[] gradient = {7, 7, 7, 7};
+        assertEquals(expected, expression.gradient(environment, gradient), 1e-15);
+        assertEquals(Math.cos(1) * 2 + 1, gradient[0], 1e-15);
+        assertEquals(Math.cos(1) * 0.5 - Math.exp(-1) / 4, gradient[1], 1e-15);
+        assertEquals(Math.exp(-1) / 2, gradient[2], 1e-15);
+        assertEquals(0, gradient[3]);
+
+        //a function of x alone gives its derivative, including through a function of unknown type
+        Function called = new BinaryOp(Chebyshev.approximate(new Sin(x), 0, 1, 1e-12), y, BinaryOp.Op.MULT);
+        CompactExpression.of(called).gradient(environment, gradient);
+        assertEquals(Math.cos(0.5) * 2, gradient[0], 1e-9);
+        assertEquals(Math.sin(0.5), gradient[1], 1e-9);
+
+        //the sum of k * v_k^2 over a thousand variables has every partial derivative in a single gradient
+        Function[] terms = new Function[1000];
+        double[] values = new double[terms.length];
+        for (int k = 0; k < terms.length; k++) {
+            terms[k] = new BinaryOp(new Number(k), new Polynomial(new Variable("v" + k, k), 2), BinaryOp.Op.MULT);
+            values[k] = 0.001 * k;
+        }
+        CompactExpression sum = CompactExpression.of(new Sum(terms));
+        double[] partials = new double[terms.length];
+        sum.gradient(values, partials);
+        for (int k = 0; k < terms.length; k++) {
+            assertEquals(2 * k * values[k], partials[k], 1e-12);
+        }
+
+        //the other classes keep the variables apart
+        FunctionFactory factory = new FunctionFactory();
+        assertSame(factory.variable("y", 1), factory.variable("y", 1));
+        assertNotSame(factory.variable(), factory.variable("y", 1));
+        Function simplified = Simplifier.simplify(new BinaryOp(new BinaryOp(x, y, BinaryOp.Op.MULT),
+                new BinaryOp(y, x, BinaryOp.Op.MULT), BinaryOp.Op.PLUS));
+        assertEquals(2 * 0.5 * 2, simplified.evaluate(environment), 1e-15);
+        assertEquals(expected, Optimizer.optimize(function).evaluate(environment), 1e-15);
+
+        //a library stores the index and name of each variable
+        Path file = Files.createTempFile("functions", ".lib");
+        try {
+            FunctionLibrary.write(file, Arrays.asList(function, new Variable("rate", 5)));
+            FunctionLibrary library = FunctionLibrary.open(file);
+            assertEquals(function, library.get(0));
+            assertEquals(function.toString(), library.get(0).toString());
+            assertEquals(new Variable("rate", 5), library.get(1));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testFormulaSet() {
+        Variable x = new Variable();
+        Function sin = new Sin(new Variable());
+        Function square = new Polynomial(new Variable(), 2);
+        Function log = new Log(new BinaryOp(new Variable(), new Number(1), BinaryOp.Op.PLUS));
+        List<Function> formulas = Arrays.asList(
+                new BinaryOp(new Sin(x), new Polynomial(x, 2), BinaryOp.Op.PLUS),
+                new BinaryOp(sin, log, BinaryOp.Op.MULT),
+                new BinaryOp(square, new Sin(new Variable()), BinaryOp.Op.DIV),
+                new Exp(new Log(new BinaryOp(x, new Number(1), BinaryOp.Op.PLUS))),
+                new BinaryOp(new Polynomial(x, 2), sin, BinaryOp.Op.PLUS),
+                new Number(3),
+                x);
+
+        //x, Sin[x], x^2.0, the first sum, 1.0, x + 1.0, the log, the product, the quotient, the exponential and 3.0
+        FormulaSet set = new FormulaSet(formulas);
+        assertEquals(formulas.size(), set.size());
+        assertEquals(11, set.nodeCount());
+        assertEquals(1, set.variableCount());
+        double[] outputs = new double[formulas.size()];
+        for (double input = 0.25; input <= 4; input += 0.25) {
+            set.evaluate(input, outputs);
+            for (int i = 0; i < formulas.size(); i++) {
+                assertEquals(formulas.get(i).value(input), outputs[i]);
+            }
+        }
+
+        //formulas of several variables are evaluated in an environment, and x * y is stored once with y * x
+        Variable y = new Variable("y", 1);
+        FormulaSet products = new FormulaSet(new BinaryOp(x, y, BinaryOp.Op.MULT),
+                new Sin(new BinaryOp(y, x, BinaryOp.Op.MULT)));
+        assertEquals(4, products.nodeCount());
+        assertEquals(2, products.variableCount());
+        products.evaluate(new double[]{0.5, 3}, outputs);
+        assertEquals(1.5, outputs[0]);
+        assertEquals(Math.sin(1.5), outputs[1]);
+        assertThrows(UnsupportedOperationException.class, () -> products.evaluate(1, new double[2]));
+        assertThrows(IllegalArgumentException.class, () -> new FormulaSet(new ArrayList<>()));
+
+        //ten thousand formulas built from a few subterms only compute each distinct subterm once
+        Function[] subterms = {sin, square, log, new Exp(new Variable()), new Cos(new Variable())};
+        Random random = new Random(7);
+        List<Function> many = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            Function a = subterms[random.nextInt(subterms.length)];
+            Function b = subterms[random.nextInt(subterms.length)];
+            many.add(new BinaryOp(new BinaryOp(a, b, BinaryOp.Op.MULT), new Number(i % 10), BinaryOp.Op.PLUS));
+        }
+        FormulaSet large = new FormulaSet(many);
+        assertTrue(large.nodeCount() < 10 * 5 * 5 * 2 + 20);
+        double[] values = new double[many.size()];
+        large.evaluate(1.5, values);
+        for (int i = 0; i < many.size(); i++) {
+            assertEquals(many.get(i).value(1.5), values[i]);
+        }
+    }
+
+    @Test
+    public void testVectorEvaluator() throws ReflectiveOperationException {
+        //the evaluator needs the jdk.incubator.vector module to run, which only the build adds to the tests
+        Class<?> type;
+        try {
+            type = Class.forName("cas.VectorEvaluator");
+        } catch (ClassNotFoundException | LinkageError e) {
+            type = null;
+        }
+        Assumptions.assumeTrue(type != null,
+                "Run with --add-modules jdk.incubator.vector");
+        Method compile = type.getMethod("compile", Function.class);
+        Method value = type.getMethod("value", double[].class, double[].class);
+        Method blockCount = type.getMethod("blockCount");
+        Variable x = new Variable();
+
+        //each vector transcendental is within 2 ulps of the scalar result, and the inputs do not fill whole vectors
+        Function[] nodes = {new Sin(x), new Cos(x), new Exp(x), new Log(x), new Polynomial(x, 2),
+                new Polynomial(x, 2.5), new Polynomial(x, 3), new Polynomial(x, -1)};
+        Random random = new Random(11);
+        double[] inputs = new double[2053];
+        for (int i = 0; i < inputs.length; i++) {
+            inputs[i] = random.nextDouble() * 20;
+        }
+        double[] outputs = new double[inputs.length];
+        for (Function node : nodes) {
+            value.invoke(compile.invoke(null, node), inputs, outputs);
+            for (int i = 0; i < inputs.length; i++) {
+                double expected = node.value(inputs[i]);
+                assertEquals(expected, outputs[i], 2 * Math.ulp(expected), node + " at " + inputs[i]);
+            }
+        }
+
+        //arithmetic is exact, and every length of input is evaluated, including none
+        Function arithmetic = new BinaryOp(new BinaryOp(new BinaryOp(x, new Number(1), BinaryOp.Op.PLUS),
+                new BinaryOp(x, new Number(2), BinaryOp.Op.SUB), BinaryOp.Op.MULT), new BinaryOp(x, x,
+                BinaryOp.Op.MULT), BinaryOp.Op.DIV);
+        Object evaluator = compile.invoke(null, arithmetic);
+        for (int length : new int[]{0, 1, 5, 256, 257, 2053}) {
+            double[] part = Arrays.copyOf(inputs, length);
+            double[] result = new double[length];
+            value.invoke(evaluator, part, result);
+            for (int i = 0; i < length; i++) {
+                assertEquals(arithmetic.value(part[i]), result[i]);
+            }
+        }
+
+        //whole functions stay close to their scalar values, and functions of unknown type are called exactly
+        Function composite = new Exp(new Sin(new Cos(new Log(new Polynomial(new BinaryOp(x, new Number(1),
+                BinaryOp.Op.PLUS), 2)))));
+        Function chebyshev = Chebyshev.approximate(new Sin(x), 0, 20, 1e-12);
+        for (Function function : new Function[]{composite, composite.derivative(2), chebyshev,
+                new BinaryOp(chebyshev, new Cos(x), BinaryOp.Op.MULT)}) {
+            value.invoke(compile.invoke(null, function), inputs, outputs);
+            for (int i = 0; i < inputs.length; i++) {
+                double expected = function.value(inputs[i]);
+                assertEquals(expected, outputs[i], 1e-12 * Math.max(1, Math.abs(expected)));
+            }
+        }
+        value.invoke(compile.invoke(null, x), inputs, outputs);
+        assertArrayEquals(inputs, outputs);
+
+        //blocks are reused once the nodes reading them are computed, so a chain of a thousand terms needs only a few
+        Function chain = new Sin(x);
+        for (int k = 1; k < 1000; k++) {
+            chain = new BinaryOp(chain, new Sin(new BinaryOp(x, new Number(k), BinaryOp.Op.MULT)), BinaryOp.Op.PLUS);
+        }
+        Object sum = compile.invoke(null, chain);
+        assertTrue((int) blockCount.invoke(sum) <= 4);
+        value.invoke(sum, inputs, outputs);
+        assertEquals(chain.value(inputs[7]), outputs[7], 1e-12);
+
+        InvocationTargetException exception = assertThrows(InvocationTargetException.class,
+                () -> compile.invoke(null, new Variable("y", 1)));
+        assertTrue(exception.getCause() instanceof IllegalArgumentException);
+    }
+
+    @Test
+    public void testFastMath() {
+        //each approximation is within its documented bound of StrictMath over arguments of every magnitude it reduces
+        Random random = new Random(25);
+        for (int i = 0; i < 200000; i++) {
+            double angle = (2 * random.nextDouble() - 1) * Math.scalb(1.0, random.nextInt(40) - 19);
+            assertEquals(StrictMath.sin(angle), FastMath.sin(angle), 0x1p-51);
+            assertEquals(StrictMath.cos(angle), FastMath.cos(angle), 0x1p-51);
+
+            double power = (2 * random.nextDouble() - 1) * (i % 2 == 0 ? 708 : Math.scalb(1.0, -random.nextInt(30)));
+            double exp = StrictMath.exp(power);
+            assertEquals(exp, FastMath.exp(power), exp * 0x1p-51);
+
+            double argument = i % 2 == 0 ? Math.scalb(1 + random.nextDouble(), random.nextInt(2000) - 1000)
+                    : 1 + (2 * random.nextDouble() - 1) * Math.scalb(1.0, -random.nextInt(40));
+            double log = StrictMath.log(argument);
+            assertEquals(log, FastMath.log(argument), Math.abs(log) * 0x1p-50);
+
+            double base = Math.scalb(1 + random.nextDouble(), random.nextInt(20) - 10);
+            int n = random.nextInt(33) - 16;
+            double whole = StrictMath.pow(base, n);
+            assertEquals(whole, FastMath.pow(base, n), whole * Math.abs(n) * 0x1p-52);
+            double half = StrictMath.pow(base, n + 0.5);
+            assertEquals(half, FastMath.pow(base, n + 0.5), half * (Math.abs(n) + 2) * 0x1p-52);
+        }
+
+        //special values and arguments outside the reduced ranges give exactly the results of Math
+        for (double argument : new double[]{Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 0x1p21,
+                -1e300}) {
+            assertEquals(Math.sin(argument), FastMath.sin(argument));
+            assertEquals(Math.cos(argument), FastMath.cos(argument));
+            assertEquals(Math.exp(argument), FastMath.exp(argument));
+            assertEquals(Math.log(argument), FastMath.log(argument));
+        }
+        for (double argument : new double[]{709.5, -745, -1000}) {
+            assertEquals(Math.exp(argument), FastMath.exp(argument));
+        }
+        for (double argument : new double[]{-1, 0, -0.0, Double.MIN_VALUE}) {
+            assertEquals(Math.log(argument), FastMath.log(argument));
+        }
+        for (double argument : new double[]{Double.NaN, Double.NEGATIVE_INFINITY, -2, -0.0, 0,
+                Double.POSITIVE_INFINITY}) {
+            assertEquals(Math.pow(argument, 0.3), FastMath.pow(argument, 0.3));
+            assertEquals(Math.pow(argument, 17), FastMath.pow(argument, 17));
+            assertEquals(Math.pow(argument, 2.5), FastMath.pow(argument, 2.5));
+        }
+        assertEquals(Math.pow(-2, 2.5), FastMath.pow(-2, 2.5));
+        assertEquals(Math.pow(-0.0, -3), FastMath.pow(-0.0, -3));
+        assertEquals(Math.pow(Double.NaN, 0), FastMath.pow(Double.NaN, 0));
+        assertEquals(0, FastMath.log(1));
+        assertEquals(1, FastMath.exp(0));
+
+        //a fast expression stays close to the exact one, and either precision can still be asked for per evaluation
+        Function composite = new Exp(new Sin(new Cos(new Log(new Polynomial(new BinaryOp(new Variable(),
+                new Number(1), BinaryOp.Op.PLUS), 2)))));
+        Variable x = new Variable();
+        Function[] functions = {composite, composite.derivative(2), new Polynomial(new Sin(x), 3),
+                new BinaryOp(new Polynomial(x, 2.5), new Polynomial(new Cos(x), -2), BinaryOp.Op.DIV)};
+        for (Function function : functions) {
+            CompactExpression exact = CompactExpression.of(function);
+            CompactExpression fast = CompactExpression.of(function, Precision.FAST);
+            DoubleUnaryOperator compiled = FunctionCompiler.compile(function, Precision.FAST);
+            for (double input = 0.05; input <= 4; input += 0.05) {
+                double value = function.value(input);
+                assertEquals(value, fast.value(input), Math.abs(value) * 1e-13);
+                assertEquals(fast.value(input), compiled.applyAsDouble(input));
+                assertEquals(fast.value(input), exact.value(input, Precision.FAST));
+                assertEquals(value, fast.value(input, Precision.EXACT));
+                assertEquals(value, exact.evaluate(new double[]{input}));
+                assertEquals(fast.value(input), fast.evaluate(new double[]{input}));
+            }
+        }
+    }
+
+    @Test
+    public void testToString() {
+        //test BinaryOp toString() where neither operand is a BinaryOp
+        BinaryOp xPlusOne = new BinaryOp(new Variable(), new Number(1), BinaryOp.Op.PLUS);
+        assertEquals("x + 1.0", xPlusOne.toString());
+
+        //test BinaryOp toString() where only left operand is a BinaryOp
+        BinaryOp xPlusOnePlusOne = new BinaryOp(new BinaryOp(new Variable(), new Number(1.0), BinaryOp.Op.PLUS), new
+                Number(1), BinaryOp.Op.PLUS);
+        assertEquals("(x + 1.0) + 1.0", xPlusOnePlusOne.toString());
+
+        //test BinaryOp toString() where only the right operand is a BinaryOp
+        BinaryOp onePlusOnePlusX = new BinaryOp(new Number(1.0), new BinaryOp(new Number(1.0), new Variable(),
+                BinaryOp.Op.PLUS),
+                BinaryOp.Op.PLUS);
+        assertEquals("1.0 + (1.0 + x)", onePlusOnePlusX.toString());
+
+        //test BinaryOp toString() where both operands are BinaryOp and the operator of this and right Operand are
+        // the same
+        BinaryOp leftOperand = new BinaryOp(new Variable(), new Number(1.0), BinaryOp.Op.PLUS);
+        BinaryOp rightOperand = new BinaryOp(new Variable(), new Number(3.0), BinaryOp.Op.PLUS);
+        assertEquals("(x + 1.0) + x + 3.0", new BinaryOp(leftOperand, rightOperand, BinaryOp.Op.PLUS).toString());
+
+        //test BinaryOp toString() where both operands are BinaryOp and the operator of this and rightOperand are
+        // different
+        assertEquals("(x + 1.0) / (x + 3.0)", new BinaryOp(leftOperand, rightOperand, BinaryOp.Op.DIV).toString());
+
+        //test UnaryOp toString(), all UnaryOps except Polynomial will behave this way
+        UnaryOp unaryOp = new Exp(new Variable());
+        assertEquals("Exp[x]", unaryOp.toString(), "The output of Exp[x] was not \"Exp[x]\"");
+
+        //test Polynomial toString() since it overrides that which is in UnaryOp
+        //test where operand is a UnaryOp (poly1) and BinaryOp (poly2)
+        Polynomial poly1 = new Polynomial(new Variable(), 2);
+        Polynomial poly2 = new Polynomial(new BinaryOp(new Variable(), new Number(1.0), BinaryOp.Op.PLUS), 2);
+
+        assertEquals("(x + 1.0)^2.0", poly2.toString());
+    }
+
+    @Test
+    public void testAppendTo() throws IOException {
+        //appendTo writes exactly what toString returns, into any Appendable
+        Function function = new BinaryOp(new Polynomial(new BinaryOp(new Variable(), new Number(-0.5), BinaryOp.Op
+                .SUB), 3), new Log(new Cos(new Number(1e-10))), BinaryOp.Op.DIV);
+        assertEquals("(x - -0.5)^3.0 / Log[Cos[1.0E-10]]", function.toString());
+        StringWriter writer = new StringWriter();
+        function.appendTo(writer);
+        assertEquals(function.toString(), writer.toString());
+
+        //appendTo adds to what is already in the buffer
+        StringBuilder builder = new StringBuilder("f = ");
+        function.appendTo(builder);
+        assertEquals("f = " + function, builder.toString());
+
+        //a deeply nested expression is written into a single buffer
+        Function sum = new Variable();
+        StringBuilder expected = new StringBuilder("x");
+        for (int i = 0; i < 2000; i++) {
+            sum = new BinaryOp(sum, new Number(i + 1), BinaryOp.Op.PLUS);
+            expected.insert(0, i > 0 ? "(" : "").append(i > 0 ? ")" : "").append(" + ").append(i + 1.0);
+        }
+        assertEquals(expected.toString(), sum.toString());
+    }
+
+    @Test
+    public void testParser() throws IOException {
+        //every function reads back from its String representation
+        Function composite = new Exp(new Sin(new Cos(new Log(new Polynomial(new BinaryOp(new Variable(), new Number(1),
+                BinaryOp.Op.PLUS), 2)))));
+        Function[] functions = {new Number(-0.5), new Number(1e-10), new Number(0.30000000000000004), new Number(-0.0),
+                new Number(Double.NEGATIVE_INFINITY), new Number(Double.MAX_VALUE), new Variable(),
+                new Polynomial(new Polynomial(new Number(-2), 3), -0.5),
+                new BinaryOp(new BinaryOp(new Variable(), new Number(1), BinaryOp.Op.SUB), new BinaryOp(new Variable(),
+                        new Number(2), BinaryOp.Op.SUB), BinaryOp.Op.SUB),
+                new BinaryOp(new Variable(), new BinaryOp(new Variable(), new Number(2), BinaryOp.Op.MULT), BinaryOp.Op
+                        .DIV),
+                composite, composite.derivative(), composite.derivative(3)};
+        for (Function function : functions) {
+            String text = function.toString();
+            Function parsed = FunctionParser.parse(text);
+            assertEquals(function, parsed, text);
+            assertEquals(text, parsed.toString());
+        }
+        assertEquals(new Sin(new Polynomial(new Variable(), 2)), FunctionParser.parse("Sin[x^2.0]"));
+        assertTrue(Double.isNaN(FunctionParser.parse("NaN").value()));
+
+        //a chain of the same operator is read from the right, as toString() prints it
+        Function sum = new Variable();
+        for (int i = 1; i <= 2000; i++) {
+            sum = new BinaryOp(new BinaryOp(new Variable(), new Number(i), BinaryOp.Op.MULT), sum, BinaryOp.Op.PLUS);
+        }
+        assertEquals(sum, FunctionParser.parse(sum.toString()));
+
+        //a chain built from the left prints as parentheses nested as deeply as the chain is long
+        Function leftSum = new Variable();
+        for (int i = 1; i <= 5000; i++) {
+            leftSum = new BinaryOp(leftSum, new Sin(new BinaryOp(new Variable(), new Number(i), BinaryOp.Op.MULT)),
+                    BinaryOp.Op.PLUS);
+        }
+        String deep = leftSum.toString();
+        Function parsedSum = FunctionParser.parse(deep);
+        assertEquals(deep, parsedSum.toString());
+        assertEquals(leftSum.value(0.5), parsedSum.value(0.5));
+
+        //malformed text is rejected
+        for (String text : new String[]{"", "x +", "(x + 1.0", "Sin[x", "Tan[x]", "x^", "1.0.0", "x x", "1.0E",
+                "(x + 1.0]", "Sin[x)", "(x))"}) {
+            assertThrows(IllegalArgumentException.class, () -> FunctionParser.parse(text), text);
+        }
+
+        //a file of functions is parsed in order, skipping blank lines
+        Path file = Files.createTempFile("functions", ".txt");
+        try {
+            List<String> lines = new ArrayList<>();
+            for (Function function : functions) {
+                lines.add(function.toString());
+                lines.add("");
+            }
+            Files.write(file, lines);
+            List<Function> parsed = FunctionParser.parseAll(file);
+            assertEquals(functions.length, parsed.size());
+            for (int i = 0; i < functions.length; i++) {
+                assertEquals(functions[i].toString(), parsed.get(i).toString());
+            }
+
+            Files.write(file, Arrays.asList("x", "x +"));
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> FunctionParser.parseAll(
+                    file));
+            assertTrue(e.getMessage().startsWith("Line 2"), e.getMessage());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testFunctionLibrary() throws IOException {
+        Function composite = new Exp(new Sin(new Cos(new Log(new Polynomial(new BinaryOp(new Variable(), new Number(1),
+                BinaryOp.Op.PLUS), 2)))));
+        List<Function> functions = new ArrayList<>();
+        for (int i = 0; i <= 4; i++) {
+            functions.add(composite.derivative(i));
+        }
+        functions.add(new BinaryOp(new Number(1), new Variable(), BinaryOp.Op.PLUS));
+        functions.add(new BinaryOp(new Variable(), new Number(1), BinaryOp.Op.PLUS));
+        functions.add(new BinaryOp(new Variable(), new Number(-0.0), BinaryOp.Op.SUB));
+        functions.add(new Polynomial(new Number(Double.NaN), -0.5));
+
+        Path file = Files.createTempFile("functions", ".lib");
+        try {
+            FunctionLibrary.write(file, functions);
+            FunctionLibrary library = FunctionLibrary.open(file);
+            assertEquals(functions.size(), library.size());
+
+            //functions are read back in any order and print exactly as they were written, including swapped
+            //operands and negative zero
+            for (int i = functions.size() - 1; i >= 0; i--) {
+                assertEquals(functions.get(i).toString(), library.get(i).toString());
+                assertSame(library.get(i), library.get(i));
+            }
+
+            //the derivatives of the composite function share most of their nodes, which are stored once
+            Map<Function, Boolean> distinct = new IdentityHashMap<>();
+            Deque<Function> pending = new ArrayDeque<>(functions);
+            while (!pending.isEmpty()) {
+                Function node = pending.pop();
+                if (distinct.put(node, true) == null) {
+                    if (node instanceof BinaryOp) {
+                        pending.push(((BinaryOp) node).getLeftOperand());
+                        pending.push(((BinaryOp) node).getRightOperand());
+                    } else if (node instanceof UnaryOp) {
+                        pending.push(((UnaryOp) node).getOperand());
+                    }
+                }
+            }
+            assertTrue(library.nodeCount() <= distinct.size());
+            //the records are followed by the table of variable names, which only holds "x"
+            assertEquals(16 + 4 * functions.size() + 13 * library.nodeCount() + 4 + 3, Files.size(file));
+
+            //a truncated file, a file of another version, and a file without the magic number are rejected
+            byte[] bytes = Files.readAllBytes(file);
+            Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+            assertThrows(IOException.class, () -> FunctionLibrary.open(file));
+            bytes[7] = (byte) (FunctionLibrary.VERSION + 1);
+            Files.write(file, bytes);
+            assertThrows(IOException.class, () -> FunctionLibrary.open(file));
+            bytes[0] = 0;
+            Files.write(file, bytes);
+            assertThrows(IOException.class, () -> FunctionLibrary.open(file));
+
+            //functions of a type the format does not know cannot be written
+            Function custom = new Sin(new Variable()) {
+            };
+            assertThrows(IllegalArgumentException.class, () -> FunctionLibrary.write(file, Arrays.asList(custom)));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testUnaryOp() {
+        //create a new UnaryOp equal to Exp[x]
+        UnaryOp unaryOp = new Exp(new Variable());
+
+        //test the getFunctionName() method of UnaryOp
+        assertEquals("Exp", unaryOp.getFunctionName(), "The function name was not \"Exp\"");
+
+        //test the getOperand() method
+        assertEquals(unaryOp.getOperand(), new Variable(), "The operand was not equal to a variable");
+    }
+
+    @Test
+    public void testBinaryOp() {
+        //represents the operation x + 1
+        BinaryOp xPlusOne = new BinaryOp(new Variable(), new Number(1), BinaryOp.Op.PLUS);
+
+        //check getOperator() method of BinaryOp
+        assertEquals(BinaryOp.Op.PLUS, xPlusOne.getOperator());
+
+        //check getLeftOperand() method of BinaryOp
+        assertEquals(xPlusOne.getLeftOperand(), new Variable());
+
+        //check getRightOperand() method of BinaryOp
+        assertEquals(xPlusOne.getRightOperand(), new Number(1));
+
+        //check toString() method of Op in BinaryOp
+        assertEquals("+", xPlusOne.getOperator().toString());
+    }
+
+    @Test
+    public void testPolynomial() {
+        //represents the function x^2
+        Polynomial poly = new Polynomial(new Variable(), 2);
+
+        //test the getPower() method of Polynomial with .0001 error due to floating point
+        assertEquals(2, poly.getPower(), .0001);
+    }
+}